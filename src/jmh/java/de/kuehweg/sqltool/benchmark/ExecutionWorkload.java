@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.benchmark;
+
+/**
+ * Skriptbasierte Lastprofile für den End-to-End-Benchmark der Ausführung.
+ * Jedes Profil besteht aus einem einmalig ausgeführten Vorbereitungsskript und
+ * dem wiederholt gemessenen Skript, das bei jeder Wiederholung auf dem
+ * gleichen Datenstand arbeitet.
+ *
+ * @author Michael Kühweg
+ */
+public enum ExecutionWorkload {
+
+	/**
+	 * Viele kleine Anweisungen, je eine Einfügung und eine Abfrage per
+	 * Primärschlüssel.
+	 */
+	TINY_STATEMENTS {
+		@Override
+		public String setupScript() {
+			return "CREATE TABLE bench_tiny (id INTEGER PRIMARY KEY, name VARCHAR(80));\n";
+		}
+
+		@Override
+		public String script() {
+			final StringBuilder script = new StringBuilder("DELETE FROM bench_tiny;\n");
+			for (int i = 0; i < TINY_STATEMENT_PAIRS; i++) {
+				script.append("INSERT INTO bench_tiny VALUES (").append(i).append(", 'Name ").append(i)
+						.append("');\n");
+				script.append("SELECT id, name FROM bench_tiny WHERE id = ").append(i).append(";\n");
+			}
+			return script.toString();
+		}
+	},
+	/**
+	 * Eine einzelne Abfrage mit sehr großer Ergebnismenge.
+	 */
+	HUGE_SELECT {
+		@Override
+		public String setupScript() {
+			return "CREATE TABLE bench_big (id INTEGER PRIMARY KEY, name VARCHAR(80), betrag NUMERIC(12,2));\n"
+					+ "INSERT INTO bench_big SELECT x, 'Zeile ' || x, x * 1.5 FROM UNNEST(SEQUENCE_ARRAY(1, "
+					+ HUGE_SELECT_ROWS + ", 1)) AS t(x);\n";
+		}
+
+		@Override
+		public String script() {
+			return "SELECT * FROM bench_big;\n";
+		}
+	},
+	/**
+	 * Gemischte DDL- und DML-Anweisungen inklusive Abfragen auf die
+	 * Tutorial-Tabellen.
+	 */
+	MIXED_DDL_DML {
+		@Override
+		public String setupScript() {
+			return "";
+		}
+
+		@Override
+		public String script() {
+			final StringBuilder script = new StringBuilder();
+			for (int i = 0; i < MIXED_ROUNDS; i++) {
+				final String table = "bench_mixed_" + i;
+				script.append("CREATE TABLE ").append(table)
+						.append(" (artikelnummer VARCHAR(10) PRIMARY KEY, bezeichnung VARCHAR(200));\n");
+				script.append("INSERT INTO ").append(table)
+						.append(" SELECT artikelnummer, bezeichnung FROM artikel;\n");
+				script.append("CREATE INDEX ").append(table).append("_idx ON ").append(table)
+						.append(" (bezeichnung);\n");
+				script.append("UPDATE ").append(table).append(" SET bezeichnung = UPPER(bezeichnung);\n");
+				script.append("SELECT m.artikelnummer, m.bezeichnung, p.verkaufspreis FROM ").append(table)
+						.append(" m JOIN verkaufspreis p ON p.artikelnummer = m.artikelnummer;\n");
+				script.append("DELETE FROM ").append(table).append(" WHERE artikelnummer LIKE '1%';\n");
+				script.append("DROP TABLE ").append(table).append(";\n");
+			}
+			return script.toString();
+		}
+	};
+
+	private static final int TINY_STATEMENT_PAIRS = 2500;
+	private static final int HUGE_SELECT_ROWS = 200000;
+	private static final int MIXED_ROUNDS = 50;
+
+	/**
+	 * @return Skript, das vor den Messungen einmalig ausgeführt wird
+	 */
+	public abstract String setupScript();
+
+	/**
+	 * @return Gemessenes Skript
+	 */
+	public abstract String script();
+}
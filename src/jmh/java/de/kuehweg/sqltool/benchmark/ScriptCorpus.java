@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import de.kuehweg.sqltool.common.FileUtil;
+
+/**
+ * Realistische Skripte als Eingabe für Benchmarks.
+ *
+ * @author Michael Kühweg
+ */
+public enum ScriptCorpus {
+
+	/**
+	 * Das mitgelieferte Tutorial-Skript.
+	 */
+	TUTORIAL {
+		@Override
+		protected String createScript() {
+			try {
+				return FileUtil.readResourceFile("/sql/tutorial.sql");
+			} catch (final IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+	},
+	/**
+	 * Skript mit vielen Block- und Zeilenkommentaren, auch mit Semikolon und
+	 * Anführungszeichen in Kommentaren und Literalen.
+	 */
+	COMMENT_HEAVY {
+		@Override
+		protected String createScript() {
+			final StringBuilder script = new StringBuilder();
+			for (int i = 0; i < 5000; i++) {
+				script.append("/* Anweisung ").append(i).append(": Kommentar mit ; und 'Literal' */\n");
+				script.append("-- Zeilenkommentar; mit \"Bezeichner\"\n");
+				script.append("SELECT id, /* Spalte */ name -- Name\n");
+				script.append("  FROM tabelle_").append(i % 17).append(" /* ; */\n");
+				script.append("  WHERE text = '-- kein Kommentar; /* auch keiner */'");
+				script.append(" AND id > ").append(i).append(";\n");
+			}
+			return script.toString();
+		}
+	},
+	/**
+	 * Generiertes Skript mit gemischten DDL- und DML-Anweisungen, etwa 10 MB.
+	 */
+	GENERATED_10MB {
+		@Override
+		protected String createScript() {
+			final int targetLength = 10 * 1024 * 1024;
+			final StringBuilder script = new StringBuilder(targetLength + 1024);
+			int i = 0;
+			while (script.length() < targetLength) {
+				switch (i % 4) {
+				case 0:
+					script.append("CREATE TABLE t").append(i).append(" (id INTEGER PRIMARY KEY, name VARCHAR(100));\n");
+					break;
+				case 1:
+					script.append("INSERT INTO t").append(i - 1).append(" VALUES (").append(i)
+							.append(", 'Name ").append(i).append(" mit ''Apostroph''');\n");
+					break;
+				case 2:
+					script.append("-- Auswertung ").append(i).append('\n');
+					script.append("SELECT * FROM t").append(i - 2).append(" WHERE id = ").append(i).append(";\n");
+					break;
+				default:
+					script.append("UPDATE t").append(i - 3).append(" SET name = \"name\" /* unverändert */;\n");
+					break;
+				}
+				i++;
+			}
+			return script.toString();
+		}
+	};
+
+	/**
+	 * @return Skript, wird bei jedem Aufruf neu erzeugt bzw. gelesen
+	 */
+	protected abstract String createScript();
+
+	/**
+	 * @return Inhalt des Skripts
+	 */
+	public String script() {
+		return createScript();
+	}
+}
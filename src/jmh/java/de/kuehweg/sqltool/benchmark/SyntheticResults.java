@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.benchmark;
+
+import java.util.Random;
+
+import de.kuehweg.sqltool.database.execution.ResultHeader;
+import de.kuehweg.sqltool.database.execution.ResultRow;
+import de.kuehweg.sqltool.database.execution.StatementExecutionInformation;
+import de.kuehweg.sqltool.database.execution.StatementResult;
+
+/**
+ * Reproduzierbare, synthetische Abfrageergebnisse und Texte für Benchmarks der
+ * Ausgabe.
+ *
+ * @author Michael Kühweg
+ */
+public final class SyntheticResults {
+
+	// Zeichen, die beim HTML-Encoding ersetzt werden müssen
+	private static final String NON_ASCII = "äöüÄÖÜß€é<>&\"";
+
+	private static final long SEED = 4711;
+
+	private SyntheticResults() {
+	}
+
+	/**
+	 * Text mit vorgegebenem Anteil an Zeichen, die beim HTML-Encoding ersetzt
+	 * werden.
+	 *
+	 * @param length          Länge des Texts
+	 * @param nonAsciiPercent Anteil der zu ersetzenden Zeichen in Prozent
+	 * @return Text
+	 */
+	public static String text(final int length, final int nonAsciiPercent) {
+		return text(new Random(SEED), length, nonAsciiPercent);
+	}
+
+	private static String text(final Random random, final int length, final int nonAsciiPercent) {
+		final StringBuilder text = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			if (random.nextInt(100) < nonAsciiPercent) {
+				text.append(NON_ASCII.charAt(random.nextInt(NON_ASCII.length())));
+			} else {
+				text.append((char) ('a' + random.nextInt(26)));
+			}
+		}
+		return text.toString();
+	}
+
+	/**
+	 * Abfrageergebnis mit abwechselnd Zahlen-, Text- und gelegentlich leeren
+	 * Spalten.
+	 *
+	 * @param rows            Anzahl Zeilen
+	 * @param columns         Anzahl Spalten
+	 * @param width           Länge der Texte in den Textspalten
+	 * @param nonAsciiPercent Anteil der zu ersetzenden Zeichen in Prozent
+	 * @return Ausführungsinformation mit dem Ergebnis
+	 */
+	public static StatementExecutionInformation result(final int rows, final int columns, final int width,
+			final int nonAsciiPercent) {
+		final Random random = new Random(SEED);
+		final String[] headers = new String[columns];
+		for (int column = 0; column < columns; column++) {
+			headers[column] = "SPALTE_" + column;
+		}
+		final StatementResult result = new StatementResult();
+		result.setHeader(new ResultHeader(headers));
+		for (int row = 0; row < rows; row++) {
+			final Object[] values = new Object[columns];
+			for (int column = 0; column < columns; column++) {
+				if (column % 2 == 0) {
+					values[column] = row * columns + column;
+				} else if (random.nextInt(20) == 0) {
+					values[column] = null;
+				} else {
+					values[column] = text(random, width, nonAsciiPercent);
+				}
+			}
+			result.addRow(new ResultRow(values));
+		}
+		final StatementExecutionInformation info = new StatementExecutionInformation();
+		info.setStartOfExecution(0);
+		info.setEndOfExecution(1000);
+		info.setSummary(rows + " Zeilen");
+		info.setStatementResult(result);
+		return info;
+	}
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.common.sqlediting;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import de.kuehweg.sqltool.benchmark.ScriptCorpus;
+
+/**
+ * Benchmarks für das Zerlegen von Skripten in Anweisungen und das Entfernen
+ * von Kommentaren. Eine Operation umfasst jeweils das komplette Skript bzw.
+ * alle Anweisungen des Skripts. Allokationsraten liefert der GC-Profiler (im
+ * Profil <code>benchmark</code> voreingestellt).
+ *
+ * @author Michael Kühweg
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatementLexingBenchmark {
+
+	@Param({ "TUTORIAL", "COMMENT_HEAVY", "GENERATED_10MB" })
+	private ScriptCorpus corpus;
+
+	private String script;
+	private int caretPosition;
+	private List<StatementString> statements;
+
+	@Setup
+	public void setUp() {
+		script = corpus.script();
+		caretPosition = script.length() / 2;
+		statements = new StatementExtractor().getStatementsFromScript(script);
+	}
+
+	@Benchmark
+	public List<StatementString> getStatementsFromScript() {
+		return new StatementExtractor().getStatementsFromScript(script);
+	}
+
+	@Benchmark
+	public String extractStatementAtCaretPosition() {
+		return new StatementExtractor().extractStatementAtCaretPosition(script, caretPosition);
+	}
+
+	@Benchmark
+	public void uncommentedStatement(final Blackhole blackhole) {
+		for (final StatementString statement : statements) {
+			blackhole.consume(statement.uncommentedStatement());
+		}
+	}
+
+	@Benchmark
+	public void firstKeyword(final Blackhole blackhole) {
+		for (final StatementString statement : statements) {
+			blackhole.consume(statement.firstKeyword());
+		}
+	}
+}
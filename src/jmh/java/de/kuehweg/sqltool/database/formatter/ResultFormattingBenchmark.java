@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database.formatter;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.kuehweg.sqltool.benchmark.SyntheticResults;
+import de.kuehweg.sqltool.database.execution.StatementExecutionInformation;
+
+/**
+ * Benchmarks für die Text- und HTML-Aufbereitung von Abfrageergebnissen.
+ * Neben dem Durchsatz je Ergebnis wird über {@link RowCounter} der Durchsatz
+ * in Zeilen ausgewiesen. Die Allokation je Zeile ergibt sich aus
+ * <code>gc.alloc.rate.norm</code> (GC-Profiler, Bytes je Operation) geteilt
+ * durch <code>rows</code>.
+ *
+ * @author Michael Kühweg
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResultFormattingBenchmark {
+
+	/**
+	 * Zählt die formatierten Zeilen, damit JMH den Zeilendurchsatz ausweist.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class RowCounter {
+		public long rowsFormatted;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			rowsFormatted = 0;
+		}
+	}
+
+	@Param({ "100", "10000" })
+	private int rows;
+
+	@Param({ "3", "20" })
+	private int columns;
+
+	@Param({ "8", "80" })
+	private int width;
+
+	@Param({ "0", "20" })
+	private int nonAsciiPercent;
+
+	private StatementExecutionInformation info;
+	private ResultTemplate textTemplate;
+	private ResultTemplate htmlTemplate;
+
+	@Setup
+	public void setUp() {
+		info = SyntheticResults.result(rows, columns, width, nonAsciiPercent);
+		textTemplate = new DefaultTextResultTemplate();
+		htmlTemplate = new DefaultHtmlResultTemplate();
+		// HTML-Vorlage vorab laden, damit nicht das Lesen der Ressource gemessen
+		// wird
+		htmlTemplate.getTemplate();
+	}
+
+	@Benchmark
+	public String formatText(final RowCounter counter) {
+		counter.rowsFormatted += rows;
+		return new TextResultFormatter(info).format(textTemplate);
+	}
+
+	@Benchmark
+	public String formatHtml(final RowCounter counter) {
+		counter.rowsFormatted += rows;
+		return new HtmlResultFormatter(info).format(htmlTemplate);
+	}
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.dialog.action;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+import de.kuehweg.sqltool.benchmark.ExecutionWorkload;
+import de.kuehweg.sqltool.common.FileUtil;
+import de.kuehweg.sqltool.common.concurrent.ExecutionService;
+import de.kuehweg.sqltool.database.ConnectionHolder;
+import de.kuehweg.sqltool.database.ConnectionSetting;
+import de.kuehweg.sqltool.database.DatabaseConstants;
+import de.kuehweg.sqltool.database.JDBCType;
+
+/**
+ * End-to-End-Benchmark der Ausführung ohne Oberfläche: Skripte laufen über
+ * {@link ExecutionTask} und {@link de.kuehweg.sqltool.database.execution.StatementExecution}
+ * bis zu den Trackern gegen eine In-Memory-HSQLDB mit den Tutorial-Daten. Die
+ * Ausführung ist so konfiguriert wie im Dialog (Streaming, Teilergebnisse,
+ * Batches, PreparedStatement-Cache, Grenzen der Verbindung).
+ * <p>
+ * Aufruf: <code>mvn -P benchmark test-compile exec:exec@run-execution-benchmark
+ * [-Dbenchmark.workloads=HUGE_SELECT] [-Dbenchmark.runs=5]</code>
+ * <p>
+ * Je Lauf werden Anweisungen/s, Zeilen/s, die Zeit bis zur ersten
+ * ausgelieferten Zeile, die Gesamtdauer und die Spitze der Heap-Belegung
+ * (Summe der Spitzen aller Heap-Pools) ausgegeben, abschließend der Median.
+ *
+ * @author Michael Kühweg
+ */
+public final class ExecutionBenchmark {
+
+	private static final int WARMUP_RUNS = 2;
+	private static final int DEFAULT_RUNS = 5;
+	private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+	private static final double NANOS_PER_MILLI = 1_000_000.0;
+	private static final double BYTES_PER_MB = 1024.0 * 1024.0;
+
+	/**
+	 * Kennzahlen eines gemessenen Laufs.
+	 */
+	private static final class RunResult {
+		private final double statementsPerSecond;
+		private final double rowsPerSecond;
+		private final double timeToFirstRowMillis;
+		private final double elapsedMillis;
+		private final double peakHeapMb;
+
+		private RunResult(final HeadlessExecutionTracker tracker, final long peakHeapBytes) {
+			final double seconds = tracker.getElapsedNanos() / NANOS_PER_SECOND;
+			statementsPerSecond = tracker.getStatements() / seconds;
+			rowsPerSecond = tracker.getRows() / seconds;
+			timeToFirstRowMillis = tracker.getTimeToFirstRowNanos() >= 0
+					? tracker.getTimeToFirstRowNanos() / NANOS_PER_MILLI
+					: Double.NaN;
+			elapsedMillis = tracker.getElapsedNanos() / NANOS_PER_MILLI;
+			peakHeapMb = peakHeapBytes / BYTES_PER_MB;
+		}
+
+		private String format(final String label) {
+			return String.format(Locale.ROOT, "%-8s %14.1f %14.1f %14.2f %12.1f %12.1f", label, statementsPerSecond,
+					rowsPerSecond, timeToFirstRowMillis, elapsedMillis, peakHeapMb);
+		}
+	}
+
+	private ExecutionBenchmark() {
+	}
+
+	/**
+	 * @param args optional: kommagetrennte Lastprofile (Standard: alle) und
+	 *             Anzahl der gemessenen Läufe
+	 * @throws Exception Wenn die Datenbank nicht vorbereitet werden kann oder
+	 *                   ein Skript fehlschlägt
+	 */
+	public static void main(final String[] args) throws Exception {
+		final List<ExecutionWorkload> workloads = new ArrayList<>();
+		if (args.length > 0 && !args[0].trim().isEmpty()) {
+			for (final String name : args[0].split(",")) {
+				workloads.add(ExecutionWorkload.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+			}
+		} else {
+			workloads.addAll(Arrays.asList(ExecutionWorkload.values()));
+		}
+		final int runs = args.length > 1 ? Integer.parseInt(args[1].trim()) : DEFAULT_RUNS;
+		try {
+			for (final ExecutionWorkload workload : workloads) {
+				runWorkload(workload, runs);
+			}
+		} finally {
+			ExecutionService.getInstance().shutdown();
+		}
+	}
+
+	private static void runWorkload(final ExecutionWorkload workload, final int runs) throws Exception {
+		final ConnectionHolder connectionHolder = new ConnectionHolder();
+		connectionHolder.connect(new ConnectionSetting("benchmark", JDBCType.HSQL_IN_MEMORY, "",
+				"benchmark_" + workload.name().toLowerCase(Locale.ROOT), "SA", ""));
+		try {
+			execute(connectionHolder, FileUtil.readResourceFile("/sql/tutorial.sql"));
+			execute(connectionHolder, workload.setupScript());
+			final String script = workload.script();
+			for (int i = 0; i < WARMUP_RUNS; i++) {
+				execute(connectionHolder, script);
+			}
+			System.out.println();
+			System.out.println(workload);
+			System.out.println(String.format(Locale.ROOT, "%-8s %14s %14s %14s %12s %12s", "Lauf", "Anweisungen/s",
+					"Zeilen/s", "erste Zeile ms", "gesamt ms", "Heap MB"));
+			final List<RunResult> results = new ArrayList<>();
+			for (int i = 0; i < runs; i++) {
+				resetPeakHeap();
+				final HeadlessExecutionTracker tracker = execute(connectionHolder, script);
+				final RunResult result = new RunResult(tracker, peakHeap());
+				results.add(result);
+				System.out.println(result.format(String.valueOf(i + 1)));
+			}
+			results.sort(Comparator.comparingDouble(result -> result.elapsedMillis));
+			System.out.println(results.get(results.size() / 2).format("Median"));
+		} finally {
+			connectionHolder.getConnection().createStatement().execute("SHUTDOWN");
+			connectionHolder.disconnect();
+		}
+	}
+
+	private static HeadlessExecutionTracker execute(final ConnectionHolder connectionHolder, final String script)
+			throws SQLException, IOException {
+		final HeadlessExecutionTracker tracker = new HeadlessExecutionTracker();
+		if (script.trim().isEmpty()) {
+			return tracker;
+		}
+		final ExecutionTask task = new ExecutionTask(script, connectionHolder.getConnection().createStatement());
+		task.attach(tracker);
+		task.setFetchSize(DatabaseConstants.DEFAULT_FETCH_SIZE);
+		task.setPartialResultInterval(DatabaseConstants.PARTIAL_RESULT_ROWS, DatabaseConstants.PARTIAL_RESULT_MILLIS);
+		task.setResultHeapBudget(DatabaseConstants.DEFAULT_RESULT_HEAP_BUDGET);
+		task.setBatchSize(DatabaseConstants.DEFAULT_BATCH_SIZE);
+		task.setPreparedStatementCache(connectionHolder.getPreparedStatementCache());
+		task.setExecutionLimits(connectionHolder.getExecutionLimits());
+		try {
+			task.call();
+		} catch (final Exception ex) {
+			throw new IOException(ex);
+		}
+		if (tracker.getErrorMessage() != null) {
+			throw new SQLException(tracker.getErrorMessage());
+		}
+		return tracker;
+	}
+
+	private static void resetPeakHeap() {
+		System.gc();
+		for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				pool.resetPeakUsage();
+			}
+		}
+	}
+
+	private static long peakHeap() {
+		long peak = 0;
+		for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+				peak += pool.getPeakUsage().getUsed();
+			}
+		}
+		return peak;
+	}
+}
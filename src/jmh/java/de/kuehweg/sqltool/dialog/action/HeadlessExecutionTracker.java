@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.dialog.action;
+
+import java.util.List;
+
+import de.kuehweg.sqltool.database.execution.ResultRow;
+import de.kuehweg.sqltool.database.execution.StatementExecutionInformation;
+import de.kuehweg.sqltool.dialog.updater.ExecutionTracker;
+
+/**
+ * Tracker ohne Oberfläche, der die für den Anwender sichtbaren Kennzahlen
+ * einer Ausführung erfasst: Anzahl Anweisungen und Zeilen, Zeit bis zur
+ * ersten ausgelieferten Ergebniszeile und Gesamtdauer. Ohne
+ * ExecutionLifecycleRefresh-Annotation wird nie eine Aktualisierung der
+ * Oberfläche angestoßen.
+ *
+ * @author Michael Kühweg
+ */
+public class HeadlessExecutionTracker implements ExecutionTracker {
+
+	private long startNanos;
+	private long firstRowNanos;
+	private long endNanos;
+	private int statements;
+	private long rows;
+	private StatementExecutionInformation pagedStatement;
+	private String errorMessage;
+
+	@Override
+	public synchronized void beforeExecution() {
+		startNanos = System.nanoTime();
+		firstRowNanos = 0;
+		endNanos = 0;
+		statements = 0;
+		rows = 0;
+		pagedStatement = null;
+		errorMessage = null;
+	}
+
+	@Override
+	public synchronized void intermediateUpdate(final StatementExecutionInformation executionInfo) {
+		statements++;
+		// im Streaming-Modus wurden die Zeilen bereits seitenweise gezählt
+		if (executionInfo != pagedStatement && executionInfo.getStatementResult() != null) {
+			countRows(executionInfo.getStatementResult().getRowCount());
+		}
+	}
+
+	@Override
+	public synchronized void resultPage(final StatementExecutionInformation executionInfo,
+			final List<ResultRow> page) {
+		pagedStatement = executionInfo;
+		countRows(page.size());
+	}
+
+	private void countRows(final int count) {
+		if (count > 0 && firstRowNanos == 0) {
+			firstRowNanos = System.nanoTime();
+		}
+		rows += count;
+	}
+
+	@Override
+	public synchronized void afterExecution() {
+		endNanos = System.nanoTime();
+	}
+
+	@Override
+	public synchronized void errorOnExecution(final String message) {
+		errorMessage = message;
+	}
+
+	@Override
+	public void show() {
+		// keine Oberfläche
+	}
+
+	public synchronized int getStatements() {
+		return statements;
+	}
+
+	public synchronized long getRows() {
+		return rows;
+	}
+
+	/**
+	 * @return Gesamtdauer vom Start bis zum Abschluss aller Anweisungen
+	 */
+	public synchronized long getElapsedNanos() {
+		return endNanos - startNanos;
+	}
+
+	/**
+	 * @return Zeit vom Start bis zur ersten an die Tracker ausgelieferten
+	 *         Ergebniszeile, -1 wenn keine Zeilen geliefert wurden
+	 */
+	public synchronized long getTimeToFirstRowNanos() {
+		return firstRowNanos != 0 ? firstRowNanos - startNanos : -1;
+	}
+
+	/**
+	 * @return Fehlermeldung der Ausführung, null wenn fehlerfrei
+	 */
+	public synchronized String getErrorMessage() {
+		return errorMessage;
+	}
+}
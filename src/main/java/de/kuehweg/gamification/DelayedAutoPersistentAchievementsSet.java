@@ -52,6 +52,8 @@ public class DelayedAutoPersistentAchievementsSet implements PropertyChangeListe
 
 	private int delayInSeconds;
 
+	private ScheduledExecutorService scheduler;
+
 	public DelayedAutoPersistentAchievementsSet(final AchievementPersister persister) {
 		this.persister = persister;
 		delayInSeconds = MIN_DELAY_IN_SECONDS;
@@ -77,14 +79,27 @@ public class DelayedAutoPersistentAchievementsSet implements PropertyChangeListe
 				: delayInSeconds;
 	}
 
+	/**
+	 * @param scheduler gemeinsam genutzter Scheduler für das verzögerte
+	 *                  Speichern. Ohne Scheduler wird für jedes Speichern ein
+	 *                  eigener Thread gestartet.
+	 */
+	public void setScheduler(final ScheduledExecutorService scheduler) {
+		this.scheduler = scheduler;
+	}
+
 	@Override
 	public void propertyChange(final PropertyChangeEvent evt) {
 		if (!changed) {
 			changed = true;
-			final ScheduledExecutorService executorService = Executors
-					.newSingleThreadScheduledExecutor();
-			executorService.schedule(this, delayInSeconds, TimeUnit.SECONDS);
-			executorService.shutdown();
+			if (scheduler != null) {
+				scheduler.schedule(this, delayInSeconds, TimeUnit.SECONDS);
+			} else {
+				final ScheduledExecutorService executorService = Executors
+						.newSingleThreadScheduledExecutor();
+				executorService.schedule(this, delayInSeconds, TimeUnit.SECONDS);
+				executorService.shutdown();
+			}
 		}
 	}
 
@@ -62,6 +62,10 @@ public enum DialogDictionary {
 	LABEL_EMPTY("label_empty"),
 	LABEL_EXECUTION_ERROR("label_executionError"),
 	LABEL_RESULT_ERROR("label_resultError"),
+	LABEL_RESULT_CANCELLED("label_resultCancelled"),
+	LABEL_RESULT_TIMED_OUT("label_resultTimedOut"),
+	LABEL_RESULT_FROM_CACHE("label_resultFromCache"),
+	LABEL_SLOWEST_STATEMENTS("label_slowestStatements"),
 	LABEL_RESULT_EXECUTED("label_resultExecuted"),
 	LABEL_DEFAULT_CONNECTION_IN_MEMORY("label_defaultConnectionInMemory"),
 	LABEL_DEFAULT_CONNECTION_STANDALONE_USER_HOME("label_defaultConnectionStandaloneUserHome"),
@@ -77,6 +81,7 @@ public enum DialogDictionary {
 	LABEL_EXPORT_CONNECTIONS("label_exportConnections"),
 	LABEL_IMPORT_CONNECTIONS("label_importConnections"),
 	LABEL_TREE_INDICES("label_treeIndices"),
+	LABEL_TREE_LOADING("label_treeLoading"),
 	LABEL_TREE_REFERENCES("label_treeReferences"),
 	LABEL_TREE_REFERENCED_BY("label_treeReferencedBy"),
 	LABEL_UNKNOWN_USER("label_unknownUser"),
@@ -97,13 +102,20 @@ public enum DialogDictionary {
 	TOOLTIP_WEBVIEW_RENDERING_ERROR("tooltip_webViewRenderingError"),
 	TOOLTIP_SYNTAX_HIGHLIGHTING("tooltip_syntaxHighlighting"),
 	PATTERN_EXECUTION_TIME("pattern_executionTime"),
+	PATTERN_EXECUTION_TIMINGS("pattern_executionTimings"),
+	PATTERN_TRACKER_TIMING("pattern_trackerTiming"),
+	PATTERN_EXECUTION_TIMING_SUMMARY("pattern_executionTimingSummary"),
+	PATTERN_STATEMENT_TIMING("pattern_statementTiming"),
 	PATTERN_EXECUTION_TIMESTAMP("pattern_executionTimestamp"),
 	PATTERN_EXECUTION_TIMESTAMP_WITH_USER("pattern_executionTimestampWithUser"),
 	PATTERN_ROWCOUNT("pattern_rowcount"),
+	PATTERN_ROWCOUNT_FETCH_LIMIT("pattern_rowcountFetchLimit"),
+	PATTERN_ROWCOUNT_CACHED("pattern_rowcountCached"),
 	PATTERN_UPDATECOUNT("pattern_updatecount"),
 	PATTERN_EXECUTED_STATEMENT("pattern_executedStatement"),
 	PATTERN_MAX_ROWS("pattern_maxRows"),
 	PATTERN_MAX_ROWS_IN_TABLE_VIEW("pattern_maxRowsInTableView"),
+	PATTERN_MATCH_COUNT("pattern_matchCount"),
 	PATTERN_NEW_CONNECTION_NAME("pattern_newConnectionName"),
 	PATTERN_NEW_CONNECTION_FOLDER("pattern_newConnectionFolder"),
 	PATTERN_NEW_CONNECTION_FILE("pattern_newConnectionFile"),
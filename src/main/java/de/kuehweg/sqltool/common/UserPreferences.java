@@ -41,6 +41,12 @@ public class UserPreferences implements UserPreferencesI {
 
 	// Keys der Preferences als Konstanten definiert
 	private static final String LIMIT_MAX_ROWS = "limitMaxRows";
+	private static final String PARALLEL_SCRIPT_EXECUTION = "parallelScriptExecution";
+	private static final String BATCHED_SCRIPT_EXECUTION = "batchedScriptExecution";
+	private static final String RESULT_CACHE = "resultCache";
+	private static final String EXECUTION_LIMITS = "executionLimits";
+	private static final String LAZY_SCHEMA_TREE = "lazySchemaTree";
+	private static final String METADATA_SNAPSHOT = "metaDataSnapshot";
 	private static final String FONT_SIZE_STATEMENT_INPUT = "fontSize.statementInput";
 	private static final String FONT_SIZE_DB_OUTPUT = "fontSize.dbOutput";
 	private static final String BEEP_AUDIO_CLIP = "beepAudioClip";
@@ -49,6 +55,12 @@ public class UserPreferences implements UserPreferencesI {
 	private static final int DEFAULT_FONT_SIZE_STATEMENT_INPUT = 12;
 	private static final int DEFAULT_FONT_SIZE_DB_OUTPUT = 10;
 	private boolean limitMaxRows = isDefaultLimitMaxRows();
+	private boolean parallelScriptExecution = isDefaultParallelScriptExecution();
+	private boolean batchedScriptExecution = isDefaultBatchedScriptExecution();
+	private boolean resultCache = isDefaultResultCache();
+	private boolean executionLimits = isDefaultExecutionLimits();
+	private boolean lazySchemaTree = isDefaultLazySchemaTree();
+	private boolean metaDataSnapshot = isDefaultMetaDataSnapshot();
 	private int fontSizeStatementInput = getDefaultFontSizeStatementInput();
 	private int fontSizeDbOutput = getDefaultFontSizeDbOutput();
 	private double beepVolume = getDefaultBeepVolume();
@@ -64,6 +76,14 @@ public class UserPreferences implements UserPreferencesI {
 
 	private void initialize() {
 		limitMaxRows = preferences.getBoolean(LIMIT_MAX_ROWS, isDefaultLimitMaxRows());
+		parallelScriptExecution = preferences.getBoolean(PARALLEL_SCRIPT_EXECUTION,
+				isDefaultParallelScriptExecution());
+		batchedScriptExecution = preferences.getBoolean(BATCHED_SCRIPT_EXECUTION,
+				isDefaultBatchedScriptExecution());
+		resultCache = preferences.getBoolean(RESULT_CACHE, isDefaultResultCache());
+		executionLimits = preferences.getBoolean(EXECUTION_LIMITS, isDefaultExecutionLimits());
+		lazySchemaTree = preferences.getBoolean(LAZY_SCHEMA_TREE, isDefaultLazySchemaTree());
+		metaDataSnapshot = preferences.getBoolean(METADATA_SNAPSHOT, isDefaultMetaDataSnapshot());
 		fontSizeStatementInput = preferences.getInt(FONT_SIZE_STATEMENT_INPUT, getDefaultFontSizeStatementInput());
 		fontSizeDbOutput = preferences.getInt(FONT_SIZE_DB_OUTPUT, getDefaultFontSizeDbOutput());
 		beepVolume = preferences.getDouble(BEEP_VOLUME, getDefaultBeepVolume());
@@ -106,6 +126,133 @@ public class UserPreferences implements UserPreferencesI {
 		preferences.putBoolean(LIMIT_MAX_ROWS, limitMaxRows);
 	}
 
+	/**
+	 * Unabhängige Abfragen eines Skripts parallel ausführen?
+	 *
+	 * @return
+	 */
+	@Override
+	public boolean isParallelScriptExecution() {
+		return parallelScriptExecution;
+	}
+
+	/**
+	 * Parallele Ausführung unabhängiger Abfragen ein- oder ausschalten.
+	 *
+	 * @param parallelScriptExecution
+	 */
+	@Override
+	public void setParallelScriptExecution(final boolean parallelScriptExecution) {
+		this.parallelScriptExecution = parallelScriptExecution;
+		preferences.putBoolean(PARALLEL_SCRIPT_EXECUTION, parallelScriptExecution);
+	}
+
+	/**
+	 * Aufeinanderfolgende datenverändernde Anweisungen als Batch ausführen?
+	 *
+	 * @return
+	 */
+	@Override
+	public boolean isBatchedScriptExecution() {
+		return batchedScriptExecution;
+	}
+
+	/**
+	 * Ausführung von Skripten in Batches ein- oder ausschalten.
+	 *
+	 * @param batchedScriptExecution
+	 */
+	@Override
+	public void setBatchedScriptExecution(final boolean batchedScriptExecution) {
+		this.batchedScriptExecution = batchedScriptExecution;
+		preferences.putBoolean(BATCHED_SCRIPT_EXECUTION, batchedScriptExecution);
+	}
+
+	/**
+	 * Ergebnisse wiederholter Abfragen zwischenspeichern?
+	 *
+	 * @return
+	 */
+	@Override
+	public boolean isResultCache() {
+		return resultCache;
+	}
+
+	/**
+	 * Ergebnis-Cache ein- oder ausschalten.
+	 *
+	 * @param resultCache
+	 */
+	@Override
+	public void setResultCache(final boolean resultCache) {
+		this.resultCache = resultCache;
+		preferences.putBoolean(RESULT_CACHE, resultCache);
+	}
+
+	/**
+	 * Lang laufende Anweisungen abbrechen und gelesene Datenmenge begrenzen?
+	 *
+	 * @return
+	 */
+	@Override
+	public boolean isExecutionLimits() {
+		return executionLimits;
+	}
+
+	/**
+	 * Grenzen für Laufzeit und gelesene Datenmenge ein- oder ausschalten.
+	 *
+	 * @param executionLimits
+	 */
+	@Override
+	public void setExecutionLimits(final boolean executionLimits) {
+		this.executionLimits = executionLimits;
+		preferences.putBoolean(EXECUTION_LIMITS, executionLimits);
+	}
+
+	/**
+	 * Details der Tabellen in der Strukturansicht erst bei Bedarf lesen?
+	 *
+	 * @return
+	 */
+	@Override
+	public boolean isLazySchemaTree() {
+		return lazySchemaTree;
+	}
+
+	/**
+	 * Bedarfsgesteuertes Lesen der Strukturansicht ein- oder ausschalten.
+	 *
+	 * @param lazySchemaTree
+	 */
+	@Override
+	public void setLazySchemaTree(final boolean lazySchemaTree) {
+		this.lazySchemaTree = lazySchemaTree;
+		preferences.putBoolean(LAZY_SCHEMA_TREE, lazySchemaTree);
+	}
+
+	/**
+	 * Strukturansicht beim Verbinden aus der gespeicherten Momentaufnahme
+	 * aufbauen?
+	 *
+	 * @return
+	 */
+	@Override
+	public boolean isMetaDataSnapshot() {
+		return metaDataSnapshot;
+	}
+
+	/**
+	 * Momentaufnahmen der Metadaten ein- oder ausschalten.
+	 *
+	 * @param metaDataSnapshot
+	 */
+	@Override
+	public void setMetaDataSnapshot(final boolean metaDataSnapshot) {
+		this.metaDataSnapshot = metaDataSnapshot;
+		preferences.putBoolean(METADATA_SNAPSHOT, metaDataSnapshot);
+	}
+
 	/**
 	 * Ausgewählte Schriftgröße für die Eingabe der SQL-Anweisungen.
 	 *
@@ -216,4 +363,34 @@ public class UserPreferences implements UserPreferencesI {
 		return true;
 	}
 
+	@Override
+	public boolean isDefaultParallelScriptExecution() {
+		return false;
+	}
+
+	@Override
+	public boolean isDefaultBatchedScriptExecution() {
+		return false;
+	}
+
+	@Override
+	public boolean isDefaultResultCache() {
+		return false;
+	}
+
+	@Override
+	public boolean isDefaultExecutionLimits() {
+		return false;
+	}
+
+	@Override
+	public boolean isDefaultLazySchemaTree() {
+		return false;
+	}
+
+	@Override
+	public boolean isDefaultMetaDataSnapshot() {
+		return false;
+	}
+
 }
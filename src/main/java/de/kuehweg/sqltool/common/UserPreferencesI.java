@@ -57,6 +57,40 @@ public interface UserPreferencesI {
 	 */
 	boolean isLimitMaxRows();
 
+	/**
+	 * @return Unabhängige Abfragen eines Skripts parallel ausführen?
+	 */
+	boolean isParallelScriptExecution();
+
+	/**
+	 * @return Aufeinanderfolgende datenverändernde Anweisungen eines Skripts
+	 *         als Batch ausführen?
+	 */
+	boolean isBatchedScriptExecution();
+
+	/**
+	 * @return Ergebnisse wiederholter Abfragen zwischenspeichern?
+	 */
+	boolean isResultCache();
+
+	/**
+	 * @return Lang laufende Anweisungen abbrechen und die gelesene
+	 *         Datenmenge begrenzen?
+	 */
+	boolean isExecutionLimits();
+
+	/**
+	 * @return Details der Tabellen in der Strukturansicht erst bei Bedarf
+	 *         lesen?
+	 */
+	boolean isLazySchemaTree();
+
+	/**
+	 * @return Strukturansicht beim Verbinden aus der gespeicherten
+	 *         Momentaufnahme der Metadaten aufbauen?
+	 */
+	boolean isMetaDataSnapshot();
+
 	/**
 	 * @param beepAudioClip
 	 *            Benachrichtgungston (nach Abschluss einer Aktion)
@@ -99,6 +133,68 @@ public interface UserPreferencesI {
 	 */
 	void setLimitMaxRows(boolean limitMaxRows);
 
+	/**
+	 * Parallele Ausführung unabhängiger Abfragen ein- oder ausschalten.
+	 *
+	 * @param parallelScriptExecution
+	 *            Wenn true, dürfen aufeinanderfolgende reine Leseanweisungen
+	 *            eines Skripts auf zusätzlichen Verbindungen parallel
+	 *            ausgeführt werden.
+	 */
+	void setParallelScriptExecution(boolean parallelScriptExecution);
+
+	/**
+	 * Ausführung von Skripten in Batches ein- oder ausschalten.
+	 *
+	 * @param batchedScriptExecution
+	 *            Wenn true, werden aufeinanderfolgende INSERT-, UPDATE- und
+	 *            DELETE-Anweisungen gemeinsam als JDBC-Batch ausgeführt. Für
+	 *            diese Anweisungen werden keine Einzelzeiten ermittelt.
+	 */
+	void setBatchedScriptExecution(boolean batchedScriptExecution);
+
+	/**
+	 * Ergebnis-Cache ein- oder ausschalten.
+	 *
+	 * @param resultCache
+	 *            Wenn true, werden die Ergebnisse wiederholter Abfragen bis
+	 *            zur nächsten Änderung der verwendeten Tabellen aus dem Cache
+	 *            geliefert.
+	 */
+	void setResultCache(boolean resultCache);
+
+	/**
+	 * Grenzen für Laufzeit und gelesene Datenmenge ein- oder ausschalten.
+	 *
+	 * @param executionLimits
+	 *            Wenn true, werden Anweisungen nach einer festen Laufzeit
+	 *            abgebrochen und Ergebnismengen nur bis zu einer festen
+	 *            Datenmenge gelesen.
+	 */
+	void setExecutionLimits(boolean executionLimits);
+
+	/**
+	 * Bedarfsgesteuertes Lesen der Strukturansicht ein- oder ausschalten.
+	 *
+	 * @param lazySchemaTree
+	 *            Wenn true, liest die Strukturansicht zunächst nur Kataloge,
+	 *            Schemas und Tabellennamen. Spalten, Schlüssel und Indizes
+	 *            einer Tabelle werden erst gelesen, wenn die Tabelle geöffnet
+	 *            oder über die Suche ausgewählt wird.
+	 */
+	void setLazySchemaTree(boolean lazySchemaTree);
+
+	/**
+	 * Momentaufnahmen der Metadaten ein- oder ausschalten.
+	 *
+	 * @param metaDataSnapshot
+	 *            Wenn true, werden die Metadaten je Verbindung gespeichert. Beim
+	 *            nächsten Verbinden wird die Strukturansicht sofort aus der
+	 *            Momentaufnahme aufgebaut und anschließend im Hintergrund
+	 *            abgeglichen.
+	 */
+	void setMetaDataSnapshot(boolean metaDataSnapshot);
+
 	/**
 	 * @return Standard-Benachrichtigungston wenn Aktionen abgeschlossen sind.
 	 *         (wenn noch keine Benutzerpräferenz hinterlegt ist)
@@ -129,4 +225,41 @@ public interface UserPreferencesI {
 	 *         keine Benutzerpräferenz hinterlegt ist)
 	 */
 	boolean isDefaultLimitMaxRows();
+
+	/**
+	 * @return Standardeinstellung der parallelen Ausführung. (wenn noch keine
+	 *         Benutzerpräferenz hinterlegt ist)
+	 */
+	boolean isDefaultParallelScriptExecution();
+
+	/**
+	 * @return Standardeinstellung der Ausführung in Batches. (wenn noch
+	 *         keine Benutzerpräferenz hinterlegt ist)
+	 */
+	boolean isDefaultBatchedScriptExecution();
+
+	/**
+	 * @return Standardeinstellung des Ergebnis-Caches. (wenn noch keine
+	 *         Benutzerpräferenz hinterlegt ist)
+	 */
+	boolean isDefaultResultCache();
+
+	/**
+	 * @return Standardeinstellung der Grenzen für Laufzeit und gelesene
+	 *         Datenmenge. (wenn noch keine Benutzerpräferenz hinterlegt ist)
+	 */
+	boolean isDefaultExecutionLimits();
+
+	/**
+	 * @return Standardeinstellung des bedarfsgesteuerten Lesens der
+	 *         Strukturansicht. (wenn noch keine Benutzerpräferenz hinterlegt
+	 *         ist)
+	 */
+	boolean isDefaultLazySchemaTree();
+
+	/**
+	 * @return Standardeinstellung der Momentaufnahmen der Metadaten. (wenn
+	 *         noch keine Benutzerpräferenz hinterlegt ist)
+	 */
+	boolean isDefaultMetaDataSnapshot();
 }
@@ -31,6 +31,7 @@ import de.kuehweg.gamification.Achievement;
 import de.kuehweg.gamification.AchievementEvent;
 import de.kuehweg.gamification.AchievementPersister;
 import de.kuehweg.gamification.DelayedAutoPersistentAchievementsSet;
+import de.kuehweg.sqltool.common.concurrent.ExecutionService;
 
 /**
  * Zentrale Anlaufstelle, um die Achievements anzusprechen und zu persistieren.
@@ -131,6 +132,7 @@ public final class AchievementManager {
 	 */
 	private void registerForAutoPersist() {
 		autoPersistence = new DelayedAutoPersistentAchievementsSet(persister);
+		autoPersistence.setScheduler(ExecutionService.getInstance().getScheduledExecutorService());
 		for (final Achievement achievement : achievements) {
 			autoPersistence.registerAchievement(achievement);
 		}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.common.concurrent;
+
+/**
+ * Benannte Thread-Pools des {@link ExecutionService}. Jeder Pool hat eine feste
+ * Anzahl Threads und eine begrenzte Warteschlange.
+ *
+ * @author Michael Kühweg
+ */
+public enum ExecutionPool {
+
+	/**
+	 * Ausführung von SQL-Anweisungen.
+	 */
+	EXECUTION("execution", 4, 32, true),
+	/**
+	 * Parallele Ausführung unabhängiger Abfragen eines Skripts. Getrennt von
+	 * {@link #EXECUTION}, weil die Ausführung des Skripts auf diese Abfragen
+	 * wartet.
+	 */
+	PARALLEL_QUERIES("parallel", 4, 32, true),
+	/**
+	 * Weitergabe der Ergebnisse an die Anzeige über eine
+	 * {@link PipelineStage}. Getrennt von {@link #EXECUTION}, weil die
+	 * Ausführung auf die Weitergabe wartet.
+	 */
+	TRACKING("tracking", 2, 64, true),
+	/**
+	 * Lesen von Metadaten, z.B. für die Strukturansicht.
+	 */
+	METADATA("metadata", 2, 16, true),
+	/**
+	 * Ein- und Ausgabe, z.B. das Schließen von Verbindungen. Die Threads sind
+	 * keine Daemons, damit begonnene Arbeiten beim Beenden der Anwendung noch
+	 * abgeschlossen werden.
+	 */
+	IO("io", 2, 64, false),
+	/**
+	 * Zeitgesteuerte Aufgaben, z.B. verzögertes Speichern oder die Überwachung
+	 * der Laufzeit von Anweisungen.
+	 */
+	SCHEDULING("scheduling", 1, 0, true);
+
+	private final String poolName;
+	private final int threads;
+	private final int queueCapacity;
+	private final boolean daemon;
+
+	ExecutionPool(final String poolName, final int threads, final int queueCapacity, final boolean daemon) {
+		this.poolName = poolName;
+		this.threads = threads;
+		this.queueCapacity = queueCapacity;
+		this.daemon = daemon;
+	}
+
+	public String getPoolName() {
+		return poolName;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * @return Anzahl wartender Aufgaben, ab der neue Aufgaben im aufrufenden
+	 *         Thread ausgeführt werden (Back-Pressure). 0 bei zeitgesteuerten
+	 *         Aufgaben, deren Warteschlange nicht begrenzt ist.
+	 */
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	public boolean isDaemon() {
+		return daemon;
+	}
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.common.concurrent;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Zentrale Ausführung von Hintergrundaufgaben in benannten, begrenzten
+ * Thread-Pools. Statt für jede Aufgabe einen eigenen Thread zu starten, werden
+ * die Aufgaben dem passenden {@link ExecutionPool} übergeben. Auch bei vielen
+ * Aufgaben in kurzer Zeit bleibt die Anzahl der Threads so begrenzt.
+ *
+ * @author Michael Kühweg
+ */
+public final class ExecutionService {
+
+	private static final ExecutionService INSTANCE = new ExecutionService();
+
+	private final Map<ExecutionPool, InstrumentedThreadPoolExecutor> pools = new EnumMap<>(ExecutionPool.class);
+
+	private final InstrumentedScheduledExecutor scheduler;
+
+	/**
+	 * Singleton, wird nicht von außerhalb instanziiert.
+	 */
+	private ExecutionService() {
+		for (final ExecutionPool pool : ExecutionPool.values()) {
+			if (pool != ExecutionPool.SCHEDULING) {
+				pools.put(pool, new InstrumentedThreadPoolExecutor(pool));
+			}
+		}
+		scheduler = new InstrumentedScheduledExecutor(ExecutionPool.SCHEDULING);
+	}
+
+	/**
+	 * @return Die für die gesamte Applikation gültige Instanz.
+	 */
+	public static ExecutionService getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Aufgabe im angegebenen Pool ausführen. Ist die Warteschlange des Pools
+	 * voll, läuft die Aufgabe im aufrufenden Thread. Aufgaben aus dem
+	 * UI-Thread werden stattdessen zurückgestellt, bis wieder Platz ist.
+	 *
+	 * @param pool Pool für die Aufgabe, zeitgesteuerte Aufgaben über
+	 *             {@link #schedule(Runnable, long, TimeUnit)}
+	 * @param task Aufgabe, z.B. ein {@link javafx.concurrent.Task}
+	 */
+	public void execute(final ExecutionPool pool, final Runnable task) {
+		if (pool == ExecutionPool.SCHEDULING) {
+			scheduler.execute(task);
+		} else {
+			pools.get(pool).execute(task);
+		}
+	}
+
+	/**
+	 * Aufgabe zeitversetzt ausführen.
+	 *
+	 * @param task  Aufgabe
+	 * @param delay Verzögerung
+	 * @param unit  Zeiteinheit der Verzögerung
+	 * @return Handle, um die Aufgabe vor Ausführung abzubrechen
+	 */
+	public ScheduledFuture<?> schedule(final Runnable task, final long delay, final TimeUnit unit) {
+		return scheduler.schedule(task, delay, unit);
+	}
+
+	/**
+	 * @return Pool für zeitgesteuerte Aufgaben für Klassen, die einen
+	 *         {@link ScheduledExecutorService} erwarten. Der Pool kann darüber
+	 *         nicht beendet werden.
+	 */
+	public ScheduledExecutorService getScheduledExecutorService() {
+		return Executors.unconfigurableScheduledExecutorService(scheduler);
+	}
+
+	/**
+	 * @param pool Pool
+	 * @return Aktuelle Kennzahlen des Pools
+	 */
+	public PoolMetrics getMetrics(final ExecutionPool pool) {
+		return pool == ExecutionPool.SCHEDULING ? scheduler.getMetrics() : pools.get(pool).getMetrics();
+	}
+
+	/**
+	 * Nimmt keine neuen Aufgaben mehr an. Bereits übergebene Aufgaben werden
+	 * noch ausgeführt, geplante zeitgesteuerte Aufgaben verworfen.
+	 */
+	public void shutdown() {
+		for (final ExecutionPool pool : ExecutionPool.values()) {
+			Logger.getLogger(ExecutionService.class.getName()).log(Level.INFO, getMetrics(pool).toString());
+		}
+		pools.values().forEach(InstrumentedThreadPoolExecutor::shutdown);
+		scheduler.shutdownNow();
+	}
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.common.concurrent;
+
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread-Pool für zeitgesteuerte Aufgaben mit Messung der Verspätung
+ * gegenüber dem geplanten Zeitpunkt und der Laufzeit der Aufgaben.
+ *
+ * @author Michael Kühweg
+ */
+class InstrumentedScheduledExecutor extends ScheduledThreadPoolExecutor {
+
+	private final ExecutionPool pool;
+	private final TaskTimings timings = new TaskTimings();
+
+	InstrumentedScheduledExecutor(final ExecutionPool pool) {
+		super(pool.getThreads(), new NamedThreadFactory(pool));
+		this.pool = pool;
+		// abgebrochene Aufgaben (z.B. Watchdogs fertiger Anweisungen) nicht bis
+		// zum geplanten Zeitpunkt in der Warteschlange halten
+		setRemoveOnCancelPolicy(true);
+	}
+
+	@Override
+	protected void beforeExecute(final Thread thread, final Runnable runnable) {
+		super.beforeExecute(thread, runnable);
+		long lateness = 0;
+		if (runnable instanceof RunnableScheduledFuture) {
+			// negative Verzögerung = Verspätung gegenüber dem geplanten Start
+			lateness = Math.max(0,
+					-((RunnableScheduledFuture<?>) runnable).getDelay(TimeUnit.NANOSECONDS));
+		}
+		timings.started(lateness);
+	}
+
+	@Override
+	protected void afterExecute(final Runnable runnable, final Throwable throwable) {
+		super.afterExecute(runnable, throwable);
+		timings.finished();
+	}
+
+	PoolMetrics getMetrics() {
+		return timings.snapshot(pool, getQueue().size(), getActiveCount());
+	}
+}
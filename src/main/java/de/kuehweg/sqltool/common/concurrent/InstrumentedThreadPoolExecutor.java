@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.common.concurrent;
+
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javafx.application.Platform;
+
+/**
+ * Thread-Pool mit begrenzter Warteschlange, der Warte- und Laufzeiten der
+ * Aufgaben misst. Ist die Warteschlange voll, wird die Aufgabe im aufrufenden
+ * Thread ausgeführt und bremst so den Erzeuger der Aufgaben. Ausnahme ist der
+ * UI-Thread, der nicht durch Datenbankzugriffe blockiert werden darf: Seine
+ * Aufgaben werden ohne Begrenzung zurückgestellt und in die Warteschlange
+ * übernommen, sobald dort wieder Platz ist.
+ *
+ * @author Michael Kühweg
+ */
+class InstrumentedThreadPoolExecutor extends ThreadPoolExecutor {
+
+	private static final long KEEP_ALIVE_SECONDS = 5;
+
+	private final ExecutionPool pool;
+	private final TaskTimings timings = new TaskTimings();
+	private final CallerRunsOutsideUiThread rejectionPolicy;
+
+	InstrumentedThreadPoolExecutor(final ExecutionPool pool) {
+		this(pool, new CallerRunsOutsideUiThread());
+	}
+
+	private InstrumentedThreadPoolExecutor(final ExecutionPool pool, final CallerRunsOutsideUiThread rejectionPolicy) {
+		super(pool.getThreads(), pool.getThreads(), KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(pool.getQueueCapacity()), new NamedThreadFactory(pool), rejectionPolicy);
+		this.pool = pool;
+		this.rejectionPolicy = rejectionPolicy;
+		// ungenutzte Threads beenden, damit z.B. Nicht-Daemon-Threads das Beenden
+		// der Anwendung nicht verzögern
+		allowCoreThreadTimeOut(true);
+	}
+
+	@Override
+	public void execute(final Runnable command) {
+		super.execute(new TimedRunnable(command));
+	}
+
+	@Override
+	protected void beforeExecute(final Thread thread, final Runnable runnable) {
+		super.beforeExecute(thread, runnable);
+		if (runnable instanceof TimedRunnable) {
+			timings.started(System.nanoTime() - ((TimedRunnable) runnable).submitted);
+		}
+	}
+
+	@Override
+	protected void afterExecute(final Runnable runnable, final Throwable throwable) {
+		super.afterExecute(runnable, throwable);
+		if (runnable instanceof TimedRunnable) {
+			timings.finished();
+		}
+		rejectionPolicy.requeueDeferred(this);
+	}
+
+	PoolMetrics getMetrics() {
+		return timings.snapshot(pool, getQueue().size() + rejectionPolicy.deferredCount(), getActiveCount());
+	}
+
+	/**
+	 * Aufgaben bei voller Warteschlange im aufrufenden Thread ausführen, außer
+	 * im UI-Thread. Dort werden sie zurückgestellt.
+	 */
+	private static final class CallerRunsOutsideUiThread implements RejectedExecutionHandler {
+
+		private final Queue<Runnable> deferred = new ConcurrentLinkedQueue<>();
+
+		@Override
+		public void rejectedExecution(final Runnable runnable, final ThreadPoolExecutor executor) {
+			if (executor.isShutdown()) {
+				return;
+			}
+			if (Platform.isFxApplicationThread()) {
+				deferred.add(runnable);
+				// falls die Warteschlange inzwischen abgearbeitet wurde
+				requeueDeferred(executor);
+			} else {
+				runnable.run();
+			}
+		}
+
+		synchronized void requeueDeferred(final ThreadPoolExecutor executor) {
+			Runnable runnable;
+			while ((runnable = deferred.peek()) != null && executor.getQueue().offer(runnable)) {
+				deferred.poll();
+				// Threads werden bei Leerlauf beendet, direkt in die
+				// Warteschlange gestellte Aufgaben brauchen einen Thread
+				executor.prestartCoreThread();
+			}
+		}
+
+		int deferredCount() {
+			return deferred.size();
+		}
+	}
+
+	/**
+	 * Merkt sich den Zeitpunkt der Übergabe. Läuft die Aufgabe wegen voller
+	 * Warteschlange im aufrufenden Thread, zählt sie ohne Zeitmessung.
+	 */
+	private static final class TimedRunnable implements Runnable {
+
+		private final Runnable delegate;
+		private final long submitted;
+
+		private TimedRunnable(final Runnable delegate) {
+			this.delegate = delegate;
+			submitted = System.nanoTime();
+		}
+
+		@Override
+		public void run() {
+			delegate.run();
+		}
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.common.concurrent;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stufe einer Verarbeitungspipeline: Die übergebenen Schritte werden in der
+ * Reihenfolge ihrer Übergabe nacheinander in einem Pool des
+ * {@link ExecutionService} ausgeführt, während der übergebende Thread bereits
+ * weiterarbeitet. Die Warteschlange ist begrenzt; ist sie voll, wartet der
+ * übergebende Thread, bis die Stufe wieder Platz hat.
+ * <p>
+ * Die Stufe belegt keinen eigenen Thread: Ein Thread des Pools arbeitet die
+ * Warteschlange ab und gibt sich frei, sobald sie leer ist. Damit kann die
+ * Stufe auch dann nicht blockieren, wenn der Pool die Abarbeitung im
+ * übergebenden Thread ausführt.
+ *
+ * @author Michael Kühweg
+ */
+public class PipelineStage {
+
+	private final ExecutionPool pool;
+	private final BlockingQueue<Runnable> steps;
+	private final AtomicBoolean draining = new AtomicBoolean();
+	private int pending;
+	private RuntimeException failure;
+
+	/**
+	 * @param pool     Pool, in dem die Schritte ausgeführt werden
+	 * @param capacity maximale Anzahl wartender Schritte
+	 */
+	public PipelineStage(final ExecutionPool pool, final int capacity) {
+		this.pool = pool;
+		steps = new ArrayBlockingQueue<>(Math.max(1, capacity));
+	}
+
+	/**
+	 * Übergibt einen Schritt an die Stufe. Wartet, solange die Warteschlange
+	 * voll ist. Eine Unterbrechung des Threads beendet das Warten nicht, damit
+	 * kein Schritt verloren geht; der Unterbrechungsstatus bleibt erhalten.
+	 *
+	 * @param step Auszuführender Schritt
+	 */
+	public void submit(final Runnable step) {
+		synchronized (this) {
+			pending++;
+		}
+		boolean interrupted = false;
+		while (true) {
+			try {
+				steps.put(step);
+				break;
+			} catch (final InterruptedException ex) {
+				interrupted = true;
+			}
+		}
+		scheduleDrain();
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Wartet, bis alle übergebenen Schritte ausgeführt sind. Ist dabei ein
+	 * Schritt mit einer RuntimeException gescheitert, wird die erste davon
+	 * hier weitergegeben.
+	 */
+	public void awaitCompletion() {
+		boolean interrupted = false;
+		final RuntimeException firstFailure;
+		synchronized (this) {
+			while (pending > 0) {
+				try {
+					wait();
+				} catch (final InterruptedException ex) {
+					interrupted = true;
+				}
+			}
+			firstFailure = failure;
+			failure = null;
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		if (firstFailure != null) {
+			throw firstFailure;
+		}
+	}
+
+	private void scheduleDrain() {
+		if (draining.compareAndSet(false, true)) {
+			ExecutionService.getInstance().execute(pool, this::drain);
+		}
+	}
+
+	private void drain() {
+		Runnable step;
+		while ((step = steps.poll()) != null) {
+			try {
+				step.run();
+			} catch (final RuntimeException ex) {
+				Logger.getLogger(PipelineStage.class.getName()).log(Level.WARNING, ex.getMessage(), ex);
+				synchronized (this) {
+					if (failure == null) {
+						failure = ex;
+					}
+				}
+			}
+			synchronized (this) {
+				pending--;
+				if (pending == 0) {
+					notifyAll();
+				}
+			}
+		}
+		draining.set(false);
+		// zwischen dem letzten poll() und dem Freigeben übergebene Schritte
+		if (!steps.isEmpty()) {
+			scheduleDrain();
+		}
+	}
+}
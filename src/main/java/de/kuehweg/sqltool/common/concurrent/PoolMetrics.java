@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.common.concurrent;
+
+/**
+ * Momentaufnahme der Kennzahlen eines Thread-Pools.
+ *
+ * @author Michael Kühweg
+ */
+public class PoolMetrics {
+
+	private final ExecutionPool pool;
+	private final int queueDepth;
+	private final int activeCount;
+	private final long completedTasks;
+	private final long averageQueueLatencyNanos;
+	private final long maxQueueLatencyNanos;
+	private final long averageRunTimeNanos;
+
+	public PoolMetrics(final ExecutionPool pool, final int queueDepth, final int activeCount,
+			final long completedTasks, final long averageQueueLatencyNanos, final long maxQueueLatencyNanos,
+			final long averageRunTimeNanos) {
+		this.pool = pool;
+		this.queueDepth = queueDepth;
+		this.activeCount = activeCount;
+		this.completedTasks = completedTasks;
+		this.averageQueueLatencyNanos = averageQueueLatencyNanos;
+		this.maxQueueLatencyNanos = maxQueueLatencyNanos;
+		this.averageRunTimeNanos = averageRunTimeNanos;
+	}
+
+	public ExecutionPool getPool() {
+		return pool;
+	}
+
+	/**
+	 * @return Anzahl der Aufgaben, die auf einen freien Thread warten
+	 */
+	public int getQueueDepth() {
+		return queueDepth;
+	}
+
+	/**
+	 * @return Anzahl der Threads, die gerade eine Aufgabe ausführen
+	 */
+	public int getActiveCount() {
+		return activeCount;
+	}
+
+	public long getCompletedTasks() {
+		return completedTasks;
+	}
+
+	/**
+	 * @return durchschnittliche Zeit zwischen Übergabe und Start einer Aufgabe
+	 */
+	public long getAverageQueueLatencyNanos() {
+		return averageQueueLatencyNanos;
+	}
+
+	public long getMaxQueueLatencyNanos() {
+		return maxQueueLatencyNanos;
+	}
+
+	/**
+	 * @return durchschnittliche Laufzeit einer Aufgabe
+	 */
+	public long getAverageRunTimeNanos() {
+		return averageRunTimeNanos;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s: Warteschlange %d, aktiv %d, erledigt %d, Wartezeit Ø %.1f ms (max %.1f ms), "
+				+ "Laufzeit Ø %.1f ms", pool.getPoolName(), queueDepth, activeCount, completedTasks,
+				averageQueueLatencyNanos / 1e6, maxQueueLatencyNanos / 1e6, averageRunTimeNanos / 1e6);
+	}
+}
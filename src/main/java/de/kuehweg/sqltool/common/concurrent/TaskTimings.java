@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.common.concurrent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sammelt Warte- und Laufzeiten der Aufgaben eines Thread-Pools.
+ *
+ * @author Michael Kühweg
+ */
+class TaskTimings {
+
+	private final LongAdder started = new LongAdder();
+	private final LongAdder completed = new LongAdder();
+	private final LongAdder totalQueueLatency = new LongAdder();
+	private final AtomicLong maxQueueLatency = new AtomicLong();
+	private final LongAdder totalRunTime = new LongAdder();
+
+	private final ThreadLocal<Long> startOfRun = new ThreadLocal<>();
+
+	void started(final long queueLatencyNanos) {
+		started.increment();
+		totalQueueLatency.add(queueLatencyNanos);
+		maxQueueLatency.accumulateAndGet(queueLatencyNanos, Math::max);
+		startOfRun.set(System.nanoTime());
+	}
+
+	void finished() {
+		final Long start = startOfRun.get();
+		if (start != null) {
+			totalRunTime.add(System.nanoTime() - start);
+			startOfRun.remove();
+		}
+		completed.increment();
+	}
+
+	PoolMetrics snapshot(final ExecutionPool pool, final int queueDepth, final int activeCount) {
+		final long startedTasks = started.sum();
+		final long completedTasks = completed.sum();
+		return new PoolMetrics(pool, queueDepth, activeCount, completedTasks,
+				startedTasks > 0 ? totalQueueLatency.sum() / startedTasks : 0, maxQueueLatency.get(),
+				completedTasks > 0 ? totalRunTime.sum() / completedTasks : 0);
+	}
+}
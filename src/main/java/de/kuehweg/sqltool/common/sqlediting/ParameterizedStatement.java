@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.common.sqlediting;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * SQL-Anweisung, deren Literale durch Parameter ersetzt wurden. Der Text der
+ * Anweisung dient gleichzeitig als Fingerabdruck: Anweisungen, die sich nur in
+ * den Literalen oder in Leerräumen unterscheiden, ergeben denselben Text.
+ *
+ * @author Michael Kühweg
+ */
+public class ParameterizedStatement {
+
+	private final String sql;
+	private final List<Object> parameters;
+
+	public ParameterizedStatement(final String sql, final List<Object> parameters) {
+		this.sql = sql;
+		this.parameters = Collections.unmodifiableList(parameters);
+	}
+
+	/**
+	 * @return Normalisierte Anweisung mit Platzhaltern anstelle der Literale
+	 */
+	public String getSql() {
+		return sql;
+	}
+
+	/**
+	 * @return Werte der ersetzten Literale in der Reihenfolge der Platzhalter
+	 */
+	public List<Object> getParameters() {
+		return parameters;
+	}
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.common.sqlediting;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import de.kuehweg.sqltool.common.sqlediting.StatementTokenizer.Kind;
+import de.kuehweg.sqltool.common.sqlediting.StatementTokenizer.Token;
+
+/**
+ * Ersetzt die Literale einer SQL-Anweisung durch Parameter, damit Anweisungen,
+ * die sich nur in den Werten unterscheiden, als PreparedStatement
+ * wiederverwendet werden können. Die Zerlegung übernimmt
+ * {@link StatementTokenizer}, damit Zeichenketten und Namen in
+ * Anführungszeichen genauso erkannt werden wie beim Aufteilen eines Skripts.
+ * <p>
+ * Ersetzt werden nur Literale, deren Datentyp sich aus dem Kontext ergibt:
+ * rechts von Vergleichsoperatoren, nach LIKE und BETWEEN sowie in den Listen
+ * von VALUES und IN. Literale in allen anderen Positionen (z.B. ORDER BY 1,
+ * DATE '2019-01-01' oder in der Select-Liste) bleiben unverändert.
+ * <p>
+ * Zahlen werden nur als Parameter übergeben, wenn sie ganzzahlig sind. Ein
+ * gebundener Parameter erhält den Datentyp der verglichenen Spalte, ein
+ * Dezimalwert wie 1.5 würde beim Vergleich mit einer INTEGER-Spalte also
+ * gerundet und das Ergebnis gegenüber dem Literal verändert. Zeichenketten
+ * wandelt die Datenbank dagegen auch als Literal in den Typ der Spalte um, sie
+ * werden deshalb weiterhin ersetzt.
+ *
+ * @author Michael Kühweg
+ */
+public class StatementParameterizer {
+
+	private static final Set<String> LITERAL_PREDECESSORS = new HashSet<>(
+			Arrays.asList("=", "<>", "!=", "<", ">", "<=", ">=", "LIKE", "BETWEEN"));
+
+	private static final Set<String> LITERAL_LIST_INTRODUCERS = new HashSet<>(Arrays.asList("VALUES", "IN"));
+
+	private StringBuilder sql;
+	private List<Object> parameters;
+	private String previousToken;
+	private boolean pendingWhitespace;
+	private Deque<Boolean> literalListGroups;
+	private boolean lastClosedGroupWasLiteralList;
+
+	/**
+	 * Anweisung parametrisieren.
+	 *
+	 * @param statement SQL-Anweisung
+	 * @return Parametrisierte Anweisung oder null, wenn sich die Anweisung nicht
+	 *         für ein PreparedStatement eignet (keine DML-Anweisung, bereits
+	 *         vorhandene Platzhalter, mehrere Anweisungen oder eine nicht
+	 *         eindeutig zerlegbare Anweisung)
+	 */
+	public ParameterizedStatement parameterize(final StatementString statement) {
+		if (statement == null || statement.isEmpty() || !statement.isPlainDataStatement()) {
+			return null;
+		}
+		final List<Token> tokens = StatementTokenizer.tokenize(statement.originalStatement());
+		sql = new StringBuilder(statement.originalStatement().length());
+		parameters = new ArrayList<>();
+		previousToken = "";
+		pendingWhitespace = false;
+		literalListGroups = new ArrayDeque<>();
+		lastClosedGroupWasLiteralList = false;
+		for (int index = 0; index < tokens.size(); index++) {
+			index = nextToken(tokens, index);
+			if (index < 0) {
+				return null;
+			}
+		}
+		return new ParameterizedStatement(sql.toString(), parameters);
+	}
+
+	/**
+	 * Übernimmt das Token an der angegebenen Position.
+	 *
+	 * @return Position des zuletzt übernommenen Tokens, -1 wenn die Anweisung
+	 *         nicht parametrisiert werden kann
+	 */
+	private int nextToken(final List<Token> tokens, final int index) {
+		final Token token = tokens.get(index);
+		pendingWhitespace |= token.isPrecededBySpace();
+		switch (token.getKind()) {
+		case STRING_LITERAL:
+			if (!token.isComplete()) {
+				return -1;
+			}
+			if (isParameterPosition()) {
+				appendParameter(token.getValue());
+			} else {
+				appendToken(token.getSource());
+			}
+			return index;
+		case WORD:
+			return word(tokens, index);
+		case SYMBOL:
+			if (token.isSymbol(";")) {
+				// nur am Ende, mehrere Anweisungen werden nicht parametrisiert
+				return index == tokens.size() - 1 ? index : -1;
+			}
+			if (token.isSymbol("?")) {
+				// bereits parametrisierte Anweisung
+				return -1;
+			}
+			punctuation(token.getSource().charAt(0));
+			return index;
+		default:
+			appendToken(token.getSource());
+			return index;
+		}
+	}
+
+	/**
+	 * Wort oder Zahl, Dezimalzahlen werden aus Ziffern, Punkt und
+	 * Nachkommastellen zusammengesetzt, damit sie als Ganzes unverändert
+	 * bleiben.
+	 */
+	private int word(final List<Token> tokens, final int index) {
+		final Token first = tokens.get(index);
+		final StringBuilder word = new StringBuilder(first.getSource());
+		int last = index;
+		if (Character.isDigit(word.charAt(0)) && isAllDigits(word) && isAdjacent(tokens, last + 1)
+				&& tokens.get(last + 1).isSymbol(".")) {
+			last++;
+			word.append('.');
+			if (isAdjacent(tokens, last + 1) && tokens.get(last + 1).getKind() == Kind.WORD) {
+				last++;
+				word.append(tokens.get(last).getSource());
+			}
+		}
+		final Object number = Character.isDigit(word.charAt(0)) ? numericValue(word.toString()) : null;
+		if (number != null && isParameterPosition()) {
+			appendParameter(number);
+		} else {
+			appendToken(word.toString());
+		}
+		return last;
+	}
+
+	private static boolean isAdjacent(final List<Token> tokens, final int index) {
+		return index < tokens.size() && !tokens.get(index).isPrecededBySpace();
+	}
+
+	private void punctuation(final char input) {
+		final boolean closedLiteralList = lastClosedGroupWasLiteralList;
+		if (input == '(') {
+			literalListGroups.push(LITERAL_LIST_INTRODUCERS.contains(previousToken)
+					|| closedLiteralList && ",".equals(previousToken));
+		}
+		appendToken(String.valueOf(input));
+		if (input == ')' && !literalListGroups.isEmpty()) {
+			lastClosedGroupWasLiteralList = literalListGroups.pop();
+		}
+	}
+
+	private boolean isParameterPosition() {
+		if (LITERAL_PREDECESSORS.contains(previousToken)) {
+			return true;
+		}
+		return ("(".equals(previousToken) || ",".equals(previousToken)) && !literalListGroups.isEmpty()
+				&& literalListGroups.peek();
+	}
+
+	private void appendParameter(final Object value) {
+		parameters.add(value);
+		appendToken("?");
+	}
+
+	private void appendToken(final String token) {
+		if (pendingWhitespace && sql.length() > 0) {
+			sql.append(' ');
+		}
+		pendingWhitespace = false;
+		sql.append(token);
+		previousToken = token.toUpperCase(Locale.ENGLISH);
+		if (!",".equals(token)) {
+			lastClosedGroupWasLiteralList = false;
+		}
+	}
+
+	private static boolean isAllDigits(final CharSequence text) {
+		return text.chars().allMatch(Character::isDigit);
+	}
+
+	/**
+	 * @return Wert des ganzzahligen Literals oder null, wenn das Literal keine
+	 *         ganze Zahl im Wertebereich von Long ist und deshalb unverändert
+	 *         bleiben muss
+	 */
+	private static Object numericValue(final String literal) {
+		if (!isAllDigits(literal)) {
+			// Dezimalzahl, Exponentialschreibweise oder Bezeichner
+			return null;
+		}
+		final BigDecimal value = new BigDecimal(literal);
+		if (value.compareTo(BigDecimal.valueOf(Integer.MAX_VALUE)) <= 0) {
+			return value.intValue();
+		}
+		if (value.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) <= 0) {
+			return value.longValue();
+		}
+		return null;
+	}
+}
@@ -25,6 +25,16 @@
  */
 package de.kuehweg.sqltool.common.sqlediting;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import de.kuehweg.sqltool.common.sqlediting.StatementTokenizer.Kind;
+import de.kuehweg.sqltool.common.sqlediting.StatementTokenizer.Token;
+
 /**
  * SQL Statement in String-Repräsentation mit einigen Methoden zum einfachen
  * Umgang damit.
@@ -43,6 +53,28 @@ public class StatementString {
 
 	public static final String[] TCL_COMMANDS = new String[] { "COMMIT", "ROLLBACK", "SAVEPOINT" };
 
+	public static final String[] BATCHABLE_COMMANDS = new String[] { "INSERT", "UPDATE", "DELETE", "MERGE" };
+
+	public static final String[] READ_ONLY_COMMANDS = new String[] { "SELECT" };
+
+	public static final String[] PLAIN_DATA_COMMANDS = new String[] { "SELECT", "INSERT", "UPDATE", "DELETE",
+			"MERGE" };
+
+	// Schlüsselwörter, mit denen eine Abfrage doch schreibt oder sperrt:
+	// SELECT ... INTO, SELECT ... FOR UPDATE, NEXT VALUE FOR
+	private static final String[] WRITING_QUERY_KEYWORDS = new String[] { "INTO", "FOR" };
+
+	// Zusätze zwischen CREATE und TABLE, VIEW oder INDEX
+	private static final String[] CREATE_TABLE_MODIFIERS = new String[] { "GLOBAL", "LOCAL", "TEMPORARY", "TEMP",
+			"MEMORY", "CACHED", "TEXT", "UNIQUE", "OR", "REPLACE", "RECURSIVE" };
+
+	// Zusätze, mit denen CREATE bzw. DECLARE temporäre Tabellen anlegen
+	private static final List<String> TEMPORARY_TABLE_KEYWORDS = Arrays.asList("TEMPORARY", "TEMP");
+
+	// Schemata, unter denen die temporären Tabellen einer Sitzung angesprochen
+	// werden
+	private static final List<String> SESSION_SCHEMAS = Arrays.asList("SESSION", "MODULE");
+
 	private final String originalStatement;
 
 	public StatementString(final String sql) {
@@ -92,6 +124,274 @@ public class StatementString {
 		return isInCommandList(DML_COMMANDS);
 	}
 
+	/**
+	 * Abfrage auf Anweisungen, die ohne Ergebnismenge Daten verändern und daher
+	 * per JDBC-Batch ausgeführt werden können. Die Anweisung wird dabei
+	 * <em>nicht</em> komplett auf korrekte Syntax geprüft, sondern lediglich
+	 * nach dem einleitenden Schlüsselwort klassifiziert.
+	 *
+	 * @return true wenn die Anweisung in einem Batch ausgeführt werden kann.
+	 */
+	public boolean isBatchableStatement() {
+		return isInCommandList(BATCHABLE_COMMANDS);
+	}
+
+	/**
+	 * Abfrage auf Anweisungen, die nur Daten lesen oder ändern. Alle übrigen
+	 * Anweisungen (SET, DECLARE, CALL, DDL usw.) können den Zustand der Sitzung
+	 * wie das aktuelle Schema, Einstellungen oder temporäre Tabellen verändern.
+	 * Die Anweisung wird dabei <em>nicht</em> komplett auf korrekte Syntax
+	 * geprüft, sondern lediglich nach dem einleitenden Schlüsselwort
+	 * klassifiziert.
+	 *
+	 * @return true wenn die Anweisung den Zustand der Sitzung nicht verändert.
+	 */
+	public boolean isPlainDataStatement() {
+		return isInCommandList(PLAIN_DATA_COMMANDS);
+	}
+
+	/**
+	 * Abfrage auf Anweisungen, die Zustand der Sitzung aufbauen können, den
+	 * andere Verbindungen zur selben Datenbank nicht sehen: Einstellungen per
+	 * SET, Deklarationen, Prozeduraufrufe und temporäre Tabellen. DML, DCL,
+	 * Transaktionssteuerung und DDL für gewöhnliche Tabellen zählen nicht dazu,
+	 * alle übrigen Anweisungen im Zweifel schon.
+	 *
+	 * @return true wenn die Anweisung Zustand der Sitzung aufbauen kann.
+	 */
+	public boolean isSessionStatement() {
+		if (isEmpty() || isPlainDataStatement() || isDataControlStatement() || isTransactionControlStatement()) {
+			return false;
+		}
+		if (isDataDefinitionStatement()) {
+			return !Collections.disjoint(referencedNames(), TEMPORARY_TABLE_KEYWORDS);
+		}
+		return true;
+	}
+
+	/**
+	 * Abfrage auf Anweisungen, die temporäre Tabellen der Sitzung verwenden,
+	 * z.B. SESSION.T. Solche Tabellen sind für andere Verbindungen nicht
+	 * sichtbar.
+	 *
+	 * @return true wenn die Anweisung temporäre Tabellen der Sitzung verwendet.
+	 */
+	public boolean referencesSessionTables() {
+		return !Collections.disjoint(referencedNames(), SESSION_SCHEMAS);
+	}
+
+	/**
+	 * Abfrage auf reine Leseanweisungen, die weder Daten noch Sperren oder
+	 * Sequenzen verändern. Solche Anweisungen sind voneinander unabhängig und
+	 * können z.B. parallel auf verschiedenen Verbindungen ausgeführt werden.
+	 * Neben dem einleitenden Schlüsselwort werden die Wörter der Anweisung
+	 * außerhalb von Literalen und Namen in Anführungszeichen geprüft; im
+	 * Zweifel gilt die Anweisung nicht als reine Leseanweisung.
+	 *
+	 * @return true wenn die Anweisung ausschließlich liest.
+	 */
+	public boolean isReadOnlyQuery() {
+		if (!isInCommandList(READ_ONLY_COMMANDS)) {
+			return false;
+		}
+		for (final Token token : tokens()) {
+			if (token.getKind() == Kind.WORD) {
+				for (final String keyword : WRITING_QUERY_KEYWORDS) {
+					if (token.isName(keyword)) {
+						return false;
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Normalisierte Form der Anweisung, z.B. als Schlüssel für Caches: ohne
+	 * Kommentare und abschließende Semikolons, außerhalb von Literalen und
+	 * Namen in Anführungszeichen in Großbuchstaben und mit Leerräumen, die auf
+	 * ein einzelnes Leerzeichen reduziert sind.
+	 *
+	 * @return Normalisierte Anweisung
+	 */
+	public String normalizedStatement() {
+		final List<Token> tokens = tokens();
+		int end = tokens.size();
+		while (end > 0 && tokens.get(end - 1).isSymbol(";")) {
+			end--;
+		}
+		final StringBuilder normalized = new StringBuilder();
+		for (int i = 0; i < end; i++) {
+			final Token token = tokens.get(i);
+			if (i > 0 && token.isPrecededBySpace()) {
+				normalized.append(' ');
+			}
+			if (token.getKind() == Kind.STRING_LITERAL || token.getKind() == Kind.QUOTED_NAME) {
+				normalized.append(token.getSource());
+			} else {
+				normalized.append(StatementTokenizer.upperCase(token.getSource()));
+			}
+		}
+		return normalized.toString();
+	}
+
+	/**
+	 * Alle in der Anweisung verwendeten Namen, also Schlüsselwörter, Tabellen,
+	 * Spalten, Funktionen usw. Namen ohne Anführungszeichen werden in
+	 * Großbuchstaben geliefert, qualifizierte Namen in ihren Bestandteilen.
+	 *
+	 * @return Namen außerhalb von Literalen
+	 */
+	public Set<String> referencedNames() {
+		final Set<String> names = new HashSet<>();
+		for (final Token token : tokens()) {
+			final String name = token.getName();
+			if (name != null) {
+				names.add(name);
+			}
+		}
+		return names;
+	}
+
+	/**
+	 * Bestimmt die Tabelle, deren Daten eine DML-Anweisung (INSERT, UPDATE,
+	 * DELETE, MERGE) oder TRUNCATE verändert. Die Anweisung wird dabei
+	 * <em>nicht</em> auf korrekte Syntax geprüft.
+	 *
+	 * @return Name der Tabelle ohne Schema, null wenn es sich um keine solche
+	 *         Anweisung handelt oder die Tabelle nicht bestimmt werden kann
+	 */
+	public String modifiedTableName() {
+		final List<Token> tokens = tokens();
+		final int index;
+		switch (firstKeyword()) {
+		case "INSERT":
+		case "MERGE":
+			index = indexAfterName(tokens, "INTO");
+			break;
+		case "UPDATE":
+			index = 1;
+			break;
+		case "DELETE":
+			index = indexAfterName(tokens, "FROM");
+			break;
+		case "TRUNCATE":
+			index = indexAfterName(tokens, "TABLE");
+			break;
+		default:
+			return null;
+		}
+		final List<String> qualifiedName = qualifiedNameAt(tokens, index);
+		// bei qualifizierten Namen zählt der letzte Bestandteil
+		return qualifiedName != null ? qualifiedName.get(qualifiedName.size() - 1) : null;
+	}
+
+	/**
+	 * Bestimmt die Tabelle oder View, deren Struktur eine DDL-Anweisung
+	 * verändert: CREATE/ALTER/DROP TABLE, CREATE/DROP VIEW, CREATE INDEX ... ON
+	 * und COMMENT ON TABLE/COLUMN. Die Anweisung wird dabei <em>nicht</em> auf
+	 * korrekte Syntax geprüft.
+	 *
+	 * @return Bestandteile des ggf. qualifizierten Namens, null wenn es sich um
+	 *         keine solche Anweisung handelt oder die Tabelle nicht bestimmt
+	 *         werden kann (z.B. DROP INDEX, CREATE SCHEMA)
+	 */
+	public List<String> dataDefinitionTableName() {
+		final List<Token> tokens = tokens();
+		int index = 1;
+		switch (firstKeyword()) {
+		case "CREATE":
+			while (index < tokens.size()
+					&& Arrays.asList(CREATE_TABLE_MODIFIERS).contains(tokens.get(index).getName())) {
+				index++;
+			}
+			if (index < tokens.size() && tokens.get(index).isName("INDEX")) {
+				index = indexAfterName(tokens, "ON");
+			} else {
+				index = indexAfterTableOrView(tokens, index);
+			}
+			break;
+		case "ALTER":
+		case "DROP":
+			index = indexAfterTableOrView(tokens, index);
+			break;
+		case "COMMENT":
+			if (index + 2 < tokens.size() && tokens.get(index).isName("ON")) {
+				if (tokens.get(index + 1).isName("COLUMN")) {
+					final List<String> columnName = qualifiedNameAt(tokens, index + 2);
+					return columnName != null && columnName.size() > 1
+							? columnName.subList(0, columnName.size() - 1)
+							: null;
+				}
+				index = indexAfterTableOrView(tokens, index + 1);
+			} else {
+				index = -1;
+			}
+			break;
+		default:
+			return null;
+		}
+		return qualifiedNameAt(tokens, index);
+	}
+
+	/**
+	 * @return Position des Namens hinter TABLE oder VIEW (inkl. IF [NOT]
+	 *         EXISTS) an der angegebenen Position, -1 wenn dort keines dieser
+	 *         Schlüsselwörter steht
+	 */
+	private static int indexAfterTableOrView(final List<Token> tokens, final int index) {
+		if (index >= tokens.size() || !(tokens.get(index).isName("TABLE") || tokens.get(index).isName("VIEW"))) {
+			return -1;
+		}
+		int afterKeyword = index + 1;
+		if (afterKeyword < tokens.size() && tokens.get(afterKeyword).isName("IF")) {
+			afterKeyword++;
+			if (afterKeyword < tokens.size() && tokens.get(afterKeyword).isName("NOT")) {
+				afterKeyword++;
+			}
+			if (afterKeyword < tokens.size() && tokens.get(afterKeyword).isName("EXISTS")) {
+				afterKeyword++;
+			}
+		}
+		return afterKeyword;
+	}
+
+	/**
+	 * @return Bestandteile des qualifizierten Namens an der angegebenen
+	 *         Position, null wenn dort kein Name steht
+	 */
+	private static List<String> qualifiedNameAt(final List<Token> tokens, final int index) {
+		if (index < 0 || index >= tokens.size() || tokens.get(index).getName() == null) {
+			return null;
+		}
+		final List<String> parts = new ArrayList<>();
+		parts.add(tokens.get(index).getName());
+		int last = index;
+		while (last + 2 < tokens.size() && tokens.get(last + 1).isSymbol(".")
+				&& tokens.get(last + 2).getName() != null) {
+			last += 2;
+			parts.add(tokens.get(last).getName());
+		}
+		return parts;
+	}
+
+	private static int indexAfterName(final List<Token> tokens, final String name) {
+		for (int i = 0; i < tokens.size(); i++) {
+			if (tokens.get(i).isName(name)) {
+				return i + 1;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Zerlegt die Anweisung mit {@link StatementTokenizer}, Kommentare und
+	 * Leerräume trennen lediglich.
+	 */
+	private List<Token> tokens() {
+		return StatementTokenizer.tokenize(originalStatement);
+	}
+
 	/**
 	 * Abfrage auf DCL Statement. Die Anweisung wird dabei <em>nicht</em> komplett
 	 * auf korrekte Syntax geprüft, sondern lediglich nach dem einleitenden
@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.common.sqlediting;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Zerlegt eine SQL-Anweisung in Wörter, Namen in Anführungszeichen,
+ * Zeichenketten, Operatoren und einzelne Sonderzeichen. Die Zerlegung
+ * verwendet den Automaten aus {@link StatementExtractionStates}, damit
+ * Kommentare, Zeichenketten und Namen in Anführungszeichen genauso erkannt
+ * werden wie beim Aufteilen eines Skripts. Kommentare trennen wie Leerräume.
+ *
+ * @author Michael Kühweg
+ */
+final class StatementTokenizer {
+
+	/**
+	 * Art eines Tokens.
+	 */
+	enum Kind {
+		WORD, QUOTED_NAME, STRING_LITERAL, OPERATOR, SYMBOL
+	}
+
+	/**
+	 * Bestandteil einer Anweisung.
+	 */
+	static final class Token {
+		private final Kind kind;
+		private final String source;
+		private final String value;
+		private final boolean precededBySpace;
+		private final boolean complete;
+
+		private Token(final Kind kind, final String source, final String value, final boolean precededBySpace,
+				final boolean complete) {
+			this.kind = kind;
+			this.source = source;
+			this.value = value;
+			this.precededBySpace = precededBySpace;
+			this.complete = complete;
+		}
+
+		Kind getKind() {
+			return kind;
+		}
+
+		/**
+		 * @return Text, wie er in der Anweisung steht
+		 */
+		String getSource() {
+			return source;
+		}
+
+		/**
+		 * @return Inhalt von Namen und Zeichenketten ohne Anführungszeichen,
+		 *         sonst der Text aus der Anweisung
+		 */
+		String getValue() {
+			return value;
+		}
+
+		/**
+		 * @return true, wenn vor dem Token Leerraum oder ein Kommentar steht
+		 */
+		boolean isPrecededBySpace() {
+			return precededBySpace;
+		}
+
+		/**
+		 * @return false bei Zeichenketten und Namen, deren schließendes
+		 *         Anführungszeichen fehlt
+		 */
+		boolean isComplete() {
+			return complete;
+		}
+
+		/**
+		 * @return Wort in Großbuchstaben oder Name in Anführungszeichen, null
+		 *         für alle anderen Tokens
+		 */
+		String getName() {
+			switch (kind) {
+			case WORD:
+				return upperCase(source);
+			case QUOTED_NAME:
+				return value;
+			default:
+				return null;
+			}
+		}
+
+		boolean isName(final String expected) {
+			return expected.equals(getName());
+		}
+
+		boolean isSymbol(final String expected) {
+			return kind == Kind.SYMBOL && source.equals(expected);
+		}
+	}
+
+	private static final String OPERATOR_CHARACTERS = "<>=!";
+
+	private StatementTokenizer() {
+	}
+
+	/**
+	 * @param statement SQL-Anweisung
+	 * @return Tokens der Anweisung, Leerräume und Kommentare werden übergangen
+	 */
+	static List<Token> tokenize(final String statement) {
+		final List<Token> tokens = new ArrayList<>();
+		final ScannerI scanner = new DefaultScanner(statement);
+		boolean space = false;
+		while (scanner.hasMoreElements()) {
+			scanner.startToken();
+			final char input = scanner.lookahead();
+			final StatementExtractionStates state = StatementExtractionStates.START.evaluate(scanner);
+			switch (state) {
+			case STRING_LITERAL:
+				tokens.add(quoted(scanner, Kind.STRING_LITERAL, state, '\'', space));
+				break;
+			case QUOTED_NAME:
+				tokens.add(quoted(scanner, Kind.QUOTED_NAME, state, '"', space));
+				break;
+			case MAYBE_LINE_COMMENT:
+			case MAYBE_BLOCK_COMMENT:
+				if (isCommentStart(scanner, input)) {
+					skipComment(scanner, state);
+					space = true;
+					continue;
+				}
+				tokens.add(token(scanner, Kind.SYMBOL, space));
+				break;
+			case STATEMENT_TERMINATION_FOUND:
+				tokens.add(token(scanner, Kind.SYMBOL, space));
+				break;
+			default:
+				if (Character.isWhitespace(input)) {
+					space = true;
+					continue;
+				}
+				if (isWordCharacter(input)) {
+					while (scanner.hasMoreElements() && isWordCharacter(scanner.lookahead())) {
+						scanner.read();
+					}
+					tokens.add(token(scanner, Kind.WORD, space));
+				} else if (OPERATOR_CHARACTERS.indexOf(input) >= 0) {
+					while (scanner.hasMoreElements() && OPERATOR_CHARACTERS.indexOf(scanner.lookahead()) >= 0) {
+						scanner.read();
+					}
+					tokens.add(token(scanner, Kind.OPERATOR, space));
+				} else {
+					tokens.add(token(scanner, Kind.SYMBOL, space));
+				}
+				break;
+			}
+			space = false;
+		}
+		return tokens;
+	}
+
+	static boolean isWordCharacter(final char input) {
+		return Character.isLetterOrDigit(input) || input == '_' || input == '$';
+	}
+
+	/**
+	 * Großbuchstaben Zeichen für Zeichen, damit sich die Länge nicht ändert.
+	 */
+	static String upperCase(final String text) {
+		final char[] chars = text.toCharArray();
+		for (int i = 0; i < chars.length; i++) {
+			chars[i] = Character.toUpperCase(chars[i]);
+		}
+		return new String(chars);
+	}
+
+	private static Token token(final ScannerI scanner, final Kind kind, final boolean space) {
+		final String source = new String(scanner.currentToken());
+		return new Token(kind, source, source, space, true);
+	}
+
+	/**
+	 * Liest eine Zeichenkette oder einen Namen bis zum schließenden
+	 * Anführungszeichen, verdoppelte Anführungszeichen gehören zum Inhalt.
+	 */
+	private static Token quoted(final ScannerI scanner, final Kind kind, final StatementExtractionStates quotedState,
+			final char quote, final boolean space) {
+		final StringBuilder value = new StringBuilder();
+		StatementExtractionStates state = quotedState;
+		while (true) {
+			if (!scanner.hasMoreElements()) {
+				return new Token(kind, new String(scanner.currentToken()), value.toString(), space, false);
+			}
+			final char input = scanner.lookahead();
+			state = state.evaluate(scanner);
+			if (state == StatementExtractionStates.START) {
+				if (scanner.hasMoreElements() && scanner.lookahead() == quote) {
+					state = state.evaluate(scanner);
+					value.append(quote);
+				} else {
+					return new Token(kind, new String(scanner.currentToken()), value.toString(), space, true);
+				}
+			} else {
+				value.append(input);
+			}
+		}
+	}
+
+	private static boolean isCommentStart(final ScannerI scanner, final char input) {
+		return scanner.hasMoreElements() && scanner.lookahead() == (input == '-' ? '-' : '*');
+	}
+
+	private static void skipComment(final ScannerI scanner, final StatementExtractionStates commentStart) {
+		StatementExtractionStates state = commentStart;
+		do {
+			state = state.evaluate(scanner);
+		} while (scanner.hasMoreElements() && state != StatementExtractionStates.START);
+	}
+}
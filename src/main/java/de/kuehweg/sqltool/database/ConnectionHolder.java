@@ -33,6 +33,7 @@ import java.sql.Statement;
 import java.util.Properties;
 
 import de.kuehweg.sqltool.common.exception.DatabaseConnectionException;
+import de.kuehweg.sqltool.database.execution.ExecutionLimits;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 
@@ -44,10 +45,22 @@ import javafx.beans.property.SimpleBooleanProperty;
 public class ConnectionHolder {
 
 	private Connection connection;
+	private PreparedStatementCache preparedStatementCache;
+	private ResultCache resultCache;
+	private ConnectionSetting connectionSetting;
+	private ParallelConnectionPool parallelConnectionPool;
+	private ParallelConnectionPool metaDataConnectionPool;
+	private int metaDataConcurrency = DatabaseConstants.METADATA_CONNECTIONS;
+	private ExecutionLimits executionLimits;
 	private final BooleanProperty connectedProperty;
 
 	public ConnectionHolder() {
 		connectedProperty = new SimpleBooleanProperty(false);
+		executionLimits = new ExecutionLimits();
+		executionLimits.setQueryTimeoutSeconds(DatabaseConstants.DEFAULT_QUERY_TIMEOUT_SECONDS);
+		executionLimits.setWatchdogTimeoutMillis(DatabaseConstants.DEFAULT_WATCHDOG_TIMEOUT_MILLIS);
+		executionLimits.setMaxFetchedRows(DatabaseConstants.DEFAULT_MAX_FETCHED_ROWS);
+		executionLimits.setMaxFetchedBytes(DatabaseConstants.DEFAULT_MAX_FETCHED_BYTES);
 	}
 
 	/**
@@ -61,6 +74,10 @@ public class ConnectionHolder {
 			disconnect();
 		}
 		this.connection = connection;
+		preparedStatementCache = new PreparedStatementCache(connection,
+				DatabaseConstants.PREPARED_STATEMENT_CACHE_SIZE);
+		resultCache = new ResultCache(connection, DatabaseConstants.RESULT_CACHE_BUDGET,
+				DatabaseConstants.RESULT_CACHE_SIZE);
 	}
 
 	/**
@@ -70,6 +87,25 @@ public class ConnectionHolder {
 	 * @throws de.kuehweg.sqltool.common.exception.DatabaseConnectionException
 	 */
 	public void connect(final ConnectionSetting connectionSetting) throws DatabaseConnectionException {
+		try {
+			connect(openConnection(connectionSetting));
+			this.connectionSetting = connectionSetting;
+			connectedProperty.set(true);
+		} catch (final DatabaseConnectionException ex) {
+			connectedProperty.set(false);
+			throw ex;
+		}
+	}
+
+	/**
+	 * Öffnet eine neue, von der gehaltenen Verbindung unabhängige Verbindung
+	 * mit den übergebenen Verbindungsdaten.
+	 *
+	 * @param connectionSetting
+	 * @return Neu geöffnete Verbindung
+	 * @throws DatabaseConnectionException
+	 */
+	static Connection openConnection(final ConnectionSetting connectionSetting) throws DatabaseConnectionException {
 		try {
 			Class.forName(connectionSetting.getType().getDriverClass()).getDeclaredConstructor().newInstance();
 			final Properties properties = new Properties();
@@ -92,20 +128,29 @@ public class ConnectionHolder {
 				properties.setProperty(DatabaseConstants.HSQLDB_PROPERTY_SHUTDOWN,
 						DatabaseConstants.DEFAULT_SHUTDOWN_STANDALONE_DB);
 			}
-			connect(DriverManager.getConnection(connectionSetting.getUrl(), properties));
-			connectedProperty.set(true);
+			return DriverManager.getConnection(connectionSetting.getUrl(), properties);
 		} catch (NullPointerException | ClassNotFoundException | InstantiationException | IllegalAccessException
 				| SQLException | IllegalArgumentException | InvocationTargetException | NoSuchMethodException | SecurityException ex) {
-			connectedProperty.set(false);
 			throw new DatabaseConnectionException(ex);
 		}
 	}
 
 	public void disconnect() {
 		if (connection != null) {
+			// die Statements werden mit der Verbindung geschlossen
+			preparedStatementCache.logStatistics();
+			preparedStatementCache = null;
+			resultCache.logStatistics();
+			resultCache = null;
+			if (parallelConnectionPool != null) {
+				parallelConnectionPool.close();
+				parallelConnectionPool = null;
+			}
+			closeMetaDataConnectionPool();
 			new DatabaseDisconnector(connection).disconnect();
 			connectedProperty.set(false);
 			connection = null;
+			connectionSetting = null;
 		}
 	}
 
@@ -117,6 +162,93 @@ public class ConnectionHolder {
 		return connection;
 	}
 
+	/**
+	 * @return Cache der PreparedStatements zur aktuellen Verbindung, null wenn
+	 *         keine Verbindung besteht
+	 */
+	public PreparedStatementCache getPreparedStatementCache() {
+		return preparedStatementCache;
+	}
+
+	/**
+	 * @return Ergebnis-Cache zur aktuellen Verbindung (zunächst nicht aktiv),
+	 *         null wenn keine Verbindung besteht
+	 */
+	public ResultCache getResultCache() {
+		return resultCache;
+	}
+
+	/**
+	 * Liefert den Pool zusätzlicher Verbindungen für die parallele Ausführung
+	 * voneinander unabhängiger Anweisungen. Die Verbindungen werden mit
+	 * denselben Verbindungsdaten wie die gehaltene Verbindung erst bei Bedarf
+	 * geöffnet und mit ihr zusammen geschlossen.
+	 *
+	 * @return Pool zusätzlicher Verbindungen, null wenn keine Verbindung
+	 *         besteht
+	 */
+	public ParallelConnectionPool getParallelConnectionPool() {
+		if (parallelConnectionPool == null && connection != null && connectionSetting != null) {
+			parallelConnectionPool = new ParallelConnectionPool(connectionSetting,
+					DatabaseConstants.PARALLEL_CONNECTIONS);
+		}
+		return parallelConnectionPool;
+	}
+
+	/**
+	 * Liefert den Pool zusätzlicher Verbindungen zum gleichzeitigen Lesen der
+	 * Metadaten mehrerer Tabellen, damit die Verbindung des Anwenders dabei
+	 * nicht blockiert wird.
+	 *
+	 * @return Pool zusätzlicher Verbindungen, null wenn keine Verbindung
+	 *         besteht
+	 */
+	public ParallelConnectionPool getMetaDataConnectionPool() {
+		if (metaDataConnectionPool == null && connection != null && connectionSetting != null) {
+			metaDataConnectionPool = new ParallelConnectionPool(connectionSetting, metaDataConcurrency);
+		}
+		return metaDataConnectionPool;
+	}
+
+	/**
+	 * @return Anzahl Tabellen, deren Metadaten gleichzeitig gelesen werden
+	 */
+	public int getMetaDataConcurrency() {
+		return metaDataConcurrency;
+	}
+
+	/**
+	 * Anzahl Tabellen festlegen, deren Metadaten gleichzeitig gelesen werden.
+	 * Ein bereits bestehender Pool wird geschlossen und beim nächsten Bedarf
+	 * in der neuen Größe geöffnet.
+	 *
+	 * @param metaDataConcurrency
+	 *            Anzahl zusätzlicher Verbindungen, 1 um die Tabellen
+	 *            nacheinander über die Verbindung des Anwenders zu lesen
+	 */
+	public void setMetaDataConcurrency(final int metaDataConcurrency) {
+		this.metaDataConcurrency = Math.max(1, metaDataConcurrency);
+		closeMetaDataConnectionPool();
+	}
+
+	private void closeMetaDataConnectionPool() {
+		if (metaDataConnectionPool != null) {
+			metaDataConnectionPool.close();
+			metaDataConnectionPool = null;
+		}
+	}
+
+	/**
+	 * @return Grenzen für die Ausführung von Anweisungen auf dieser Verbindung
+	 */
+	public ExecutionLimits getExecutionLimits() {
+		return executionLimits;
+	}
+
+	public void setExecutionLimits(final ExecutionLimits executionLimits) {
+		this.executionLimits = executionLimits != null ? executionLimits : new ExecutionLimits();
+	}
+
 	public Statement getStatement() throws SQLException {
 		return connection.createStatement();
 	}
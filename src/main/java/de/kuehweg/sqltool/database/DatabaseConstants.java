@@ -37,6 +37,38 @@ public final class DatabaseConstants {
 	public static final String HSQLDB_PROPERTY_SHUTDOWN = "shutdown";
 
 	public static final int MAX_ROWS = 2500;
+	// Streaming: Zeilen je Fetch und maximal im Ergebnis gehaltene Zeilen
+	public static final int DEFAULT_FETCH_SIZE = 500;
+	public static final int MAX_RETAINED_STREAMING_ROWS = 5000;
+	// Teilergebnisse während des Lesens: alle N Zeilen bzw. T Millisekunden
+	public static final int PARTIAL_RESULT_ROWS = 250;
+	public static final long PARTIAL_RESULT_MILLIS = 250;
+	// Speicherbudget je Ergebnis, darüber hinaus wird ausgelagert
+	public static final long DEFAULT_RESULT_HEAP_BUDGET = 64L * 1024 * 1024;
+	// maximale Anzahl Anweisungen je JDBC-Batch
+	public static final int DEFAULT_BATCH_SIZE = 100;
+	// PreparedStatements je Verbindung im Cache
+	public static final int PREPARED_STATEMENT_CACHE_SIZE = 64;
+	// Ergebnis-Cache je Verbindung: Speicherbudget und maximale Anzahl
+	// Ergebnisse
+	public static final long RESULT_CACHE_BUDGET = 32L * 1024 * 1024;
+	public static final int RESULT_CACHE_SIZE = 100;
+	// zusätzliche Verbindungen für die parallele Ausführung von Abfragen
+	public static final int PARALLEL_CONNECTIONS = 3;
+	// zusätzliche Verbindungen zum gleichzeitigen Lesen der Metadaten
+	// mehrerer Tabellen, wenn sie nicht in einem Durchgang gelesen werden
+	// können
+	public static final int METADATA_CONNECTIONS = 3;
+	// Momentaufnahmen der Metadaten, relativ zum Benutzerverzeichnis
+	public static final String METADATA_SNAPSHOT_FOLDER = ".itrysql/metadata";
+	// Grenzen je Anweisung, 0 für unbegrenzt
+	public static final int DEFAULT_QUERY_TIMEOUT_SECONDS = 0;
+	public static final long DEFAULT_WATCHDOG_TIMEOUT_MILLIS = 0;
+	public static final int DEFAULT_MAX_FETCHED_ROWS = 0;
+	public static final long DEFAULT_MAX_FETCHED_BYTES = 0;
+	// Grenzen, wenn sie in den Einstellungen eingeschaltet sind
+	public static final long LIMITED_WATCHDOG_TIMEOUT_MILLIS = 15L * 60 * 1000;
+	public static final long LIMITED_MAX_FETCHED_BYTES = 1024L * 1024 * 1024;
 	public static final String DEFAULT_TRANSACTION_CONTROL = "MVCC";
 	public static final String DEFAULT_LOG_SIZE_MB = "20";
 	public static final String DEFAULT_SHUTDOWN_STANDALONE_DB = "true";
@@ -28,6 +28,8 @@ package de.kuehweg.sqltool.database;
 import java.sql.Connection;
 import java.sql.SQLException;
 
+import de.kuehweg.sqltool.common.concurrent.ExecutionPool;
+import de.kuehweg.sqltool.common.concurrent.ExecutionService;
 import javafx.concurrent.Task;
 
 /**
@@ -47,7 +49,7 @@ public class DatabaseDisconnector {
     }
 
     public void disconnect() {
-        final Thread disconnectionThread = new Thread(new Task<Void>() {
+        ExecutionService.getInstance().execute(ExecutionPool.IO, new Task<Void>() {
 
             @Override
             protected Void call() throws Exception {
@@ -61,7 +63,5 @@ public class DatabaseDisconnector {
                 return null;
             }
         });
-        disconnectionThread.setDaemon(false);
-        disconnectionThread.start();
     }
 }
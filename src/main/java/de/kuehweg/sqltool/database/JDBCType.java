@@ -75,6 +75,24 @@ public enum JDBCType {
 		return true;
 	}
 
+	/**
+	 * Verbindungstyp anhand der URL einer bestehenden Verbindung bestimmen.
+	 *
+	 * @param url
+	 *            URL aus den Metadaten der Verbindung
+	 * @return passender Verbindungstyp, null bei unbekannten URLs
+	 */
+	public static JDBCType forUrl(final String url) {
+		if (url != null) {
+			for (final JDBCType type : values()) {
+				if (url.startsWith(type.getUrlPrefix() + type.getDbType())) {
+					return type;
+				}
+			}
+		}
+		return null;
+	}
+
 	@Override
 	public String toString() {
 		return name;
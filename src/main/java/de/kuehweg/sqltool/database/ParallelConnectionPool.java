@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import de.kuehweg.sqltool.common.exception.DatabaseConnectionException;
+
+/**
+ * Zusätzliche Verbindungen mit denselben Verbindungsdaten wie die Verbindung
+ * des Anwenders, um voneinander unabhängige Anweisungen parallel auszuführen.
+ * Die Verbindungen werden erst bei Bedarf geöffnet, höchstens bis zur Größe des
+ * Pools. Ist keine Verbindung frei, wird gewartet, bis eine zurückgegeben wird.
+ *
+ * @author Michael Kühweg
+ */
+public class ParallelConnectionPool {
+
+	// SQL-State für "Verbindung kann nicht aufgebaut werden"
+	private static final String SQL_STATE_CONNECTION_FAILURE = "08001";
+
+	private final ConnectionSetting connectionSetting;
+	private final int size;
+	private final Deque<Connection> idle = new ArrayDeque<>();
+	private int opened;
+	private boolean closed;
+	private boolean sessionStateChanged;
+
+	/**
+	 * @param connectionSetting Verbindungsdaten für die zusätzlichen
+	 *                          Verbindungen
+	 * @param size              maximale Anzahl gleichzeitig geöffneter
+	 *                          Verbindungen
+	 */
+	public ParallelConnectionPool(final ConnectionSetting connectionSetting, final int size) {
+		this.connectionSetting = connectionSetting;
+		this.size = Math.max(1, size);
+	}
+
+	/**
+	 * @return maximale Anzahl gleichzeitig nutzbarer Verbindungen
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Vermerkt, dass auf der Verbindung des Anwenders Zustand der Sitzung
+	 * aufgebaut wurde (Einstellungen, Deklarationen, temporäre Tabellen), den die
+	 * Verbindungen des Pools nicht kennen. Das aktuelle Schema ist davon
+	 * ausgenommen, es kann bei Entnahme einer Verbindung übernommen werden.
+	 */
+	public synchronized void markSessionStateChanged() {
+		sessionStateChanged = true;
+	}
+
+	/**
+	 * @return true wenn die Verbindungen des Pools den Zustand der Sitzung des
+	 *         Anwenders nicht mehr abbilden und deshalb nicht mehr an ihrer
+	 *         Stelle verwendet werden sollen
+	 */
+	public synchronized boolean isSessionStateChanged() {
+		return sessionStateChanged;
+	}
+
+	/**
+	 * Entnimmt eine Verbindung aus dem Pool, öffnet bei Bedarf eine neue
+	 * Verbindung und wartet, wenn bereits alle Verbindungen in Gebrauch sind.
+	 *
+	 * @return Verbindung zur exklusiven Nutzung bis zur Rückgabe per
+	 *         {@link #release(Connection)}
+	 * @throws SQLException wenn der Pool geschlossen ist, keine Verbindung
+	 *                      aufgebaut werden kann oder das Warten unterbrochen
+	 *                      wird
+	 */
+	public Connection borrow() throws SQLException {
+		synchronized (this) {
+			while (!closed && idle.isEmpty() && opened >= size) {
+				try {
+					wait();
+				} catch (final InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					throw new SQLException(ex);
+				}
+			}
+			if (closed) {
+				throw new SQLException(getClass().getSimpleName() + " closed", SQL_STATE_CONNECTION_FAILURE);
+			}
+			if (!idle.isEmpty()) {
+				return idle.pop();
+			}
+			// Platz für die neue Verbindung reservieren, geöffnet wird sie
+			// außerhalb der Synchronisation
+			opened++;
+		}
+		try {
+			return ConnectionHolder.openConnection(connectionSetting);
+		} catch (final DatabaseConnectionException ex) {
+			synchronized (this) {
+				opened--;
+				notifyAll();
+			}
+			throw new SQLException(ex.getCause() != null ? ex.getCause().getLocalizedMessage() : ex.getMessage(),
+					SQL_STATE_CONNECTION_FAILURE, ex);
+		}
+	}
+
+	/**
+	 * Gibt eine entnommene Verbindung an den Pool zurück. Nach dem Schließen des
+	 * Pools oder wenn die Verbindung nicht mehr nutzbar ist, wird sie
+	 * geschlossen.
+	 *
+	 * @param connection Mit {@link #borrow()} entnommene Verbindung
+	 */
+	public synchronized void release(final Connection connection) {
+		if (connection == null) {
+			return;
+		}
+		if (closed || isClosed(connection)) {
+			opened--;
+			new DatabaseDisconnector(connection).disconnect();
+		} else {
+			idle.push(connection);
+		}
+		notifyAll();
+	}
+
+	/**
+	 * Schließt alle freien Verbindungen, noch entnommene Verbindungen werden bei
+	 * ihrer Rückgabe geschlossen.
+	 */
+	public synchronized void close() {
+		closed = true;
+		while (!idle.isEmpty()) {
+			opened--;
+			new DatabaseDisconnector(idle.pop()).disconnect();
+		}
+		notifyAll();
+	}
+
+	private static boolean isClosed(final Connection connection) {
+		try {
+			return connection.isClosed();
+		} catch (final SQLException ex) {
+			Logger.getLogger(ParallelConnectionPool.class.getName()).log(Level.FINE, ex.getMessage(), ex);
+			return true;
+		}
+	}
+
+	@Override
+	public synchronized String toString() {
+		return getClass().getSimpleName() + " [size=" + size + ", opened=" + opened + ", idle=" + idle.size()
+				+ ", closed=" + closed + ", sessionStateChanged=" + sessionStateChanged + "]";
+	}
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * LRU-Cache für PreparedStatements einer Verbindung. Schlüssel ist der Text
+ * der parametrisierten Anweisung. Ein Statement wird für die Dauer der
+ * Ausführung aus dem Cache entnommen und danach zurückgegeben, so dass auch bei
+ * parallelen Ausführungen auf derselben Verbindung jedes Statement nur von
+ * einer Ausführung verwendet wird.
+ *
+ * @author Michael Kühweg
+ */
+public class PreparedStatementCache {
+
+	private final Connection connection;
+	private final Map<String, PreparedStatement> statements;
+	// Anweisungen, die sich nicht vorbereiten lassen, nicht jedes Mal neu
+	// versuchen
+	private final Set<String> unpreparable;
+
+	private long hits;
+	private long misses;
+
+	/**
+	 * @param connection Verbindung, auf der die Statements vorbereitet werden
+	 * @param capacity   maximale Anzahl gehaltener Statements
+	 */
+	public PreparedStatementCache(final Connection connection, final int capacity) {
+		this.connection = connection;
+		statements = new LinkedHashMap<String, PreparedStatement>(capacity, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<String, PreparedStatement> eldest) {
+				if (size() > capacity) {
+					closeQuietly(eldest.getValue());
+					return true;
+				}
+				return false;
+			}
+		};
+		unpreparable = Collections.newSetFromMap(new LinkedHashMap<String, Boolean>(capacity, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<String, Boolean> eldest) {
+				return size() > capacity;
+			}
+		});
+	}
+
+	/**
+	 * Entnimmt das Statement für die Anweisung aus dem Cache oder bereitet es
+	 * neu vor. Nach der Ausführung muss das Statement mit
+	 * {@link #release(String, PreparedStatement)} zurückgegeben oder mit
+	 * {@link #discard(PreparedStatement)} verworfen werden.
+	 *
+	 * @param sql parametrisierte Anweisung
+	 * @return Statement oder null, wenn sich die Anweisung nicht vorbereiten
+	 *         lässt
+	 */
+	public synchronized PreparedStatement borrow(final String sql) {
+		final PreparedStatement cached = statements.remove(sql);
+		if (cached != null) {
+			hits++;
+			return cached;
+		}
+		if (unpreparable.contains(sql)) {
+			return null;
+		}
+		misses++;
+		try {
+			return connection.prepareStatement(sql);
+		} catch (final SQLException ex) {
+			Logger.getLogger(PreparedStatementCache.class.getName()).log(Level.FINE,
+					"Anweisung lässt sich nicht vorbereiten: " + sql, ex);
+			unpreparable.add(sql);
+			return null;
+		}
+	}
+
+	/**
+	 * Gibt ein entnommenes Statement nach der Ausführung zurück.
+	 *
+	 * @param sql       parametrisierte Anweisung
+	 * @param statement Statement aus {@link #borrow(String)}
+	 */
+	public synchronized void release(final String sql, final PreparedStatement statement) {
+		try {
+			statement.clearParameters();
+		} catch (final SQLException ex) {
+			discard(statement);
+			return;
+		}
+		final PreparedStatement previous = statements.put(sql, statement);
+		if (previous != null && previous != statement) {
+			closeQuietly(previous);
+		}
+	}
+
+	/**
+	 * Verwirft ein entnommenes Statement, z.B. nach einem Fehler bei der
+	 * Ausführung.
+	 *
+	 * @param statement Statement aus {@link #borrow(String)}
+	 */
+	public synchronized void discard(final PreparedStatement statement) {
+		closeQuietly(statement);
+	}
+
+	/**
+	 * Schließt alle gehaltenen Statements, z.B. nach Änderungen am Schema.
+	 */
+	public synchronized void clear() {
+		statements.values().forEach(PreparedStatementCache::closeQuietly);
+		statements.clear();
+		unpreparable.clear();
+	}
+
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * @return Anteil der Treffer an allen Zugriffen zwischen 0 und 1
+	 */
+	public synchronized double getHitRate() {
+		final long lookups = hits + misses;
+		return lookups == 0 ? 0.0 : (double) hits / lookups;
+	}
+
+	/**
+	 * Protokolliert Treffer und Fehlzugriffe.
+	 */
+	public void logStatistics() {
+		Logger.getLogger(PreparedStatementCache.class.getName()).log(Level.INFO, toString());
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format("PreparedStatement-Cache: %d Treffer, %d Fehlzugriffe, Trefferquote %.1f%%", hits,
+				misses, getHitRate() * 100);
+	}
+
+	private static void closeQuietly(final PreparedStatement statement) {
+		try {
+			statement.close();
+		} catch (final SQLException ex) {
+			Logger.getLogger(PreparedStatementCache.class.getName()).log(Level.FINE, null, ex);
+		}
+	}
+}
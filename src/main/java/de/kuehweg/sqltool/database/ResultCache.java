@@ -0,0 +1,352 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import de.kuehweg.sqltool.common.sqlediting.StatementString;
+import de.kuehweg.sqltool.database.execution.ColumnarStatementResult;
+import de.kuehweg.sqltool.database.execution.ExecutionOutcome;
+import de.kuehweg.sqltool.database.execution.StatementExecutionInformation;
+import de.kuehweg.sqltool.database.execution.StatementResult;
+
+/**
+ * Speicherbegrenzter LRU-Cache für die Ergebnisse wiederholter Abfragen einer
+ * Verbindung. Schlüssel ist die normalisierte Anweisung zusammen mit der
+ * maximalen Anzahl Zeilen. Zwischengespeichert werden nur reine
+ * Leseanweisungen, deren Ergebnis vollständig im Speicher gehalten wird und
+ * die weder zeitabhängige oder zufällige Funktionen noch Systemtabellen
+ * verwenden.
+ * <p>
+ * Jede andere Anweisung auf der Verbindung verwirft die Ergebnisse, die die
+ * von ihr veränderte Tabelle oder eine View verwenden. Lässt sich die Tabelle
+ * nicht bestimmen (DDL, TCL, ...) oder kann die Änderung über Fremdschlüssel
+ * oder Trigger weitere Tabellen betreffen, wird der gesamte Cache verworfen.
+ * Änderungen über andere Verbindungen bemerkt der Cache nicht, er ist deshalb
+ * nur auf Wunsch aktiv. Auch wenn er nicht aktiv ist, sollten ihm alle
+ * Anweisungen zur Invalidierung übergeben werden.
+ *
+ * @author Michael Kühweg
+ */
+public class ResultCache {
+
+	// Ergebnisse mit diesen Namen sind nicht wiederholbar
+	private static final Set<String> UNCACHEABLE_NAMES = new HashSet<>(Arrays.asList("CURRENT_DATE",
+			"CURRENT_TIME", "CURRENT_TIMESTAMP", "LOCALTIME", "LOCALTIMESTAMP", "NOW", "SYSDATE", "SYSTIMESTAMP",
+			"TODAY", "RAND", "RANDOM", "UUID", "NEXT", "CURRVAL", "NEXTVAL", "IDENTITY", "CURRENT_USER",
+			"SESSION_USER", "SYSTEM_USER", "USER", "CURRENT_SCHEMA", "CURRENT_ROLE", "SESSION_ID",
+			"INFORMATION_SCHEMA"));
+
+	private static final String SYSTEM_TABLE_PREFIX = "SYSTEM_";
+
+	private static final String TRIGGERS_OF_TABLE = "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TRIGGERS"
+			+ " WHERE EVENT_OBJECT_TABLE = ?";
+
+	/**
+	 * Zwischengespeichertes Ergebnis einer Abfrage.
+	 */
+	public static final class CachedResult {
+		private final StatementResult result;
+		private final int rowCount;
+		private final boolean limitMaxRowsReached;
+		private final Set<String> referencedNames;
+		private final boolean referencesView;
+		private final long estimatedBytes;
+
+		private CachedResult(final StatementExecutionInformation info, final Set<String> referencedNames,
+				final boolean referencesView, final long estimatedBytes) {
+			result = info.getStatementResult();
+			rowCount = info.getRowCount();
+			limitMaxRowsReached = info.isLimitMaxRowsReached();
+			this.referencedNames = referencedNames;
+			this.referencesView = referencesView;
+			this.estimatedBytes = estimatedBytes;
+		}
+
+		public StatementResult getResult() {
+			return result;
+		}
+
+		public int getRowCount() {
+			return rowCount;
+		}
+
+		public boolean isLimitMaxRowsReached() {
+			return limitMaxRowsReached;
+		}
+
+		private boolean dependsOn(final String table) {
+			return referencesView || referencedNames.contains(table);
+		}
+	}
+
+	private final Connection connection;
+	private final long budget;
+	private final int capacity;
+	private final Map<String, CachedResult> results = new LinkedHashMap<>(16, 0.75f, true);
+	private long usedBytes;
+	private boolean enabled;
+	// Views der Verbindung, null wenn (noch) nicht ermittelt
+	private Set<String> viewNames;
+	// Tabellen, deren Änderungen keine weiteren Tabellen betreffen
+	private final Map<String, Boolean> selfContainedTables = new HashMap<>();
+
+	private long hits;
+	private long misses;
+
+	/**
+	 * @param connection Verbindung, deren Ergebnisse zwischengespeichert werden
+	 * @param budget     Speicherbudget aller Ergebnisse in Bytes
+	 * @param capacity   maximale Anzahl gehaltener Ergebnisse
+	 */
+	public ResultCache(final Connection connection, final long budget, final int capacity) {
+		this.connection = connection;
+		this.budget = budget;
+		this.capacity = capacity;
+	}
+
+	/**
+	 * @param enabled false verwirft alle Ergebnisse, es werden bis zum erneuten
+	 *                Aktivieren keine Ergebnisse geliefert oder aufgenommen
+	 */
+	public synchronized void setEnabled(final boolean enabled) {
+		this.enabled = enabled;
+		if (!enabled) {
+			clear();
+		}
+	}
+
+	public synchronized boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * @param sql     Abfrage
+	 * @param maxRows maximale Anzahl Zeilen der Ausführung
+	 * @return Zwischengespeichertes Ergebnis oder null
+	 */
+	public synchronized CachedResult lookup(final StatementString sql, final int maxRows) {
+		if (!enabled) {
+			return null;
+		}
+		final CachedResult cached = results.get(key(sql, maxRows));
+		if (cached != null) {
+			hits++;
+		} else {
+			misses++;
+		}
+		return cached;
+	}
+
+	/**
+	 * Nimmt das Ergebnis einer ausgeführten Abfrage auf, sofern es sich dafür
+	 * eignet.
+	 *
+	 * @param sql     Abfrage
+	 * @param maxRows maximale Anzahl Zeilen der Ausführung
+	 * @param info    Ergebnis der Ausführung
+	 */
+	public synchronized void store(final StatementString sql, final int maxRows,
+			final StatementExecutionInformation info) {
+		if (!enabled || !sql.isReadOnlyQuery() || info.getOutcome() != ExecutionOutcome.COMPLETED
+				|| !(info.getStatementResult() instanceof ColumnarStatementResult)) {
+			return;
+		}
+		final ColumnarStatementResult result = (ColumnarStatementResult) info.getStatementResult();
+		// nur vollständig gehaltene Ergebnisse, nicht ausgelagert oder im
+		// Streaming-Modus gekürzt
+		if (result.isSpilled() || result.getRowCount() != info.getRowCount()
+				|| result.getEstimatedHeapBytes() > budget) {
+			return;
+		}
+		final Set<String> names = sql.referencedNames();
+		if (!Collections.disjoint(names, UNCACHEABLE_NAMES)
+				|| names.stream().anyMatch(name -> name.startsWith(SYSTEM_TABLE_PREFIX))) {
+			return;
+		}
+		final CachedResult previous = results.put(key(sql, maxRows),
+				new CachedResult(info, names, referencesView(names), result.getEstimatedHeapBytes()));
+		if (previous != null) {
+			usedBytes -= previous.estimatedBytes;
+		}
+		usedBytes += result.getEstimatedHeapBytes();
+		evict();
+	}
+
+	/**
+	 * Verwirft die Ergebnisse, die durch die Anweisung ungültig werden.
+	 * Leseanweisungen verändern nichts.
+	 *
+	 * @param sql Auf der Verbindung ausgeführte Anweisung
+	 */
+	public synchronized void invalidate(final StatementString sql) {
+		if (results.isEmpty() || sql.isReadOnlyQuery()) {
+			return;
+		}
+		final String table = sql.modifiedTableName();
+		if (table == null || !isSelfContained(table)) {
+			clear();
+			return;
+		}
+		final Iterator<CachedResult> iterator = results.values().iterator();
+		while (iterator.hasNext()) {
+			final CachedResult cached = iterator.next();
+			if (cached.dependsOn(table)) {
+				usedBytes -= cached.estimatedBytes;
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * Verwirft alle Ergebnisse.
+	 */
+	public synchronized void clear() {
+		results.clear();
+		usedBytes = 0;
+		viewNames = null;
+		selfContainedTables.clear();
+	}
+
+	public synchronized int getSize() {
+		return results.size();
+	}
+
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Protokolliert Treffer und Fehlzugriffe.
+	 */
+	public void logStatistics() {
+		Logger.getLogger(ResultCache.class.getName()).log(Level.INFO, toString());
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format("Ergebnis-Cache: %d Ergebnisse, %d Treffer, %d Fehlzugriffe", results.size(), hits,
+				misses);
+	}
+
+	private static String key(final StatementString sql, final int maxRows) {
+		return maxRows + ":" + sql.normalizedStatement();
+	}
+
+	private void evict() {
+		final Iterator<CachedResult> eldest = results.values().iterator();
+		while (eldest.hasNext() && (usedBytes > budget || results.size() > capacity)) {
+			usedBytes -= eldest.next().estimatedBytes;
+			eldest.remove();
+		}
+	}
+
+	/**
+	 * Views werden bei Änderungen an ihren Basistabellen nicht erkannt, daher
+	 * gelten Ergebnisse mit Views als abhängig von allen Tabellen. Lassen sich
+	 * die Views nicht ermitteln, gilt das für alle Ergebnisse.
+	 */
+	private boolean referencesView(final Set<String> names) {
+		if (viewNames == null) {
+			final Set<String> views = new HashSet<>();
+			try (ResultSet resultSet = connection.getMetaData().getTables(null, null, "%",
+					new String[] { "VIEW" })) {
+				while (resultSet.next()) {
+					views.add(resultSet.getString("TABLE_NAME"));
+				}
+				viewNames = views;
+			} catch (final SQLException ex) {
+				Logger.getLogger(ResultCache.class.getName()).log(Level.FINE, ex.getMessage(), ex);
+				return true;
+			}
+		}
+		return !Collections.disjoint(names, viewNames);
+	}
+
+	/**
+	 * Änderungen an einer Tabelle bleiben auf sie beschränkt, wenn keine andere
+	 * Tabelle per Fremdschlüssel auf sie verweist (kaskadierendes Löschen und
+	 * Ändern) und keine Trigger für sie definiert sind. Lässt sich das nicht
+	 * ermitteln, gilt die Tabelle als nicht abgeschlossen.
+	 */
+	private boolean isSelfContained(final String table) {
+		Boolean selfContained = selfContainedTables.get(table);
+		if (selfContained == null) {
+			try {
+				selfContained = !hasDependentObjects(table);
+			} catch (final SQLException ex) {
+				Logger.getLogger(ResultCache.class.getName()).log(Level.FINE, ex.getMessage(), ex);
+				selfContained = false;
+			}
+			selfContainedTables.put(table, selfContained);
+		}
+		return selfContained;
+	}
+
+	private boolean hasDependentObjects(final String table) throws SQLException {
+		final DatabaseMetaData metaData = connection.getMetaData();
+		boolean found = false;
+		try (ResultSet tables = metaData.getTables(null, null, table, new String[] { "TABLE" })) {
+			while (tables.next()) {
+				found = true;
+				try (ResultSet exportedKeys = metaData.getExportedKeys(tables.getString("TABLE_CAT"),
+						tables.getString("TABLE_SCHEM"), table)) {
+					if (exportedKeys.next()) {
+						return true;
+					}
+				}
+			}
+		}
+		if (!found) {
+			// Name abweichend gespeichert, Abhängigkeiten unbekannt
+			return true;
+		}
+		try (PreparedStatement triggers = connection.prepareStatement(TRIGGERS_OF_TABLE)) {
+			triggers.setString(1, table);
+			try (ResultSet count = triggers.executeQuery()) {
+				return count.next() && count.getInt(1) > 0;
+			}
+		}
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database.execution;
+
+import java.sql.BatchUpdateException;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import de.kuehweg.sqltool.common.DialogDictionary;
+import de.kuehweg.sqltool.common.sqlediting.StatementString;
+
+/**
+ * Ausführung mehrerer datenverändernder Anweisungen in einem JDBC-Batch. Für
+ * jede Anweisung wird anschließend die Ausführungsinformation mit der vom
+ * Treiber gemeldeten Anzahl veränderter Zeilen bereitgestellt. Scheitert der
+ * Batch, liefert {@link #getUnexecutedStatements()} die nicht ausgeführten
+ * Anweisungen, damit diese einzeln ausgeführt werden können und ein Fehler
+ * genauso gemeldet wird wie bei der Einzelausführung. Bricht der Treiber den
+ * Batch beim Fehler ab, sind das die fehlgeschlagene und alle folgenden
+ * Anweisungen. Arbeitet der Treiber nach dem Fehler weiter, ist es nur die
+ * fehlgeschlagene Anweisung, die übrigen wurden bereits ausgeführt.
+ *
+ * @author Michael Kühweg
+ */
+public class BatchExecution {
+
+	private final List<StatementString> statements;
+
+	private List<StatementString> unexecutedStatements = Collections.emptyList();
+
+	/**
+	 * @param statements Anweisungen für den Batch, sollten laut
+	 *                   {@link StatementString#isBatchableStatement()} dafür
+	 *                   geeignet sein
+	 */
+	public BatchExecution(final List<StatementString> statements) {
+		this.statements = new ArrayList<>(statements);
+	}
+
+	/**
+	 * @param statement Statement, auf dem der Batch ausgeführt wird
+	 * @return Ausführungsinformationen der erfolgreich ausgeführten Anweisungen
+	 *         in der Reihenfolge des Batches
+	 * @throws SQLException wenn der Batch nicht aufgebaut werden kann
+	 */
+	public List<StatementExecutionInformation> execute(final Statement statement) throws SQLException {
+		final String executedBy = statement.getConnection().getMetaData().getUserName();
+		final String connectionDescription = statement.getConnection().getMetaData().getURL();
+		final long startOfExecution = System.currentTimeMillis();
+		int[] updateCounts;
+		try {
+			for (final StatementString sql : statements) {
+				statement.addBatch(sql.uncommentedStatement());
+			}
+			updateCounts = statement.executeBatch();
+		} catch (final BatchUpdateException ex) {
+			updateCounts = ex.getUpdateCounts() != null ? ex.getUpdateCounts() : new int[0];
+		} finally {
+			statement.clearBatch();
+		}
+		final long endOfExecution = System.currentTimeMillis();
+
+		final List<StatementExecutionInformation> infos = new ArrayList<>(statements.size());
+		final List<StatementString> unexecuted = new ArrayList<>();
+		for (int index = 0; index < statements.size(); index++) {
+			// fehlen Einträge, hat der Treiber den Batch beim Fehler abgebrochen
+			if (index >= updateCounts.length || updateCounts[index] == Statement.EXECUTE_FAILED) {
+				unexecuted.add(statements.get(index));
+			} else {
+				final StatementExecutionInformation info = new StatementExecutionInformation();
+				info.setSql(statements.get(index));
+				info.setExecutedBy(executedBy);
+				info.setConnectionDescription(connectionDescription);
+				info.setStartOfExecution(startOfExecution);
+				info.setEndOfExecution(endOfExecution);
+				info.setSummary(summary(statements.get(index), updateCounts[index]));
+				infos.add(info);
+			}
+		}
+		unexecutedStatements = unexecuted.isEmpty() ? Collections.emptyList() : unexecuted;
+		return infos;
+	}
+
+	private String summary(final StatementString sql, final int updateCount) {
+		if (updateCount >= 0) {
+			return MessageFormat.format(DialogDictionary.PATTERN_UPDATECOUNT.toString(), updateCount);
+		}
+		// Statement.SUCCESS_NO_INFO
+		return MessageFormat.format(DialogDictionary.PATTERN_EXECUTED_STATEMENT.toString(), sql.firstKeyword());
+	}
+
+	/**
+	 * @return Anweisungen, die im Batch nicht erfolgreich ausgeführt wurden, in
+	 *         der Reihenfolge des Batches. Leer, wenn der Batch vollständig
+	 *         erfolgreich war.
+	 */
+	public List<StatementString> getUnexecutedStatements() {
+		return unexecutedStatements;
+	}
+}
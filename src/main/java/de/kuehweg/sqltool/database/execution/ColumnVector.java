@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database.execution;
+
+import java.sql.Types;
+import java.util.Arrays;
+
+/**
+ * Spalte eines spaltenorientierten Abfrageergebnisses. Die Werte werden in
+ * Chunks fester Größe abgelegt, damit beim Wachsen der Spalte nicht der
+ * komplette Inhalt umkopiert werden muss. NULL-Werte werden in einer Bitmap je
+ * Chunk vermerkt. Der Zugriff auf eine Zeile erfolgt in O(1).
+ *
+ * @author Michael Kühweg
+ */
+abstract class ColumnVector {
+
+	static final int CHUNK_SHIFT = 12;
+	static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+	static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+	private static final int INITIAL_CHUNKS = 4;
+
+	private long[][] nullChunks = new long[INITIAL_CHUNKS][];
+
+	private int size;
+
+	/**
+	 * Passenden Spaltentyp zum SQL-Typ der Spalte ermitteln.
+	 *
+	 * @param sqlType Typ laut {@link java.sql.ResultSetMetaData#getColumnType(int)}
+	 * @return Spalte für den Typ, für nicht speziell behandelte Typen wird eine
+	 *         Spalte mit den Objekten selbst geliefert
+	 */
+	static ColumnVector forSqlType(final int sqlType) {
+		switch (sqlType) {
+		case Types.INTEGER:
+		case Types.SMALLINT:
+		case Types.TINYINT:
+			return new IntColumnVector();
+		case Types.BIGINT:
+			return new LongColumnVector();
+		case Types.DOUBLE:
+		case Types.FLOAT:
+			return new DoubleColumnVector();
+		case Types.CHAR:
+		case Types.VARCHAR:
+		case Types.LONGVARCHAR:
+		case Types.NCHAR:
+		case Types.NVARCHAR:
+		case Types.LONGNVARCHAR:
+			return new DictionaryStringColumnVector();
+		default:
+			return new ObjectColumnVector();
+		}
+	}
+
+	static int chunkOf(final int row) {
+		return row >>> CHUNK_SHIFT;
+	}
+
+	static int offsetOf(final int row) {
+		return row & CHUNK_MASK;
+	}
+
+	/**
+	 * @return Anzahl Werte in der Spalte
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * @param value Wert
+	 * @return true wenn die Spalte den Wert ohne Informationsverlust, auch in
+	 *         der Textdarstellung, aufnehmen kann
+	 */
+	abstract boolean accepts(Object value);
+
+	/**
+	 * Wert ans Ende der Spalte anhängen.
+	 *
+	 * @param value Wert, muss von {@link #accepts(Object)} akzeptiert werden
+	 */
+	void append(final Object value) {
+		final int row = size;
+		final int chunk = chunkOf(row);
+		if (chunk >= nullChunks.length) {
+			nullChunks = Arrays.copyOf(nullChunks, nullChunks.length * 2);
+		}
+		if (nullChunks[chunk] == null) {
+			nullChunks[chunk] = new long[CHUNK_SIZE / Long.SIZE];
+			allocateChunk(chunk);
+		}
+		if (value == null) {
+			final int offset = offsetOf(row);
+			nullChunks[chunk][offset >>> 6] |= 1L << offset;
+		} else {
+			store(chunk, offsetOf(row), value);
+		}
+		size++;
+	}
+
+	boolean isNull(final int row) {
+		final int offset = offsetOf(row);
+		return (nullChunks[chunkOf(row)][offset >>> 6] & 1L << offset) != 0;
+	}
+
+	/**
+	 * @param row Zeile, beginnend mit 0
+	 * @return Wert der Zeile, null für NULL-Werte
+	 */
+	Object get(final int row) {
+		checkRow(row);
+		return isNull(row) ? null : load(chunkOf(row), offsetOf(row));
+	}
+
+	/**
+	 * @param row Zeile, beginnend mit 0
+	 * @return Wert der Zeile als Text, {@link ResultRow#NULL_STR} für NULL-Werte
+	 */
+	String getAsString(final int row) {
+		checkRow(row);
+		return isNull(row) ? ResultRow.NULL_STR : loadAsString(chunkOf(row), offsetOf(row));
+	}
+
+	void clear() {
+		nullChunks = new long[INITIAL_CHUNKS][];
+		size = 0;
+		releaseChunks();
+	}
+
+	/**
+	 * Inhalt in eine Spalte übernehmen, die beliebige Objekte aufnehmen kann.
+	 * Wird benötigt, wenn ein Wert nicht zum aus den Metadaten ermittelten Typ
+	 * passt.
+	 *
+	 * @return neue Spalte mit dem bisherigen Inhalt
+	 */
+	ColumnVector toObjectColumnVector() {
+		final ColumnVector objects = new ObjectColumnVector();
+		for (int row = 0; row < size; row++) {
+			objects.append(get(row));
+		}
+		return objects;
+	}
+
+	private void checkRow(final int row) {
+		if (row < 0 || row >= size) {
+			throw new IndexOutOfBoundsException("Row: " + row + ", Size: " + size);
+		}
+	}
+
+	abstract void allocateChunk(int chunk);
+
+	abstract void releaseChunks();
+
+	abstract void store(int chunk, int offset, Object value);
+
+	abstract Object load(int chunk, int offset);
+
+	abstract String loadAsString(int chunk, int offset);
+
+	/**
+	 * Äußeres Array der Chunks bei Bedarf vergrößern.
+	 *
+	 * @param chunks bisherige Chunks
+	 * @param chunk  benötigter Chunk
+	 * @return ausreichend großes Array
+	 */
+	static <T> T[] ensureChunkCapacity(final T[] chunks, final int chunk) {
+		return chunk < chunks.length ? chunks : Arrays.copyOf(chunks, Math.max(chunks.length * 2, chunk + 1));
+	}
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database.execution;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Spaltenorientierte Ergebnismenge. Jede Spalte wird abhängig vom SQL-Typ in
+ * einem eigenen Vektor abgelegt: Zahlen als primitive Werte, Texte über ein
+ * Wörterbuch. Gegenüber einer Liste von ResultRows entfallen die Objekte je
+ * Zeile und das Boxing der Zellen. Der Zugriff auf eine Zeile erfolgt in O(1).
+ * <p>
+ * Ist ein Speicherbudget gesetzt, werden alle Zeilen, die nach Überschreiten
+ * des Budgets hinzukommen, in eine temporäre Datei ausgelagert (siehe
+ * {@link SpilledRowStore}). Für den Zugriff über die Position ist das
+ * transparent.
+ *
+ * @author Michael Kühweg
+ */
+public class ColumnarStatementResult extends StatementResult {
+
+	private final ColumnVector[] columns;
+
+	private int rowCount;
+
+	private long heapBudget;
+
+	private long estimatedHeapBytes;
+
+	private SpilledRowStore spilledRows;
+
+	/**
+	 * @param sqlTypes SQL-Typen der Spalten laut
+	 *                 {@link java.sql.ResultSetMetaData#getColumnType(int)}
+	 */
+	public ColumnarStatementResult(final int... sqlTypes) {
+		columns = new ColumnVector[sqlTypes.length];
+		for (int i = 0; i < sqlTypes.length; i++) {
+			columns[i] = ColumnVector.forSqlType(sqlTypes[i]);
+		}
+	}
+
+	/**
+	 * @param heapBudget Geschätzter Speicherbedarf in Bytes, ab dem weitere
+	 *                   Zeilen ausgelagert werden. 0 hält alle Zeilen im
+	 *                   Speicher.
+	 */
+	public void setHeapBudget(final long heapBudget) {
+		this.heapBudget = heapBudget;
+	}
+
+	/**
+	 * @return Geschätzter Speicherbedarf der im Speicher gehaltenen Zeilen in
+	 *         Bytes
+	 */
+	public long getEstimatedHeapBytes() {
+		return estimatedHeapBytes;
+	}
+
+	/**
+	 * @return true wenn Zeilen in eine temporäre Datei ausgelagert wurden
+	 */
+	public boolean isSpilled() {
+		return spilledRows != null && spilledRows.size() > 0;
+	}
+
+	/**
+	 * @return Sicht auf die Zeilen, die ResultRows werden erst beim Zugriff
+	 *         erzeugt. Änderungen erfolgen über {@link #addRow(ResultRow)}.
+	 */
+	@Override
+	public List<ResultRow> getRows() {
+		return new AbstractList<ResultRow>() {
+
+			@Override
+			public ResultRow get(final int index) {
+				return getRow(index);
+			}
+
+			@Override
+			public int size() {
+				return rowCount;
+			}
+		};
+	}
+
+	@Override
+	public void setRows(final List<ResultRow> rows) {
+		clearRows();
+		if (rows != null) {
+			addRows(rows);
+		}
+	}
+
+	@Override
+	public void clearRows() {
+		for (final ColumnVector column : columns) {
+			column.clear();
+		}
+		rowCount = 0;
+		estimatedHeapBytes = 0;
+		spilledRows = null;
+	}
+
+	@Override
+	public boolean addRow(final ResultRow row) {
+		if (row == null) {
+			return false;
+		}
+		if (spilledRows != null) {
+			spilledRows.append(row);
+		} else {
+			for (int i = 0; i < columns.length; i++) {
+				final Object value = row.getColumn(i);
+				if (!columns[i].accepts(value)) {
+					columns[i] = columns[i].toObjectColumnVector();
+				}
+				columns[i].append(value);
+				estimatedHeapBytes += estimatedBytes(value);
+			}
+			if (heapBudget > 0 && estimatedHeapBytes > heapBudget) {
+				startSpilling();
+			}
+		}
+		rowCount++;
+		return true;
+	}
+
+	/**
+	 * Löscht ausgelagerte Zeilen, die von früheren Programmläufen übrig
+	 * geblieben sind.
+	 */
+	public static void deleteLeftoverSpillFiles() {
+		SpilledRowStore.deleteLeftoverFiles();
+	}
+
+	private void startSpilling() {
+		try {
+			spilledRows = new SpilledRowStore(columns.length);
+		} catch (final IOException ex) {
+			// dann eben weiter im Speicher
+			Logger.getLogger(ColumnarStatementResult.class.getName()).log(Level.WARNING, ex.getMessage(), ex);
+			heapBudget = 0;
+		}
+	}
+
+	private static long estimatedBytes(final Object value) {
+		if (value == null || value.getClass() == Integer.class) {
+			return Integer.BYTES;
+		}
+		if (value.getClass() == Long.class || value.getClass() == Double.class) {
+			return Long.BYTES;
+		}
+		if (value instanceof String) {
+			// Index im Wörterbuch und Text, falls dieser neu ist
+			return Integer.BYTES + 2L * ((String) value).length();
+		}
+		return 32;
+	}
+
+	private int rowsInMemory() {
+		return rowCount - (spilledRows != null ? spilledRows.size() : 0);
+	}
+
+	@Override
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	@Override
+	public int getColumnCount() {
+		return columns.length;
+	}
+
+	@Override
+	public Object getValue(final int row, final int column) {
+		final int inMemory = rowsInMemory();
+		return row < inMemory ? columns[column].get(row) : spilledRows.getValue(row - inMemory, column);
+	}
+
+	@Override
+	public String getValueAsString(final int row, final int column) {
+		final int inMemory = rowsInMemory();
+		return row < inMemory ? columns[column].getAsString(row)
+				: spilledRows.getValueAsString(row - inMemory, column);
+	}
+
+	/**
+	 * @param row Zeile, beginnend mit 0
+	 * @return Zeile als ResultRow, wird bei jedem Aufruf neu erzeugt
+	 */
+	public ResultRow getRow(final int row) {
+		final Object[] values = new Object[columns.length];
+		for (int i = 0; i < columns.length; i++) {
+			values[i] = getValue(row, i);
+		}
+		return new ResultRow(values);
+	}
+}
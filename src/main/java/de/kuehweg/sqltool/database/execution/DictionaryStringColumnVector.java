@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database.execution;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Spalte für Texte. Gleiche Texte werden nur einmal in einem Wörterbuch
+ * abgelegt, je Zeile wird lediglich der Index im Wörterbuch gespeichert.
+ * Enthält die Spalte überwiegend unterschiedliche Texte, wird das Wörterbuch ab
+ * einer Grenze nicht mehr zur Suche genutzt, sondern nur noch erweitert.
+ *
+ * @author Michael Kühweg
+ */
+class DictionaryStringColumnVector extends ColumnVector {
+
+	// ab dieser Größe wird das Wörterbuch nur noch erweitert
+	private static final int MAX_LOOKUP_ENTRIES = 1 << 16;
+
+	private int[][] chunks = new int[4][];
+
+	private final List<String> dictionary = new ArrayList<>();
+
+	private Map<String, Integer> lookup = new HashMap<>();
+
+	@Override
+	boolean accepts(final Object value) {
+		return value == null || value instanceof String;
+	}
+
+	@Override
+	void allocateChunk(final int chunk) {
+		chunks = ensureChunkCapacity(chunks, chunk);
+		chunks[chunk] = new int[CHUNK_SIZE];
+	}
+
+	@Override
+	void releaseChunks() {
+		chunks = new int[4][];
+		dictionary.clear();
+		lookup = new HashMap<>();
+	}
+
+	@Override
+	void store(final int chunk, final int offset, final Object value) {
+		chunks[chunk][offset] = codeFor((String) value);
+	}
+
+	private int codeFor(final String value) {
+		if (lookup != null) {
+			final Integer code = lookup.get(value);
+			if (code != null) {
+				return code;
+			}
+		}
+		final int code = dictionary.size();
+		dictionary.add(value);
+		if (lookup != null) {
+			if (lookup.size() < MAX_LOOKUP_ENTRIES) {
+				lookup.put(value, code);
+			} else {
+				lookup = null;
+			}
+		}
+		return code;
+	}
+
+	@Override
+	Object load(final int chunk, final int offset) {
+		return dictionary.get(chunks[chunk][offset]);
+	}
+
+	@Override
+	String loadAsString(final int chunk, final int offset) {
+		return dictionary.get(chunks[chunk][offset]);
+	}
+
+	/**
+	 * @return Anzahl unterschiedlich abgelegter Texte
+	 */
+	int dictionarySize() {
+		return dictionary.size();
+	}
+}
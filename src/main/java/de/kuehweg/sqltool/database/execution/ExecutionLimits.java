@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database.execution;
+
+/**
+ * Grenzen für die Ausführung von SQL-Anweisungen. Ein Wert von 0 bedeutet
+ * jeweils keine Begrenzung.
+ *
+ * @author Michael Kühweg
+ */
+public class ExecutionLimits {
+
+	private int queryTimeoutSeconds;
+
+	private long watchdogTimeoutMillis;
+
+	private int maxFetchedRows;
+
+	private long maxFetchedBytes;
+
+	/**
+	 * @return Timeout, der per {@link java.sql.Statement#setQueryTimeout(int)}
+	 *         an den Treiber gegeben wird
+	 */
+	public int getQueryTimeoutSeconds() {
+		return queryTimeoutSeconds;
+	}
+
+	public void setQueryTimeoutSeconds(final int queryTimeoutSeconds) {
+		this.queryTimeoutSeconds = Math.max(0, queryTimeoutSeconds);
+	}
+
+	/**
+	 * @return Zeit, nach der die Ausführung unabhängig vom Treiber per
+	 *         {@link java.sql.Statement#cancel()} abgebrochen wird
+	 */
+	public long getWatchdogTimeoutMillis() {
+		return watchdogTimeoutMillis;
+	}
+
+	public void setWatchdogTimeoutMillis(final long watchdogTimeoutMillis) {
+		this.watchdogTimeoutMillis = Math.max(0, watchdogTimeoutMillis);
+	}
+
+	/**
+	 * @return Anzahl Zeilen, nach denen das Lesen der Ergebnismenge beendet
+	 *         wird
+	 */
+	public int getMaxFetchedRows() {
+		return maxFetchedRows;
+	}
+
+	public void setMaxFetchedRows(final int maxFetchedRows) {
+		this.maxFetchedRows = Math.max(0, maxFetchedRows);
+	}
+
+	/**
+	 * @return geschätzte Datenmenge in Bytes, nach der das Lesen der
+	 *         Ergebnismenge beendet wird
+	 */
+	public long getMaxFetchedBytes() {
+		return maxFetchedBytes;
+	}
+
+	public void setMaxFetchedBytes(final long maxFetchedBytes) {
+		this.maxFetchedBytes = Math.max(0, maxFetchedBytes);
+	}
+
+	/**
+	 * Kombiniert die Grenzen mit weiteren Grenzen, z.B. die Grenzen der
+	 * Verbindung mit denen einer einzelnen Ausführung.
+	 *
+	 * @param other weitere Grenzen, null wird ignoriert
+	 * @return neue Grenzen mit jeweils dem strengeren Wert
+	 */
+	public ExecutionLimits restrictedBy(final ExecutionLimits other) {
+		final ExecutionLimits limits = new ExecutionLimits();
+		limits.setQueryTimeoutSeconds(queryTimeoutSeconds);
+		limits.setWatchdogTimeoutMillis(watchdogTimeoutMillis);
+		limits.setMaxFetchedRows(maxFetchedRows);
+		limits.setMaxFetchedBytes(maxFetchedBytes);
+		if (other != null) {
+			limits.setQueryTimeoutSeconds((int) stricter(queryTimeoutSeconds, other.queryTimeoutSeconds));
+			limits.setWatchdogTimeoutMillis(stricter(watchdogTimeoutMillis, other.watchdogTimeoutMillis));
+			limits.setMaxFetchedRows((int) stricter(maxFetchedRows, other.maxFetchedRows));
+			limits.setMaxFetchedBytes(stricter(maxFetchedBytes, other.maxFetchedBytes));
+		}
+		return limits;
+	}
+
+	private static long stricter(final long limit, final long otherLimit) {
+		if (limit == 0) {
+			return otherLimit;
+		}
+		return otherLimit == 0 ? limit : Math.min(limit, otherLimit);
+	}
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database.execution;
+
+/**
+ * Ausgang der Ausführung einer SQL-Anweisung.
+ *
+ * @author Michael Kühweg
+ */
+public enum ExecutionOutcome {
+
+	/**
+	 * Anweisung vollständig ausgeführt, Ergebnis vollständig gelesen.
+	 */
+	COMPLETED,
+	/**
+	 * Anweisung ausgeführt, das Lesen der Ergebnismenge wurde aber wegen der
+	 * Begrenzung auf Zeilen oder Bytes vorzeitig beendet.
+	 */
+	TRUNCATED,
+	/**
+	 * Ausführung auf Anforderung des Anwenders abgebrochen.
+	 */
+	CANCELLED,
+	/**
+	 * Ausführung wegen Zeitüberschreitung abgebrochen.
+	 */
+	TIMED_OUT,
+	/**
+	 * Ausführung mit Fehler beendet.
+	 */
+	FAILED;
+
+	/**
+	 * @return true wenn die Ausführung vorzeitig abgebrochen wurde, ohne dass
+	 *         ein Fehler vorliegt
+	 */
+	public boolean isAborted() {
+		return this == CANCELLED || this == TIMED_OUT;
+	}
+}
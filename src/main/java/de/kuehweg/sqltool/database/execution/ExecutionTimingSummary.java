@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database.execution;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import de.kuehweg.sqltool.common.DialogDictionary;
+import de.kuehweg.sqltool.common.sqlediting.StatementString;
+
+/**
+ * Zusammenfassung der Ausführungszeiten aller Anweisungen eines Skripts:
+ * Gesamtdauer, Median, 95%-Perzentil und die langsamsten Anweisungen. Es
+ * werden nur Anweisung und Zeiten gehalten, nicht die Ergebnismengen. Da die
+ * Zeiten erst beim Auswerten gelesen werden, sind auch Verarbeitungszeiten der
+ * Tracker enthalten, die nach dem Hinzufügen noch gemessen wurden.
+ *
+ * @author Michael Kühweg
+ */
+public class ExecutionTimingSummary {
+
+	/**
+	 * Anweisung mit ihren Ausführungszeiten.
+	 */
+	public static final class StatementTiming {
+
+		private final StatementString sql;
+		private final ExecutionTimings timings;
+
+		StatementTiming(final StatementString sql, final ExecutionTimings timings) {
+			this.sql = sql;
+			this.timings = timings;
+		}
+
+		public StatementString getSql() {
+			return sql;
+		}
+
+		public ExecutionTimings getTimings() {
+			return timings;
+		}
+	}
+
+	private final List<StatementTiming> statements = new ArrayList<>();
+
+	/**
+	 * @param info Ausgeführte Anweisung, ohne gemessene Zeiten wird sie nicht
+	 *             berücksichtigt
+	 */
+	public synchronized void add(final StatementExecutionInformation info) {
+		if (info != null && info.getTimings().isRecorded()) {
+			statements.add(new StatementTiming(info.getSql(), info.getTimings()));
+		}
+	}
+
+	public synchronized void clear() {
+		statements.clear();
+	}
+
+	public synchronized int getStatementCount() {
+		return statements.size();
+	}
+
+	/**
+	 * @return Summe der Gesamtdauer aller Anweisungen
+	 */
+	public synchronized long getTotalNanos() {
+		return statements.stream().mapToLong(statement -> statement.getTimings().getTotalNanos()).sum();
+	}
+
+	/**
+	 * Perzentil der Gesamtdauer je Anweisung nach dem Nearest-Rank-Verfahren.
+	 *
+	 * @param percentile Perzentil zwischen 0 und 100, z.B. 50 für den Median
+	 * @return Dauer in Nanosekunden, 0 ohne Anweisungen
+	 */
+	public synchronized long getPercentileNanos(final double percentile) {
+		if (statements.isEmpty()) {
+			return 0;
+		}
+		final long[] sorted = statements.stream().mapToLong(statement -> statement.getTimings().getTotalNanos())
+				.sorted().toArray();
+		final int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+		return sorted[Math.min(sorted.length, Math.max(1, rank)) - 1];
+	}
+
+	/**
+	 * @param count maximale Anzahl
+	 * @return Die langsamsten Anweisungen, absteigend nach Gesamtdauer
+	 */
+	public synchronized List<StatementTiming> getSlowest(final int count) {
+		return statements.stream()
+				.sorted(Comparator.comparingLong(
+						(final StatementTiming statement) -> statement.getTimings().getTotalNanos()).reversed())
+				.limit(count).collect(Collectors.toList());
+	}
+
+	/**
+	 * @return Einzeilige Zusammenfassung (Anzahl, gesamt, Median, 95%)
+	 */
+	public String format() {
+		return MessageFormat.format(DialogDictionary.PATTERN_EXECUTION_TIMING_SUMMARY.toString(),
+				getStatementCount(), ExecutionTimings.toMillis(getTotalNanos()),
+				ExecutionTimings.toMillis(getPercentileNanos(50)), ExecutionTimings.toMillis(getPercentileNanos(95)));
+	}
+
+	/**
+	 * @param count Anzahl der aufgeführten langsamsten Anweisungen
+	 * @return Mehrzeilige Zusammenfassung inklusive der langsamsten Anweisungen
+	 *         mit ihren einzelnen Zeiten
+	 */
+	public String formatWithSlowest(final int count) {
+		final StringBuilder builder = new StringBuilder(format());
+		final List<StatementTiming> slowest = getSlowest(count);
+		if (!slowest.isEmpty()) {
+			builder.append('\n').append(DialogDictionary.LABEL_SLOWEST_STATEMENTS.toString());
+			for (final StatementTiming statement : slowest) {
+				builder.append('\n')
+						.append(MessageFormat.format(DialogDictionary.PATTERN_STATEMENT_TIMING.toString(),
+								ExecutionTimings.toMillis(statement.getTimings().getTotalNanos()),
+								statement.getSql() != null ? statement.getSql().uncommentedStatement() : ""))
+						.append("\n  ").append(statement.getTimings().formatAllTimings());
+			}
+		}
+		return builder.toString();
+	}
+}
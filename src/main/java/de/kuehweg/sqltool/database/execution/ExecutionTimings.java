@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database.execution;
+
+import java.text.MessageFormat;
+
+import de.kuehweg.sqltool.common.DialogDictionary;
+
+/**
+ * Zeitanteile bei der Ausführung einer Anweisung in Nanosekunden, gemessen mit
+ * {@link System#nanoTime()}. Im Gegensatz zu Start- und Endezeitpunkt der
+ * Ausführung lassen sich damit Vorbereitung, Ausführung im DBMS, Übertragung
+ * der Ergebnismenge und Aufbereitung durch die Oberfläche getrennt
+ * betrachten.
+ *
+ * @author Michael Kühweg
+ */
+public class ExecutionTimings {
+
+	private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+	private long prepareNanos;
+	private long executeNanos;
+	private long firstRowNanos;
+	private long fetchNanos;
+	private volatile long trackerNanos;
+
+	/**
+	 * @return Dauer der Vorbereitung: Parametrisierung, PreparedStatement aus
+	 *         dem Cache bzw. neu vorbereitet, Parameter gebunden
+	 */
+	public long getPrepareNanos() {
+		return prepareNanos;
+	}
+
+	public void setPrepareNanos(final long prepareNanos) {
+		this.prepareNanos = prepareNanos;
+	}
+
+	/**
+	 * @return Dauer der Ausführung im DBMS bis zur Rückkehr von execute()
+	 */
+	public long getExecuteNanos() {
+		return executeNanos;
+	}
+
+	public void setExecuteNanos(final long executeNanos) {
+		this.executeNanos = executeNanos;
+	}
+
+	/**
+	 * @return Zeit vom Beginn der Ausführung bis die erste Ergebniszeile
+	 *         gelesen ist, 0 ohne Ergebniszeilen
+	 */
+	public long getFirstRowNanos() {
+		return firstRowNanos;
+	}
+
+	public void setFirstRowNanos(final long firstRowNanos) {
+		this.firstRowNanos = firstRowNanos;
+	}
+
+	/**
+	 * @return Dauer für das vollständige Lesen der Ergebnismenge
+	 */
+	public long getFetchNanos() {
+		return fetchNanos;
+	}
+
+	public void setFetchNanos(final long fetchNanos) {
+		this.fetchNanos = fetchNanos;
+	}
+
+	/**
+	 * @return Dauer der Verarbeitung des Ergebnisses durch die Tracker,
+	 *         inklusive Formatierung
+	 */
+	public long getTrackerNanos() {
+		return trackerNanos;
+	}
+
+	/**
+	 * Verarbeitungszeit der Tracker hinzufügen, z.B. für jedes Teilergebnis.
+	 *
+	 * @param nanos Dauer in Nanosekunden
+	 */
+	public synchronized void addTrackerNanos(final long nanos) {
+		trackerNanos += nanos;
+	}
+
+	/**
+	 * @return Summe aus Vorbereitung, Ausführung und Lesen der Ergebnismenge
+	 */
+	public long getDatabaseNanos() {
+		return prepareNanos + executeNanos + fetchNanos;
+	}
+
+	/**
+	 * @return Gesamtdauer inklusive Verarbeitung durch die Tracker
+	 */
+	public long getTotalNanos() {
+		return getDatabaseNanos() + trackerNanos;
+	}
+
+	/**
+	 * @return true wenn für die Anweisung Zeiten gemessen wurden
+	 */
+	public boolean isRecorded() {
+		return getDatabaseNanos() > 0;
+	}
+
+	/**
+	 * @param nanos Dauer in Nanosekunden
+	 * @return Dauer in Millisekunden
+	 */
+	public static double toMillis(final long nanos) {
+		return nanos / NANOS_PER_MILLI;
+	}
+
+	/**
+	 * @return Aufbereitete Zeiten der Datenbankseite (Vorbereitung, Ausführung,
+	 *         erste Zeile, Lesen)
+	 */
+	public String formatDatabaseTimings() {
+		return MessageFormat.format(DialogDictionary.PATTERN_EXECUTION_TIMINGS.toString(), toMillis(prepareNanos),
+				toMillis(executeNanos), toMillis(firstRowNanos), toMillis(fetchNanos));
+	}
+
+	/**
+	 * @return Aufbereitete Zeiten inklusive der Verarbeitung durch die Tracker
+	 */
+	public String formatAllTimings() {
+		return formatDatabaseTimings() + " " + MessageFormat
+				.format(DialogDictionary.PATTERN_TRACKER_TIMING.toString(), toMillis(trackerNanos));
+	}
+}
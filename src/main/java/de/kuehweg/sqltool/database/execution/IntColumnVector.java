@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database.execution;
+
+/**
+ * Spalte mit Werten vom Typ int für INTEGER, SMALLINT und TINYINT, ohne Boxing abgelegt.
+ *
+ * @author Michael Kühweg
+ */
+class IntColumnVector extends ColumnVector {
+
+	private int[][] chunks = new int[4][];
+
+	@Override
+	boolean accepts(final Object value) {
+		return value == null || value.getClass() == Integer.class;
+	}
+
+	@Override
+	void allocateChunk(final int chunk) {
+		chunks = ensureChunkCapacity(chunks, chunk);
+		chunks[chunk] = new int[CHUNK_SIZE];
+	}
+
+	@Override
+	void releaseChunks() {
+		chunks = new int[4][];
+	}
+
+	@Override
+	void store(final int chunk, final int offset, final Object value) {
+		chunks[chunk][offset] = ((Integer) value).intValue();
+	}
+
+	@Override
+	Object load(final int chunk, final int offset) {
+		return chunks[chunk][offset];
+	}
+
+	@Override
+	String loadAsString(final int chunk, final int offset) {
+		return Integer.toString(chunks[chunk][offset]);
+	}
+
+	/**
+	 * @param row Zeile, beginnend mit 0
+	 * @return Wert ohne Boxing, 0 für NULL-Werte
+	 */
+	int getInt(final int row) {
+		return isNull(row) ? 0 : chunks[chunkOf(row)][offsetOf(row)];
+	}
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database.execution;
+
+/**
+ * Spalte für alle Typen, die nicht speziell abgelegt werden (z.B. DECIMAL,
+ * Datumswerte, LOBs). Die Objekte werden so abgelegt, wie sie vom Treiber
+ * geliefert werden.
+ *
+ * @author Michael Kühweg
+ */
+class ObjectColumnVector extends ColumnVector {
+
+	private Object[][] chunks = new Object[4][];
+
+	@Override
+	boolean accepts(final Object value) {
+		return true;
+	}
+
+	@Override
+	void allocateChunk(final int chunk) {
+		chunks = ensureChunkCapacity(chunks, chunk);
+		chunks[chunk] = new Object[CHUNK_SIZE];
+	}
+
+	@Override
+	void releaseChunks() {
+		chunks = new Object[4][];
+	}
+
+	@Override
+	void store(final int chunk, final int offset, final Object value) {
+		chunks[chunk][offset] = value;
+	}
+
+	@Override
+	Object load(final int chunk, final int offset) {
+		return chunks[chunk][offset];
+	}
+
+	@Override
+	String loadAsString(final int chunk, final int offset) {
+		return chunks[chunk][offset].toString();
+	}
+
+	@Override
+	ColumnVector toObjectColumnVector() {
+		return this;
+	}
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database.execution;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Cursor über eine geöffnete Ergebnismenge, der die Zeilen seitenweise
+ * liefert. So muss die Ergebnismenge nicht komplett im Speicher gehalten
+ * werden, bevor die ersten Zeilen weiterverarbeitet werden können.
+ *
+ * @author Michael Kühweg
+ */
+public class ResultCursor implements AutoCloseable {
+
+	private final ResultSet resultSet;
+	private final int pageSize;
+	private final int columnCount;
+	private int rowCount;
+	private long fetchedBytes;
+	private boolean exhausted;
+	private boolean truncated;
+	private int maxRows;
+	private long maxBytes;
+	private long maxPageNanos;
+	private long firstRowNanoTime;
+	private volatile boolean aborted;
+
+	/**
+	 * @param resultSet geöffnete Ergebnismenge, wird beim Schließen des Cursors
+	 *                  ebenfalls geschlossen
+	 * @param pageSize  Anzahl Zeilen je Seite, bei Werten kleiner 1 wird die
+	 *                  Ergebnismenge als eine einzige Seite geliefert
+	 * @throws SQLException
+	 */
+	public ResultCursor(final ResultSet resultSet, final int pageSize) throws SQLException {
+		this.resultSet = resultSet;
+		this.pageSize = pageSize > 0 ? pageSize : Integer.MAX_VALUE;
+		columnCount = resultSet.getMetaData().getColumnCount();
+	}
+
+	/**
+	 * Begrenzt die Anzahl der gelesenen Zeilen und die geschätzte gelesene
+	 * Datenmenge. Wird eine Grenze erreicht, gilt der Cursor als erschöpft und
+	 * {@link #isTruncated()} liefert true.
+	 *
+	 * @param maxRows  maximale Anzahl Zeilen, 0 für unbegrenzt
+	 * @param maxBytes maximale Datenmenge in Bytes, 0 für unbegrenzt
+	 */
+	public void limit(final int maxRows, final long maxBytes) {
+		this.maxRows = maxRows;
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * Schließt eine Seite vorzeitig ab, wenn das Lesen länger als angegeben
+	 * dauert. So werden auch bei langsam gelieferten Zeilen regelmäßig
+	 * Teilergebnisse weitergegeben.
+	 *
+	 * @param maxPageMillis maximale Dauer je Seite in Millisekunden, 0 für
+	 *                      unbegrenzt
+	 */
+	public void limitPageDuration(final long maxPageMillis) {
+		maxPageNanos = maxPageMillis > 0 ? maxPageMillis * 1_000_000L : 0;
+	}
+
+	/**
+	 * Beendet das Lesen nach der aktuellen Zeile. Kann aus einem anderen
+	 * Thread aufgerufen werden.
+	 */
+	public void abort() {
+		aborted = true;
+	}
+
+	/**
+	 * @return Spaltenüberschriften der Ergebnismenge
+	 * @throws SQLException
+	 */
+	public ResultHeader readHeader() throws SQLException {
+		final ResultSetMetaData metaData = resultSet.getMetaData();
+		final String[] header = new String[columnCount];
+		for (int i = 1; i <= columnCount; i++) {
+			header[i - 1] = metaData.getColumnLabel(i);
+		}
+		return new ResultHeader(header);
+	}
+
+	/**
+	 * @return SQL-Typen der Spalten, siehe {@link java.sql.Types}
+	 * @throws SQLException
+	 */
+	public int[] readColumnTypes() throws SQLException {
+		final ResultSetMetaData metaData = resultSet.getMetaData();
+		final int[] types = new int[columnCount];
+		for (int i = 1; i <= columnCount; i++) {
+			types[i - 1] = metaData.getColumnType(i);
+		}
+		return types;
+	}
+
+	/**
+	 * Nächste Seite aus der Ergebnismenge lesen.
+	 *
+	 * @return Zeilen der nächsten Seite, leer wenn die Ergebnismenge bereits
+	 *         vollständig gelesen ist
+	 * @throws SQLException
+	 */
+	public List<ResultRow> nextPage() throws SQLException {
+		if (exhausted) {
+			return Collections.emptyList();
+		}
+		final List<ResultRow> page = new ArrayList<>(Math.min(pageSize, 1024));
+		final Object[] row = new Object[columnCount];
+		final long pageStart = maxPageNanos > 0 ? System.nanoTime() : 0;
+		while (page.size() < pageSize && !pageDurationExceeded(page, pageStart)) {
+			if (aborted || !resultSet.next()) {
+				exhausted = true;
+				break;
+			}
+			if (limitReached()) {
+				// nur gekürzt, wenn tatsächlich noch eine Zeile folgt
+				exhausted = true;
+				truncated = true;
+				break;
+			}
+			for (int i = 1; i <= columnCount; i++) {
+				row[i - 1] = resultSet.getObject(i);
+				if (resultSet.wasNull()) {
+					row[i - 1] = null;
+				}
+				if (maxBytes > 0) {
+					fetchedBytes += estimatedBytes(row[i - 1]);
+				}
+			}
+			page.add(new ResultRow(row));
+			if (rowCount == 0) {
+				firstRowNanoTime = System.nanoTime();
+			}
+			rowCount++;
+		}
+		return page;
+	}
+
+	/**
+	 * @return Zeitpunkt gemäß {@link System#nanoTime()}, zu dem die erste Zeile
+	 *         gelesen wurde, 0 wenn noch keine Zeile gelesen wurde
+	 */
+	public long getFirstRowNanoTime() {
+		return firstRowNanoTime;
+	}
+
+	private boolean pageDurationExceeded(final List<ResultRow> page, final long pageStart) {
+		return maxPageNanos > 0 && !page.isEmpty() && System.nanoTime() - pageStart >= maxPageNanos;
+	}
+
+	private boolean limitReached() {
+		return maxRows > 0 && rowCount >= maxRows || maxBytes > 0 && fetchedBytes >= maxBytes;
+	}
+
+	private static long estimatedBytes(final Object value) {
+		if (value == null) {
+			return 0;
+		}
+		if (value instanceof String) {
+			return 2L * ((String) value).length();
+		}
+		if (value instanceof byte[]) {
+			return ((byte[]) value).length;
+		}
+		return Long.BYTES;
+	}
+
+	/**
+	 * @return true wenn die Ergebnismenge vollständig gelesen ist
+	 */
+	public boolean isExhausted() {
+		return exhausted;
+	}
+
+	/**
+	 * @return true wenn das Lesen wegen der Begrenzung durch
+	 *         {@link #limit(int, long)} beendet wurde, obwohl die
+	 *         Ergebnismenge weitere Zeilen enthält
+	 */
+	public boolean isTruncated() {
+		return truncated;
+	}
+
+	/**
+	 * @return Anzahl der bisher gelesenen Zeilen
+	 */
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	@Override
+	public void close() throws SQLException {
+		resultSet.close();
+	}
+}
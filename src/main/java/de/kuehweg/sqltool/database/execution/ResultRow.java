@@ -55,4 +55,29 @@ public class ResultRow {
 		}
 		return result;
 	}
+
+	/**
+	 * @return Anzahl Spalten der Zeile
+	 */
+	public int getColumnCount() {
+		return columns.length;
+	}
+
+	/**
+	 * @param column Spalte, beginnend mit 0
+	 * @return Inhalt der Spalte, null für NULL-Werte und nicht vorhandene
+	 *         Spalten
+	 */
+	public Object getColumn(final int column) {
+		return column >= 0 && column < columns.length ? columns[column] : null;
+	}
+
+	/**
+	 * @param column Spalte, beginnend mit 0
+	 * @return Inhalt der Spalte als Text, {@link #NULL_STR} für NULL-Werte
+	 */
+	public String getColumnAsString(final int column) {
+		final Object value = getColumn(column);
+		return value != null ? value.toString() : NULL_STR;
+	}
 }
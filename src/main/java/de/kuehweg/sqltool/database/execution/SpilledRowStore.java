@@ -0,0 +1,393 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database.execution;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.Cleaner;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Auslagerung von Ergebniszeilen in eine temporäre Datei. Die Zeilen werden in
+ * einem kompakten Binärformat angehängt (je Zelle ein Typkennzeichen gefolgt
+ * vom Wert), gelesen wird über MappedByteBuffer-Fenster auf die Datei. Die
+ * Position jeder Zeile wird im Speicher gehalten, damit der Zugriff auf eine
+ * Zeile in O(1) erfolgt.
+ * <p>
+ * Zahlen, Text, BigDecimal, Boolean, java.sql.Date/Time/Timestamp und byte[]
+ * werden mit ihrem Typ abgelegt und so zurückgeliefert, wie sie gelesen
+ * wurden. Alle übrigen Werte (z.B. Arrays oder Datumswerte mit Zeitzone)
+ * werden in ihrer Textdarstellung abgelegt und als Text zurückgeliefert.
+ * <p>
+ * Die Datei wird gelöscht, sobald der Speicher nicht mehr erreichbar ist.
+ * Dateien, die dabei z.B. nach einem Absturz übrig bleiben, räumt
+ * {@link #deleteLeftoverFiles()} beim nächsten Start auf.
+ *
+ * @author Michael Kühweg
+ */
+class SpilledRowStore {
+
+	private static final Cleaner CLEANER = Cleaner.create();
+
+	private static final String FILE_PREFIX = "itrysql-result";
+	private static final String FILE_SUFFIX = ".bin";
+
+	private static final byte TAG_NULL = 0;
+	private static final byte TAG_INT = 1;
+	private static final byte TAG_LONG = 2;
+	private static final byte TAG_DOUBLE = 3;
+	private static final byte TAG_STRING = 4;
+	private static final byte TAG_TEXT_OF_OBJECT = 5;
+	private static final byte TAG_BIG_DECIMAL = 6;
+	private static final byte TAG_BOOLEAN = 7;
+	private static final byte TAG_DATE = 8;
+	private static final byte TAG_TIME = 9;
+	private static final byte TAG_TIMESTAMP = 10;
+	private static final byte TAG_BYTES = 11;
+
+	private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+	private static final int WINDOW_SIZE = 16 * 1024 * 1024;
+
+	private final int columnCount;
+	private final FileChannel channel;
+	private final ByteBuffer writeBuffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+	private long[] rowOffsets = new long[1024];
+	private int rowCount;
+	private long endOfData;
+	private long flushedUpTo;
+
+	private MappedByteBuffer window;
+	private long windowStart;
+	private long windowEnd;
+
+	/**
+	 * Räumt die temporäre Datei auf, sobald der Speicher nicht mehr erreichbar
+	 * ist.
+	 */
+	private static final class TempFileRemover implements Runnable {
+
+		private final FileChannel channel;
+		private final Path file;
+
+		TempFileRemover(final FileChannel channel, final Path file) {
+			this.channel = channel;
+			this.file = file;
+		}
+
+		@Override
+		public void run() {
+			try {
+				channel.close();
+				Files.deleteIfExists(file);
+			} catch (final IOException ex) {
+				Logger.getLogger(SpilledRowStore.class.getName()).log(Level.INFO, file.toString(), ex);
+			}
+		}
+	}
+
+	/**
+	 * @param columnCount Anzahl Spalten je Zeile
+	 * @throws IOException wenn die temporäre Datei nicht angelegt werden kann
+	 */
+	SpilledRowStore(final int columnCount) throws IOException {
+		this.columnCount = columnCount;
+		final Path file = Files.createTempFile(FILE_PREFIX, FILE_SUFFIX);
+		channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		CLEANER.register(this, new TempFileRemover(channel, file));
+	}
+
+	/**
+	 * Löscht ausgelagerte Zeilen früherer Programmläufe. Dateien, die seit dem
+	 * Start dieses Programmlaufs angelegt wurden, bleiben erhalten.
+	 */
+	static void deleteLeftoverFiles() {
+		final long startedAt = ProcessHandle.current().info().startInstant().map(Instant::toEpochMilli)
+				.orElseGet(System::currentTimeMillis);
+		final Path tempDirectory = Paths.get(System.getProperty("java.io.tmpdir"));
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(tempDirectory,
+				FILE_PREFIX + "*" + FILE_SUFFIX)) {
+			for (final Path file : files) {
+				try {
+					if (Files.getLastModifiedTime(file).toMillis() < startedAt) {
+						Files.deleteIfExists(file);
+					}
+				} catch (final IOException ex) {
+					// z.B. noch von einer anderen Instanz geöffnet
+					Logger.getLogger(SpilledRowStore.class.getName()).log(Level.FINE, file.toString(), ex);
+				}
+			}
+		} catch (final IOException ex) {
+			Logger.getLogger(SpilledRowStore.class.getName()).log(Level.INFO, tempDirectory.toString(), ex);
+		}
+	}
+
+	int size() {
+		return rowCount;
+	}
+
+	/**
+	 * Zeile ans Ende der Datei anhängen.
+	 *
+	 * @param row Zeile
+	 */
+	synchronized void append(final ResultRow row) {
+		if (rowCount == rowOffsets.length) {
+			rowOffsets = Arrays.copyOf(rowOffsets, rowOffsets.length * 2);
+		}
+		rowOffsets[rowCount++] = endOfData;
+		for (int column = 0; column < columnCount; column++) {
+			writeValue(row.getColumn(column));
+		}
+	}
+
+	private void writeValue(final Object value) {
+		if (value == null) {
+			ensureWriteCapacity(1);
+			writeBuffer.put(TAG_NULL);
+			endOfData += 1;
+		} else if (value.getClass() == Integer.class) {
+			ensureWriteCapacity(1 + Integer.BYTES);
+			writeBuffer.put(TAG_INT).putInt((Integer) value);
+			endOfData += 1 + Integer.BYTES;
+		} else if (value.getClass() == Long.class) {
+			ensureWriteCapacity(1 + Long.BYTES);
+			writeBuffer.put(TAG_LONG).putLong((Long) value);
+			endOfData += 1 + Long.BYTES;
+		} else if (value.getClass() == Double.class) {
+			ensureWriteCapacity(1 + Double.BYTES);
+			writeBuffer.put(TAG_DOUBLE).putDouble((Double) value);
+			endOfData += 1 + Double.BYTES;
+		} else if (value.getClass() == Boolean.class) {
+			ensureWriteCapacity(2);
+			writeBuffer.put(TAG_BOOLEAN).put((byte) ((Boolean) value ? 1 : 0));
+			endOfData += 2;
+		} else if (value.getClass() == Date.class || value.getClass() == Time.class) {
+			ensureWriteCapacity(1 + Long.BYTES);
+			writeBuffer.put(value.getClass() == Date.class ? TAG_DATE : TAG_TIME)
+					.putLong(((java.util.Date) value).getTime());
+			endOfData += 1 + Long.BYTES;
+		} else if (value.getClass() == Timestamp.class) {
+			// getTime() enthält nur Millisekunden, die Nanosekunden gesondert
+			ensureWriteCapacity(1 + Long.BYTES + Integer.BYTES);
+			writeBuffer.put(TAG_TIMESTAMP).putLong(((Timestamp) value).getTime())
+					.putInt(((Timestamp) value).getNanos());
+			endOfData += 1 + Long.BYTES + Integer.BYTES;
+		} else if (value.getClass() == BigDecimal.class) {
+			final BigDecimal decimal = (BigDecimal) value;
+			ensureWriteCapacity(1 + Integer.BYTES);
+			writeBuffer.put(TAG_BIG_DECIMAL).putInt(decimal.scale());
+			endOfData += 1 + Integer.BYTES;
+			writeLengthAndBytes(decimal.unscaledValue().toByteArray());
+		} else if (value instanceof byte[]) {
+			ensureWriteCapacity(1);
+			writeBuffer.put(TAG_BYTES);
+			endOfData += 1;
+			writeLengthAndBytes((byte[]) value);
+		} else {
+			ensureWriteCapacity(1);
+			writeBuffer.put(value instanceof String ? TAG_STRING : TAG_TEXT_OF_OBJECT);
+			endOfData += 1;
+			writeLengthAndBytes(value.toString().getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+	private void writeLengthAndBytes(final byte[] bytes) {
+		ensureWriteCapacity(Integer.BYTES);
+		writeBuffer.putInt(bytes.length);
+		endOfData += Integer.BYTES;
+		writeBytes(bytes);
+	}
+
+	private void writeBytes(final byte[] bytes) {
+		int written = 0;
+		while (written < bytes.length) {
+			ensureWriteCapacity(1);
+			final int length = Math.min(writeBuffer.remaining(), bytes.length - written);
+			writeBuffer.put(bytes, written, length);
+			written += length;
+		}
+		endOfData += bytes.length;
+	}
+
+	private void ensureWriteCapacity(final int bytes) {
+		if (writeBuffer.remaining() < bytes) {
+			flush();
+		}
+	}
+
+	private void flush() {
+		writeBuffer.flip();
+		try {
+			while (writeBuffer.hasRemaining()) {
+				flushedUpTo += channel.write(writeBuffer, flushedUpTo);
+			}
+		} catch (final IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		writeBuffer.clear();
+	}
+
+	/**
+	 * @param row    Zeile, beginnend mit 0
+	 * @param column Spalte, beginnend mit 0
+	 * @return Wert der Zelle, null für NULL-Werte
+	 */
+	synchronized Object getValue(final int row, final int column) {
+		final ByteBuffer buffer = positionAt(row, column);
+		switch (buffer.get()) {
+		case TAG_NULL:
+			return null;
+		case TAG_INT:
+			return buffer.getInt();
+		case TAG_LONG:
+			return buffer.getLong();
+		case TAG_DOUBLE:
+			return buffer.getDouble();
+		case TAG_BOOLEAN:
+			return buffer.get() != 0;
+		case TAG_DATE:
+			return new Date(buffer.getLong());
+		case TAG_TIME:
+			return new Time(buffer.getLong());
+		case TAG_TIMESTAMP:
+			final Timestamp timestamp = new Timestamp(buffer.getLong());
+			timestamp.setNanos(buffer.getInt());
+			return timestamp;
+		case TAG_BIG_DECIMAL:
+			final int scale = buffer.getInt();
+			return new BigDecimal(new BigInteger(readBytes(buffer)), scale);
+		case TAG_BYTES:
+			return readBytes(buffer);
+		default:
+			return new String(readBytes(buffer), StandardCharsets.UTF_8);
+		}
+	}
+
+	/**
+	 * @param row    Zeile, beginnend mit 0
+	 * @param column Spalte, beginnend mit 0
+	 * @return Wert der Zelle als Text, {@link ResultRow#NULL_STR} für
+	 *         NULL-Werte
+	 */
+	synchronized String getValueAsString(final int row, final int column) {
+		final Object value = getValue(row, column);
+		return value != null ? value.toString() : ResultRow.NULL_STR;
+	}
+
+	private static byte[] readBytes(final ByteBuffer buffer) {
+		final byte[] bytes = new byte[buffer.getInt()];
+		buffer.get(bytes);
+		return bytes;
+	}
+
+	/**
+	 * Liefert einen Buffer, der auf dem Beginn der gesuchten Zelle steht.
+	 */
+	private ByteBuffer positionAt(final int row, final int column) {
+		if (row < 0 || row >= rowCount) {
+			throw new IndexOutOfBoundsException("Row: " + row + ", Size: " + rowCount);
+		}
+		if (writeBuffer.position() > 0) {
+			flush();
+		}
+		final long rowStart = rowOffsets[row];
+		final long rowEnd = row + 1 < rowCount ? rowOffsets[row + 1] : endOfData;
+		final ByteBuffer buffer = mapWindow(rowStart, rowEnd);
+		buffer.position((int) (rowStart - windowStart));
+		for (int i = 0; i < column; i++) {
+			skipValue(buffer);
+		}
+		return buffer;
+	}
+
+	private ByteBuffer mapWindow(final long rowStart, final long rowEnd) {
+		if (window == null || rowStart < windowStart || rowEnd > windowEnd) {
+			final long size = Math.min(Math.max(WINDOW_SIZE, rowEnd - rowStart), endOfData - rowStart);
+			try {
+				window = channel.map(FileChannel.MapMode.READ_ONLY, rowStart, size);
+			} catch (final IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+			windowStart = rowStart;
+			windowEnd = rowStart + size;
+		}
+		return window.duplicate();
+	}
+
+	private void skipValue(final ByteBuffer buffer) {
+		switch (buffer.get()) {
+		case TAG_NULL:
+			break;
+		case TAG_INT:
+			buffer.position(buffer.position() + Integer.BYTES);
+			break;
+		case TAG_LONG:
+		case TAG_DATE:
+		case TAG_TIME:
+			buffer.position(buffer.position() + Long.BYTES);
+			break;
+		case TAG_DOUBLE:
+			buffer.position(buffer.position() + Double.BYTES);
+			break;
+		case TAG_BOOLEAN:
+			buffer.position(buffer.position() + 1);
+			break;
+		case TAG_TIMESTAMP:
+			buffer.position(buffer.position() + Long.BYTES + Integer.BYTES);
+			break;
+		case TAG_BIG_DECIMAL:
+			// Skalierung, danach Länge und Bytes wie bei Text
+			buffer.getInt();
+			skipBytes(buffer);
+			break;
+		default:
+			skipBytes(buffer);
+			break;
+		}
+	}
+
+	private static void skipBytes(final ByteBuffer buffer) {
+		final int length = buffer.getInt();
+		buffer.position(buffer.position() + length);
+	}
+}
@@ -25,14 +25,25 @@
  */
 package de.kuehweg.sqltool.database.execution;
 
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
 import java.sql.Statement;
 import java.text.MessageFormat;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import de.kuehweg.sqltool.common.DialogDictionary;
+import de.kuehweg.sqltool.common.sqlediting.ParameterizedStatement;
+import de.kuehweg.sqltool.common.sqlediting.StatementParameterizer;
 import de.kuehweg.sqltool.common.sqlediting.StatementString;
+import de.kuehweg.sqltool.database.DatabaseConstants;
+import de.kuehweg.sqltool.database.PreparedStatementCache;
+import de.kuehweg.sqltool.database.ResultCache;
 
 /**
  * Klasse zur Ausführung einer SQL-Anweisung mit Aufbereitung des Ergebnisses.
@@ -43,22 +54,176 @@ public class StatementExecution {
 
 	private final StatementExecutionInformation info;
 
+	private int fetchSize;
+
+	private int partialResultRows;
+
+	private long partialResultMillis;
+
+	private ResultPageListener resultPageListener;
+
+	private long resultHeapBudget;
+
+	private PreparedStatementCache preparedStatementCache;
+
+	private ResultCache resultCache;
+
+	private ExecutionLimits executionLimits = new ExecutionLimits();
+
+	private volatile Statement runningStatement;
+
+	private volatile ResultCursor runningCursor;
+
+	private volatile ExecutionOutcome abortReason;
+
 	public StatementExecution(final StatementString sql) {
 		info = new StatementExecutionInformation();
 		info.setSql(sql);
 	}
 
+	/**
+	 * Ergebniszeilen im Streaming-Modus lesen: Die Zeilen werden seitenweise
+	 * mit der angegebenen Fetch-Size gelesen und jeweils sofort an den Listener
+	 * übergeben. Im Ergebnis selbst bleiben höchstens
+	 * {@link DatabaseConstants#MAX_RETAINED_STREAMING_ROWS} Zeilen erhalten,
+	 * damit der Speicherbedarf unabhängig von der Größe der Ergebnismenge
+	 * begrenzt bleibt.
+	 *
+	 * @param fetchSize          Anzahl Zeilen je Seite, bei Werten kleiner 1
+	 *                           wird {@link DatabaseConstants#DEFAULT_FETCH_SIZE}
+	 *                           verwendet
+	 * @param resultPageListener Empfänger der gelesenen Seiten, null schaltet
+	 *                           den Streaming-Modus aus
+	 */
+	public void streamResult(final int fetchSize, final ResultPageListener resultPageListener) {
+		this.fetchSize = fetchSize > 0 ? fetchSize : DatabaseConstants.DEFAULT_FETCH_SIZE;
+		this.resultPageListener = resultPageListener;
+	}
+
+	/**
+	 * Im Streaming-Modus Teilergebnisse alle N Zeilen oder spätestens nach T
+	 * Millisekunden an den Listener geben, auch wenn die Fetch-Size größer ist
+	 * bzw. die Zeilen nur langsam geliefert werden.
+	 *
+	 * @param rows   Anzahl Zeilen je Teilergebnis, 0 für die Fetch-Size
+	 * @param millis maximale Zeit zwischen zwei Teilergebnissen, 0 für
+	 *               unbegrenzt
+	 */
+	public void setPartialResultInterval(final int rows, final long millis) {
+		partialResultRows = rows;
+		partialResultMillis = millis;
+	}
+
+	/**
+	 * Speicherbudget für das Ergebnis. Zeilen, die darüber hinaus gelesen
+	 * werden, lagert das Ergebnis in eine temporäre Datei aus. Im
+	 * Streaming-Modus entfällt mit gesetztem Budget die Begrenzung auf
+	 * {@link DatabaseConstants#MAX_RETAINED_STREAMING_ROWS} Zeilen.
+	 *
+	 * @param resultHeapBudget Budget in Bytes, 0 für keine Auslagerung
+	 */
+	public void setResultHeapBudget(final long resultHeapBudget) {
+		this.resultHeapBudget = resultHeapBudget;
+	}
+
+	/**
+	 * Anweisungen, deren Literale sich parametrisieren lassen, als
+	 * PreparedStatement aus dem Cache ausführen. Nach DDL-Anweisungen wird der
+	 * Cache geleert.
+	 *
+	 * @param preparedStatementCache Cache der Verbindung, null für die
+	 *                               Ausführung ohne PreparedStatements
+	 */
+	public void usePreparedStatementCache(final PreparedStatementCache preparedStatementCache) {
+		this.preparedStatementCache = preparedStatementCache;
+	}
+
+	/**
+	 * Ergebnisse wiederholter Abfragen aus dem Cache liefern bzw. dort
+	 * aufnehmen. Alle anderen Anweisungen verwerfen vor ihrer Ausführung die
+	 * davon betroffenen Ergebnisse.
+	 *
+	 * @param resultCache Ergebnis-Cache der Verbindung, null für die
+	 *                    Ausführung ohne Cache
+	 */
+	public void useResultCache(final ResultCache resultCache) {
+		this.resultCache = resultCache;
+	}
+
+	/**
+	 * @param executionLimits Grenzen für Laufzeit und gelesene Datenmenge, null
+	 *                        für keine Begrenzung
+	 */
+	public void setExecutionLimits(final ExecutionLimits executionLimits) {
+		this.executionLimits = executionLimits != null ? executionLimits : new ExecutionLimits();
+	}
+
+	/**
+	 * Bricht die laufende Ausführung per {@link Statement#cancel()} ab bzw.
+	 * beendet das Lesen der Ergebnismenge. Kann aus einem anderen Thread
+	 * aufgerufen werden.
+	 */
+	public void cancel() {
+		abort(ExecutionOutcome.CANCELLED);
+	}
+
+	private void abort(final ExecutionOutcome reason) {
+		if (abortReason == null) {
+			abortReason = reason;
+		}
+		final ResultCursor cursor = runningCursor;
+		if (cursor != null) {
+			cursor.abort();
+		}
+		final Statement statement = runningStatement;
+		if (statement != null) {
+			try {
+				statement.cancel();
+			} catch (final SQLException ex) {
+				Logger.getLogger(StatementExecution.class.getName()).log(Level.FINE, ex.getMessage(), ex);
+			}
+		}
+	}
+
+	private boolean isStreaming() {
+		return resultPageListener != null;
+	}
+
 	public StatementExecutionInformation execute(final Statement statement) throws SQLException {
 		if (info.getSql() == null) {
 			erroneousResult();
 		} else {
 			info.setExecutedBy(statement.getConnection().getMetaData().getUserName());
 			info.setConnectionDescription(statement.getConnection().getMetaData().getURL());
-			info.setStartOfExecution(System.currentTimeMillis());
-			if (statement.execute(info.getSql().uncommentedStatement())) {
-				retrieveResult(statement);
-			} else {
-				headOnlyResult(statement.getUpdateCount());
+			if (resultCache != null) {
+				final ResultCache.CachedResult cached = resultCache.lookup(info.getSql(), statement.getMaxRows());
+				if (cached != null) {
+					cachedResult(cached);
+					info.setEndOfExecution(System.currentTimeMillis());
+					return info;
+				}
+				resultCache.invalidate(info.getSql());
+			}
+			final long prepareStart = System.nanoTime();
+			final ParameterizedStatement parameterized = preparedStatementCache != null
+					? new StatementParameterizer().parameterize(info.getSql())
+					: null;
+			final PreparedStatement prepared = parameterized != null
+					? preparedStatementCache.borrow(parameterized.getSql())
+					: null;
+			info.getTimings().setPrepareNanos(System.nanoTime() - prepareStart);
+			try {
+				executeWithinLimits(statement, prepared, parameterized);
+			} finally {
+				// vorbereitete Anweisungen sind an Schema und Tabellen zum Zeitpunkt
+				// der Vorbereitung gebunden, z.B. liest eine Abfrage nach SET SCHEMA
+				// sonst weiterhin aus dem alten Schema
+				if (preparedStatementCache != null && !info.getSql().isPlainDataStatement()) {
+					preparedStatementCache.clear();
+				}
+			}
+			if (resultCache != null) {
+				resultCache.store(info.getSql(), statement.getMaxRows(), info);
 			}
 			// als Ende der Ausführung wird der Zeitpunkt betrachtet, ab dem die
 			// Ergebnismenge übertragen ist
@@ -67,48 +232,216 @@ public class StatementExecution {
 		return info;
 	}
 
-	private void retrieveResult(final Statement statement) {
+	private void executeWithinLimits(final Statement statement, final PreparedStatement prepared,
+			final ParameterizedStatement parameterized) throws SQLException {
+		final ScheduledFuture<?> watchdog = executionLimits.getWatchdogTimeoutMillis() > 0
+				? StatementWatchdog.watch(() -> abort(ExecutionOutcome.TIMED_OUT),
+						executionLimits.getWatchdogTimeoutMillis())
+				: null;
+		try {
+			if (abortReason == null) {
+				if (prepared != null) {
+					executePreparedOrUnprepared(statement, prepared, parameterized);
+				} else {
+					executeUnprepared(statement);
+				}
+			}
+		} catch (final SQLException ex) {
+			if (abortReason == null && !isTimeout(ex)) {
+				info.setOutcome(ExecutionOutcome.FAILED);
+				throw ex;
+			}
+			info.setStatementResult(null);
+			if (abortReason == null) {
+				// Timeout des Treibers
+				abortReason = ExecutionOutcome.TIMED_OUT;
+			}
+		} finally {
+			if (watchdog != null) {
+				watchdog.cancel(false);
+			}
+			runningStatement = null;
+			runningCursor = null;
+		}
+		if (abortReason != null) {
+			abortedResult(abortReason);
+		}
+	}
+
+	private static boolean isTimeout(final SQLException ex) {
+		return ex instanceof SQLTimeoutException || "HYT00".equals(ex.getSQLState());
+	}
+
+	private void applyQueryTimeout(final Statement statement) throws SQLException {
+		if (executionLimits.getQueryTimeoutSeconds() > 0) {
+			statement.setQueryTimeout(executionLimits.getQueryTimeoutSeconds());
+		}
+	}
+
+	private void executeUnprepared(final Statement statement) throws SQLException {
+		runningStatement = statement;
+		applyQueryTimeout(statement);
+		if (isStreaming()) {
+			statement.setFetchSize(fetchSize);
+		}
+		info.setStartOfExecution(System.currentTimeMillis());
+		final long executeStart = System.nanoTime();
+		final boolean hasResultSet = statement.execute(info.getSql().uncommentedStatement());
+		info.getTimings().setExecuteNanos(System.nanoTime() - executeStart);
+		if (hasResultSet) {
+			retrieveResult(statement, executeStart);
+		} else {
+			headOnlyResult(statement.getUpdateCount());
+		}
+	}
+
+	/**
+	 * Scheitert die parametrisierte Ausführung, wird die Anweisung mit ihrem
+	 * Originaltext wiederholt. Ein Fehler soll nicht allein durch die
+	 * Parametrisierung entstehen, z.B. durch einen gebundenen Wert außerhalb des
+	 * Wertebereichs der Spalte, mit der er verglichen wird. Schlägt auch die
+	 * Wiederholung fehl, wird deren Fehler gemeldet.
+	 */
+	private void executePreparedOrUnprepared(final Statement statement, final PreparedStatement prepared,
+			final ParameterizedStatement parameterized) throws SQLException {
+		try {
+			executePrepared(statement, prepared, parameterized);
+		} catch (final SQLException ex) {
+			if (abortReason != null || isTimeout(ex)) {
+				throw ex;
+			}
+			Logger.getLogger(StatementExecution.class.getName()).log(Level.FINE,
+					"Parametrisierte Ausführung fehlgeschlagen, Wiederholung mit dem Originaltext", ex);
+			info.setStatementResult(null);
+			executeUnprepared(statement);
+		}
+	}
+
+	private void executePrepared(final Statement statement, final PreparedStatement prepared,
+			final ParameterizedStatement parameterized) throws SQLException {
+		runningStatement = prepared;
+		try {
+			// Einstellungen des eigentlichen Statements übernehmen
+			prepared.setMaxRows(statement.getMaxRows());
+			applyQueryTimeout(prepared);
+			if (isStreaming()) {
+				prepared.setFetchSize(fetchSize);
+			}
+			final long bindStart = System.nanoTime();
+			int index = 1;
+			for (final Object parameter : parameterized.getParameters()) {
+				prepared.setObject(index++, parameter);
+			}
+			info.getTimings().setPrepareNanos(info.getTimings().getPrepareNanos() + System.nanoTime() - bindStart);
+			info.setStartOfExecution(System.currentTimeMillis());
+			final long executeStart = System.nanoTime();
+			final boolean hasResultSet = prepared.execute();
+			info.getTimings().setExecuteNanos(System.nanoTime() - executeStart);
+			if (hasResultSet) {
+				retrieveResult(prepared, executeStart);
+			} else {
+				headOnlyResult(prepared.getUpdateCount());
+			}
+		} catch (final SQLException ex) {
+			preparedStatementCache.discard(prepared);
+			throw ex;
+		}
+		preparedStatementCache.release(parameterized.getSql(), prepared);
+	}
+
+	/**
+	 * @param executeStart Beginn der Ausführung gemäß {@link System#nanoTime()}
+	 *                     als Bezug für die Zeit bis zur ersten Zeile
+	 */
+	private void retrieveResult(final Statement statement, final long executeStart) {
+		final long fetchStart = System.nanoTime();
 		try (ResultSet resultSet = statement.getResultSet()) {
 			if (resultSet != null) {
-				info.setStatementResult(new StatementResult());
-				retrieveHeader(resultSet);
-				retrieveRows(resultSet);
+				final ResultCursor cursor = new ResultCursor(resultSet, pageSize());
+				cursor.limit(executionLimits.getMaxFetchedRows(), executionLimits.getMaxFetchedBytes());
+				if (isStreaming()) {
+					cursor.limitPageDuration(partialResultMillis);
+				}
+				runningCursor = cursor;
+				if (abortReason != null) {
+					cursor.abort();
+				}
+				final ColumnarStatementResult result = new ColumnarStatementResult(cursor.readColumnTypes());
+				result.setHeapBudget(resultHeapBudget);
+				info.setStatementResult(result);
+				info.getStatementResult().setHeader(cursor.readHeader());
+				retrieveRows(cursor);
+				info.getTimings().setFetchNanos(System.nanoTime() - fetchStart);
+				if (cursor.getFirstRowNanoTime() > 0) {
+					info.getTimings().setFirstRowNanos(cursor.getFirstRowNanoTime() - executeStart);
+				}
 				final int maxRows = statement.getMaxRows();
-				info.setLimitMaxRowsReached(maxRows > 0 && info.getStatementResult().getRows().size() >= maxRows);
-				info.setSummary(MessageFormat.format(DialogDictionary.PATTERN_ROWCOUNT.toString(),
-						info.getStatementResult().getRows().size()));
+				info.setLimitMaxRowsReached(maxRows > 0 && cursor.getRowCount() >= maxRows
+						|| cursor.getRowCount() > info.getStatementResult().getRowCount() || cursor.isTruncated());
+				if (cursor.isTruncated()) {
+					info.setOutcome(ExecutionOutcome.TRUNCATED);
+					info.setSummary(MessageFormat.format(DialogDictionary.PATTERN_ROWCOUNT_FETCH_LIMIT.toString(),
+							cursor.getRowCount()));
+				} else {
+					info.setSummary(MessageFormat.format(DialogDictionary.PATTERN_ROWCOUNT.toString(),
+							cursor.getRowCount()));
+				}
 			}
 		} catch (final SQLException ex) {
 			erroneousResult();
+		} catch (final UncheckedIOException ex) {
+			// Auslagerung in die temporäre Datei gescheitert
+			Logger.getLogger(StatementExecution.class.getName()).log(Level.WARNING, ex.getMessage(), ex);
+			erroneousResult();
 		}
 	}
 
-	private void retrieveHeader(final ResultSet resultSet) throws SQLException {
-		if (resultSet != null) {
-			final ResultSetMetaData metaData = resultSet.getMetaData();
-			final int col = metaData.getColumnCount();
+	private int pageSize() {
+		if (!isStreaming()) {
+			return DatabaseConstants.DEFAULT_FETCH_SIZE;
+		}
+		return partialResultRows > 0 ? Math.min(partialResultRows, fetchSize) : fetchSize;
+	}
 
-			final String[] header = new String[col];
-			for (int i = 1; i <= col; i++) {
-				header[i - 1] = metaData.getColumnLabel(i);
+	private void retrieveRows(final ResultCursor cursor) throws SQLException {
+		while (!cursor.isExhausted()) {
+			final List<ResultRow> page = cursor.nextPage();
+			retainRows(page);
+			info.setRowCount(cursor.getRowCount());
+			if (isStreaming() && !page.isEmpty()) {
+				resultPageListener.resultPage(info, page);
 			}
-			info.getStatementResult().setHeader(new ResultHeader(header));
 		}
 	}
 
-	private void retrieveRows(final ResultSet resultSet) throws SQLException {
-		if (resultSet != null) {
-			final ResultSetMetaData metaData = resultSet.getMetaData();
-			final int col = metaData.getColumnCount();
-			final Object[] row = new Object[col];
-			while (resultSet.next()) {
-				for (int i = 1; i <= col; i++) {
-					row[i - 1] = resultSet.getObject(i);
-					if (resultSet.wasNull()) {
-						row[i - 1] = null;
-					}
-				}
-				info.getStatementResult().addRow(new ResultRow(row));
+	private void retainRows(final List<ResultRow> page) {
+		final StatementResult result = info.getStatementResult();
+		if (!isStreaming() || resultHeapBudget > 0) {
+			result.addRows(page);
+		} else {
+			final int free = DatabaseConstants.MAX_RETAINED_STREAMING_ROWS - result.getRowCount();
+			if (free > 0) {
+				result.addRows(page.size() <= free ? page : page.subList(0, free));
+			}
+		}
+	}
+
+	/**
+	 * Übernimmt das Ergebnis aus dem Cache, im Streaming-Modus werden die
+	 * Zeilen wie beim Lesen seitenweise an den Listener gegeben.
+	 */
+	private void cachedResult(final ResultCache.CachedResult cached) {
+		info.setStartOfExecution(System.currentTimeMillis());
+		info.setCached(true);
+		info.setStatementResult(cached.getResult());
+		info.setRowCount(cached.getRowCount());
+		info.setLimitMaxRowsReached(cached.isLimitMaxRowsReached());
+		info.setSummary(
+				MessageFormat.format(DialogDictionary.PATTERN_ROWCOUNT_CACHED.toString(), cached.getRowCount()));
+		if (isStreaming()) {
+			final List<ResultRow> rows = cached.getResult().getRows();
+			for (int from = 0; from < rows.size() && abortReason == null; from += pageSize()) {
+				resultPageListener.resultPage(info, rows.subList(from, Math.min(rows.size(), from + pageSize())));
 			}
 		}
 	}
@@ -126,5 +459,13 @@ public class StatementExecution {
 	private void erroneousResult() {
 		info.setStatementResult(null);
 		info.setSummary(DialogDictionary.LABEL_RESULT_ERROR.toString());
+		info.setOutcome(ExecutionOutcome.FAILED);
+	}
+
+	private void abortedResult(final ExecutionOutcome reason) {
+		// bis zum Abbruch gelesene Zeilen bleiben im Ergebnis erhalten
+		info.setOutcome(reason);
+		info.setSummary(reason == ExecutionOutcome.TIMED_OUT ? DialogDictionary.LABEL_RESULT_TIMED_OUT.toString()
+				: DialogDictionary.LABEL_RESULT_CANCELLED.toString());
 	}
 }
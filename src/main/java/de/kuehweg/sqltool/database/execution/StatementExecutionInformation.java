@@ -50,6 +50,14 @@ public class StatementExecutionInformation {
 
 	private boolean limitMaxRowsReached;
 
+	private int rowCount;
+
+	private ExecutionOutcome outcome = ExecutionOutcome.COMPLETED;
+
+	private boolean cached;
+
+	private final ExecutionTimings timings = new ExecutionTimings();
+
 	public StatementString getSql() {
 		return sql;
 	}
@@ -90,6 +98,25 @@ public class StatementExecutionInformation {
 		this.connectionDescription = connectionDescription;
 	}
 
+	/**
+	 * @return true wenn das Ergebnis aus dem Ergebnis-Cache stammt und die
+	 *         Anweisung nicht erneut ausgeführt wurde
+	 */
+	public boolean isCached() {
+		return cached;
+	}
+
+	public void setCached(final boolean cached) {
+		this.cached = cached;
+	}
+
+	/**
+	 * @return Zeitanteile der Ausführung in Nanosekunden
+	 */
+	public ExecutionTimings getTimings() {
+		return timings;
+	}
+
 	public StatementResult getStatementResult() {
 		return statementResult;
 	}
@@ -114,4 +141,29 @@ public class StatementExecutionInformation {
 		this.limitMaxRowsReached = limitMaxRowsReached;
 	}
 
+	/**
+	 * @return Anzahl der aus der Datenbank gelesenen Ergebniszeilen. Im
+	 *         Streaming-Modus kann diese größer sein als die Anzahl der im
+	 *         Ergebnis enthaltenen Zeilen.
+	 */
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	public void setRowCount(final int rowCount) {
+		this.rowCount = rowCount;
+	}
+
+	/**
+	 * @return Ausgang der Ausführung, z.B. um einen Abbruch von einem Fehler zu
+	 *         unterscheiden
+	 */
+	public ExecutionOutcome getOutcome() {
+		return outcome;
+	}
+
+	public void setOutcome(final ExecutionOutcome outcome) {
+		this.outcome = outcome;
+	}
+
 }
@@ -25,11 +25,13 @@
  */
 package de.kuehweg.sqltool.database.execution;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Ergebnismenge einer SELECT-Anweisung.
+ * Ergebnismenge einer SELECT-Anweisung. Die Zeilen werden in dieser
+ * Implementierung als Liste von ResultRows gehalten, der Zugriff auf einzelne
+ * Zeilen und Zellen erfolgt über deren Position.
  *
  * @author Michael Kühweg
  */
@@ -37,7 +39,7 @@ public class StatementResult {
 
 	private ResultHeader header;
 
-	private List<ResultRow> rows = new LinkedList<>();
+	private List<ResultRow> rows = new ArrayList<>();
 
 	public ResultHeader getHeader() {
 		return header;
@@ -62,4 +64,46 @@ public class StatementResult {
 	public boolean addRow(final ResultRow row) {
 		return row != null ? rows.add(row) : false;
 	}
+
+	/**
+	 * @param rowsToAdd Zeilen, die an das Ergebnis angehängt werden
+	 */
+	public void addRows(final List<ResultRow> rowsToAdd) {
+		for (final ResultRow row : rowsToAdd) {
+			addRow(row);
+		}
+	}
+
+	/**
+	 * @return Anzahl der im Ergebnis enthaltenen Zeilen
+	 */
+	public int getRowCount() {
+		return rows.size();
+	}
+
+	/**
+	 * @return Anzahl Spalten laut Spaltenüberschriften
+	 */
+	public int getColumnCount() {
+		return header != null && header.getColumnHeaders() != null ? header.getColumnHeaders().length : 0;
+	}
+
+	/**
+	 * @param row    Zeile, beginnend mit 0
+	 * @param column Spalte, beginnend mit 0
+	 * @return Inhalt der Zelle, null für NULL-Werte
+	 */
+	public Object getValue(final int row, final int column) {
+		return rows.get(row).getColumn(column);
+	}
+
+	/**
+	 * @param row    Zeile, beginnend mit 0
+	 * @param column Spalte, beginnend mit 0
+	 * @return Inhalt der Zelle als Text, {@link ResultRow#NULL_STR} für
+	 *         NULL-Werte
+	 */
+	public String getValueAsString(final int row, final int column) {
+		return rows.get(row).getColumnAsString(column);
+	}
 }
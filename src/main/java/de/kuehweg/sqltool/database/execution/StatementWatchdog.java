@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database.execution;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import de.kuehweg.sqltool.common.concurrent.ExecutionService;
+
+/**
+ * Überwacht die Laufzeit von Anweisungen unabhängig vom ausführenden Thread.
+ * Wird die Zeit überschritten, wird die hinterlegte Aktion (in der Regel
+ * {@link java.sql.Statement#cancel()}) aus einem eigenen Thread aufgerufen.
+ *
+ * @author Michael Kühweg
+ */
+final class StatementWatchdog {
+
+	private StatementWatchdog() {
+	}
+
+	/**
+	 * @param onTimeout     Aktion bei Zeitüberschreitung
+	 * @param timeoutMillis Zeit bis zum Abbruch
+	 * @return Handle zum Beenden der Überwachung, wenn die Anweisung vorher
+	 *         fertig wird
+	 */
+	static ScheduledFuture<?> watch(final Runnable onTimeout, final long timeoutMillis) {
+		return ExecutionService.getInstance().schedule(onTimeout, timeoutMillis, TimeUnit.MILLISECONDS);
+	}
+}
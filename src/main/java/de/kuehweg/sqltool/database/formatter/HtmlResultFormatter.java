@@ -30,8 +30,8 @@ import java.util.Date;
 
 import de.kuehweg.sqltool.common.DialogDictionary;
 import de.kuehweg.sqltool.common.text.HtmlEncoder;
-import de.kuehweg.sqltool.database.execution.ResultRow;
 import de.kuehweg.sqltool.database.execution.StatementExecutionInformation;
+import de.kuehweg.sqltool.database.execution.StatementResult;
 
 /**
  * Abfrageergebnis als HTML aufbereitet.
@@ -64,16 +64,18 @@ public class HtmlResultFormatter extends ResultFormatter {
 	}
 
 	/**
-	 * Formatiert eine Liste von ResultRows als HTML-Tabellenzeile.
+	 * Formatiert eine Zeile des Ergebnisses als HTML-Tabellenzeile.
 	 *
-	 * @param resultRow
-	 *            Liste von ResultRows, die in HTML umgewandelt werden
+	 * @param result
+	 *            Ergebnis
+	 * @param row
+	 *            Zeile im Ergebnis, die in HTML umgewandelt wird
 	 * @return
 	 */
-	private String formatAsTableRow(final ResultRow resultRow) {
+	private String formatAsTableRow(final StatementResult result, final int row) {
 		final StringBuilder builder = new StringBuilder("<tr>");
-		for (final String column : resultRow.columnsAsString()) {
-			builder.append(formatAsTableData(column));
+		for (int column = 0; column < result.getColumnCount(); column++) {
+			builder.append(formatAsTableData(result.getValueAsString(row, column)));
 		}
 		builder.append("</tr>\n");
 		return builder.toString();
@@ -117,8 +119,9 @@ public class HtmlResultFormatter extends ResultFormatter {
 		final StringBuilder builder = new StringBuilder();
 		builder.append("<tbody>\n");
 		// Inhalte aufbauen
-		for (final ResultRow row : getStatementExecutionInformation().getStatementResult().getRows()) {
-			builder.append(formatAsTableRow(row));
+		final StatementResult result = getStatementExecutionInformation().getStatementResult();
+		for (int row = 0; row < result.getRowCount(); row++) {
+			builder.append(formatAsTableRow(result, row));
 		}
 		builder.append("</tbody>\n");
 		return builder.toString();
@@ -159,10 +162,20 @@ public class HtmlResultFormatter extends ResultFormatter {
 		return htmlEncoder.encodeHtml(statementExecution);
 	}
 
+	/**
+	 * @return Zeitanteile der Ausführung als eigene Zeile, leer wenn keine
+	 *         Zeiten gemessen wurden
+	 */
+	private String formatTimings() {
+		final StatementExecutionInformation info = getStatementExecutionInformation();
+		return info.getTimings().isRecorded() ? "<br/>" + htmlEncoder.encodeHtml(info.getTimings().formatAllTimings())
+				: "";
+	}
+
 	private String formatEmptyResult(final ResultTemplate template) {
 		template.setExecutionInformation(formatGeneralExecutionInformation());
 
-		template.setRowCount(htmlEncoder.encodeHtml(getStatementExecutionInformation().getSummary()));
+		template.setRowCount(htmlEncoder.encodeHtml(getStatementExecutionInformation().getSummary()) + formatTimings());
 
 		template.setResultTable(null);
 		template.setLimitedRows(null);
@@ -174,9 +187,9 @@ public class HtmlResultFormatter extends ResultFormatter {
 		template.setExecutionInformation(formatGeneralExecutionInformation());
 		template.setResultTable(formatResultAsTable());
 
-		final int selectedRows = getStatementExecutionInformation().getStatementResult().getRows().size();
+		final int selectedRows = getStatementExecutionInformation().getStatementResult().getRowCount();
 		final String rowCount = MessageFormat.format(DialogDictionary.PATTERN_ROWCOUNT.toString(), selectedRows);
-		template.setRowCount(htmlEncoder.encodeHtml(rowCount));
+		template.setRowCount(htmlEncoder.encodeHtml(rowCount) + formatTimings());
 		if (!getStatementExecutionInformation().isLimitMaxRowsReached()) {
 			template.setLimitedRows(null);
 		} else {
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database.formatter;
+
+import java.util.List;
+
+import de.kuehweg.sqltool.database.execution.ResultHeader;
+import de.kuehweg.sqltool.database.execution.ResultRow;
+
+/**
+ * Vorläufige Textaufbereitung einer Ergebnismenge, die noch gelesen wird. Die
+ * Zeilen werden seitenweise angehängt, ohne bereits aufbereiteten Text erneut
+ * zu formatieren. Die Spaltenbreiten ergeben sich daher aus den Überschriften
+ * und der ersten Seite; längere Werte späterer Seiten werden nicht gekürzt.
+ * Nach Abschluss der Anweisung wird das Ergebnis vollständig mit
+ * {@link TextResultFormatter} aufbereitet.
+ *
+ * @author Michael Kühweg
+ */
+public class PartialTextResultFormatter {
+
+	private final String[] columnHeaders;
+	private final int maxRowsToFormat;
+	private final StringBuilder text = new StringBuilder();
+	private int[] columnWidths;
+	private int formattedRows;
+
+	/**
+	 * @param header          Spaltenüberschriften der Ergebnismenge
+	 * @param maxRowsToFormat Höchstens so viele Zeilen werden aufbereitet
+	 */
+	public PartialTextResultFormatter(final ResultHeader header, final int maxRowsToFormat) {
+		columnHeaders = header != null && header.getColumnHeaders() != null ? header.getColumnHeaders()
+				: new String[0];
+		this.maxRowsToFormat = maxRowsToFormat;
+	}
+
+	/**
+	 * Zeilen an den aufbereiteten Text anhängen.
+	 *
+	 * @param page Zuletzt gelesene Zeilen
+	 */
+	public void append(final List<ResultRow> page) {
+		if (columnWidths == null) {
+			columnWidths = calculateColumnWidths(page);
+			appendHeader();
+		}
+		for (final ResultRow row : page) {
+			if (formattedRows >= maxRowsToFormat) {
+				break;
+			}
+			text.append('\n');
+			for (int column = 0; column < columnWidths.length && column < row.getColumnCount(); column++) {
+				if (column > 0) {
+					text.append(' ');
+				}
+				appendPadded(row.getColumnAsString(column).trim(), ' ', columnWidths[column]);
+			}
+			formattedRows++;
+		}
+	}
+
+	/**
+	 * @return Anzahl bisher aufbereiteter Zeilen
+	 */
+	public int getFormattedRows() {
+		return formattedRows;
+	}
+
+	/**
+	 * @return Bisher aufbereiteter Text, ohne Zeilenwechsel am Ende
+	 */
+	public String getText() {
+		return text.toString();
+	}
+
+	private int[] calculateColumnWidths(final List<ResultRow> page) {
+		final int[] width = new int[columnHeaders.length];
+		for (int column = 0; column < width.length; column++) {
+			width[column] = columnHeaders[column].trim().length();
+		}
+		for (final ResultRow row : page) {
+			for (int column = 0; column < width.length && column < row.getColumnCount(); column++) {
+				width[column] = Math.max(width[column], row.getColumnAsString(column).trim().length());
+			}
+		}
+		return width;
+	}
+
+	private void appendHeader() {
+		final StringBuilder underline = new StringBuilder();
+		for (int column = 0; column < columnHeaders.length; column++) {
+			if (column > 0) {
+				text.append(' ');
+				underline.append(' ');
+			}
+			appendPadded(columnHeaders[column], ' ', columnWidths[column]);
+			for (int i = 0; i < columnWidths[column]; i++) {
+				underline.append('-');
+			}
+		}
+		text.append('\n').append(underline);
+	}
+
+	private void appendPadded(final String value, final char padding, final int width) {
+		text.append(value);
+		for (int i = value.length(); i < width; i++) {
+			text.append(padding);
+		}
+	}
+}
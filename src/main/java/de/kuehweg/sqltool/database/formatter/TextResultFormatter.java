@@ -29,8 +29,8 @@ import java.text.MessageFormat;
 import java.util.Date;
 
 import de.kuehweg.sqltool.common.DialogDictionary;
-import de.kuehweg.sqltool.database.execution.ResultRow;
 import de.kuehweg.sqltool.database.execution.StatementExecutionInformation;
+import de.kuehweg.sqltool.database.execution.StatementResult;
 
 /**
  * Textaufbereitung für Ergebnisse einer Anweisung. Allgemeiner Hinweis: Alle
@@ -41,8 +41,26 @@ import de.kuehweg.sqltool.database.execution.StatementExecutionInformation;
  */
 public class TextResultFormatter extends ResultFormatter {
 
+	private final int maxRowsToFormat;
+
 	public TextResultFormatter(final StatementExecutionInformation statementExecutionInformation) {
+		this(statementExecutionInformation, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * @param statementExecutionInformation
+	 * @param maxRowsToFormat
+	 *            Höchstens so viele Zeilen werden aufbereitet, bei größeren
+	 *            Ergebnissen erfolgt ein entsprechender Hinweis
+	 */
+	public TextResultFormatter(final StatementExecutionInformation statementExecutionInformation,
+			final int maxRowsToFormat) {
 		super(statementExecutionInformation);
+		this.maxRowsToFormat = maxRowsToFormat;
+	}
+
+	private int rowsToFormat(final StatementResult result) {
+		return Math.min(result.getRowCount(), maxRowsToFormat);
 	}
 
 	/**
@@ -60,14 +78,15 @@ public class TextResultFormatter extends ResultFormatter {
 		}
 
 		// Spaltenbreiten ermitteln (Inhalt)
-		for (final ResultRow row : info.getStatementResult().getRows()) {
-			columnIndex = 0;
-			for (final String column : row.columnsAsString()) {
-				final int length = column.trim().length();
-				if (length > width[columnIndex]) {
-					width[columnIndex] = length;
+		final StatementResult result = info.getStatementResult();
+		final int columnCount = Math.min(width.length, result.getColumnCount());
+		final int rows = rowsToFormat(result);
+		for (int row = 0; row < rows; row++) {
+			for (int column = 0; column < columnCount; column++) {
+				final int length = result.getValueAsString(row, column).trim().length();
+				if (length > width[column]) {
+					width[column] = length;
 				}
-				columnIndex++;
 			}
 		}
 		return width;
@@ -128,18 +147,21 @@ public class TextResultFormatter extends ResultFormatter {
 		// Inhalte aufbauen
 		final StatementExecutionInformation info = getStatementExecutionInformation();
 		final StringBuilder builder = new StringBuilder();
-		for (final ResultRow row : info.getStatementResult().getRows()) {
+		final StatementResult result = info.getStatementResult();
+		final int columnCount = Math.min(columnWidths.length, result.getColumnCount());
+		final int rows = rowsToFormat(result);
+		for (int row = 0; row < rows; row++) {
 			// ACHTUNG: Hier immer VOR einer Zeile einen Zeilenwechsel.
 			// Das ist OK, da alle Bestandteile, also auch der Header, ohne
 			// Zeilenwechsel
 			// am Ende erzeugt werden.
 			builder.append("\n");
-			int columnCounter = 0;
-			for (final String column : row.columnsAsString()) {
-				if (columnCounter > 0) {
+			for (int column = 0; column < columnCount; column++) {
+				if (column > 0) {
 					builder.append(' ');
 				}
-				builder.append(rightPad(column == null ? "" : column.trim(), " ", columnWidths[columnCounter++]));
+				final String value = result.getValueAsString(row, column);
+				builder.append(rightPad(value == null ? "" : value.trim(), " ", columnWidths[column]));
 			}
 		}
 		return builder.toString();
@@ -175,7 +197,12 @@ public class TextResultFormatter extends ResultFormatter {
 		final String who = executedByWithConnectionDescription();
 		final String statementExecution = MessageFormat
 				.format(DialogDictionary.PATTERN_EXECUTION_TIMESTAMP_WITH_USER.toString(), when, who);
-		return statementExecution;
+		final StatementExecutionInformation info = getStatementExecutionInformation();
+		// die Aufbereitung selbst ist hier noch nicht abgeschlossen, daher nur
+		// die Zeiten der Datenbankseite
+		return info != null && info.getTimings().isRecorded()
+				? statementExecution + "\n" + info.getTimings().formatDatabaseTimings()
+				: statementExecution;
 	}
 
 	private String formatEmptyResult(final ResultTemplate template) {
@@ -192,13 +219,15 @@ public class TextResultFormatter extends ResultFormatter {
 		template.setExecutionInformation(formatGeneralExecutionInformation());
 		template.setResultTable(formatResultAsTable());
 
-		final int selectedRows = getStatementExecutionInformation().getStatementResult().getRows().size();
+		final int selectedRows = getStatementExecutionInformation().getStatementResult().getRowCount();
 		final String rowCount = MessageFormat.format(DialogDictionary.PATTERN_ROWCOUNT.toString(), selectedRows);
 		template.setRowCount(rowCount);
-		if (!getStatementExecutionInformation().isLimitMaxRowsReached()) {
+		final int formattedRows = rowsToFormat(getStatementExecutionInformation().getStatementResult());
+		if (!getStatementExecutionInformation().isLimitMaxRowsReached() && formattedRows == selectedRows) {
 			template.setLimitedRows(null);
 		} else {
-			final String limitedRows = MessageFormat.format(DialogDictionary.PATTERN_MAX_ROWS.toString(), selectedRows);
+			final String limitedRows = MessageFormat.format(DialogDictionary.PATTERN_MAX_ROWS.toString(),
+					formattedRows);
 			template.setLimitedRows(limitedRows);
 		}
 
@@ -91,10 +91,9 @@ public abstract class AbstractMetaDataReader {
 
 	private CatalogDescription findCatalog(final String catalogName) throws DescriptionParentNotFoundException {
 		if (catalogName != null) {
-			for (final CatalogDescription catalog : root.getCatalogs()) {
-				if (catalog.getName().equals(catalogName)) {
-					return catalog;
-				}
+			final CatalogDescription found = root.getCatalog(catalogName);
+			if (found != null) {
+				return found;
 			}
 		}
 		throw new DescriptionParentNotFoundException("Parent catalog not found: " + catalogName);
@@ -103,10 +102,9 @@ public abstract class AbstractMetaDataReader {
 	private SchemaDescription findSchema(final String schemaName, final CatalogDescription catalog)
 			throws DescriptionParentNotFoundException {
 		if (schemaName != null && catalog != null) {
-			for (final SchemaDescription schema : catalog.getSchemas()) {
-				if (schema.getName().equals(schemaName)) {
-					return schema;
-				}
+			final SchemaDescription found = catalog.getSchema(schemaName);
+			if (found != null) {
+				return found;
 			}
 		}
 		throw new DescriptionParentNotFoundException("Parent schema not found: "
@@ -116,10 +114,9 @@ public abstract class AbstractMetaDataReader {
 	private TableDescription findTable(final String tableName, final SchemaDescription schema)
 			throws DescriptionParentNotFoundException {
 		if (tableName != null && schema != null) {
-			for (final TableDescription table : schema.getTables()) {
-				if (table.getName().equals(tableName)) {
-					return table;
-				}
+			final TableDescription found = schema.getTable(tableName);
+			if (found != null) {
+				return found;
 			}
 		}
 		throw new DescriptionParentNotFoundException("Parent table not found: "
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database.metadata;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+
+import de.kuehweg.sqltool.database.metadata.description.DatabaseDescription;
+
+/**
+ * Liest die Unterobjekte aller Tabellen mit je einer Abfrage pro Objektart
+ * direkt aus dem INFORMATION_SCHEMA von HSQLDB. Die System-Tabellen liefern
+ * dieselben Spalten wie die entsprechenden Aufrufe der
+ * {@link java.sql.DatabaseMetaData}, die HSQLDB selbst auf diese Tabellen
+ * abbildet. Die Zeilen werden in einem Durchgang den Tabellen zugeordnet.
+ *
+ * @author Michael Kühweg
+ */
+public class InformationSchemaSubObjectReadStrategy implements TableSubObjectReadStrategy {
+
+	private static final String COLUMNS = "SELECT * FROM INFORMATION_SCHEMA.SYSTEM_COLUMNS";
+	private static final String PRIMARY_KEYS = "SELECT * FROM INFORMATION_SCHEMA.SYSTEM_PRIMARYKEYS";
+	private static final String INDICES = "SELECT * FROM INFORMATION_SCHEMA.SYSTEM_INDEXINFO";
+	private static final String CROSS_REFERENCES = "SELECT * FROM INFORMATION_SCHEMA.SYSTEM_CROSSREFERENCE";
+
+	private static final List<String> FINGERPRINT_QUERIES = Arrays.asList(
+			"SELECT TABLE_SCHEM, TABLE_NAME, COUNT(*), SUM(DATA_TYPE * ORDINAL_POSITION),"
+					+ " SUM(CHAR_LENGTH(COLUMN_NAME) * ORDINAL_POSITION), SUM(COLUMN_SIZE), SUM(NULLABLE)"
+					+ " FROM INFORMATION_SCHEMA.SYSTEM_COLUMNS GROUP BY TABLE_SCHEM, TABLE_NAME",
+			"SELECT TABLE_SCHEM, TABLE_NAME, COUNT(*) FROM INFORMATION_SCHEMA.SYSTEM_PRIMARYKEYS"
+					+ " GROUP BY TABLE_SCHEM, TABLE_NAME",
+			"SELECT TABLE_SCHEM, TABLE_NAME, COUNT(*), SUM(CHAR_LENGTH(INDEX_NAME))"
+					+ " FROM INFORMATION_SCHEMA.SYSTEM_INDEXINFO GROUP BY TABLE_SCHEM, TABLE_NAME",
+			"SELECT FKTABLE_SCHEM, FKTABLE_NAME, COUNT(*) FROM INFORMATION_SCHEMA.SYSTEM_CROSSREFERENCE"
+					+ " GROUP BY FKTABLE_SCHEM, FKTABLE_NAME",
+			"SELECT PKTABLE_SCHEM, PKTABLE_NAME, COUNT(*) FROM INFORMATION_SCHEMA.SYSTEM_CROSSREFERENCE"
+					+ " GROUP BY PKTABLE_SCHEM, PKTABLE_NAME");
+
+	@Override
+	public void readTableSubObjects(final DatabaseDescription db, final Connection connection) throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			read(statement, COLUMNS, new ColumnMetaDataReader(db));
+			read(statement, PRIMARY_KEYS, new PrimaryKeyMetaDataReader(db));
+			read(statement, INDICES, new IndexMetaDataReader(db));
+			readForeignKeys(statement, db);
+		}
+	}
+
+	private void read(final Statement statement, final String query, final AbstractMetaDataReader reader)
+			throws SQLException {
+		try (ResultSet metadata = statement.executeQuery(query)) {
+			reader.readAndAddDescriptions(metadata);
+		}
+	}
+
+	private void readForeignKeys(final Statement statement, final DatabaseDescription db) throws SQLException {
+		// jede Zeile beschreibt sowohl den importierten Schlüssel der
+		// referenzierenden als auch den exportierten Schlüssel der
+		// referenzierten Tabelle
+		final AbstractMetaDataReader importedKeys = new ImportedKeyMetaDataReader(db);
+		final AbstractMetaDataReader exportedKeys = new ExportedKeyMetaDataReader(db);
+		try (ResultSet crossReferences = statement.executeQuery(CROSS_REFERENCES)) {
+			while (crossReferences.next()) {
+				importedKeys.readAndAddDescription(crossReferences);
+				exportedKeys.readAndAddDescription(crossReferences);
+			}
+		}
+	}
+
+	@Override
+	public List<String> fingerprintQueries() {
+		return FINGERPRINT_QUERIES;
+	}
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database.metadata;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Kompakter Fingerabdruck der Metadaten: je Tabelle eine Signatur aus Typ,
+ * Kommentar und - soweit der Treiber entsprechende Abfragen bietet - Kennzahlen
+ * zu Spalten, Schlüsseln und Indizes. Der Fingerabdruck ist wesentlich
+ * schneller gelesen als die vollständigen Metadaten und zeigt, welche Tabellen
+ * sich seit dem letzten Lesen geändert haben.
+ *
+ * @author Michael Kühweg
+ */
+public class MetaDataFingerprint {
+
+	private static final char SEPARATOR = '|';
+
+	private final Map<List<String>, String> tableSignatures;
+
+	/**
+	 * @param tableSignatures
+	 *            Signaturen je Tabelle, Schlüssel ist die Liste aus Schema und
+	 *            Tabellenname
+	 */
+	public MetaDataFingerprint(final Map<List<String>, String> tableSignatures) {
+		this.tableSignatures = Collections.unmodifiableMap(new HashMap<>(tableSignatures));
+	}
+
+	/**
+	 * Liest den Fingerabdruck der über die Verbindung erreichbaren Tabellen,
+	 * mit den Abfragen des zur Verbindung passenden Treibers.
+	 *
+	 * @param connection
+	 * @return
+	 * @throws SQLException
+	 */
+	public static MetaDataFingerprint read(final Connection connection) throws SQLException {
+		return read(connection,
+				TableSubObjectReadStrategyFactory.forUrl(connection.getMetaData().getURL()).fingerprintQueries());
+	}
+
+	/**
+	 * Liest den Fingerabdruck der über die Verbindung erreichbaren Tabellen.
+	 *
+	 * @param connection
+	 * @param queries
+	 *            Abfragen mit Kennzahlen je Tabelle, siehe
+	 *            {@link TableSubObjectReadStrategy#fingerprintQueries()}
+	 * @return
+	 * @throws SQLException
+	 */
+	public static MetaDataFingerprint read(final Connection connection, final List<String> queries)
+			throws SQLException {
+		final DatabaseMetaData metaData = connection.getMetaData();
+		final Map<List<String>, StringBuilder> signatures = new HashMap<>();
+		try (ResultSet tables = metaData.getTables(null, null, "%", null)) {
+			while (tables.next()) {
+				final StringBuilder signature = new StringBuilder();
+				signature.append(tables.getString("TABLE_TYPE")).append(SEPARATOR)
+						.append(tables.getString("REMARKS"));
+				signatures.put(tableKey(tables.getString("TABLE_SCHEM"), tables.getString("TABLE_NAME")), signature);
+			}
+		}
+		if (!queries.isEmpty()) {
+			try (Statement statement = connection.createStatement()) {
+				for (final String query : queries) {
+					appendFigures(statement, query, signatures);
+				}
+			}
+		}
+		final Map<List<String>, String> tableSignatures = new HashMap<>(signatures.size() * 2);
+		signatures.forEach((table, signature) -> tableSignatures.put(table, signature.toString()));
+		return new MetaDataFingerprint(tableSignatures);
+	}
+
+	private static void appendFigures(final Statement statement, final String query,
+			final Map<List<String>, StringBuilder> signatures) throws SQLException {
+		// jede Abfrage bekommt ihren Abschnitt in der Signatur, auch wenn sie
+		// für eine Tabelle keine Zeile liefert
+		for (final StringBuilder signature : signatures.values()) {
+			signature.append(SEPARATOR).append(SEPARATOR);
+		}
+		try (ResultSet figures = statement.executeQuery(query)) {
+			final int columnCount = figures.getMetaData().getColumnCount();
+			while (figures.next()) {
+				final StringBuilder signature = signatures.get(tableKey(figures.getString(1), figures.getString(2)));
+				if (signature != null) {
+					for (int i = 3; i <= columnCount; i++) {
+						signature.append(figures.getString(i)).append(SEPARATOR);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param schemaName
+	 * @param tableName
+	 * @return Schlüssel einer Tabelle im Fingerabdruck
+	 */
+	public static List<String> tableKey(final String schemaName, final String tableName) {
+		return Collections.unmodifiableList(Arrays.asList(schemaName, tableName));
+	}
+
+	/**
+	 * @return Signaturen je Tabelle, Schlüssel siehe
+	 *         {@link #tableKey(String, String)}
+	 */
+	public Map<List<String>, String> getTableSignatures() {
+		return tableSignatures;
+	}
+
+	/**
+	 * Tabellen, die neu hinzugekommen, entfallen oder geändert sind.
+	 *
+	 * @param previous
+	 *            früher gelesener Fingerabdruck
+	 * @return qualifizierte Namen (Schema und Tabellenname) der geänderten
+	 *         Tabellen, leer wenn sich nichts geändert hat
+	 */
+	public Collection<List<String>> changedTables(final MetaDataFingerprint previous) {
+		final Set<List<String>> changed = new LinkedHashSet<>();
+		for (final Map.Entry<List<String>, String> table : tableSignatures.entrySet()) {
+			if (!Objects.equals(table.getValue(), previous.tableSignatures.get(table.getKey()))) {
+				changed.add(table.getKey());
+			}
+		}
+		for (final List<String> table : previous.tableSignatures.keySet()) {
+			if (!tableSignatures.containsKey(table)) {
+				changed.add(table);
+			}
+		}
+		return new ArrayList<>(changed);
+	}
+}
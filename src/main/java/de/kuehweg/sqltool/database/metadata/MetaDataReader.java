@@ -29,11 +29,19 @@ import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import de.kuehweg.sqltool.database.ParallelConnectionPool;
 import de.kuehweg.sqltool.database.metadata.description.CatalogDescription;
 import de.kuehweg.sqltool.database.metadata.description.DatabaseDescription;
+import de.kuehweg.sqltool.database.metadata.description.DatabaseObjectDescription;
+import de.kuehweg.sqltool.database.metadata.description.ForeignKeyColumnDescription;
 import de.kuehweg.sqltool.database.metadata.description.SchemaDescription;
 import de.kuehweg.sqltool.database.metadata.description.TableDescription;
 
@@ -44,6 +52,50 @@ import de.kuehweg.sqltool.database.metadata.description.TableDescription;
  */
 public class MetaDataReader {
 
+	private final PerTableSubObjectReadStrategy perTable = new PerTableSubObjectReadStrategy();
+	private final TableSubObjectReadStrategy strategy;
+	private ParallelConnectionPool metaDataConnections;
+	private MetaDataReadProgressListener progressListener;
+
+	/**
+	 * Metadaten mit der Strategie lesen, die zum Treiber der jeweiligen
+	 * Verbindung passt.
+	 */
+	public MetaDataReader() {
+		this(null);
+	}
+
+	/**
+	 * @param strategy
+	 *            Strategie zum Lesen der Unterobjekte aller Tabellen. Schlägt
+	 *            sie fehl, werden die Tabellen einzeln gelesen. Bei null wird
+	 *            die Strategie über die
+	 *            {@link TableSubObjectReadStrategyFactory} bestimmt.
+	 */
+	public MetaDataReader(final TableSubObjectReadStrategy strategy) {
+		this.strategy = strategy;
+	}
+
+	/**
+	 * @param metaDataConnections
+	 *            Zusätzliche Verbindungen, über die mehrere Tabellen
+	 *            gleichzeitig gelesen werden, wenn die Metadaten nicht in einem
+	 *            Durchgang gelesen werden können. Ohne zusätzliche Verbindungen
+	 *            werden die Tabellen nacheinander über die Verbindung des
+	 *            Anwenders gelesen.
+	 */
+	public void setMetaDataConnections(final ParallelConnectionPool metaDataConnections) {
+		this.metaDataConnections = metaDataConnections;
+	}
+
+	/**
+	 * @param progressListener
+	 *            wird über die Anzahl gelesener Tabellen informiert
+	 */
+	public void setProgressListener(final MetaDataReadProgressListener progressListener) {
+		this.progressListener = progressListener;
+	}
+
 	/**
 	 * Liest die Metadaten der übergebenen Datenbankverbindung aus und liefert
 	 * sie in aufbereiteter Form als DatabaseDescription zurück.
@@ -52,6 +104,174 @@ public class MetaDataReader {
 	 * @return
 	 */
 	public DatabaseDescription readMetaData(final Connection connection) {
+		return readMetaData(connection, false);
+	}
+
+	/**
+	 * Liest nur Kataloge, Schemas und Tabellennamen der übergebenen
+	 * Datenbankverbindung. Spalten, Schlüssel und Indizes werden erst mit
+	 * {@link #readTableDetails(Connection, TableDescription)} gelesen, wenn sie
+	 * tatsächlich benötigt werden.
+	 *
+	 * @param connection
+	 * @return
+	 */
+	public DatabaseDescription readMetaDataWithoutTableDetails(final Connection connection) {
+		return readMetaData(connection, true);
+	}
+
+	/**
+	 * Liest Spalten, Schlüssel und Indizes einer einzelnen Tabelle nach, sofern
+	 * sie noch nicht gelesen wurden. Die Details bleiben danach in der
+	 * Tabellenbeschreibung erhalten, ein weiterer Aufruf liest nichts mehr.
+	 *
+	 * @param connection
+	 * @param table
+	 *            Tabellenbeschreibung aus
+	 *            {@link #readMetaDataWithoutTableDetails(Connection)}
+	 */
+	public void readTableDetails(final Connection connection, final TableDescription table) {
+		if (!isPartOfDatabaseDescription(table)) {
+			return;
+		}
+		final DatabaseObjectDescription db = table.findHierarchyLevel(DatabaseDescription.class);
+		synchronized (db) {
+			// inzwischen evtl. durch eine neu gelesene Tabelle ersetzt
+			if (!table.isDetailsPending() || !isPartOfDatabaseDescription(table)) {
+				return;
+			}
+			try {
+				perTable.readTableSubObjects((DatabaseDescription) db, connection, table);
+				table.markDetailsLoaded();
+			} catch (final SQLException ex) {
+				Logger.getLogger(MetaDataReader.class.getName()).log(Level.SEVERE, null, ex);
+			}
+		}
+	}
+
+	/**
+	 * Liest einzelne Tabellen nach einer Strukturänderung neu und ersetzt sie
+	 * in der bestehenden Beschreibung. Tabellen, die vorher oder nachher per
+	 * Fremdschlüssel mit ihnen verbunden sind, werden ebenfalls neu gelesen,
+	 * damit auch deren Verweise stimmen.
+	 *
+	 * @param connection
+	 * @param db
+	 *            bestehende Beschreibung, die ergänzt wird
+	 * @param tableNames
+	 *            ggf. qualifizierte Tabellennamen, unqualifizierte Namen
+	 *            beziehen sich auf das aktuelle Schema der Verbindung
+	 * @param withoutTableDetails
+	 *            neu angelegte Tabellen nur mit Namen lesen, ihre Details
+	 *            werden bei Bedarf nachgeladen
+	 * @return Schemas mit geänderten Tabellen, null wenn die Tabellen nicht
+	 *         gezielt gelesen werden konnten und die Metadaten komplett neu
+	 *         gelesen werden müssen
+	 */
+	public Set<SchemaDescription> refreshTables(final Connection connection, final DatabaseDescription db,
+			final Collection<List<String>> tableNames, final boolean withoutTableDetails) {
+		synchronized (db) {
+			try {
+				final Set<SchemaDescription> changedSchemas = new HashSet<>();
+				final Set<String> refreshed = new HashSet<>();
+				for (final List<String> tableName : tableNames) {
+					if (tableName == null || tableName.isEmpty()) {
+						return null;
+					}
+					final SchemaDescription schema = findSchema(db,
+							tableName.size() > 1 ? tableName.get(tableName.size() - 2) : connection.getSchema());
+					if (schema == null) {
+						return null;
+					}
+					refreshTable(connection, db, schema, tableName.get(tableName.size() - 1), withoutTableDetails,
+							refreshed, changedSchemas);
+				}
+				return changedSchemas;
+			} catch (final SQLException ex) {
+				Logger.getLogger(MetaDataReader.class.getName()).log(Level.INFO,
+						"Incremental metadata refresh failed, metadata has to be read completely", ex);
+				return null;
+			}
+		}
+	}
+
+	private void refreshTable(final Connection connection, final DatabaseDescription db,
+			final SchemaDescription schema, final String tableName, final boolean withoutTableDetails,
+			final Set<String> refreshed, final Set<SchemaDescription> changedSchemas) throws SQLException {
+		if (!refreshed.add(schema.getName() + "." + tableName)) {
+			return;
+		}
+		final List<String[]> neighbours = new ArrayList<>();
+		final TableDescription oldTable = schema.removeTable(tableName);
+		if (oldTable != null) {
+			collectNeighbours(oldTable, neighbours);
+		}
+		final TableDescription newTable = readTable(connection, db, schema, tableName,
+				withoutTableDetails && (oldTable == null || oldTable.isDetailsPending()));
+		if (newTable != null) {
+			collectNeighbours(newTable, neighbours);
+		}
+		changedSchemas.add(schema);
+
+		for (final String[] neighbour : neighbours) {
+			final SchemaDescription neighbourSchema = findSchema(db, neighbour[0]);
+			final TableDescription neighbourTable = neighbourSchema != null ? neighbourSchema.getTable(neighbour[1])
+					: null;
+			// noch nicht gelesene Details werden ohnehin aktuell gelesen
+			if (neighbourTable != null && !neighbourTable.isDetailsPending()
+					&& refreshed.add(neighbourSchema.getName() + "." + neighbourTable.getName())) {
+				neighbourSchema.removeTable(neighbourTable.getName());
+				readTable(connection, db, neighbourSchema, neighbourTable.getName(), false);
+				changedSchemas.add(neighbourSchema);
+			}
+		}
+	}
+
+	private TableDescription readTable(final Connection connection, final DatabaseDescription db,
+			final SchemaDescription schema, final String tableName, final boolean withoutTableDetails)
+			throws SQLException {
+		final DatabaseMetaData metaData = connection.getMetaData();
+		try (ResultSet tables = metaData.getTables(schema.getParent().getName(),
+				PerTableSubObjectReadStrategy.escapedPattern(metaData, schema.getName()),
+				PerTableSubObjectReadStrategy.escapedPattern(metaData, tableName), null)) {
+			new TableMetaDataReader(db).readAndAddDescriptions(tables);
+		}
+		final TableDescription table = schema.getTable(tableName);
+		if (table != null) {
+			if (withoutTableDetails) {
+				table.markDetailsPending();
+			} else {
+				perTable.readTableSubObjects(db, connection, table);
+			}
+		}
+		return table;
+	}
+
+	private void collectNeighbours(final TableDescription table, final List<String[]> neighbours) {
+		for (final ForeignKeyColumnDescription fk : table.getImportedKeyColumns()) {
+			neighbours.add(new String[] { fk.getOutsideSchema(), fk.getOutsideTableName() });
+		}
+		for (final ForeignKeyColumnDescription fk : table.getExportedKeyColumns()) {
+			neighbours.add(new String[] { fk.getOutsideSchema(), fk.getOutsideTableName() });
+		}
+	}
+
+	private SchemaDescription findSchema(final DatabaseDescription db, final String schemaName) {
+		for (final CatalogDescription catalog : db.getCatalogs()) {
+			final SchemaDescription schema = catalog.getSchema(schemaName);
+			if (schema != null) {
+				return schema;
+			}
+		}
+		return null;
+	}
+
+	private boolean isPartOfDatabaseDescription(final TableDescription table) {
+		return !table.isOrphan() && !table.getParent().isOrphan()
+				&& table.getParent().getParent().getParent() instanceof DatabaseDescription;
+	}
+
+	private DatabaseDescription readMetaData(final Connection connection, final boolean withoutTableDetails) {
 		DatabaseDescription db;
 		try {
 			final DatabaseMetaData metaData = connection.getMetaData();
@@ -63,7 +283,12 @@ public class MetaDataReader {
 			readCatalogDescriptions(db, connection);
 			readSchemaDescriptions(db, connection);
 			readTableDescriptions(db, connection);
-			readTableSubObjects(db, connection);
+			if (withoutTableDetails) {
+				markTableDetailsPending(db);
+			} else {
+				readTableSubObjects(db, connection, strategy != null ? strategy
+						: TableSubObjectReadStrategyFactory.forUrl(metaData.getURL()));
+			}
 
 		} catch (final SQLException ex) {
 			Logger.getLogger(MetaDataReader.class.getName()).log(Level.SEVERE, null, ex);
@@ -91,52 +316,41 @@ public class MetaDataReader {
 		}
 	}
 
-	private void readTableSubObjects(final DatabaseDescription db, final Connection connection) throws SQLException {
-		for (final CatalogDescription catalog : db.getCatalogs()) {
-			for (final SchemaDescription schema : catalog.getSchemas()) {
-				for (final TableDescription table : schema.getTables()) {
-					readColumns(db, connection, catalog.getName(), schema.getName(), table.getName());
-					readPrimaryKeyColumns(db, connection, catalog.getName(), schema.getName(), table.getName());
-					readIndices(db, connection, catalog.getName(), schema.getName(), table.getName());
-					readExportedKeys(db, connection, catalog.getName(), schema.getName(), table.getName());
-					readImportedKeys(db, connection, catalog.getName(), schema.getName(), table.getName());
+	private void readTableSubObjects(final DatabaseDescription db, final Connection connection,
+			final TableSubObjectReadStrategy strategy) throws SQLException {
+		if (!(strategy instanceof PerTableSubObjectReadStrategy)) {
+			try {
+				strategy.readTableSubObjects(db, connection);
+				if (progressListener != null) {
+					final int tablesTotal = PerTableSubObjectReadStrategy.tablesOf(db).size();
+					progressListener.tablesRead(tablesTotal, tablesTotal);
 				}
+				return;
+			} catch (final SQLException ex) {
+				Logger.getLogger(MetaDataReader.class.getName()).log(Level.INFO,
+						"Bulk metadata read failed, falling back to reading table by table", ex);
 			}
 		}
-	}
-
-	private void readColumns(final DatabaseDescription db, final Connection connection, final String catalog,
-			final String schema, final String table) throws SQLException {
-		try (ResultSet columns = connection.getMetaData().getColumns(catalog, schema, table, null)) {
-			new ColumnMetaDataReader(db).readAndAddDescriptions(columns);
-		}
-	}
-
-	private void readPrimaryKeyColumns(final DatabaseDescription db, final Connection connection, final String catalog,
-			final String schema, final String table) throws SQLException {
-		try (ResultSet columns = connection.getMetaData().getPrimaryKeys(catalog, schema, table)) {
-			new PrimaryKeyMetaDataReader(db).readAndAddDescriptions(columns);
-		}
-	}
-
-	private void readIndices(final DatabaseDescription db, final Connection connection, final String catalog,
-			final String schema, final String table) throws SQLException {
-		try (ResultSet idx = connection.getMetaData().getIndexInfo(catalog, schema, table, false, false)) {
-			new IndexMetaDataReader(db).readAndAddDescriptions(idx);
-		}
-	}
-
-	private void readExportedKeys(final DatabaseDescription db, final Connection connection, final String catalog,
-			final String schema, final String table) throws SQLException {
-		try (ResultSet idx = connection.getMetaData().getExportedKeys(catalog, schema, table)) {
-			new ExportedKeyMetaDataReader(db).readAndAddDescriptions(idx);
+		if (metaDataConnections != null && metaDataConnections.getSize() > 1) {
+			try {
+				new ParallelPerTableSubObjectReadStrategy(metaDataConnections, progressListener)
+						.readTableSubObjects(db, connection);
+				return;
+			} catch (final SQLException ex) {
+				Logger.getLogger(MetaDataReader.class.getName()).log(Level.INFO,
+						"Parallel metadata read failed, falling back to the user's connection", ex);
+			}
 		}
+		new PerTableSubObjectReadStrategy(progressListener).readTableSubObjects(db, connection);
 	}
 
-	private void readImportedKeys(final DatabaseDescription db, final Connection connection, final String catalog,
-			final String schema, final String table) throws SQLException {
-		try (ResultSet idx = connection.getMetaData().getImportedKeys(catalog, schema, table)) {
-			new ImportedKeyMetaDataReader(db).readAndAddDescriptions(idx);
+	private void markTableDetailsPending(final DatabaseDescription db) {
+		for (final CatalogDescription catalog : db.getCatalogs()) {
+			for (final SchemaDescription schema : catalog.getSchemas()) {
+				for (final TableDescription table : schema.getTables()) {
+					table.markDetailsPending();
+				}
+			}
 		}
 	}
 
@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database.metadata;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import de.kuehweg.sqltool.database.metadata.description.CatalogDescription;
+import de.kuehweg.sqltool.database.metadata.description.ColumnDescription;
+import de.kuehweg.sqltool.database.metadata.description.DatabaseDescription;
+import de.kuehweg.sqltool.database.metadata.description.ExportedKeyColumnDescription;
+import de.kuehweg.sqltool.database.metadata.description.ForeignKeyColumnDescription;
+import de.kuehweg.sqltool.database.metadata.description.ImportedKeyColumnDescription;
+import de.kuehweg.sqltool.database.metadata.description.IndexColumnDescription;
+import de.kuehweg.sqltool.database.metadata.description.Nullability;
+import de.kuehweg.sqltool.database.metadata.description.PrimaryKeyColumnDescription;
+import de.kuehweg.sqltool.database.metadata.description.SchemaDescription;
+import de.kuehweg.sqltool.database.metadata.description.TableDescription;
+
+/**
+ * Momentaufnahme der Metadaten einer Datenbank zusammen mit dem
+ * Fingerabdruck, der beim Lesen der Metadaten galt. Die Momentaufnahme wird in
+ * einem kompakten Binärformat geschrieben und gelesen.
+ *
+ * @author Michael Kühweg
+ */
+public class MetaDataSnapshot {
+
+	private static final int MAGIC = 0x69545351;
+	private static final int FORMAT_VERSION = 1;
+	private static final int NO_NULLABILITY = -1;
+
+	private final DatabaseDescription databaseDescription;
+	private final MetaDataFingerprint fingerprint;
+
+	public MetaDataSnapshot(final DatabaseDescription databaseDescription, final MetaDataFingerprint fingerprint) {
+		this.databaseDescription = databaseDescription;
+		this.fingerprint = fingerprint;
+	}
+
+	public DatabaseDescription getDatabaseDescription() {
+		return databaseDescription;
+	}
+
+	public MetaDataFingerprint getFingerprint() {
+		return fingerprint;
+	}
+
+	/**
+	 * Momentaufnahme schreiben. Die Beschreibung der Datenbank ist dabei
+	 * gesperrt, damit sie nicht währenddessen verändert wird.
+	 *
+	 * @param stream
+	 *            Ziel, wird nicht geschlossen
+	 * @throws IOException
+	 */
+	public void writeTo(final OutputStream stream) throws IOException {
+		final GZIPOutputStream zip = new GZIPOutputStream(stream);
+		final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(zip));
+		out.writeInt(MAGIC);
+		out.writeInt(FORMAT_VERSION);
+		writeFingerprint(out);
+		synchronized (databaseDescription) {
+			writeDatabaseDescription(out);
+		}
+		out.flush();
+		zip.finish();
+	}
+
+	private void writeDatabaseDescription(final DataOutputStream out) throws IOException {
+		out.writeUTF(databaseDescription.getName());
+		out.writeUTF(databaseDescription.getDbProductName());
+		out.writeUTF(databaseDescription.getDbProductVersion());
+		out.writeInt(databaseDescription.getCatalogs().size());
+		for (final CatalogDescription catalog : databaseDescription.getCatalogs()) {
+			out.writeUTF(catalog.getName());
+			out.writeInt(catalog.getSchemas().size());
+			for (final SchemaDescription schema : catalog.getSchemas()) {
+				out.writeUTF(schema.getName());
+				out.writeInt(schema.getTables().size());
+				for (final TableDescription table : schema.getTables()) {
+					writeTable(out, table);
+				}
+			}
+		}
+	}
+
+	private void writeFingerprint(final DataOutputStream out) throws IOException {
+		final Map<List<String>, String> signatures = fingerprint.getTableSignatures();
+		out.writeInt(signatures.size());
+		for (final Map.Entry<List<String>, String> signature : signatures.entrySet()) {
+			writeNullable(out, signature.getKey().get(0));
+			writeNullable(out, signature.getKey().get(1));
+			out.writeUTF(signature.getValue());
+		}
+	}
+
+	private void writeTable(final DataOutputStream out, final TableDescription table) throws IOException {
+		out.writeUTF(table.getName());
+		out.writeUTF(table.getTableType());
+		out.writeUTF(table.getRemarks());
+		out.writeBoolean(table.isDetailsPending());
+		out.writeInt(table.getColumns().size());
+		for (final ColumnDescription column : table.getColumns()) {
+			out.writeUTF(column.getName());
+			out.writeUTF(column.getType());
+			out.writeInt(column.getSize());
+			out.writeInt(column.getDecimalDigits());
+			out.writeInt(column.getNullable() != null ? column.getNullable().ordinal() : NO_NULLABILITY);
+			out.writeUTF(column.getDefaultValue());
+			out.writeUTF(column.getRemarks());
+		}
+		out.writeInt(table.getPrimaryKeyColumns().size());
+		for (final PrimaryKeyColumnDescription pk : table.getPrimaryKeyColumns()) {
+			out.writeUTF(pk.getName());
+			out.writeUTF(pk.getColumnName());
+		}
+		out.writeInt(table.getIndices().size());
+		for (final IndexColumnDescription index : table.getIndices()) {
+			out.writeUTF(index.getName());
+			out.writeUTF(index.getColumnName());
+			out.writeInt(index.getOrdinalPosition());
+			out.writeBoolean(index.isNonUnique());
+		}
+		writeForeignKeys(out, table.getImportedKeyColumns());
+		writeForeignKeys(out, table.getExportedKeyColumns());
+	}
+
+	private void writeForeignKeys(final DataOutputStream out, final List<ForeignKeyColumnDescription> fks)
+			throws IOException {
+		out.writeInt(fks.size());
+		for (final ForeignKeyColumnDescription fk : fks) {
+			out.writeUTF(fk.getName());
+			out.writeUTF(fk.getInsideColumnName());
+			out.writeUTF(fk.getOutsideCatalog());
+			out.writeUTF(fk.getOutsideSchema());
+			out.writeUTF(fk.getOutsideTableName());
+			out.writeUTF(fk.getOutsideColumnName());
+		}
+	}
+
+	private static void writeNullable(final DataOutputStream out, final String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+
+	/**
+	 * Momentaufnahme lesen.
+	 *
+	 * @param stream
+	 *            Quelle, wird nicht geschlossen
+	 * @return
+	 * @throws IOException
+	 *             auch wenn die Daten nicht im erwarteten Format vorliegen
+	 */
+	public static MetaDataSnapshot readFrom(final InputStream stream) throws IOException {
+		final DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(stream)));
+		if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+			throw new IOException("Unknown metadata snapshot format");
+		}
+		final MetaDataFingerprint fingerprint = readFingerprint(in);
+		final DatabaseDescription db = new DatabaseDescription(in.readUTF(), in.readUTF(), in.readUTF());
+		final int catalogCount = in.readInt();
+		for (int c = 0; c < catalogCount; c++) {
+			final CatalogDescription catalog = new CatalogDescription(in.readUTF());
+			db.adoptOrphan(catalog);
+			final int schemaCount = in.readInt();
+			for (int s = 0; s < schemaCount; s++) {
+				final SchemaDescription schema = new SchemaDescription(in.readUTF());
+				catalog.adoptOrphan(schema);
+				final int tableCount = in.readInt();
+				for (int t = 0; t < tableCount; t++) {
+					schema.adoptOrphan(readTable(in));
+				}
+			}
+		}
+		return new MetaDataSnapshot(db, fingerprint);
+	}
+
+	private static MetaDataFingerprint readFingerprint(final DataInputStream in) throws IOException {
+		final int count = in.readInt();
+		final Map<List<String>, String> signatures = new HashMap<>(count * 2);
+		for (int i = 0; i < count; i++) {
+			final String schemaName = readNullable(in);
+			final String tableName = readNullable(in);
+			signatures.put(MetaDataFingerprint.tableKey(schemaName, tableName), in.readUTF());
+		}
+		return new MetaDataFingerprint(signatures);
+	}
+
+	private static TableDescription readTable(final DataInputStream in) throws IOException {
+		final TableDescription table = new TableDescription(in.readUTF(), in.readUTF(), in.readUTF());
+		if (in.readBoolean()) {
+			table.markDetailsPending();
+		}
+		final int columnCount = in.readInt();
+		for (int i = 0; i < columnCount; i++) {
+			final String name = in.readUTF();
+			final String type = in.readUTF();
+			final int size = in.readInt();
+			final int decimalDigits = in.readInt();
+			final int nullable = in.readInt();
+			table.adoptOrphan(new ColumnDescription(name, type, size, decimalDigits,
+					nullable == NO_NULLABILITY ? null : Nullability.values()[nullable], in.readUTF(), in.readUTF()));
+		}
+		final int pkCount = in.readInt();
+		for (int i = 0; i < pkCount; i++) {
+			table.adoptOrphan(new PrimaryKeyColumnDescription(in.readUTF(), in.readUTF()));
+		}
+		final int indexCount = in.readInt();
+		for (int i = 0; i < indexCount; i++) {
+			table.adoptOrphan(
+					new IndexColumnDescription(in.readUTF(), in.readUTF(), in.readInt(), in.readBoolean()));
+		}
+		final int importedCount = in.readInt();
+		for (int i = 0; i < importedCount; i++) {
+			table.adoptOrphan(new ImportedKeyColumnDescription(in.readUTF(), in.readUTF(), in.readUTF(),
+					in.readUTF(), in.readUTF(), in.readUTF()));
+		}
+		final int exportedCount = in.readInt();
+		for (int i = 0; i < exportedCount; i++) {
+			table.adoptOrphan(new ExportedKeyColumnDescription(in.readUTF(), in.readUTF(), in.readUTF(),
+					in.readUTF(), in.readUTF(), in.readUTF()));
+		}
+		return table;
+	}
+
+	private static String readNullable(final DataInputStream in) throws IOException {
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database.metadata;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import de.kuehweg.sqltool.database.DatabaseConstants;
+import de.kuehweg.sqltool.database.JDBCType;
+
+/**
+ * Ablage der Momentaufnahmen der Metadaten, je Verbindungs-URL und Benutzer
+ * eine Datei. Ist eine Momentaufnahme nicht lesbar, wird sie ignoriert - die
+ * Metadaten werden dann wie gewohnt gelesen.
+ *
+ * @author Michael Kühweg
+ */
+public class MetaDataSnapshotStore {
+
+	private static final String FILE_EXTENSION = ".metadata";
+
+	private final Path directory;
+
+	/**
+	 * Ablage im Standardverzeichnis unterhalb des Benutzerverzeichnisses.
+	 */
+	public MetaDataSnapshotStore() {
+		this(Paths.get(System.getProperty("user.home"), DatabaseConstants.METADATA_SNAPSHOT_FOLDER));
+	}
+
+	public MetaDataSnapshotStore(final Path directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Momentaufnahmen werden nur für dauerhafte Datenbanken angelegt, der Inhalt
+	 * einer In-Memory-Datenbank ist beim nächsten Verbinden ohnehin ein anderer.
+	 *
+	 * @param url
+	 * @return
+	 */
+	public static boolean isSnapshotWorthy(final String url) {
+		final JDBCType type = JDBCType.forUrl(url);
+		return type == null || type.isPermanent();
+	}
+
+	/**
+	 * @param url
+	 * @param user
+	 * @return die zuletzt gespeicherte Momentaufnahme, null wenn keine (lesbare)
+	 *         Momentaufnahme vorliegt
+	 */
+	public MetaDataSnapshot load(final String url, final String user) {
+		final Path file = snapshotFile(url, user);
+		if (!Files.isReadable(file)) {
+			return null;
+		}
+		try (InputStream in = Files.newInputStream(file)) {
+			return MetaDataSnapshot.readFrom(in);
+		} catch (final IOException | RuntimeException ex) {
+			Logger.getLogger(MetaDataSnapshotStore.class.getName()).log(Level.INFO,
+					"Metadata snapshot not readable: " + file, ex);
+			return null;
+		}
+	}
+
+	/**
+	 * Speichert die Momentaufnahme. Die Datei wird erst vollständig geschrieben
+	 * und dann ausgetauscht, damit nie eine halb geschriebene Momentaufnahme
+	 * gelesen wird.
+	 *
+	 * @param url
+	 * @param user
+	 * @param snapshot
+	 */
+	public void save(final String url, final String user, final MetaDataSnapshot snapshot) {
+		final Path file = snapshotFile(url, user);
+		Path tempFile = null;
+		try {
+			Files.createDirectories(directory);
+			tempFile = Files.createTempFile(directory, "snapshot", ".tmp");
+			try (OutputStream out = Files.newOutputStream(tempFile)) {
+				snapshot.writeTo(out);
+			}
+			Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (final IOException | RuntimeException ex) {
+			Logger.getLogger(MetaDataSnapshotStore.class.getName()).log(Level.INFO,
+					"Metadata snapshot not saved: " + file, ex);
+			deleteQuietly(tempFile);
+		}
+	}
+
+	Path snapshotFile(final String url, final String user) {
+		final String connectionKey = user + "@" + url;
+		return directory.resolve(
+				UUID.nameUUIDFromBytes(connectionKey.getBytes(StandardCharsets.UTF_8)).toString() + FILE_EXTENSION);
+	}
+
+	private void deleteQuietly(final Path file) {
+		if (file != null) {
+			try {
+				Files.deleteIfExists(file);
+			} catch (final IOException ex) {
+				Logger.getLogger(MetaDataSnapshotStore.class.getName()).log(Level.FINE,
+						"Metadata snapshot not deleted: " + file, ex);
+			}
+		}
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database.metadata;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.kuehweg.sqltool.common.concurrent.ExecutionPool;
+import de.kuehweg.sqltool.common.concurrent.ExecutionService;
+import de.kuehweg.sqltool.database.ParallelConnectionPool;
+import de.kuehweg.sqltool.database.metadata.description.DatabaseDescription;
+import de.kuehweg.sqltool.database.metadata.description.TableDescription;
+
+/**
+ * Liest die Unterobjekte der Tabellen einzeln, aber mehrere Tabellen
+ * gleichzeitig über zusätzliche Verbindungen. Die Verbindung des Anwenders
+ * wird dabei nicht verwendet. Jeder Worker nutzt für die Dauer des Lesens
+ * eine eigene Verbindung aus dem Pool und holt sich die nächste noch nicht
+ * gelesene Tabelle, bis alle Tabellen gelesen sind. Die Worker laufen im
+ * Pool {@link ExecutionPool#METADATA}.
+ * <p>
+ * Dies ist nur die Rückfallebene, falls das Lesen aller Tabellen auf einmal
+ * scheitert oder der Treiber dafür keine Strategie kennt.
+ * {@link TableSubObjectReadStrategyFactory} liefert für alle unterstützten
+ * Treiber {@link InformationSchemaSubObjectReadStrategy}.
+ *
+ * @author Michael Kühweg
+ */
+public class ParallelPerTableSubObjectReadStrategy implements TableSubObjectReadStrategy {
+
+	private final ParallelConnectionPool metaDataConnections;
+	private final MetaDataReadProgressListener progressListener;
+	private final PerTableSubObjectReadStrategy perTable = new PerTableSubObjectReadStrategy();
+
+	/**
+	 * @param metaDataConnections
+	 *            Verbindungen zum Lesen der Metadaten, die Größe des Pools
+	 *            bestimmt die Anzahl gleichzeitig gelesener Tabellen
+	 * @param progressListener
+	 *            wird nach jeder gelesenen Tabelle informiert, darf null sein
+	 */
+	public ParallelPerTableSubObjectReadStrategy(final ParallelConnectionPool metaDataConnections,
+			final MetaDataReadProgressListener progressListener) {
+		this.metaDataConnections = metaDataConnections;
+		this.progressListener = progressListener;
+	}
+
+	@Override
+	public void readTableSubObjects(final DatabaseDescription db, final Connection connection) throws SQLException {
+		final List<TableDescription> tables = PerTableSubObjectReadStrategy.tablesOf(db);
+		final int workers = Math.min(metaDataConnections.getSize(), tables.size());
+		if (workers == 0) {
+			return;
+		}
+		final AtomicInteger nextTable = new AtomicInteger();
+		final AtomicInteger tablesDone = new AtomicInteger();
+		final List<FutureTask<Void>> readers = new ArrayList<>(workers);
+		for (int i = 0; i < workers; i++) {
+			final FutureTask<Void> reader = new FutureTask<>(() -> readTables(db, tables, nextTable, tablesDone));
+			readers.add(reader);
+			ExecutionService.getInstance().execute(ExecutionPool.METADATA, reader);
+		}
+		try {
+			for (final FutureTask<Void> reader : readers) {
+				awaitReader(reader);
+			}
+		} finally {
+			for (final FutureTask<Void> reader : readers) {
+				reader.cancel(false);
+			}
+		}
+	}
+
+	private Void readTables(final DatabaseDescription db, final List<TableDescription> tables,
+			final AtomicInteger nextTable, final AtomicInteger tablesDone) throws SQLException {
+		final Connection connection = metaDataConnections.borrow();
+		try {
+			int index;
+			while ((index = nextTable.getAndIncrement()) < tables.size()) {
+				perTable.readTableSubObjects(db, connection, tables.get(index));
+				final int done = tablesDone.incrementAndGet();
+				if (progressListener != null) {
+					progressListener.tablesRead(done, tables.size());
+				}
+			}
+		} catch (final SQLException ex) {
+			// die übrigen Worker nicht weiterlesen lassen
+			nextTable.set(tables.size());
+			throw ex;
+		} finally {
+			metaDataConnections.release(connection);
+		}
+		return null;
+	}
+
+	private void awaitReader(final FutureTask<Void> reader) throws SQLException {
+		// der aufrufende Thread läuft meist selbst im Pool, noch nicht
+		// begonnene Worker deshalb selbst ausführen statt auf sie zu warten
+		reader.run();
+		try {
+			reader.get();
+		} catch (final InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new SQLException(ex);
+		} catch (final ExecutionException ex) {
+			if (ex.getCause() instanceof SQLException) {
+				throw (SQLException) ex.getCause();
+			}
+			throw new SQLException(ex.getCause());
+		}
+	}
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database.metadata;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import de.kuehweg.sqltool.database.metadata.description.CatalogDescription;
+import de.kuehweg.sqltool.database.metadata.description.DatabaseDescription;
+import de.kuehweg.sqltool.database.metadata.description.DatabaseObjectDescription;
+import de.kuehweg.sqltool.database.metadata.description.SchemaDescription;
+import de.kuehweg.sqltool.database.metadata.description.TableDescription;
+
+/**
+ * Liest die Unterobjekte jeder Tabelle einzeln über die
+ * {@link java.sql.DatabaseMetaData}. Funktioniert mit jedem Treiber, benötigt
+ * aber fünf Aufrufe pro Tabelle.
+ *
+ * @author Michael Kühweg
+ */
+public class PerTableSubObjectReadStrategy implements TableSubObjectReadStrategy {
+
+	private final MetaDataReadProgressListener progressListener;
+
+	public PerTableSubObjectReadStrategy() {
+		this(null);
+	}
+
+	/**
+	 * @param progressListener
+	 *            wird nach jeder gelesenen Tabelle informiert, darf null sein
+	 */
+	public PerTableSubObjectReadStrategy(final MetaDataReadProgressListener progressListener) {
+		this.progressListener = progressListener;
+	}
+
+	@Override
+	public void readTableSubObjects(final DatabaseDescription db, final Connection connection) throws SQLException {
+		final List<TableDescription> tables = tablesOf(db);
+		int tablesDone = 0;
+		for (final TableDescription table : tables) {
+			readTableSubObjects(db, connection, table);
+			tablesDone++;
+			if (progressListener != null) {
+				progressListener.tablesRead(tablesDone, tables.size());
+			}
+		}
+	}
+
+	/**
+	 * @param db
+	 * @return alle Tabellen der Datenbankbeschreibung
+	 */
+	static List<TableDescription> tablesOf(final DatabaseDescription db) {
+		final List<TableDescription> tables = new ArrayList<>();
+		for (final CatalogDescription catalog : db.getCatalogs()) {
+			for (final SchemaDescription schema : catalog.getSchemas()) {
+				tables.addAll(schema.getTables());
+			}
+		}
+		return tables;
+	}
+
+	/**
+	 * Liest die Unterobjekte einer Tabelle der übergebenen
+	 * Datenbankbeschreibung.
+	 *
+	 * @param db
+	 * @param connection
+	 * @param table
+	 * @throws SQLException
+	 */
+	void readTableSubObjects(final DatabaseDescription db, final Connection connection, final TableDescription table)
+			throws SQLException {
+		final DatabaseObjectDescription schema = table.getParent();
+		readTableSubObjects(db, connection, schema.getParent().getName(), schema.getName(), table.getName());
+	}
+
+	/**
+	 * Liest die Unterobjekte einer einzelnen Tabelle. Die gelesenen Zeilen
+	 * werden unter einer Sperre auf die Datenbankbeschreibung zugeordnet, so
+	 * dass mehrere Tabellen gleichzeitig über verschiedene Verbindungen
+	 * gelesen werden können.
+	 *
+	 * @param db
+	 * @param connection
+	 * @param catalog
+	 * @param schema
+	 * @param table
+	 * @throws SQLException
+	 */
+	public void readTableSubObjects(final DatabaseDescription db, final Connection connection, final String catalog,
+			final String schema, final String table) throws SQLException {
+		readColumns(db, connection, catalog, schema, table);
+		readPrimaryKeyColumns(db, connection, catalog, schema, table);
+		readIndices(db, connection, catalog, schema, table);
+		readExportedKeys(db, connection, catalog, schema, table);
+		readImportedKeys(db, connection, catalog, schema, table);
+	}
+
+	/**
+	 * Maskiert die Platzhalter eines Namens, damit er als Suchmuster der
+	 * DatabaseMetaData nur sich selbst findet. Ein Unterstrich im Tabellennamen
+	 * würde sonst auch ähnlich benannte Tabellen einschließen.
+	 *
+	 * @param metaData
+	 * @param name
+	 * @return Suchmuster für genau diesen Namen
+	 * @throws SQLException
+	 */
+	static String escapedPattern(final DatabaseMetaData metaData, final String name) throws SQLException {
+		final String escape = metaData.getSearchStringEscape();
+		if (name == null || escape == null || escape.isEmpty()) {
+			return name;
+		}
+		return name.replace(escape, escape + escape).replace("_", escape + "_").replace("%", escape + "%");
+	}
+
+	private void readColumns(final DatabaseDescription db, final Connection connection, final String catalog,
+			final String schema, final String table) throws SQLException {
+		final DatabaseMetaData metaData = connection.getMetaData();
+		try (ResultSet columns = metaData.getColumns(catalog, escapedPattern(metaData, schema),
+				escapedPattern(metaData, table), null)) {
+			synchronized (db) {
+				new ColumnMetaDataReader(db).readAndAddDescriptions(columns);
+			}
+		}
+	}
+
+	private void readPrimaryKeyColumns(final DatabaseDescription db, final Connection connection, final String catalog,
+			final String schema, final String table) throws SQLException {
+		try (ResultSet columns = connection.getMetaData().getPrimaryKeys(catalog, schema, table)) {
+			synchronized (db) {
+				new PrimaryKeyMetaDataReader(db).readAndAddDescriptions(columns);
+			}
+		}
+	}
+
+	private void readIndices(final DatabaseDescription db, final Connection connection, final String catalog,
+			final String schema, final String table) throws SQLException {
+		try (ResultSet idx = connection.getMetaData().getIndexInfo(catalog, schema, table, false, false)) {
+			synchronized (db) {
+				new IndexMetaDataReader(db).readAndAddDescriptions(idx);
+			}
+		}
+	}
+
+	private void readExportedKeys(final DatabaseDescription db, final Connection connection, final String catalog,
+			final String schema, final String table) throws SQLException {
+		try (ResultSet idx = connection.getMetaData().getExportedKeys(catalog, schema, table)) {
+			synchronized (db) {
+				new ExportedKeyMetaDataReader(db).readAndAddDescriptions(idx);
+			}
+		}
+	}
+
+	private void readImportedKeys(final DatabaseDescription db, final Connection connection, final String catalog,
+			final String schema, final String table) throws SQLException {
+		try (ResultSet idx = connection.getMetaData().getImportedKeys(catalog, schema, table)) {
+			synchronized (db) {
+				new ImportedKeyMetaDataReader(db).readAndAddDescriptions(idx);
+			}
+		}
+	}
+
+}
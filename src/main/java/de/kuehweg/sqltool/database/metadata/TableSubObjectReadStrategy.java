@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database.metadata;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+import de.kuehweg.sqltool.database.metadata.description.DatabaseDescription;
+
+/**
+ * Strategie zum Lesen der Spalten, Primärschlüssel, Indizes und Fremdschlüssel
+ * aller Tabellen einer Datenbankbeschreibung.
+ *
+ * @author Michael Kühweg
+ */
+public interface TableSubObjectReadStrategy {
+
+	/**
+	 * Liest die Unterobjekte aller Tabellen und ordnet sie den bereits
+	 * vorhandenen Tabellenbeschreibungen zu.
+	 *
+	 * @param db
+	 *            Datenbankbeschreibung mit Katalogen, Schemas und Tabellen
+	 * @param connection
+	 * @throws SQLException
+	 *             Falls die Metadaten auf diesem Weg nicht gelesen werden
+	 *             können. Bereits zugeordnete Unterobjekte bleiben erhalten,
+	 *             ein erneutes Lesen fügt keine Duplikate hinzu.
+	 */
+	void readTableSubObjects(DatabaseDescription db, Connection connection) throws SQLException;
+
+	/**
+	 * Abfragen für einen schnellen Vergleich der Metadaten, siehe
+	 * {@link MetaDataFingerprint}. Jede Abfrage liefert je Tabelle eine Zeile
+	 * mit Schema und Tabellenname in den ersten beiden Spalten, die weiteren
+	 * Spalten (z.B. Anzahl der Spalten) ändern sich mit der Tabellenstruktur.
+	 *
+	 * @return Abfragen, ohne eigene Abfragen eine leere Liste
+	 */
+	default List<String> fingerprintQueries() {
+		return Collections.emptyList();
+	}
+}
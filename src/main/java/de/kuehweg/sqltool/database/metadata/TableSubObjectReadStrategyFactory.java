@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database.metadata;
+
+import de.kuehweg.sqltool.database.JDBCType;
+
+/**
+ * Wählt die Strategie zum Lesen der Spalten, Schlüssel und Indizes passend
+ * zum JDBC-Treiber.
+ *
+ * @author Michael Kühweg
+ */
+public final class TableSubObjectReadStrategyFactory {
+
+	private TableSubObjectReadStrategyFactory() {
+	}
+
+	/**
+	 * @param type
+	 *            Verbindungstyp, darf null sein
+	 * @return Strategie, mit der die Unterobjekte aller Tabellen auf einmal
+	 *         gelesen werden. HSQLDB liefert sie direkt aus dem
+	 *         INFORMATION_SCHEMA. Bei unbekanntem Typ das Lesen Tabelle für
+	 *         Tabelle.
+	 */
+	public static TableSubObjectReadStrategy forType(final JDBCType type) {
+		if (type == null) {
+			return new PerTableSubObjectReadStrategy();
+		}
+		switch (type) {
+		case HSQL_IN_MEMORY:
+		case HSQL_STANDALONE:
+		case HSQL_SERVER:
+			return new InformationSchemaSubObjectReadStrategy();
+		default:
+			return new PerTableSubObjectReadStrategy();
+		}
+	}
+
+	/**
+	 * Strategie anhand der URL einer bestehenden Verbindung bestimmen.
+	 *
+	 * @param url
+	 *            URL aus den Metadaten der Verbindung
+	 * @return Strategie des passenden Treibers, bei unbekannten URLs das
+	 *         Lesen Tabelle für Tabelle
+	 */
+	public static TableSubObjectReadStrategy forUrl(final String url) {
+		return forType(JDBCType.forUrl(url));
+	}
+}
@@ -25,11 +25,7 @@
  */
 package de.kuehweg.sqltool.database.metadata.description;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 /**
  * Beschreibung der catalog Metadaten. Ein catalog enthält Schemata.
@@ -38,22 +34,30 @@ import java.util.Set;
  */
 public class CatalogDescription extends DatabaseObjectDescription {
 
-	private final Set<SchemaDescription> schemas;
+	private final DescriptionChildren<SchemaDescription> schemas;
 
 	public CatalogDescription(final String catalog) {
 		super(catalog);
-		schemas = new HashSet<>();
+		schemas = DescriptionChildren.byName();
 	}
 
 	/**
-	 * Schemas im Catalog, sortiert nach Schemaname.
+	 * Schemas im Catalog, sortiert nach Schemaname. Die Liste ist nicht
+	 * veränderbar.
 	 *
 	 * @return
 	 */
 	public List<SchemaDescription> getSchemas() {
-		final List<SchemaDescription> result = new ArrayList<>(schemas);
-		Collections.sort(result);
-		return result;
+		return schemas.asList();
+	}
+
+	/**
+	 * @param schemaName
+	 * @return das Schema dieses Namens, null wenn der Catalog kein solches
+	 *         Schema enthält
+	 */
+	public SchemaDescription getSchema(final String schemaName) {
+		return schemas.get(schemaName);
 	}
 
 	private void addSchemas(final SchemaDescription... schemas) {
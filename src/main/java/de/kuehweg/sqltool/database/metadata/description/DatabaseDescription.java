@@ -25,16 +25,16 @@
  */
 package de.kuehweg.sqltool.database.metadata.description;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 import de.kuehweg.sqltool.common.DialogDictionary;
 
 /**
  * Beschreibung der Metadaten einer Datenbank. Die Datenbank enthält catalogs.
+ * <p>
+ * Die Beschreibung wird z.B. beim Nachladen von Tabellendetails verändert,
+ * während andere Threads sie lesen. Wer sie ändert oder vollständig
+ * durchläuft, synchronisiert deshalb auf der DatabaseDescription.
  *
  * @author Michael Kühweg
  */
@@ -42,20 +42,20 @@ public class DatabaseDescription extends DatabaseObjectDescription {
 
 	private final String dbProductName;
 	private final String dbProductVersion;
-	private final Set<CatalogDescription> catalogs;
+	private final DescriptionChildren<CatalogDescription> catalogs;
 
 	public DatabaseDescription() {
 		super(DialogDictionary.MSG_NO_DB_CONNECTION_FOR_SCHEMA_TREE_VIEW.toString());
 		dbProductName = "";
 		dbProductVersion = "";
-		catalogs = new HashSet<>();
+		catalogs = DescriptionChildren.byName();
 	}
 
 	public DatabaseDescription(final String name, final String dbProductName, final String dbProductVersion) {
 		super(name);
 		this.dbProductName = dbProductName == null ? "" : dbProductName;
 		this.dbProductVersion = dbProductVersion == null ? "" : dbProductVersion;
-		catalogs = new HashSet<>();
+		catalogs = DescriptionChildren.byName();
 	}
 
 	public String getDbProductName() {
@@ -66,10 +66,23 @@ public class DatabaseDescription extends DatabaseObjectDescription {
 		return dbProductVersion;
 	}
 
+	/**
+	 * Catalogs der Datenbank, sortiert nach Name. Die Liste ist nicht
+	 * veränderbar.
+	 *
+	 * @return
+	 */
 	public List<CatalogDescription> getCatalogs() {
-		final List<CatalogDescription> result = new ArrayList<>(catalogs);
-		Collections.sort(result);
-		return result;
+		return catalogs.asList();
+	}
+
+	/**
+	 * @param catalogName
+	 * @return den Catalog dieses Namens, null wenn es keinen solchen Catalog
+	 *         gibt
+	 */
+	public CatalogDescription getCatalog(final String catalogName) {
+		return catalogs.get(catalogName);
 	}
 
 	private void addCatalogs(final CatalogDescription... cats) {
@@ -39,6 +39,22 @@ public abstract class DatabaseObjectDescription implements Comparable<DatabaseOb
 
 	private DatabaseObjectDescription parent;
 
+	private volatile QualifiedName fullyQualifiedName;
+
+	/**
+	 * Zwischengespeicherter vollständig qualifizierter Name zusammen mit dem
+	 * Namen des Elternelements, aus dem er gebildet wurde.
+	 */
+	private static final class QualifiedName {
+		private final String parentName;
+		private final String name;
+
+		private QualifiedName(final String parentName, final String name) {
+			this.parentName = parentName;
+			this.name = name;
+		}
+	}
+
 	public DatabaseObjectDescription(final String name) {
 		this.name = name == null ? "" : name;
 	}
@@ -74,8 +90,29 @@ public abstract class DatabaseObjectDescription implements Comparable<DatabaseOb
 		return isOrphan() ? getName() : parent.getName() + "." + getName();
 	}
 
+	/**
+	 * Vollständig qualifizierter Name. Er wird bei jedem Zugriff aus dem
+	 * Namen des Elternelements gebildet, damit er auch nach dem Umhängen
+	 * eines Vorfahren stimmt. Zwischengespeichert wird nur die Verkettung,
+	 * solange das Elternelement denselben Namen liefert.
+	 *
+	 * @return
+	 */
 	public String getFullyQualifiedName() {
-		return isOrphan() ? getName() : parent.getFullyQualifiedName() + "." + getName();
+		final DatabaseObjectDescription currentParent = parent;
+		if (currentParent == null) {
+			return getName();
+		}
+		final String parentName = currentParent.getFullyQualifiedName();
+		final QualifiedName cached = fullyQualifiedName;
+		// Identität genügt, unveränderte Elternelemente liefern ihren
+		// zwischengespeicherten Namen
+		if (cached != null && cached.parentName == parentName) {
+			return cached.name;
+		}
+		final QualifiedName built = new QualifiedName(parentName, parentName + "." + getName());
+		fullyQualifiedName = built;
+		return built.name;
 	}
 
 	public boolean isOrphan() {
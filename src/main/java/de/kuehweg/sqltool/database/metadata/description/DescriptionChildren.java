@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database.metadata.description;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Kindelemente einer Beschreibung, über einen Schlüssel (i.d.R. den Namen)
+ * indiziert. Die sortierte Liste der Kindelemente wird nur einmal aufgebaut und
+ * unveränderlich ausgeliefert, bis sich die Kindelemente wieder ändern.
+ *
+ * @author Michael Kühweg
+ * @param <T>
+ *            Typ der Kindelemente
+ */
+class DescriptionChildren<T extends DatabaseObjectDescription> {
+
+	private final Map<Object, T> children = new LinkedHashMap<>();
+	private final Function<T, Object> keyOf;
+	private final boolean sorted;
+	private List<T> snapshot;
+
+	/**
+	 * @param keyOf
+	 *            liefert den Schlüssel, über den ein Kindelement gefunden
+	 *            wird. Kindelemente mit gleichem Schlüssel werden nur einmal
+	 *            aufgenommen.
+	 * @param sorted
+	 *            true, wenn die Kindelemente sortiert geliefert werden sollen,
+	 *            sonst in der Reihenfolge, in der sie hinzugefügt wurden.
+	 */
+	DescriptionChildren(final Function<T, Object> keyOf, final boolean sorted) {
+		this.keyOf = keyOf;
+		this.sorted = sorted;
+	}
+
+	/**
+	 * Kindelemente, die über ihren Namen indiziert werden.
+	 *
+	 * @return
+	 */
+	static <T extends DatabaseObjectDescription> DescriptionChildren<T> byName() {
+		return new DescriptionChildren<>(DatabaseObjectDescription::getName, true);
+	}
+
+	/**
+	 * Kindelemente, die über ihre Gleichheit (equals) indiziert werden.
+	 *
+	 * @param sorted
+	 * @return
+	 */
+	static <T extends DatabaseObjectDescription> DescriptionChildren<T> byEquality(final boolean sorted) {
+		return new DescriptionChildren<>(child -> child, sorted);
+	}
+
+	synchronized void add(final T child) {
+		if (children.putIfAbsent(keyOf.apply(child), child) == null) {
+			snapshot = null;
+		}
+	}
+
+	synchronized T get(final Object key) {
+		return key == null ? null : children.get(key);
+	}
+
+	synchronized T remove(final Object key) {
+		final T removed = key == null ? null : children.remove(key);
+		if (removed != null) {
+			snapshot = null;
+		}
+		return removed;
+	}
+
+	/**
+	 * @return unveränderliche Liste der Kindelemente
+	 */
+	synchronized List<T> asList() {
+		if (snapshot == null) {
+			final List<T> result = new ArrayList<>(children.values());
+			if (sorted) {
+				Collections.sort(result);
+			}
+			snapshot = Collections.unmodifiableList(result);
+		}
+		return snapshot;
+	}
+}
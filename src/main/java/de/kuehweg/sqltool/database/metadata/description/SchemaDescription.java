@@ -27,9 +27,9 @@ package de.kuehweg.sqltool.database.metadata.description;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 /**
  * Beschreibung der Schema-Metadaten. Ein Schema enthält Tabellen.
@@ -39,22 +39,48 @@ import java.util.Set;
 public class SchemaDescription extends DatabaseObjectDescription {
 
 	private static final String UNKNOWN_TYPE = "n/a";
-	private final Set<TableDescription> tables;
+	private final DescriptionChildren<TableDescription> tables;
+	private List<TableDescription> tablesOfTypes;
+	private Map<String, List<TableDescription>> tablesByType;
 
 	public SchemaDescription(final String schema) {
 		super(schema);
-		tables = new HashSet<>();
+		tables = DescriptionChildren.byName();
 	}
 
 	/**
-	 * Tabellen im Schema, sortiert nach Tabellenname.
+	 * Tabellen im Schema, sortiert nach Tabellenname. Die Liste ist nicht
+	 * veränderbar.
 	 *
 	 * @return
 	 */
 	public List<TableDescription> getTables() {
-		final List<TableDescription> result = new ArrayList<>(tables);
-		Collections.sort(result);
-		return result;
+		return tables.asList();
+	}
+
+	/**
+	 * @param tableName
+	 * @return die Tabelle dieses Namens, null wenn das Schema keine solche
+	 *         Tabelle enthält
+	 */
+	public TableDescription getTable(final String tableName) {
+		return tables.get(tableName);
+	}
+
+	/**
+	 * Entfernt eine Tabelle aus dem Schema, z.B. um sie nach einer
+	 * Strukturänderung neu zu lesen.
+	 *
+	 * @param tableName
+	 * @return die entfernte Tabelle, null wenn das Schema keine Tabelle dieses
+	 *         Namens enthält
+	 */
+	public TableDescription removeTable(final String tableName) {
+		final TableDescription table = tables.remove(tableName);
+		if (table != null) {
+			table.setParent(null);
+		}
+		return table;
 	}
 
 	private void addTables(final TableDescription... tabs) {
@@ -70,15 +96,7 @@ public class SchemaDescription extends DatabaseObjectDescription {
 	 * @return
 	 */
 	public List<String> getTableTypes() {
-		final Set<String> tableTypes = new HashSet<>(32);
-		for (final TableDescription table : tables) {
-			if (table.getTableType() == null || table.getTableType().trim().length() == 0) {
-				tableTypes.add(UNKNOWN_TYPE);
-			} else {
-				tableTypes.add(table.getTableType());
-			}
-		}
-		final List<String> result = new ArrayList<>(tableTypes);
+		final List<String> result = new ArrayList<>(groupTablesByType().keySet());
 		Collections.sort(result);
 		return result;
 	}
@@ -91,17 +109,32 @@ public class SchemaDescription extends DatabaseObjectDescription {
 	 * @return
 	 */
 	public List<TableDescription> getTablesByType(final String type) {
-		final String wantedType = type == null || type.trim().length() == 0 ? UNKNOWN_TYPE : type;
-		final List<TableDescription> result = new ArrayList<>(tables.size());
-		for (final TableDescription table : getTables()) {
-			final String tableType = table.getTableType() == null || table.getTableType().trim().length() == 0
-					? UNKNOWN_TYPE : table.getTableType();
-			if (wantedType.equals(tableType)) {
-				result.add(table);
+		final List<TableDescription> result = groupTablesByType().get(typeOrUnknown(type));
+		return result == null ? Collections.emptyList() : result;
+	}
+
+	private static String typeOrUnknown(final String type) {
+		return type == null || type.trim().length() == 0 ? UNKNOWN_TYPE : type;
+	}
+
+	/**
+	 * Gruppiert die Tabellen nach Typ. Die Gruppierung wird erst neu aufgebaut,
+	 * wenn sich die Tabellen des Schemas geändert haben.
+	 *
+	 * @return
+	 */
+	private synchronized Map<String, List<TableDescription>> groupTablesByType() {
+		final List<TableDescription> current = tables.asList();
+		if (current != tablesOfTypes) {
+			final Map<String, List<TableDescription>> grouped = new LinkedHashMap<>();
+			for (final TableDescription table : current) {
+				grouped.computeIfAbsent(typeOrUnknown(table.getTableType()), type -> new ArrayList<>()).add(table);
 			}
+			grouped.replaceAll((type, tablesOfType) -> Collections.unmodifiableList(tablesOfType));
+			tablesByType = grouped;
+			tablesOfTypes = current;
 		}
-		Collections.sort(result);
-		return result;
+		return tablesByType;
 	}
 
 	@Override
@@ -25,11 +25,7 @@
  */
 package de.kuehweg.sqltool.database.metadata.description;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 /**
  * Beschreibung der Tabellen-Metadaten.
@@ -40,21 +36,22 @@ public class TableDescription extends DatabaseObjectDescription {
 
 	private final String tableType;
 	private final String remarks;
-	private final Set<ColumnDescription> columns;
-	private final Set<PrimaryKeyColumnDescription> primaryKeyColumns;
-	private final Set<IndexColumnDescription> indexColumns;
-	private final Set<ForeignKeyColumnDescription> importedKeyColumns;
-	private final Set<ForeignKeyColumnDescription> exportedKeyColumns;
+	private final DescriptionChildren<ColumnDescription> columns;
+	private final DescriptionChildren<PrimaryKeyColumnDescription> primaryKeyColumns;
+	private final DescriptionChildren<IndexColumnDescription> indexColumns;
+	private final DescriptionChildren<ForeignKeyColumnDescription> importedKeyColumns;
+	private final DescriptionChildren<ForeignKeyColumnDescription> exportedKeyColumns;
+	private volatile boolean detailsPending;
 
 	public TableDescription(final String tableName, final String tableType, final String remarks) {
 		super(tableName);
 		this.tableType = tableType == null ? "" : tableType;
 		this.remarks = remarks == null ? "" : remarks;
-		columns = new HashSet<>();
-		indexColumns = new HashSet<>();
-		importedKeyColumns = new HashSet<>();
-		exportedKeyColumns = new HashSet<>();
-		primaryKeyColumns = new HashSet<>();
+		columns = DescriptionChildren.byName();
+		indexColumns = DescriptionChildren.byEquality(true);
+		importedKeyColumns = DescriptionChildren.byEquality(true);
+		exportedKeyColumns = DescriptionChildren.byEquality(true);
+		primaryKeyColumns = DescriptionChildren.byEquality(false);
 	}
 
 	public String getTableType() {
@@ -66,14 +63,45 @@ public class TableDescription extends DatabaseObjectDescription {
 	}
 
 	/**
-	 * Tabellenspalten, sortiert nach Name.
+	 * @return true, wenn Spalten, Schlüssel und Indizes der Tabelle noch nicht
+	 *         gelesen wurden, weil die Metadaten bedarfsgesteuert geladen
+	 *         werden.
+	 */
+	public boolean isDetailsPending() {
+		return detailsPending;
+	}
+
+	/**
+	 * Spalten, Schlüssel und Indizes der Tabelle werden erst bei Bedarf
+	 * gelesen.
+	 */
+	public void markDetailsPending() {
+		detailsPending = true;
+	}
+
+	/**
+	 * Spalten, Schlüssel und Indizes der Tabelle sind vollständig gelesen.
+	 */
+	public void markDetailsLoaded() {
+		detailsPending = false;
+	}
+
+	/**
+	 * Tabellenspalten, sortiert nach Name. Die Liste ist nicht veränderbar.
 	 *
 	 * @return
 	 */
 	public List<ColumnDescription> getColumns() {
-		final List<ColumnDescription> result = new ArrayList<>(columns);
-		Collections.sort(result);
-		return result;
+		return columns.asList();
+	}
+
+	/**
+	 * @param columnName
+	 * @return die Spalte dieses Namens, null wenn die Tabelle keine solche
+	 *         Spalte enthält
+	 */
+	public ColumnDescription getColumn(final String columnName) {
+		return columns.get(columnName);
 	}
 
 	private void addColumns(final ColumnDescription... cols) {
@@ -90,9 +118,7 @@ public class TableDescription extends DatabaseObjectDescription {
 	 * @return
 	 */
 	public List<IndexColumnDescription> getIndices() {
-		final List<IndexColumnDescription> result = new ArrayList<>(indexColumns);
-		Collections.sort(result);
-		return result;
+		return indexColumns.asList();
 	}
 
 	private void addIndexColumns(final IndexColumnDescription... inds) {
@@ -110,9 +136,7 @@ public class TableDescription extends DatabaseObjectDescription {
 	 * @return
 	 */
 	public List<ForeignKeyColumnDescription> getImportedKeyColumns() {
-		final List<ForeignKeyColumnDescription> result = new ArrayList<>(importedKeyColumns);
-		Collections.sort(result);
-		return result;
+		return importedKeyColumns.asList();
 	}
 
 	private void addImportedKeyColumns(final ForeignKeyColumnDescription... fks) {
@@ -130,9 +154,7 @@ public class TableDescription extends DatabaseObjectDescription {
 	 * @return
 	 */
 	public List<ForeignKeyColumnDescription> getExportedKeyColumns() {
-		final List<ForeignKeyColumnDescription> result = new ArrayList<>(exportedKeyColumns);
-		Collections.sort(result);
-		return result;
+		return exportedKeyColumns.asList();
 	}
 
 	private void addExportedKeyColumns(final ForeignKeyColumnDescription... fks) {
@@ -150,7 +172,7 @@ public class TableDescription extends DatabaseObjectDescription {
 	 * @return
 	 */
 	public List<PrimaryKeyColumnDescription> getPrimaryKeyColumns() {
-		return new ArrayList<>(primaryKeyColumns);
+		return primaryKeyColumns.asList();
 	}
 
 	private void addPrimaryKeyColumns(final PrimaryKeyColumnDescription... primaryKeyColumns) {
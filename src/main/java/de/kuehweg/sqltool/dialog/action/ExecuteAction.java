@@ -32,7 +32,13 @@ import java.util.Collection;
 import java.util.HashSet;
 
 import de.kuehweg.sqltool.common.DialogDictionary;
+import de.kuehweg.sqltool.common.concurrent.ExecutionPool;
+import de.kuehweg.sqltool.common.concurrent.ExecutionService;
 import de.kuehweg.sqltool.database.DatabaseConstants;
+import de.kuehweg.sqltool.database.ParallelConnectionPool;
+import de.kuehweg.sqltool.database.PreparedStatementCache;
+import de.kuehweg.sqltool.database.ResultCache;
+import de.kuehweg.sqltool.database.execution.ExecutionLimits;
 import de.kuehweg.sqltool.dialog.AlertBox;
 import de.kuehweg.sqltool.dialog.ErrorMessage;
 import de.kuehweg.sqltool.dialog.updater.ExecutionTracker;
@@ -48,6 +54,20 @@ public class ExecuteAction {
 
 	private boolean limitMaxRows;
 
+	private int fetchSize;
+
+	private int partialResultRows;
+
+	private long partialResultMillis;
+
+	private long resultHeapBudget;
+	private int batchSize;
+	private PreparedStatementCache preparedStatementCache;
+	private ResultCache resultCache;
+	private ExecutionLimits executionLimits;
+	private ParallelConnectionPool parallelConnections;
+	private ExecutionTask executionTask;
+
 	public void attach(final ExecutionTracker... trackers) {
 		this.trackers.addAll(Arrays.asList(trackers));
 	}
@@ -60,6 +80,91 @@ public class ExecuteAction {
 		this.limitMaxRows = limitMaxRows;
 	}
 
+	/**
+	 * @param fetchSize Fetch-Size für das seitenweise Lesen der Ergebnismengen
+	 *                  (Streaming-Modus), 0 liest die Ergebnismengen komplett
+	 *                  vor der Weitergabe an die Tracker
+	 */
+	public void setFetchSize(final int fetchSize) {
+		this.fetchSize = fetchSize;
+	}
+
+	/**
+	 * @param rows   Teilergebnisse im Streaming-Modus umfassen höchstens diese
+	 *               Anzahl Zeilen
+	 * @param millis Teilergebnisse werden spätestens nach dieser Zeit in
+	 *               Millisekunden weitergegeben
+	 */
+	public void setPartialResultInterval(final int rows, final long millis) {
+		partialResultRows = rows;
+		partialResultMillis = millis;
+	}
+
+	/**
+	 * @param resultHeapBudget Speicherbudget je Ergebnis in Bytes, darüber
+	 *                         hinaus werden Ergebniszeilen in eine temporäre
+	 *                         Datei ausgelagert. 0 hält alles im Speicher.
+	 */
+	public void setResultHeapBudget(final long resultHeapBudget) {
+		this.resultHeapBudget = resultHeapBudget;
+	}
+
+	/**
+	 * @param batchSize Wenn größer 1, werden aufeinanderfolgende
+	 *                  datenverändernde Anweisungen gemeinsam als JDBC-Batch
+	 *                  ausgeführt.
+	 */
+	public void setBatchSize(final int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * @param preparedStatementCache Cache der Verbindung für die Ausführung
+	 *                               parametrisierbarer Anweisungen als
+	 *                               PreparedStatement, null für die Ausführung
+	 *                               ohne Cache
+	 */
+	public void setPreparedStatementCache(final PreparedStatementCache preparedStatementCache) {
+		this.preparedStatementCache = preparedStatementCache;
+	}
+
+	/**
+	 * @param resultCache Ergebnis-Cache der Verbindung. Sollte immer gesetzt
+	 *                    werden, damit Änderungen die betroffenen Ergebnisse
+	 *                    verwerfen, auch wenn der Cache nicht aktiv ist.
+	 */
+	public void setResultCache(final ResultCache resultCache) {
+		this.resultCache = resultCache;
+	}
+
+	/**
+	 * @param executionLimits Grenzen für Laufzeit und gelesene Datenmenge je
+	 *                        Anweisung, z.B. die Grenzen der Verbindung
+	 */
+	public void setExecutionLimits(final ExecutionLimits executionLimits) {
+		this.executionLimits = executionLimits;
+	}
+
+	/**
+	 * @param parallelConnections Zusätzliche Verbindungen, auf denen
+	 *                            unabhängige Abfragen eines Skripts parallel
+	 *                            ausgeführt werden, null für die rein
+	 *                            sequentielle Ausführung
+	 */
+	public void setParallelConnections(final ParallelConnectionPool parallelConnections) {
+		this.parallelConnections = parallelConnections;
+	}
+
+	/**
+	 * Bricht die laufende Ausführung inklusive der gerade ausgeführten
+	 * Anweisung ab.
+	 */
+	public void cancelExecution() {
+		if (executionTask != null) {
+			executionTask.cancel();
+		}
+	}
+
 	/**
 	 * SQL ausführen, Dialog aktualisieren, Rückmeldung an Anwender.
 	 *
@@ -115,13 +220,19 @@ public class ExecuteAction {
 	 * @throws SQLException
 	 */
 	private void startExecutionAsBackgroundTask(final String sql, final Connection connection) throws SQLException {
-		final ExecutionTask executionTask = new ExecutionTask(sql, connection.createStatement());
+		executionTask = new ExecutionTask(sql, connection.createStatement());
 		executionTask.attach(trackers);
 		if (limitMaxRows) {
 			executionTask.setMaxRows(DatabaseConstants.MAX_ROWS);
 		}
-		final Thread th = new Thread(executionTask);
-		th.setDaemon(true);
-		th.start();
+		executionTask.setFetchSize(fetchSize);
+		executionTask.setPartialResultInterval(partialResultRows, partialResultMillis);
+		executionTask.setResultHeapBudget(resultHeapBudget);
+		executionTask.setBatchSize(batchSize);
+		executionTask.setPreparedStatementCache(preparedStatementCache);
+		executionTask.setResultCache(resultCache);
+		executionTask.setExecutionLimits(executionLimits);
+		executionTask.setParallelConnections(parallelConnections);
+		ExecutionService.getInstance().execute(ExecutionPool.EXECUTION, executionTask);
 	}
 }
@@ -25,19 +25,37 @@
  */
 package de.kuehweg.sqltool.dialog.action;
 
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import de.kuehweg.sqltool.common.achievement.AchievementManager;
 import de.kuehweg.sqltool.common.achievement.NamedAchievementEvent;
+import de.kuehweg.sqltool.common.concurrent.ExecutionPool;
+import de.kuehweg.sqltool.common.concurrent.ExecutionService;
+import de.kuehweg.sqltool.common.concurrent.PipelineStage;
 import de.kuehweg.sqltool.common.sqlediting.StatementExtractor;
 import de.kuehweg.sqltool.common.sqlediting.StatementString;
+import de.kuehweg.sqltool.database.ParallelConnectionPool;
+import de.kuehweg.sqltool.database.PreparedStatementCache;
+import de.kuehweg.sqltool.database.ResultCache;
+import de.kuehweg.sqltool.database.execution.BatchExecution;
+import de.kuehweg.sqltool.database.execution.ExecutionLimits;
+import de.kuehweg.sqltool.database.execution.ResultRow;
 import de.kuehweg.sqltool.database.execution.StatementExecution;
 import de.kuehweg.sqltool.database.execution.StatementExecutionInformation;
 import de.kuehweg.sqltool.dialog.updater.ExecutionGuiRefresh;
@@ -47,6 +65,10 @@ import javafx.concurrent.Task;
 
 /**
  * Task zur Ausführung von SQL-Anweisungen und Aktualisierung der Oberfläche.
+ * Die Ausführung ist als Pipeline organisiert: Während die Tracker das Ergebnis
+ * einer Anweisung aufbereiten (z.B. als Text formatieren), wird bereits die
+ * nächste Anweisung ausgeführt. Die Tracker erhalten die Ergebnisse dabei in
+ * der Reihenfolge des Skripts.
  *
  * @author Michael Kühweg
  */
@@ -55,21 +77,136 @@ public class ExecutionTask extends Task<Void> {
 	// Anzahl Millisekunden zwischen den verzögerten Refreshes
 	private static final long REFRESH_DELAY = 500;
 
+	// maximale Anzahl Ergebnisse, die auf die Verarbeitung durch die Tracker
+	// warten
+	private static final int TRACKER_STAGE_CAPACITY = 8;
+
 	private final Statement statement;
 	private final String sql;
 	private final Collection<ExecutionTracker> trackers;
+	private final PipelineStage trackerStage;
 	private int maxRows;
+	private int fetchSize;
+	private int partialResultRows;
+	private long partialResultMillis;
+	private long resultHeapBudget;
+	private int batchSize;
+	private PreparedStatementCache preparedStatementCache;
+	private ResultCache resultCache;
+	private ExecutionLimits executionLimits;
+	private ParallelConnectionPool parallelConnections;
+	private long nextDelayedRefresh;
+	private long nextPartialRefresh;
+	private final Set<StatementExecution> runningExecutions = ConcurrentHashMap.newKeySet();
+	private boolean aborted;
 
 	public ExecutionTask(final String sql, final Statement statement) {
 		this.sql = sql;
 		this.statement = statement;
 		trackers = new HashSet<>();
+		trackerStage = new PipelineStage(ExecutionPool.TRACKING, TRACKER_STAGE_CAPACITY);
 	}
 
 	public void setMaxRows(final int maxRows) {
 		this.maxRows = maxRows;
 	}
 
+	/**
+	 * @param fetchSize Wenn größer 0, werden Ergebnismengen im Streaming-Modus
+	 *                  mit dieser Fetch-Size gelesen und seitenweise an die
+	 *                  Tracker gegeben.
+	 */
+	public void setFetchSize(final int fetchSize) {
+		this.fetchSize = fetchSize;
+	}
+
+	/**
+	 * @param rows   Im Streaming-Modus erhalten die Tracker Teilergebnisse
+	 *               mit höchstens dieser Anzahl Zeilen
+	 * @param millis Spätestens nach dieser Zeit in Millisekunden erhalten die
+	 *               Tracker die bis dahin gelesenen Zeilen, die Oberfläche
+	 *               wird höchstens in diesem Abstand aktualisiert
+	 */
+	public void setPartialResultInterval(final int rows, final long millis) {
+		partialResultRows = rows;
+		partialResultMillis = millis;
+	}
+
+	/**
+	 * @param resultHeapBudget Speicherbudget je Ergebnis in Bytes, darüber
+	 *                         hinaus werden Ergebniszeilen ausgelagert
+	 */
+	public void setResultHeapBudget(final long resultHeapBudget) {
+		this.resultHeapBudget = resultHeapBudget;
+	}
+
+	/**
+	 * @param batchSize Wenn größer 1, werden aufeinanderfolgende
+	 *                  datenverändernde Anweisungen bis zu dieser Anzahl
+	 *                  gemeinsam als JDBC-Batch ausgeführt.
+	 */
+	public void setBatchSize(final int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * @param preparedStatementCache Cache für die Ausführung parametrisierbarer
+	 *                               Anweisungen als PreparedStatement
+	 */
+	public void setPreparedStatementCache(final PreparedStatementCache preparedStatementCache) {
+		this.preparedStatementCache = preparedStatementCache;
+	}
+
+	/**
+	 * @param resultCache Ergebnis-Cache der Verbindung für wiederholte
+	 *                    Abfragen, wird auch bei Batches zur Invalidierung
+	 *                    verwendet
+	 */
+	public void setResultCache(final ResultCache resultCache) {
+		this.resultCache = resultCache;
+	}
+
+	/**
+	 * @param executionLimits Grenzen für Laufzeit und gelesene Datenmenge je
+	 *                        Anweisung
+	 */
+	public void setExecutionLimits(final ExecutionLimits executionLimits) {
+		this.executionLimits = executionLimits;
+	}
+
+	/**
+	 * @param parallelConnections Wenn gesetzt, werden aufeinanderfolgende reine
+	 *                            Leseanweisungen parallel auf den Verbindungen
+	 *                            des Pools ausgeführt. Die Ergebnisse werden
+	 *                            trotzdem in der Reihenfolge des Skripts
+	 *                            geliefert.
+	 */
+	public void setParallelConnections(final ParallelConnectionPool parallelConnections) {
+		this.parallelConnections = parallelConnections;
+	}
+
+	/**
+	 * Bricht neben dem Task auch die gerade laufenden Anweisungen ab, statt nur
+	 * vor der nächsten Anweisung anzuhalten.
+	 */
+	@Override
+	public boolean cancel(final boolean mayInterruptIfRunning) {
+		final boolean cancelled = super.cancel(mayInterruptIfRunning);
+		if (!runningExecutions.isEmpty()) {
+			for (final StatementExecution execution : runningExecutions) {
+				execution.cancel();
+			}
+		} else {
+			try {
+				// z.B. ein laufender Batch
+				statement.cancel();
+			} catch (final SQLException ex) {
+				Logger.getLogger(ExecutionTask.class.getName()).log(Level.FINE, ex.getMessage(), ex);
+			}
+		}
+		return cancelled;
+	}
+
 	public void attach(final ExecutionTracker... trackers) {
 		this.trackers.addAll(Arrays.asList(trackers));
 	}
@@ -85,9 +222,19 @@ public class ExecutionTask extends Task<Void> {
 	}
 
 	private void intermediateUpdate(final StatementExecutionInformation executionInfo) {
+		final long start = System.nanoTime();
 		for (final ExecutionTracker tracker : trackers) {
 			tracker.intermediateUpdate(executionInfo);
 		}
+		executionInfo.getTimings().addTrackerNanos(System.nanoTime() - start);
+	}
+
+	private void resultPage(final StatementExecutionInformation executionInfo, final List<ResultRow> page) {
+		final long start = System.nanoTime();
+		for (final ExecutionTracker tracker : trackers) {
+			tracker.resultPage(executionInfo, page);
+		}
+		executionInfo.getTimings().addTrackerNanos(System.nanoTime() - start);
 	}
 
 	private void afterExecution() {
@@ -108,17 +255,31 @@ public class ExecutionTask extends Task<Void> {
 				trackers);
 		try {
 			statement.setMaxRows(maxRows);
+			if (executionLimits != null && executionLimits.getQueryTimeoutSeconds() > 0) {
+				statement.setQueryTimeout(executionLimits.getQueryTimeoutSeconds());
+			}
 			// before execution
 			beforeExecution();
 			refreshBeforePhase(lifecycleRefresh);
 			// during execution
 			queryIterationWithIntermediateGuiUpdates(lifecycleRefresh);
+			// die Tracker sind eventuell noch mit den letzten Ergebnissen
+			// beschäftigt
+			trackerStage.awaitCompletion();
 			// eventuell noch pending refreshes
 			refresh(lifecycleRefresh.delayedExecutionGuiRefresh());
 			// dann abschließen
 			afterExecution();
 			refreshAfterPhase(lifecycleRefresh);
 		} catch (final SQLException ex) {
+			// Ergebnisse vor dem Fehler zuerst ausliefern
+			trackerStage.awaitCompletion();
+			if (isCancelled()) {
+				// kein Fehler, sondern Folge des Abbruchs
+				afterExecution();
+				refreshAfterPhase(lifecycleRefresh);
+				return null;
+			}
 			final String message = ex.getLocalizedMessage() + " (SQL-State: " + ex.getSQLState() + ")";
 			errorUpdate(message);
 			if ("40001".equals(ex.getSQLState())) {
@@ -135,20 +296,278 @@ public class ExecutionTask extends Task<Void> {
 	private void queryIterationWithIntermediateGuiUpdates(final ExecutionLifecycleGuiRefreshProvider lifecycleRefresh)
 			throws SQLException {
 		final List<StatementString> statements = new StatementExtractor().getStatementsFromScript(sql);
-		long nextDelayedRefresh = timeForNextDelayedRefresh();
-		final Iterator<StatementString> queryIterator = statements.iterator();
-		while (queryIterator.hasNext() && !isCancelled()) {
-			final StatementString singleQuery = queryIterator.next();
-			if (!singleQuery.isEmpty()) {
-				intermediateUpdate(new StatementExecution(singleQuery).execute(statement));
-				// UI immediate
-				refresh(lifecycleRefresh.intermediateExecutionGuiRefresh());
-				// UI delayed
-				if (System.currentTimeMillis() > nextDelayedRefresh) {
-					refresh(lifecycleRefresh.delayedExecutionGuiRefresh());
-					nextDelayedRefresh = timeForNextDelayedRefresh();
+		nextDelayedRefresh = timeForNextDelayedRefresh();
+		int index = 0;
+		while (index < statements.size() && !isCancelled() && !aborted) {
+			final List<StatementString> batch = new ArrayList<>();
+			final int endOfBatch = collectBatch(statements, index, batch);
+			final List<StatementString> parallelGroup = new ArrayList<>();
+			final int endOfParallelGroup = collectParallelGroup(statements, index, parallelGroup);
+			if (batch.size() > 1) {
+				executeBatch(batch, lifecycleRefresh);
+				index = endOfBatch;
+			} else if (parallelGroup.size() > 1) {
+				executeParallel(parallelGroup, lifecycleRefresh);
+				index = endOfParallelGroup;
+			} else {
+				final StatementString singleQuery = statements.get(index++);
+				if (parallelConnections != null && singleQuery.isSessionStatement()) {
+					// folgende Abfragen sind auf die Sitzung angewiesen
+					parallelConnections.markSessionStateChanged();
+				}
+				if (!singleQuery.isEmpty()) {
+					executeSingleStatement(singleQuery, lifecycleRefresh);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sammelt ab dem Startindex aufeinanderfolgende Anweisungen, die sich für
+	 * einen Batch eignen. Leere Anweisungen werden übersprungen.
+	 *
+	 * @return Index der ersten nicht mehr in den Batch aufgenommenen Anweisung
+	 */
+	private int collectBatch(final List<StatementString> statements, final int start,
+			final List<StatementString> batch) {
+		int index = start;
+		if (batchSize > 1) {
+			while (index < statements.size() && batch.size() < batchSize) {
+				final StatementString candidate = statements.get(index);
+				if (!candidate.isEmpty()) {
+					if (!candidate.isBatchableStatement()) {
+						break;
+					}
+					batch.add(candidate);
+				}
+				index++;
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Führt den Batch aus. Anweisungen, die im Batch nicht ausgeführt werden
+	 * konnten, werden an ihrer Stelle im Batch einzeln ausgeführt, damit ein
+	 * Fehler wie gewohnt gemeldet wird. Bereits im Batch ausgeführte
+	 * Anweisungen werden nicht wiederholt.
+	 */
+	private void executeBatch(final List<StatementString> batch,
+			final ExecutionLifecycleGuiRefreshProvider lifecycleRefresh) throws SQLException {
+		if (resultCache != null) {
+			batch.forEach(resultCache::invalidate);
+		}
+		final BatchExecution batchExecution = new BatchExecution(batch);
+		final Iterator<StatementExecutionInformation> executed = batchExecution.execute(statement).iterator();
+		final Set<StatementString> unexecuted = Collections.newSetFromMap(new IdentityHashMap<>());
+		unexecuted.addAll(batchExecution.getUnexecutedStatements());
+		List<StatementExecutionInformation> infos = new ArrayList<>();
+		for (final StatementString sql : batch) {
+			if (!unexecuted.contains(sql)) {
+				infos.add(executed.next());
+			} else if (!isCancelled() && !aborted) {
+				deliverBatch(infos, lifecycleRefresh);
+				infos = new ArrayList<>();
+				executeSingleStatement(sql, lifecycleRefresh);
+			}
+		}
+		deliverBatch(infos, lifecycleRefresh);
+	}
+
+	private void deliverBatch(final List<StatementExecutionInformation> infos,
+			final ExecutionLifecycleGuiRefreshProvider lifecycleRefresh) {
+		if (!infos.isEmpty()) {
+			trackerStage.submit(() -> {
+				for (final StatementExecutionInformation info : infos) {
+					intermediateUpdate(info);
+				}
+				refreshIntermediatePhase(lifecycleRefresh);
+			});
+		}
+	}
+
+	/**
+	 * Sammelt ab dem Startindex aufeinanderfolgende reine Leseanweisungen,
+	 * höchstens so viele, wie parallele Verbindungen zur Verfügung stehen.
+	 * Lesende Anweisungen beeinflussen sich nicht gegenseitig, jede schreibende
+	 * oder transaktionssteuernde Anweisung beendet die Gruppe. Ohne Auto-Commit
+	 * wird nicht parallelisiert, da die anderen Verbindungen die Änderungen der
+	 * offenen Transaktion nicht sehen. Ebenso nicht, sobald die Sitzung Zustand
+	 * wie Einstellungen oder temporäre Tabellen aufgebaut hat, und nicht für
+	 * Abfragen auf temporäre Tabellen der Sitzung.
+	 *
+	 * @return Index der ersten nicht mehr in die Gruppe aufgenommenen Anweisung
+	 */
+	private int collectParallelGroup(final List<StatementString> statements, final int start,
+			final List<StatementString> group) throws SQLException {
+		int index = start;
+		if (parallelConnections != null && parallelConnections.getSize() > 1 && isAutoCommit()
+				&& !parallelConnections.isSessionStateChanged()) {
+			while (index < statements.size() && group.size() < parallelConnections.getSize()) {
+				final StatementString candidate = statements.get(index);
+				if (!candidate.isEmpty()) {
+					if (!candidate.isReadOnlyQuery() || candidate.referencesSessionTables()) {
+						break;
+					}
+					group.add(candidate);
+				}
+				index++;
+			}
+		}
+		return index;
+	}
+
+	private boolean isAutoCommit() throws SQLException {
+		final Connection connection = statement.getConnection();
+		return connection != null && connection.getAutoCommit();
+	}
+
+	/**
+	 * Führt die Anweisungen der Gruppe parallel aus und liefert die Ergebnisse
+	 * in der Reihenfolge der Gruppe. Schlägt eine Anweisung fehl oder wird sie
+	 * abgebrochen, werden die Ergebnisse der nachfolgenden Anweisungen
+	 * verworfen, so als wären sie nicht ausgeführt worden.
+	 */
+	private void executeParallel(final List<StatementString> group,
+			final ExecutionLifecycleGuiRefreshProvider lifecycleRefresh) throws SQLException {
+		final List<StatementExecution> executions = new ArrayList<>(group.size());
+		final List<FutureTask<StatementExecutionInformation>> results = new ArrayList<>(group.size());
+		// die Abfragen beziehen sich auf das aktuelle Schema der Verbindung des
+		// Anwenders
+		final String schema = statement.getConnection().getSchema();
+		for (final StatementString query : group) {
+			final StatementExecution execution = new StatementExecution(query);
+			execution.setResultHeapBudget(resultHeapBudget);
+			execution.useResultCache(resultCache);
+			execution.setExecutionLimits(executionLimits);
+			final FutureTask<StatementExecutionInformation> result = new FutureTask<>(
+					() -> executeOnParallelConnection(execution, schema));
+			executions.add(execution);
+			results.add(result);
+			runningExecutions.add(execution);
+			if (isCancelled()) {
+				execution.cancel();
+			}
+		}
+		for (final FutureTask<StatementExecutionInformation> result : results) {
+			ExecutionService.getInstance().execute(ExecutionPool.PARALLEL_QUERIES, result);
+		}
+		try {
+			for (final FutureTask<StatementExecutionInformation> result : results) {
+				final StatementExecutionInformation info = awaitResult(result);
+				// nach einem Abbruch keine weiteren Anweisungen des Skripts
+				// ausführen
+				aborted = info.getOutcome().isAborted();
+				deliver(info, lifecycleRefresh);
+				if (aborted) {
+					break;
+				}
+			}
+		} finally {
+			// Ergebnisse nach einem Fehler oder Abbruch werden nicht mehr
+			// benötigt
+			for (final StatementExecution execution : executions) {
+				if (runningExecutions.remove(execution)) {
+					execution.cancel();
+				}
+			}
+		}
+	}
+
+	private StatementExecutionInformation executeOnParallelConnection(final StatementExecution execution,
+			final String schema) throws SQLException {
+		try {
+			final Connection connection = parallelConnections.borrow();
+			try (Statement parallelStatement = connection.createStatement()) {
+				if (schema != null) {
+					connection.setSchema(schema);
 				}
+				parallelStatement.setMaxRows(maxRows);
+				return execution.execute(parallelStatement);
+			} finally {
+				parallelConnections.release(connection);
 			}
+		} finally {
+			runningExecutions.remove(execution);
+		}
+	}
+
+	private StatementExecutionInformation awaitResult(final FutureTask<StatementExecutionInformation> result)
+			throws SQLException {
+		// noch nicht begonnene Abfragen im wartenden Thread ausführen, statt
+		// einen Thread zu blockieren, bis der Pool Zeit dafür hat
+		result.run();
+		try {
+			return result.get();
+		} catch (final InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new SQLException(ex);
+		} catch (final ExecutionException ex) {
+			if (ex.getCause() instanceof SQLException) {
+				throw (SQLException) ex.getCause();
+			}
+			throw new SQLException(ex.getCause());
+		}
+	}
+
+	private void executeSingleStatement(final StatementString singleQuery,
+			final ExecutionLifecycleGuiRefreshProvider lifecycleRefresh) throws SQLException {
+		final StatementExecution execution = new StatementExecution(singleQuery);
+		execution.setResultHeapBudget(resultHeapBudget);
+		execution.usePreparedStatementCache(preparedStatementCache);
+		execution.useResultCache(resultCache);
+		execution.setExecutionLimits(executionLimits);
+		if (fetchSize > 0) {
+			execution.streamResult(fetchSize, (executionInfo, page) -> trackerStage.submit(() -> {
+				resultPage(executionInfo, page);
+				refreshPartialPhase(lifecycleRefresh);
+			}));
+			execution.setPartialResultInterval(partialResultRows, partialResultMillis);
+		}
+		runningExecutions.add(execution);
+		if (isCancelled()) {
+			execution.cancel();
+		}
+		final StatementExecutionInformation info;
+		try {
+			info = execution.execute(statement);
+		} finally {
+			runningExecutions.remove(execution);
+		}
+		// nach einem Abbruch keine weiteren Anweisungen des Skripts ausführen
+		aborted = info.getOutcome().isAborted();
+		deliver(info, lifecycleRefresh);
+	}
+
+	/**
+	 * Übergibt das Ergebnis einer Anweisung an die Tracker, ohne auf deren
+	 * Verarbeitung zu warten.
+	 */
+	private void deliver(final StatementExecutionInformation info,
+			final ExecutionLifecycleGuiRefreshProvider lifecycleRefresh) {
+		trackerStage.submit(() -> {
+			intermediateUpdate(info);
+			refreshIntermediatePhase(lifecycleRefresh);
+		});
+	}
+
+	private void refreshIntermediatePhase(final ExecutionLifecycleGuiRefreshProvider lifecycleRefresh) {
+		// UI immediate
+		refresh(lifecycleRefresh.intermediateExecutionGuiRefresh());
+		// UI delayed
+		if (System.currentTimeMillis() > nextDelayedRefresh) {
+			refresh(lifecycleRefresh.delayedExecutionGuiRefresh());
+			nextDelayedRefresh = timeForNextDelayedRefresh();
+		}
+	}
+
+	private void refreshPartialPhase(final ExecutionLifecycleGuiRefreshProvider lifecycleRefresh) {
+		// Teilergebnisse können in schneller Folge eintreffen, die Oberfläche
+		// aber nur in begrenztem Abstand aktualisieren
+		final long now = System.currentTimeMillis();
+		if (now >= nextPartialRefresh) {
+			refresh(lifecycleRefresh.partialExecutionGuiRefresh());
+			nextPartialRefresh = now + partialResultMillis;
 		}
 	}
 
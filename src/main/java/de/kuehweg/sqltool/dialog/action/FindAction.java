@@ -26,6 +26,8 @@
 
 package de.kuehweg.sqltool.dialog.action;
 
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 
@@ -34,6 +36,14 @@ import javafx.beans.value.ObservableValue;
  */
 public abstract class FindAction implements ChangeListener<String> {
 
+	/**
+	 * Anzahl der Treffer ist nicht bekannt, z.B. weil die Suche sie nicht
+	 * ermittelt oder noch nicht gesucht wurde.
+	 */
+	public static final int UNKNOWN_MATCH_COUNT = -1;
+
+	private final ReadOnlyIntegerWrapper matchCount = new ReadOnlyIntegerWrapper(UNKNOWN_MATCH_COUNT);
+
 	@Override
 	public void changed(final ObservableValue<? extends String> observable, final String oldValue,
 			final String newValue) {
@@ -51,4 +61,16 @@ public abstract class FindAction implements ChangeListener<String> {
 	}
 
 	public abstract void resetSearchPosition();
+
+	/**
+	 * @return Anzahl der Treffer der letzten Suche, {@link #UNKNOWN_MATCH_COUNT}
+	 *         wenn sie nicht ermittelt wird
+	 */
+	public ReadOnlyIntegerProperty matchCountProperty() {
+		return matchCount.getReadOnlyProperty();
+	}
+
+	protected void setMatchCount(final int count) {
+		matchCount.set(count);
+	}
 }
@@ -26,20 +26,56 @@
 
 package de.kuehweg.sqltool.dialog.action;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import de.kuehweg.sqltool.common.concurrent.ExecutionPool;
+import de.kuehweg.sqltool.common.concurrent.ExecutionService;
+import de.kuehweg.sqltool.dialog.component.ResultTableSearchIndex;
+import de.kuehweg.sqltool.dialog.component.ResultTableSearchIndex.Matches;
+import javafx.application.Platform;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
-import javafx.collections.transformation.SortedList;
+import javafx.concurrent.Task;
 import javafx.scene.control.TableView;
 
 /**
- * Suche in Tabellenkomponenten.
+ * Suche in Tabellenkomponenten. Für den Inhalt der Tabelle wird im Hintergrund
+ * ein Suchindex aufgebaut, über den auch die Suche selbst im Hintergrund läuft.
+ * Alle Treffer werden hervorgehoben, weitersuchen vor und zurück springt
+ * anschließend nur noch zwischen den gemerkten Trefferzeilen.
  *
  * @author Michael Kühweg
  */
 public class TableViewFindAction extends FindAction {
 
+	private enum Step {
+		NONE, NEXT, PREVIOUS
+	}
+
+	private static final int[] NO_MATCHES = new int[0];
+
 	private final TableView<ObservableList<String>> tableView;
 
+	private final ListChangeListener<ObservableList<String>> itemsListener = this::itemsChanged;
+
+	// wird nur einmal ausgeführt, egal wie viele Suchen darauf warten
+	private FutureTask<ResultTableSearchIndex> indexBuild;
+	private long searchGeneration;
+	private String lastSearch = "";
+
+	private Matches matches;
+	private String matchesFor;
+	// Positionen der Trefferzeilen in der aktuellen Sortierung der Tabelle
+	private int[] matchingRows;
+
 	private ObservableList<String> lastFoundRow;
+	private int lastFoundIndex = -1;
 
 	/**
 	 * @param tableView
@@ -48,100 +84,197 @@ public class TableViewFindAction extends FindAction {
 	 */
 	public TableViewFindAction(final TableView<ObservableList<String>> tableView) {
 		this.tableView = tableView;
+		if (tableView.getItems() != null) {
+			tableView.getItems().addListener(itemsListener);
+		}
+		tableView.itemsProperty().addListener((observable, oldItems, newItems) -> {
+			if (oldItems != null) {
+				oldItems.removeListener(itemsListener);
+			}
+			if (newItems != null) {
+				newItems.addListener(itemsListener);
+			}
+			contentChanged();
+		});
 	}
 
 	@Override
 	public void find(final String searchString) {
 		resetSearchPosition();
 		tableView.getSelectionModel().clearSelection();
-		nextOccurrence(searchString);
+		search(searchString, Step.NEXT);
 	}
 
-	private boolean rowMatchesString(final ObservableList<String> row, final String preparedSearchString) {
-		for (final String column : row) {
-			if (column != null && column.toLowerCase().contains(preparedSearchString)) {
-				return true;
-			}
+	@Override
+	public void nextOccurrence(final String searchString) {
+		if (isSearched(searchString)) {
+			step(Step.NEXT);
+		} else {
+			search(searchString, Step.NEXT);
 		}
-		return false;
 	}
 
-	private ObservableList<String> findRowBeforeLastFinding(final String preparedSearchString,
-			final ObservableList<String> lastFinding, final SortedList<ObservableList<String>> tableRows) {
-		ObservableList<String> finding = null;
-		for (final ObservableList<String> row : tableRows) {
-			if (row == lastFinding) {
-				break;
-			} else if (rowMatchesString(row, preparedSearchString)) {
-				finding = row;
-			}
+	@Override
+	public void previousOccurrence(final String searchString) {
+		if (isSearched(searchString)) {
+			step(Step.PREVIOUS);
+		} else {
+			search(searchString, Step.PREVIOUS);
+		}
+	}
+
+	private boolean isSearched(final String searchString) {
+		return matches != null && preparedSearchString(searchString).equals(matchesFor);
+	}
+
+	private void itemsChanged(final ListChangeListener.Change<? extends ObservableList<String>> change) {
+		boolean sortedOnly = true;
+		while (change.next()) {
+			sortedOnly = sortedOnly && change.wasPermutated();
+		}
+		if (sortedOnly) {
+			// Index und Treffer bleiben gültig, nur die Positionen nicht
+			matchingRows = null;
+		} else {
+			contentChanged();
+		}
+	}
+
+	/**
+	 * Neuer Inhalt der Tabelle, z.B. durch weitere Zeilen eines Teilergebnisses.
+	 * Eine laufende Suche wird für den neuen Inhalt wiederholt, damit
+	 * Hervorhebung und Anzahl der Treffer aktuell bleiben.
+	 */
+	private void contentChanged() {
+		indexBuild = null;
+		matchesFor = null;
+		matchingRows = null;
+		if (!lastSearch.isEmpty()) {
+			search(lastSearch, Step.NONE);
+		}
+	}
+
+	private FutureTask<ResultTableSearchIndex> indexBuild() {
+		if (indexBuild == null) {
+			final List<ObservableList<String>> rows = tableView.getItems() != null
+					? new ArrayList<>(tableView.getItems())
+					: new ArrayList<>();
+			indexBuild = new FutureTask<>(() -> new ResultTableSearchIndex(rows));
 		}
-		return finding;
+		return indexBuild;
 	}
 
-	private ObservableList<String> findRowAfterLastFinding(final String preparedSearchString,
-			final ObservableList<String> lastFinding, final SortedList<ObservableList<String>> tableRows) {
-		ObservableList<String> finding = null;
-		boolean passed = lastFinding == null;
-		for (final ObservableList<String> row : tableRows) {
-			if (passed && rowMatchesString(row, preparedSearchString)) {
-				finding = row;
-				break;
+	private void search(final String searchString, final Step step) {
+		final String preparedSearchString = preparedSearchString(searchString);
+		final long generation = ++searchGeneration;
+		lastSearch = preparedSearchString;
+		if (preparedSearchString.isEmpty()) {
+			applyMatches(null, preparedSearchString);
+			return;
+		}
+		final FutureTask<ResultTableSearchIndex> build = indexBuild();
+		ExecutionService.getInstance().execute(ExecutionPool.EXECUTION, new Task<Void>() {
+			@Override
+			protected Void call() throws Exception {
+				build.run();
+				try {
+					final Matches found = build.get().find(preparedSearchString);
+					Platform.runLater(() -> searchFinished(generation, found, preparedSearchString, step));
+				} catch (final ExecutionException ex) {
+					Logger.getLogger(TableViewFindAction.class.getName()).log(Level.WARNING, null, ex);
+				}
+				return null;
 			}
-			passed = passed || row == lastFinding;
+		});
+	}
+
+	private void searchFinished(final long generation, final Matches found, final String preparedSearchString,
+			final Step step) {
+		// Ergebnisse überholter Suchen verwerfen
+		if (generation == searchGeneration) {
+			applyMatches(found, preparedSearchString);
+			step(step);
 		}
-		return finding;
 	}
 
-	@Override
-	public void nextOccurrence(final String searchString) {
-		final ObservableList<String> finding = findRowAfterLastFinding(preparedSearchString(searchString),
-				getRowOfLastRememberedFinding(), sortedTableItems());
-		rememberAndSelectFinding(finding);
+	private void applyMatches(final Matches found, final String preparedSearchString) {
+		matches = found;
+		matchesFor = preparedSearchString;
+		matchingRows = null;
+		ResultTableSearchIndex.highlight(tableView, found);
+		setMatchCount(found != null ? found.getCount() : UNKNOWN_MATCH_COUNT);
 	}
 
-	@Override
-	public void previousOccurrence(final String searchString) {
-		final ObservableList<String> finding = findRowBeforeLastFinding(preparedSearchString(searchString),
-				getRowOfLastRememberedFinding(), sortedTableItems());
-		rememberAndSelectFinding(finding);
+	private void step(final Step step) {
+		if (step == Step.NONE) {
+			return;
+		}
+		final int[] rows = matchingRows();
+		final int target;
+		if (step == Step.NEXT) {
+			final int next = insertionPoint(rows, lastFoundIndex + 1);
+			target = next < rows.length ? rows[next] : -1;
+		} else {
+			final int previous = lastFoundIndex < 0 ? rows.length - 1 : insertionPoint(rows, lastFoundIndex) - 1;
+			target = previous >= 0 ? rows[previous] : -1;
+		}
+		if (target >= 0) {
+			rememberAndSelectFinding(target);
+		}
+	}
+
+	private static int insertionPoint(final int[] rows, final int position) {
+		final int index = Arrays.binarySearch(rows, position);
+		return index >= 0 ? index : -index - 1;
 	}
 
 	/**
-	 * @param finding
-	 *            Die Fundstelle, die sich die FindAction als letzten Treffer
-	 *            merken soll und die in der TableView selektiert wird.
+	 * @return Positionen der Trefferzeilen gemäß der aktuellen Sortierung der
+	 *         Tabelle. Wird nur nach einer neuen Suche oder einer neuen
+	 *         Sortierung ermittelt, dabei wird auch die Position des letzten
+	 *         Treffers nachgeführt.
 	 */
-	private void rememberAndSelectFinding(final ObservableList<String> finding) {
-		if (finding != null) {
-			tableView.getSelectionModel().clearSelection();
-			tableView.getSelectionModel().select(finding);
-			tableView.scrollTo(finding);
-			rememberRowAsLastFinding(finding);
+	private int[] matchingRows() {
+		if (matchingRows == null) {
+			if (matches == null || tableView.getItems() == null) {
+				matchingRows = NO_MATCHES;
+			} else {
+				final List<ObservableList<String>> items = tableView.getItems();
+				final int[] rows = new int[items.size()];
+				int count = 0;
+				lastFoundIndex = -1;
+				for (int i = 0; i < items.size(); i++) {
+					final ObservableList<String> row = items.get(i);
+					if (row == lastFoundRow) {
+						lastFoundIndex = i;
+					}
+					if (matches.isMatch(row)) {
+						rows[count++] = i;
+					}
+				}
+				matchingRows = Arrays.copyOf(rows, count);
+			}
 		}
+		return matchingRows;
 	}
 
 	/**
-	 * @return Inhalt der TableView als sortierte Liste gemäß den aktuell in der
-	 *         TableView eingestellten Sortierkriterien.
+	 * @param index
+	 *            Position der Fundstelle, die sich die FindAction als letzten
+	 *            Treffer merken soll und die in der TableView selektiert wird.
 	 */
-	private SortedList<ObservableList<String>> sortedTableItems() {
-		final SortedList<ObservableList<String>> sorted = new SortedList<>(tableView.getItems());
-		sorted.setComparator(tableView.getComparator());
-		return sorted;
+	private void rememberAndSelectFinding(final int index) {
+		lastFoundRow = tableView.getItems().get(index);
+		lastFoundIndex = index;
+		tableView.getSelectionModel().clearSelection();
+		tableView.getSelectionModel().select(index);
+		tableView.scrollTo(index);
 	}
 
 	@Override
 	public void resetSearchPosition() {
 		lastFoundRow = null;
-	}
-
-	private void rememberRowAsLastFinding(final ObservableList<String> rowOfCurrentFinding) {
-		lastFoundRow = rowOfCurrentFinding;
-	}
-
-	private ObservableList<String> getRowOfLastRememberedFinding() {
-		return lastFoundRow;
+		lastFoundIndex = -1;
 	}
 
 }
@@ -26,21 +26,30 @@
 
 package de.kuehweg.sqltool.dialog.action;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.Arrays;
 
+import de.kuehweg.sqltool.dialog.component.schematree.SchemaTreeSearchIndex;
 import javafx.scene.control.TreeItem;
 import javafx.scene.control.TreeView;
 
 /**
+ * Suche in einer Baumansicht. Gesucht wird über den Suchindex der
+ * Baumansicht, der nur nach Änderungen an der Baumansicht neu aufgebaut wird.
+ * Die Treffer einer Suche werden gemerkt, weitersuchen vor und zurück ist
+ * damit lediglich eine binäre Suche in den Trefferpositionen.
+ *
  * @author Michael Kühweg
  */
 public class TextTreeViewFindAction extends FindAction {
 
+	private static final int[] NO_MATCHES = new int[0];
+
 	private final TreeView<String> tree;
 
-	private TreeItem<String> findFrom;
+	private SchemaTreeSearchIndex searchedIndex;
+	private String searchedFor;
+	private int[] matches = NO_MATCHES;
+	private int findFrom = -1;
 
 	public TextTreeViewFindAction(final TreeView<String> tree) {
 		this.tree = tree;
@@ -49,62 +58,58 @@ public class TextTreeViewFindAction extends FindAction {
 	@Override
 	public void find(final String searchString) {
 		deselectAllOccurrencesInComponent();
-		findFrom = findInFlattenedTree(searchString, null, flattenedTreeForEasierSearch(tree));
-		if (findFrom != null) {
-			selectOccurrenceInTreeView(findFrom);
+		findFrom = -1;
+		updateMatches(searchString);
+		if (matches.length > 0) {
+			selectOccurrence(matches[0]);
 		}
 	}
 
 	@Override
 	public void nextOccurrence(final String searchString) {
 		if (searchString != null && !searchString.isEmpty()) {
-			final List<TreeItem<String>> forward = flattenedTreeForEasierSearch(tree);
-			nextOccurrenceInFlattenedTree(searchString, forward);
+			updateMatches(searchString);
+			final int next = insertionPoint(findFrom + 1);
+			if (next < matches.length) {
+				selectOccurrence(matches[next]);
+			}
 		}
 	}
 
 	@Override
 	public void previousOccurrence(final String searchString) {
 		if (searchString != null && !searchString.isEmpty()) {
-			final List<TreeItem<String>> backwards = flattenedTreeForEasierSearch(tree);
-			Collections.reverse(backwards);
-			nextOccurrenceInFlattenedTree(searchString, backwards);
-		}
-	}
-
-	private TreeItem<String> findInFlattenedTree(final String searchString, final TreeItem<String> findFrom,
-			final List<TreeItem<String>> flattenedTree) {
-		final String preparedSearchString = preparedSearchString(searchString);
-		boolean skip = findFrom != null;
-		for (final TreeItem<String> item : flattenedTree) {
-			skip = skip && item != findFrom;
-			if (!skip && item != findFrom && getValueSafeAndLowerCase(item).contains(preparedSearchString)) {
-				return item;
+			updateMatches(searchString);
+			final int previous = findFrom < 0 ? matches.length - 1 : insertionPoint(findFrom) - 1;
+			if (previous >= 0) {
+				selectOccurrence(matches[previous]);
 			}
 		}
-		return null;
 	}
 
-	private List<TreeItem<String>> flattenedTreeForEasierSearch(final TreeView<String> tree) {
-		return flattenedSubtreeForEasierSearch(tree.getRoot());
+	private int insertionPoint(final int position) {
+		final int index = Arrays.binarySearch(matches, position);
+		return index >= 0 ? index : -index - 1;
 	}
 
-	private List<TreeItem<String>> flattenedSubtreeForEasierSearch(final TreeItem<String> subtree) {
-		final List<TreeItem<String>> flattenedSubtree = new ArrayList<>();
-		flattenedSubtree.add(subtree);
-		if (subtree.getChildren() != null) {
-			for (final TreeItem<String> subSubtree : subtree.getChildren()) {
-				flattenedSubtree.addAll(flattenedSubtreeForEasierSearch(subSubtree));
-			}
+	private void updateMatches(final String searchString) {
+		if (tree.getRoot() == null) {
+			searchedIndex = null;
+			matches = NO_MATCHES;
+			setMatchCount(UNKNOWN_MATCH_COUNT);
+			return;
 		}
-		return flattenedSubtree;
-	}
-
-	private void nextOccurrenceInFlattenedTree(final String searchString, final List<TreeItem<String>> flattenedTree) {
-		final TreeItem<String> nextOccurrence = findInFlattenedTree(searchString, findFrom, flattenedTree);
-		if (nextOccurrence != null) {
-			findFrom = nextOccurrence;
-			selectOccurrenceInTreeView(findFrom);
+		final SchemaTreeSearchIndex index = SchemaTreeSearchIndex.of(tree);
+		final String preparedSearchString = preparedSearchString(searchString);
+		if (index != searchedIndex || !preparedSearchString.equals(searchedFor)) {
+			if (index != searchedIndex) {
+				// Positionen im alten Index passen nicht mehr
+				findFrom = -1;
+			}
+			searchedIndex = index;
+			searchedFor = preparedSearchString;
+			matches = index.find(preparedSearchString);
+			setMatchCount(preparedSearchString.isEmpty() ? UNKNOWN_MATCH_COUNT : matches.length);
 		}
 	}
 
@@ -112,20 +117,24 @@ public class TextTreeViewFindAction extends FindAction {
 		tree.getSelectionModel().clearSelection();
 	}
 
+	private void selectOccurrence(final int position) {
+		final TreeItem<String> item = searchedIndex.treeItemAt(tree.getRoot(), position);
+		if (item != null) {
+			findFrom = position;
+			selectOccurrenceInTreeView(item);
+		}
+	}
+
 	private void selectOccurrenceInTreeView(final TreeItem<String> item) {
-		tree.getSelectionModel().select(item);
 		TreeItem<String> parent = item.getParent();
 		while (parent != null) {
 			parent.setExpanded(true);
 			parent = parent.getParent();
 		}
+		tree.getSelectionModel().select(item);
 		tree.scrollTo(tree.getSelectionModel().getSelectedIndex());
 	}
 
-	private String getValueSafeAndLowerCase(final TreeItem<String> treeItem) {
-		return treeItem.getValue() == null ? "" : treeItem.getValue().toLowerCase();
-	}
-
 	/*
 	 * (non-Javadoc)
 	 *
@@ -133,7 +142,7 @@ public class TextTreeViewFindAction extends FindAction {
 	 */
 	@Override
 	public void resetSearchPosition() {
-		findFrom = null;
+		findFrom = -1;
 	}
 
 }
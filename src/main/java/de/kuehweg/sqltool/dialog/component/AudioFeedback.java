@@ -25,8 +25,11 @@
  */
 package de.kuehweg.sqltool.dialog.component;
 
+import java.util.List;
+
 import de.kuehweg.sqltool.common.ProvidedAudioClip;
 import de.kuehweg.sqltool.common.UserPreferencesManager;
+import de.kuehweg.sqltool.database.execution.ResultRow;
 import de.kuehweg.sqltool.database.execution.StatementExecutionInformation;
 import de.kuehweg.sqltool.dialog.updater.ExecutionLifecyclePhase;
 import de.kuehweg.sqltool.dialog.updater.ExecutionLifecycleRefresh;
@@ -50,6 +53,11 @@ public class AudioFeedback implements ExecutionTracker {
 		// kein Audio Feedback während der Ausführung
 	}
 
+	@Override
+	public void resultPage(final StatementExecutionInformation executionInfo, final List<ResultRow> page) {
+		// kein Audio Feedback während der Ausführung
+	}
+
 	@Override
 	public void afterExecution() {
 		// kein inhaltlicher Update, show() - naja... in dem Fall wenig
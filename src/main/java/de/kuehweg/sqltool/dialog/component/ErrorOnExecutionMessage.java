@@ -25,7 +25,10 @@
  */
 package de.kuehweg.sqltool.dialog.component;
 
+import java.util.List;
+
 import de.kuehweg.sqltool.common.DialogDictionary;
+import de.kuehweg.sqltool.database.execution.ResultRow;
 import de.kuehweg.sqltool.database.execution.StatementExecutionInformation;
 import de.kuehweg.sqltool.dialog.ErrorMessage;
 import de.kuehweg.sqltool.dialog.updater.ExecutionLifecyclePhase;
@@ -59,6 +62,11 @@ public class ErrorOnExecutionMessage implements ExecutionTracker {
 		// nada
 	}
 
+	@Override
+	public void resultPage(final StatementExecutionInformation executionInfo, final List<ResultRow> page) {
+		// nichts
+	}
+
 	@Override
 	public void afterExecution() {
 		// niente
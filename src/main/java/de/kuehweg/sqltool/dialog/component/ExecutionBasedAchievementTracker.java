@@ -26,9 +26,12 @@
 
 package de.kuehweg.sqltool.dialog.component;
 
+import java.util.List;
+
 import de.kuehweg.sqltool.common.achievement.AchievementManager;
 import de.kuehweg.sqltool.common.achievement.NamedAchievementEvent;
 import de.kuehweg.sqltool.database.DatabaseConstants;
+import de.kuehweg.sqltool.database.execution.ResultRow;
 import de.kuehweg.sqltool.database.execution.StatementExecutionInformation;
 import de.kuehweg.sqltool.dialog.updater.ExecutionLifecyclePhase;
 import de.kuehweg.sqltool.dialog.updater.ExecutionLifecycleRefresh;
@@ -65,6 +68,11 @@ public class ExecutionBasedAchievementTracker implements ExecutionTracker {
 		eventsForResultSet(executionInfo);
 	}
 
+	@Override
+	public void resultPage(final StatementExecutionInformation executionInfo, final List<ResultRow> page) {
+		// gezählt wird erst nach Abschluss der Anweisung
+	}
+
 	private void eventsForStatementAppearance(final StatementExecutionInformation executionInformation) {
 		final AchievementManager achievementManager = AchievementManager.getInstance();
 		final int originalLength = executionInformation.getSql().originalStatement().trim().length();
@@ -140,7 +148,7 @@ public class ExecutionBasedAchievementTracker implements ExecutionTracker {
 	private void eventsForResultSet(final StatementExecutionInformation executionInfo) {
 		if (executionInfo.getStatementResult() != null) {
 			final AchievementManager achievementManager = AchievementManager.getInstance();
-			final int rowCount = executionInfo.getStatementResult().getRows().size();
+			final int rowCount = executionInfo.getRowCount();
 			achievementManager.fireEvent(NamedAchievementEvent.EXECUTION_RESULT_ROWS.asAchievementEvent(), rowCount);
 			if (rowCount >= LARGE_RESULT_MIN_ROWS) {
 				achievementManager.fireEvent(NamedAchievementEvent.LARGE_RESULT.asAchievementEvent(), 1);
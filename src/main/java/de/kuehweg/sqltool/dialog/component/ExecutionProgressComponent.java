@@ -27,17 +27,23 @@ package de.kuehweg.sqltool.dialog.component;
 
 import java.math.BigDecimal;
 import java.text.MessageFormat;
+import java.util.List;
 
 import de.kuehweg.sqltool.common.DialogDictionary;
+import de.kuehweg.sqltool.database.execution.ExecutionTimingSummary;
+import de.kuehweg.sqltool.database.execution.ResultRow;
 import de.kuehweg.sqltool.database.execution.StatementExecutionInformation;
 import de.kuehweg.sqltool.dialog.updater.ExecutionLifecyclePhase;
 import de.kuehweg.sqltool.dialog.updater.ExecutionLifecycleRefresh;
 import de.kuehweg.sqltool.dialog.updater.ExecutionTracker;
 import javafx.scene.control.Label;
 import javafx.scene.control.ProgressBar;
+import javafx.scene.control.Tooltip;
 
 /**
  * Komponente zur Anzeige des Fortschritts beim Ausführen von SQL-Anweisungen.
+ * Nach der Ausführung zeigt der Tooltip der Dauer die Zusammenfassung der
+ * Ausführungszeiten aller Anweisungen.
  *
  * @author Michael Kühweg
  */
@@ -50,14 +56,20 @@ public class ExecutionProgressComponent implements ExecutionTracker {
 	private static final double PROGRESS_FINISHED = 1;
 	private static final double PROGRESS_INITIAL = 0;
 
+	// Anzahl der in der Zusammenfassung aufgeführten langsamsten Anweisungen
+	private static final int SLOWEST_STATEMENTS = 3;
+
 	private final ProgressBar progressBar;
 	private final Label executionDuration;
 
 	private long startOfExecution;
 	private long endOfExecution;
 
+	private final ExecutionTimingSummary timingSummary = new ExecutionTimingSummary();
+
 	private double progressToShow;
 	private String durationToShow;
+	private String timingSummaryToShow;
 
 	public ExecutionProgressComponent(final ProgressBar progressBar, final Label executionDuration) {
 		this.progressBar = progressBar;
@@ -70,12 +82,21 @@ public class ExecutionProgressComponent implements ExecutionTracker {
 		startOfExecution = System.currentTimeMillis();
 		progressToShow = PROGRESS_RUNNING;
 		durationToShow = DialogDictionary.LABEL_EXECUTING.toString();
+		timingSummary.clear();
+		timingSummaryToShow = null;
 	}
 
 	@Override
 	public void intermediateUpdate(final StatementExecutionInformation executionInfo) {
 		// derzeit keine Updates während Ausführung - ist als "laufend"
-		// visualisiert
+		// visualisiert; die Zeiten werden erst zum Abschluss ausgewertet, dann
+		// ist auch die Verarbeitungszeit der anderen Tracker bekannt
+		timingSummary.add(executionInfo);
+	}
+
+	@Override
+	public void resultPage(final StatementExecutionInformation executionInfo, final List<ResultRow> page) {
+		// derzeit keine Updates während Ausführung
 	}
 
 	@Override
@@ -86,6 +107,9 @@ public class ExecutionProgressComponent implements ExecutionTracker {
 				.divide(BigDecimal.valueOf(1000));
 		durationToShow = MessageFormat.format(DialogDictionary.PATTERN_EXECUTION_TIME.toString(),
 				executionTimeInSeconds.toString());
+		timingSummaryToShow = timingSummary.getStatementCount() > 0
+				? timingSummary.formatWithSlowest(SLOWEST_STATEMENTS)
+				: null;
 	}
 
 	@Override
@@ -98,5 +122,6 @@ public class ExecutionProgressComponent implements ExecutionTracker {
 	public void show() {
 		progressBar.setProgress(progressToShow);
 		executionDuration.setText(durationToShow);
+		executionDuration.setTooltip(timingSummaryToShow != null ? new Tooltip(timingSummaryToShow) : null);
 	}
 }
@@ -26,6 +26,7 @@
 package de.kuehweg.sqltool.dialog.component;
 
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -53,6 +54,7 @@ import javafx.scene.control.Tooltip;
  * @author Michael Kühweg
  */
 @ExecutionLifecycleRefresh(phase = ExecutionLifecyclePhase.BEFORE)
+@ExecutionLifecycleRefresh(phase = ExecutionLifecyclePhase.PARTIAL)
 @ExecutionLifecycleRefresh(phase = ExecutionLifecyclePhase.AFTER)
 @ExecutionLifecycleRefresh(phase = ExecutionLifecyclePhase.ERROR)
 public class QueryResultTableView implements ExecutionTracker {
@@ -67,14 +69,24 @@ public class QueryResultTableView implements ExecutionTracker {
 
 	private final Tooltip maxRowsTooltip;
 
+	private final Tooltip cachedResultTooltip;
+
 	private final TableView<ObservableList<String>> tableView;
 	private StatementExecutionInformation infoToView;
 	private String errorMessage;
 
+	// Zeilen der gerade laufenden Abfrage, die noch nicht angezeigt werden;
+	// werden im Thread der Ausführung gesammelt und im UI-Thread angehängt
+	private final List<ObservableList<String>> pendingRows = new ArrayList<>();
+	private StatementExecutionInformation partialInfo;
+	private int partialRowCount;
+	private boolean partialViewOutdated;
+
 	public QueryResultTableView(final TableView<ObservableList<String>> tableView) {
 		this.tableView = tableView;
 		maxRowsTooltip = new Tooltip(
 				MessageFormat.format(DialogDictionary.PATTERN_MAX_ROWS_IN_TABLE_VIEW.toString(), MAX_ROWS_IN_VIEW));
+		cachedResultTooltip = new Tooltip(DialogDictionary.LABEL_RESULT_FROM_CACHE.toString());
 	}
 
 	public String toHtml() {
@@ -94,6 +106,7 @@ public class QueryResultTableView implements ExecutionTracker {
 					columnHeaders.size() == 1 ? MIN_COLUMN_WIDTH_SINGLE_COLUMN : MIN_COLUMN_WIDTH_MULTIPLE_COLUMNS);
 			final int accessIndex = i++;
 			col.setCellValueFactory(param -> new SimpleStringProperty(param.getValue().get(accessIndex).toString()));
+			col.setCellFactory(column -> new ResultTableCell(accessIndex));
 			header.add(col);
 		}
 		return header;
@@ -113,16 +126,18 @@ public class QueryResultTableView implements ExecutionTracker {
 	private ObservableList<ObservableList<String>> buildContentWithResultSet(final StatementExecutionInformation info) {
 		final ObservableList<ObservableList<String>> content = FXCollections.observableArrayList();
 		if (info != null && info.getStatementResult() != null) {
-			final int upperBound = Math.min(info.getStatementResult().getRows().size(), MAX_ROWS_IN_VIEW);
+			final StatementResult result = info.getStatementResult();
+			final int upperBound = Math.min(result.getRowCount(), MAX_ROWS_IN_VIEW);
 			if (upperBound == MAX_ROWS_IN_VIEW) {
 				Tooltip.install(tableView, maxRowsTooltip);
 			}
-			for (final ResultRow resultRow : info.getStatementResult().getRows().subList(0, upperBound)) {
-				final ObservableList<String> row = FXCollections.observableArrayList();
-				for (final String column : resultRow.columnsAsString()) {
-					row.add(column);
+			final int columnCount = result.getColumnCount();
+			for (int rowIndex = 0; rowIndex < upperBound; rowIndex++) {
+				final String[] row = new String[columnCount];
+				for (int column = 0; column < columnCount; column++) {
+					row[column] = result.getValueAsString(rowIndex, column);
 				}
-				content.add(row);
+				content.add(FXCollections.observableArrayList(row));
 			}
 		}
 		return content;
@@ -141,6 +156,7 @@ public class QueryResultTableView implements ExecutionTracker {
 		tableView.getItems().clear();
 		tableView.setTableMenuButtonVisible(false);
 		Tooltip.uninstall(tableView, maxRowsTooltip);
+		Tooltip.uninstall(tableView, cachedResultTooltip);
 	}
 
 	private void buildView(final StatementExecutionInformation info) {
@@ -151,6 +167,11 @@ public class QueryResultTableView implements ExecutionTracker {
 						Arrays.asList(info.getStatementResult().getHeader().getColumnHeaders())));
 				tableView.setItems(buildContentWithResultSet(info));
 				tableView.setTableMenuButtonVisible(true);
+				if (info.isCached()) {
+					// Hinweis auf das zwischengespeicherte Ergebnis hat Vorrang
+					Tooltip.uninstall(tableView, maxRowsTooltip);
+					Tooltip.install(tableView, cachedResultTooltip);
+				}
 			} else {
 				tableView.getColumns().addAll(buildTableViewHeaderWithColumnNameList(
 						Collections.singletonList(DialogDictionary.LABEL_RESULT_EXECUTED.toString())));
@@ -159,6 +180,38 @@ public class QueryResultTableView implements ExecutionTracker {
 		}
 	}
 
+	/**
+	 * Hängt die seit der letzten Anzeige gelesenen Zeilen der laufenden
+	 * Abfrage an die Tabelle an. Beginnt eine neue Abfrage, wird die Tabelle
+	 * zuvor neu aufgebaut.
+	 *
+	 * @return false, wenn gerade keine Abfrage Teilergebnisse liefert
+	 */
+	private synchronized boolean showPartialResult() {
+		if (partialInfo == null) {
+			return false;
+		}
+		if (partialViewOutdated) {
+			prepareBuildView();
+			tableView.getColumns().addAll(buildTableViewHeaderWithColumnNameList(
+					Arrays.asList(partialInfo.getStatementResult().getHeader().getColumnHeaders())));
+			tableView.setItems(FXCollections.observableArrayList());
+			tableView.setTableMenuButtonVisible(true);
+			partialViewOutdated = false;
+		}
+		tableView.getItems().addAll(pendingRows);
+		pendingRows.clear();
+		if (partialRowCount >= MAX_ROWS_IN_VIEW) {
+			Tooltip.install(tableView, maxRowsTooltip);
+		}
+		return true;
+	}
+
+	private synchronized void discardPartialResult() {
+		partialInfo = null;
+		pendingRows.clear();
+	}
+
 	private void buildError(final String errorMessage) {
 		prepareBuildView();
 		tableView.getColumns().addAll(buildTableViewHeaderWithColumnNameList(
@@ -174,16 +227,40 @@ public class QueryResultTableView implements ExecutionTracker {
 		// eventuellen alten Inhalt verwerfen
 		infoToView = null;
 		errorMessage = null;
+		discardPartialResult();
 	}
 
 	@Override
 	public void intermediateUpdate(final StatementExecutionInformation executionInfo) {
+		// das vollständige Ergebnis ersetzt die Teilergebnisse
+		discardPartialResult();
 		if (executionInfo != null) {
 			infoToView = executionInfo;
 		}
 		errorMessage = null;
 	}
 
+	@Override
+	public synchronized void resultPage(final StatementExecutionInformation executionInfo,
+			final List<ResultRow> page) {
+		if (executionInfo == null || executionInfo.getStatementResult() == null) {
+			return;
+		}
+		if (executionInfo != partialInfo) {
+			partialInfo = executionInfo;
+			partialRowCount = 0;
+			partialViewOutdated = true;
+			pendingRows.clear();
+		}
+		for (final ResultRow row : page) {
+			if (partialRowCount >= MAX_ROWS_IN_VIEW) {
+				break;
+			}
+			pendingRows.add(FXCollections.observableArrayList(row.columnsAsString()));
+			partialRowCount++;
+		}
+	}
+
 	@Override
 	public void afterExecution() {
 		if (infoToView == null) {
@@ -197,6 +274,7 @@ public class QueryResultTableView implements ExecutionTracker {
 
 	@Override
 	public void errorOnExecution(final String message) {
+		discardPartialResult();
 		infoToView = null;
 		errorMessage = message;
 	}
@@ -205,7 +283,7 @@ public class QueryResultTableView implements ExecutionTracker {
 	public void show() {
 		if (errorMessage != null) {
 			buildError(errorMessage);
-		} else {
+		} else if (!showPartialResult()) {
 			buildView(infoToView);
 		}
 	}
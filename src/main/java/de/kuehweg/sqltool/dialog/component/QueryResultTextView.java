@@ -25,8 +25,12 @@
  */
 package de.kuehweg.sqltool.dialog.component;
 
+import java.util.List;
+
+import de.kuehweg.sqltool.database.execution.ResultRow;
 import de.kuehweg.sqltool.database.execution.StatementExecutionInformation;
 import de.kuehweg.sqltool.database.formatter.DefaultTextResultTemplate;
+import de.kuehweg.sqltool.database.formatter.PartialTextResultFormatter;
 import de.kuehweg.sqltool.database.formatter.ResultTemplate;
 import de.kuehweg.sqltool.database.formatter.TextResultFormatter;
 import de.kuehweg.sqltool.dialog.updater.ExecutionLifecyclePhase;
@@ -40,18 +44,27 @@ import javafx.scene.control.TextArea;
  *
  * @author Michael Kühweg
  */
+@ExecutionLifecycleRefresh(phase = ExecutionLifecyclePhase.PARTIAL)
 @ExecutionLifecycleRefresh(phase = ExecutionLifecyclePhase.INTERMEDIATE, refreshPolicy = ExecutionLifecycleRefreshPolicy.DELAYED)
 @ExecutionLifecycleRefresh(phase = ExecutionLifecyclePhase.ERROR)
 public class QueryResultTextView implements ExecutionTracker {
 
 	private static final int MAX_DBOUTPUT_LENGTH = 256 * 1024;
 
+	// mehr Zeilen passen ohnehin nicht in die begrenzte Ausgabe
+	private static final int MAX_ROWS_IN_DBOUTPUT = 5000;
+
 	private static final String TRUNCATED = "[...]";
 
 	private final ResultTemplate resultTemplate;
 
 	private String dbOutput;
 
+	// Ergebnis der gerade laufenden Abfrage, soweit bereits gelesen
+	private StatementExecutionInformation partialInfo;
+	private PartialTextResultFormatter partialFormatter;
+	private volatile String partialOutput;
+
 	private final TextArea outputTextArea;
 
 	public QueryResultTextView(final TextArea outputTextArea) {
@@ -85,10 +98,35 @@ public class QueryResultTextView implements ExecutionTracker {
 	public void beforeExecution() {
 	}
 
+	private void discardPartialResult() {
+		partialInfo = null;
+		partialFormatter = null;
+		partialOutput = null;
+	}
+
 	@Override
 	public void intermediateUpdate(final StatementExecutionInformation executionInfo) {
+		// das vollständige Ergebnis ersetzt die vorläufige Ausgabe
+		discardPartialResult();
 		if (executionInfo != null) {
-			dbOutput = buildNewContent(dbOutput, new TextResultFormatter(executionInfo).format(resultTemplate));
+			dbOutput = buildNewContent(dbOutput,
+					new TextResultFormatter(executionInfo, MAX_ROWS_IN_DBOUTPUT).format(resultTemplate));
+		}
+	}
+
+	@Override
+	public void resultPage(final StatementExecutionInformation executionInfo, final List<ResultRow> page) {
+		if (executionInfo == null || executionInfo.getStatementResult() == null) {
+			return;
+		}
+		if (executionInfo != partialInfo) {
+			partialInfo = executionInfo;
+			partialFormatter = new PartialTextResultFormatter(executionInfo.getStatementResult().getHeader(),
+					MAX_ROWS_IN_DBOUTPUT);
+		}
+		if (partialFormatter.getFormattedRows() < MAX_ROWS_IN_DBOUTPUT) {
+			partialFormatter.append(page);
+			partialOutput = partialFormatter.getText();
 		}
 	}
 
@@ -98,12 +136,14 @@ public class QueryResultTextView implements ExecutionTracker {
 
 	@Override
 	public void errorOnExecution(final String message) {
+		discardPartialResult();
 		dbOutput = buildNewContent(dbOutput, message);
 	}
 
 	@Override
 	public void show() {
-		outputTextArea.setText(dbOutput);
+		final String partial = partialOutput;
+		outputTextArea.setText(partial != null ? buildNewContent(dbOutput, partial) : dbOutput);
 		outputTextArea.positionCaret(outputTextArea.getLength());
 	}
 
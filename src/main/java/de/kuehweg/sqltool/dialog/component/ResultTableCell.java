@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.dialog.component;
+
+import de.kuehweg.sqltool.dialog.component.ResultTableSearchIndex.Matches;
+import javafx.collections.ObservableList;
+import javafx.css.PseudoClass;
+import javafx.scene.control.TableCell;
+
+/**
+ * Zelle der Ergebnistabelle, die Treffer der Suche hervorhebt.
+ *
+ * @author Michael Kühweg
+ */
+public class ResultTableCell extends TableCell<ObservableList<String>, String> {
+
+	private static final PseudoClass FIND_MATCH = PseudoClass.getPseudoClass("find-match");
+
+	private final int accessIndex;
+
+	/**
+	 * @param accessIndex
+	 *            Index der Spalte in der Zeile, unabhängig von der
+	 *            Reihenfolge der Spalten in der Tabelle
+	 */
+	public ResultTableCell(final int accessIndex) {
+		this.accessIndex = accessIndex;
+		getStyleClass().add("result-table-cell");
+	}
+
+	@Override
+	protected void updateItem(final String item, final boolean empty) {
+		super.updateItem(item, empty);
+		setText(empty ? null : item);
+		pseudoClassStateChanged(FIND_MATCH, !empty && isMatch());
+	}
+
+	private boolean isMatch() {
+		if (getTableView() == null) {
+			return false;
+		}
+		final Matches matches = ResultTableSearchIndex.highlightedMatches(getTableView());
+		final int index = getIndex();
+		return matches != null && index >= 0 && index < getTableView().getItems().size()
+				&& matches.isMatch(getTableView().getItems().get(index), accessIndex);
+	}
+}
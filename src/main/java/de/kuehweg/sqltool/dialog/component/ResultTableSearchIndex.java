@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.dialog.component;
+
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javafx.scene.control.TableView;
+
+/**
+ * Suchindex über die Zeilen einer Ergebnistabelle. Die Zellen werden einmalig
+ * in Kleinbuchstaben umgewandelt, eine Suche liefert die Treffer als Bitmap
+ * über alle Zellen. Der Aufbau des Index und die Suche sind für die Ausführung
+ * außerhalb des UI-Threads gedacht, die Zeilen selbst dürfen sich dabei nicht
+ * ändern.
+ *
+ * @author Michael Kühweg
+ */
+public class ResultTableSearchIndex {
+
+	private final Map<List<String>, Integer> rowPositions;
+	private final String[][] cells;
+	private final int[] firstCellOfRow;
+	private final int cellCount;
+
+	/**
+	 * @param rows
+	 *            Zeilen der Ergebnistabelle. Zeilen werden über ihre Identität
+	 *            wiedergefunden, die Sortierung der Tabelle spielt deshalb für
+	 *            den Index keine Rolle.
+	 */
+	public ResultTableSearchIndex(final List<? extends List<String>> rows) {
+		rowPositions = new IdentityHashMap<>(rows.size());
+		cells = new String[rows.size()][];
+		firstCellOfRow = new int[rows.size()];
+		int cellNumber = 0;
+		for (int rowIndex = 0; rowIndex < rows.size(); rowIndex++) {
+			final List<String> row = rows.get(rowIndex);
+			rowPositions.put(row, rowIndex);
+			firstCellOfRow[rowIndex] = cellNumber;
+			final String[] lowerCaseRow = new String[row.size()];
+			for (int column = 0; column < lowerCaseRow.length; column++) {
+				final String value = row.get(column);
+				lowerCaseRow[column] = value != null ? value.toLowerCase() : null;
+			}
+			cells[rowIndex] = lowerCaseRow;
+			cellNumber += lowerCaseRow.length;
+		}
+		cellCount = cellNumber;
+	}
+
+	/**
+	 * @return Anzahl der Zeilen im Index
+	 */
+	public int size() {
+		return cells.length;
+	}
+
+	/**
+	 * Alle Zellen, deren Inhalt den Suchbegriff enthält.
+	 *
+	 * @param preparedSearchString
+	 *            Suchbegriff in Kleinbuchstaben
+	 * @return Treffer, bei leerem Suchbegriff ohne Treffer
+	 */
+	public Matches find(final String preparedSearchString) {
+		final BitSet matchingCells = new BitSet(cellCount);
+		final BitSet matchingRows = new BitSet(cells.length);
+		if (preparedSearchString != null && !preparedSearchString.isEmpty()) {
+			for (int rowIndex = 0; rowIndex < cells.length; rowIndex++) {
+				final String[] row = cells[rowIndex];
+				for (int column = 0; column < row.length; column++) {
+					if (row[column] != null && row[column].contains(preparedSearchString)) {
+						matchingCells.set(firstCellOfRow[rowIndex] + column);
+						matchingRows.set(rowIndex);
+					}
+				}
+			}
+		}
+		return new Matches(matchingCells, matchingRows);
+	}
+
+	/**
+	 * Treffer in der Tabelle hervorheben. Die Zellen der Tabelle fragen die
+	 * Treffer beim Aktualisieren über {@link #highlightedMatches(TableView)}
+	 * ab.
+	 *
+	 * @param tableView
+	 *            Tabelle
+	 * @param matches
+	 *            hervorzuhebende Treffer, null für keine Hervorhebung
+	 */
+	public static void highlight(final TableView<?> tableView, final Matches matches) {
+		if (matches != null) {
+			tableView.getProperties().put(ResultTableSearchIndex.class, matches);
+		} else {
+			tableView.getProperties().remove(ResultTableSearchIndex.class);
+		}
+		tableView.refresh();
+	}
+
+	/**
+	 * @param tableView
+	 *            Tabelle
+	 * @return die in der Tabelle hervorgehobenen Treffer, null wenn keine
+	 */
+	public static Matches highlightedMatches(final TableView<?> tableView) {
+		final Object matches = tableView.getProperties().get(ResultTableSearchIndex.class);
+		return matches instanceof Matches ? (Matches) matches : null;
+	}
+
+	/**
+	 * Ergebnis einer Suche im Index.
+	 */
+	public final class Matches {
+
+		private final BitSet matchingCells;
+		private final BitSet matchingRows;
+
+		private Matches(final BitSet matchingCells, final BitSet matchingRows) {
+			this.matchingCells = matchingCells;
+			this.matchingRows = matchingRows;
+		}
+
+		/**
+		 * @return Anzahl der Zellen mit Treffer
+		 */
+		public int getCount() {
+			return matchingCells.cardinality();
+		}
+
+		/**
+		 * @param row
+		 *            Zeile der Tabelle
+		 * @return true, wenn mindestens eine Zelle der Zeile den Suchbegriff
+		 *         enthält
+		 */
+		public boolean isMatch(final List<String> row) {
+			final Integer rowIndex = rowPositions.get(row);
+			return rowIndex != null && matchingRows.get(rowIndex);
+		}
+
+		/**
+		 * @param row
+		 *            Zeile der Tabelle
+		 * @param column
+		 *            Spalte innerhalb der Zeile
+		 * @return true, wenn die Zelle den Suchbegriff enthält
+		 */
+		public boolean isMatch(final List<String> row, final int column) {
+			final Integer rowIndex = rowPositions.get(row);
+			return rowIndex != null && column >= 0 && column < cells[rowIndex].length
+					&& matchingCells.get(firstCellOfRow[rowIndex] + column);
+		}
+	}
+}
@@ -25,66 +25,348 @@
  */
 package de.kuehweg.sqltool.dialog.component.schematree;
 
+import java.sql.Connection;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import de.kuehweg.sqltool.common.concurrent.ExecutionPool;
+import de.kuehweg.sqltool.common.concurrent.ExecutionService;
 import de.kuehweg.sqltool.database.metadata.description.DatabaseDescription;
+import de.kuehweg.sqltool.database.metadata.description.SchemaDescription;
+import de.kuehweg.sqltool.database.metadata.description.TableDescription;
 import de.kuehweg.sqltool.dialog.component.schematree.node.SchemaTreeNode;
 import de.kuehweg.sqltool.dialog.component.schematree.node.SchemaTreeNodeBuilder;
 import de.kuehweg.sqltool.dialog.util.WebViewWithHSQLDBBugfix;
-import javafx.scene.Node;
-import javafx.scene.control.Label;
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
 import javafx.scene.control.TreeItem;
 import javafx.scene.control.TreeView;
 
 /**
- * Baumansicht der Datenbankstruktur.
+ * Baumansicht der Datenbankstruktur. Die Knoten werden im Konstruktor - und
+ * damit beim Aufbau in einem Hintergrund-Task außerhalb des FX-Threads -
+ * aufbereitet, die Elemente der Baumansicht entstehen erst beim Öffnen der
+ * jeweiligen Elternknoten. Eine bereits angezeigte Struktur wird nicht
+ * ersetzt, sondern mit den neuen Knoten abgeglichen: nur geänderte Elemente
+ * werden eingefügt oder entfernt, Auswahl, Scrollposition und geöffnete
+ * Knoten bleiben erhalten.
  *
  * @author Michael Kühweg
  */
 public class SchemaTreeBuilder implements Runnable {
 
+	private static final String LAZY_LOADING_ON_SELECTION = SchemaTreeBuilder.class.getName() + ".lazyLoading";
+	private static final String CELL_FACTORY = SchemaTreeBuilder.class.getName() + ".cellFactory";
+
 	private final DatabaseDescription db;
 	private final TreeView<String> treeToUpdate;
-
-	private final SchemaTreeStyleFinder styleFinder = new SchemaTreeStyleFinder();
-	private final SchemaTreeIconFinder iconFinder = new SchemaTreeIconFinder();
+	private final Connection connection;
+	private volatile SchemaTreeNodeBuilder nodeBuilder;
+	private SchemaTreeSearchIndex searchIndex;
+	// nur im UI-Thread verwendet
+	private int rebuildGeneration;
+	private boolean refreshPending;
 
 	public SchemaTreeBuilder(final DatabaseDescription db, final TreeView<String> treeToUpdate) {
+		this(db, treeToUpdate, null);
+	}
+
+	/**
+	 * @param db
+	 *            Beschreibung der Datenbank
+	 * @param treeToUpdate
+	 *            Strukturansicht, die neu aufgebaut wird
+	 * @param connection
+	 *            Verbindung, über die noch nicht gelesene Details einzelner
+	 *            Tabellen nachgeladen werden
+	 */
+	public SchemaTreeBuilder(final DatabaseDescription db, final TreeView<String> treeToUpdate,
+			final Connection connection) {
 		this.db = db;
 		this.treeToUpdate = treeToUpdate;
+		this.connection = connection;
+		synchronized (db) {
+			nodeBuilder = new SchemaTreeNodeBuilder(db);
+		}
+		searchIndex = new SchemaTreeSearchIndex(nodeBuilder.getRootOfPopulatedTree());
 	}
 
 	@Override
 	public void run() {
-		refreshSchemaTree(db, treeToUpdate);
+		refreshSchemaTree();
 		WebViewWithHSQLDBBugfix.fix();
 	}
 
-	private void refreshSchemaTree(final DatabaseDescription db, final TreeView<String> treeToUpdate) {
-		final SchemaTreeExpandedStateSaver stateSaver = new SchemaTreeExpandedStateSaver();
-		stateSaver.readExpandedStateFrom(treeToUpdate);
+	private void refreshSchemaTree() {
+		if (treeToUpdate.getProperties().putIfAbsent(CELL_FACTORY, Boolean.TRUE) == null) {
+			treeToUpdate.setCellFactory(tree -> new SchemaTreeCell());
+		}
+		final SchemaTreeNode root = nodeBuilder.getRootOfPopulatedTree();
+		final TreeItem<String> currentRoot = treeToUpdate.getRoot();
+		if (isReusableFor(currentRoot, root)) {
+			currentRoot.setValue(root.getTitle());
+			merge((SchemaTreeItem) currentRoot, root);
+		} else {
+			treeToUpdate.setRoot(createTreeItem(root));
+		}
+		treeToUpdate.getProperties().put(SchemaTreeBuilder.class, this);
+		SchemaTreeSearchIndex.attach(treeToUpdate, searchIndex);
+		loadDetailsOnSelection(treeToUpdate);
+	}
+
+	/**
+	 * @param tree
+	 * @return Builder, der die aktuell angezeigte Struktur aufgebaut hat, null
+	 *         wenn die Strukturansicht noch nicht aufgebaut wurde
+	 */
+	public static SchemaTreeBuilder builderOf(final TreeView<String> tree) {
+		final Object builder = tree.getProperties().get(SchemaTreeBuilder.class);
+		return builder instanceof SchemaTreeBuilder ? (SchemaTreeBuilder) builder : null;
+	}
+
+	/**
+	 * @return Beschreibung der angezeigten Datenbank
+	 */
+	public DatabaseDescription getDatabaseDescription() {
+		return db;
+	}
+
+	/**
+	 * @return Verbindung, aus der die angezeigte Struktur gelesen wurde
+	 */
+	public Connection getConnection() {
+		return connection;
+	}
 
-		treeToUpdate.setRoot(createTreeItem(new SchemaTreeNodeBuilder(db).getRootOfPopulatedTree()));
+	/**
+	 * Baut die Knoten einzelner Schemas, nachdem deren Tabellen in der
+	 * Beschreibung aktualisiert wurden. Wird außerhalb des UI-Threads
+	 * aufgerufen, die Beschreibung ist dabei gesperrt.
+	 *
+	 * @param schemas
+	 *            Schemas mit geänderten Tabellen
+	 * @return Knoten je Schema für {@link #replaceSchemas(Map)}
+	 */
+	public Map<SchemaDescription, SchemaTreeNode> buildSchemaNodes(final Collection<SchemaDescription> schemas) {
+		final Map<SchemaDescription, SchemaTreeNode> schemaNodes = new IdentityHashMap<>();
+		synchronized (db) {
+			for (final SchemaDescription schema : schemas) {
+				schemaNodes.put(schema, nodeBuilder.buildSchemaNode(schema));
+			}
+		}
+		return schemaNodes;
+	}
+
+	/**
+	 * Ersetzt die Knoten einzelner Schemas. Der Rest der Strukturansicht
+	 * bleibt unverändert, geöffnete Knoten bleiben geöffnet.
+	 *
+	 * @param schemaNodes
+	 *            Knoten aus {@link #buildSchemaNodes(Collection)}
+	 */
+	public void replaceSchemas(final Map<SchemaDescription, SchemaTreeNode> schemaNodes) {
+		if (builderOf(treeToUpdate) != this) {
+			// inzwischen komplett neu aufgebaut
+			return;
+		}
+		for (final Map.Entry<SchemaDescription, SchemaTreeNode> entry : schemaNodes.entrySet()) {
+			final SchemaDescription schema = entry.getKey();
+			final TreeItem<String> catalogItem = findChild(treeToUpdate.getRoot(), schema.getParent().getName());
+			final TreeItem<String> schemaItem = findChild(catalogItem, schema.getName());
+			if (schemaItem == null) {
+				// neues Schema, selten genug für einen vollständigen Neuaufbau
+				rebuildInBackground(true);
+				return;
+			}
+			final SchemaTreeNode schemaNode = entry.getValue();
+			if (isReusableFor(schemaItem, schemaNode)) {
+				merge((SchemaTreeItem) schemaItem, schemaNode);
+			} else {
+				catalogItem.getChildren().set(catalogItem.getChildren().indexOf(schemaItem),
+						createTreeItem(schemaNode));
+			}
+		}
+		rebuildInBackground(false);
+		WebViewWithHSQLDBBugfix.fix();
+	}
 
-		stateSaver.expandFromSavedState(treeToUpdate);
+	/**
+	 * Baut Knoten und Suchindex nach einer Teilaktualisierung außerhalb des
+	 * UI-Threads neu auf. Bis der neue Index vorliegt, bleibt der bisherige
+	 * hinterlegt; für inzwischen ersetzte Teile der Baumansicht liefert er
+	 * keine Elemente mehr.
+	 *
+	 * @param refreshTree
+	 *            true, wenn die Baumansicht anschließend mit den neuen Knoten
+	 *            abgeglichen werden muss
+	 */
+	private void rebuildInBackground(final boolean refreshTree) {
+		final int generation = ++rebuildGeneration;
+		refreshPending |= refreshTree;
+		ExecutionService.getInstance().execute(ExecutionPool.METADATA, () -> {
+			final SchemaTreeNodeBuilder rebuilt;
+			synchronized (db) {
+				rebuilt = new SchemaTreeNodeBuilder(db);
+			}
+			final SchemaTreeSearchIndex index = new SchemaTreeSearchIndex(rebuilt.getRootOfPopulatedTree());
+			Platform.runLater(() -> {
+				if (generation != rebuildGeneration || builderOf(treeToUpdate) != this) {
+					// inzwischen erneut geändert oder komplett neu aufgebaut
+					return;
+				}
+				nodeBuilder = rebuilt;
+				searchIndex = index;
+				if (refreshPending) {
+					refreshPending = false;
+					refreshSchemaTree();
+				} else {
+					SchemaTreeSearchIndex.attach(treeToUpdate, index);
+				}
+			});
+		});
 	}
 
-	private TreeItem<String> createTreeItem(final SchemaTreeNode node) {
-		final TreeItem<String> treeItem = new TreeItem<>();
-		treeItem.setValue(node.getTitle());
-		treeItem.setGraphic(createIcon(node));
-		for (final SchemaTreeNode child : node.getChildren()) {
-			treeItem.getChildren().add(createTreeItem(child));
+	private TreeItem<String> findChild(final TreeItem<String> parent, final String value) {
+		if (parent != null) {
+			for (final TreeItem<String> child : parent.getChildren()) {
+				if (value.equals(child.getValue())) {
+					return child;
+				}
+			}
 		}
-		return treeItem;
+		return null;
 	}
 
-	private Node createIcon(final SchemaTreeNode node) {
-		final String iconCharacter = iconFinder.iconCharacter(node);
-		if (iconCharacter.isEmpty()) {
-			return null;
+	/**
+	 * Baut den Knoten einer Tabelle. Wird außerhalb des UI-Threads aufgerufen,
+	 * die Beschreibung ist dabei gesperrt.
+	 *
+	 * @param table
+	 * @return Knoten für {@link #replaceTableDetails(TreeItem, SchemaTreeNode)}
+	 */
+	SchemaTreeNode buildTableNode(final TableDescription table) {
+		synchronized (db) {
+			return nodeBuilder.buildTableNode(table);
 		}
-		final Label icon = new Label(iconCharacter);
-		icon.getStyleClass().add(styleFinder.styleClass(node));
-		return icon;
+	}
+
+	/**
+	 * Ersetzt den Platzhalter einer Tabelle durch die inzwischen gelesenen
+	 * Spalten, Schlüssel und Indizes.
+	 *
+	 * @param tableItem
+	 * @param tableNode
+	 *            Knoten aus {@link #buildTableNode(TableDescription)}
+	 */
+	void replaceTableDetails(final TreeItem<String> tableItem, final SchemaTreeNode tableNode) {
+		final List<TreeItem<String>> details = new ArrayList<>();
+		for (final SchemaTreeNode child : tableNode.getChildren()) {
+			details.add(createTreeItem(child));
+		}
+		tableItem.getChildren().setAll(details);
+		if (treeToUpdate != null) {
+			rebuildInBackground(false);
+		}
+	}
+
+	private void loadDetailsOnSelection(final TreeView<String> tree) {
+		// Auch Tabellen, die z.B. über die Suche ausgewählt werden, sollen ihre
+		// Details laden. Der Listener wird pro Strukturansicht nur einmal
+		// registriert.
+		if (tree.getProperties().putIfAbsent(LAZY_LOADING_ON_SELECTION, Boolean.TRUE) == null) {
+			tree.getSelectionModel().selectedItemProperty().addListener((observable, oldValue, newValue) -> {
+				if (newValue instanceof SchemaTreeLazyTableItem) {
+					((SchemaTreeLazyTableItem) newValue).loadDetails();
+				}
+			});
+		}
+	}
+
+	/**
+	 * Gleicht ein vorhandenes Element mit dem neuen Knoten ab. Kindelemente
+	 * werden über Typ und Titel wiedererkannt und rekursiv abgeglichen, neue
+	 * Kindelemente eingefügt und entfallene entfernt. Noch nicht angelegte
+	 * Kindelemente entstehen später direkt aus dem neuen Knoten.
+	 *
+	 * @param item
+	 * @param node
+	 */
+	void merge(final SchemaTreeItem item, final SchemaTreeNode node) {
+		item.update(node, this);
+		if (!item.isChildrenCreated()) {
+			return;
+		}
+		final ObservableList<TreeItem<String>> children = item.getChildren();
+		final Map<String, Deque<TreeItem<String>>> candidates = new HashMap<>();
+		for (final TreeItem<String> child : children) {
+			if (child instanceof SchemaTreeItem) {
+				candidates.computeIfAbsent(mergeKey(((SchemaTreeItem) child).getNode()), key -> new ArrayDeque<>())
+						.add(child);
+			}
+		}
+		final List<TreeItem<String>> mergedChildren = new ArrayList<>(node.getChildren().size());
+		for (final SchemaTreeNode childNode : node.getChildren()) {
+			final Deque<TreeItem<String>> sameKey = candidates.get(mergeKey(childNode));
+			final TreeItem<String> existing = sameKey != null ? sameKey.poll() : null;
+			if (isReusableFor(existing, childNode)) {
+				merge((SchemaTreeItem) existing, childNode);
+				mergedChildren.add(existing);
+			} else {
+				final TreeItem<String> created = createTreeItem(childNode);
+				// z.B. Tabellen, deren Details erneut gelesen werden müssen
+				created.setExpanded(existing != null && existing.isExpanded());
+				mergedChildren.add(created);
+			}
+		}
+		applyChildren(children, mergedChildren);
+	}
+
+	private void applyChildren(final ObservableList<TreeItem<String>> children,
+			final List<TreeItem<String>> mergedChildren) {
+		final Set<TreeItem<String>> keep = Collections.newSetFromMap(new IdentityHashMap<>());
+		keep.addAll(mergedChildren);
+		children.removeIf(child -> !keep.contains(child));
+		for (int i = 0; i < mergedChildren.size(); i++) {
+			final TreeItem<String> wanted = mergedChildren.get(i);
+			if (i >= children.size() || children.get(i) != wanted) {
+				children.remove(wanted);
+				children.add(i, wanted);
+			}
+		}
+	}
+
+	private String mergeKey(final SchemaTreeNode node) {
+		return node.getType() + ":" + node.getTitle();
+	}
+
+	/**
+	 * Tabellen mit noch nicht gelesenen Details werden immer neu angelegt, sie
+	 * gehören zu genau einer Tabellenbeschreibung.
+	 */
+	private boolean isReusableFor(final TreeItem<String> item, final SchemaTreeNode node) {
+		return item != null && item.getClass() == SchemaTreeItem.class
+				&& (node.getTableWithPendingDetails() == null || connection == null);
+	}
+
+	/**
+	 * Element der Baumansicht zu einem Knoten. Die Kindelemente werden erst
+	 * angelegt, wenn sie benötigt werden.
+	 *
+	 * @param node
+	 * @return
+	 */
+	TreeItem<String> createTreeItem(final SchemaTreeNode node) {
+		return node.getTableWithPendingDetails() != null && connection != null
+				? new SchemaTreeLazyTableItem(node, connection, this)
+				: new SchemaTreeItem(node, this);
 	}
 
 }
@@ -26,9 +26,24 @@
 package de.kuehweg.sqltool.dialog.component.schematree;
 
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
+import de.kuehweg.sqltool.common.UserPreferencesManager;
+import de.kuehweg.sqltool.database.ParallelConnectionPool;
+import de.kuehweg.sqltool.database.metadata.MetaDataFingerprint;
 import de.kuehweg.sqltool.database.metadata.MetaDataReader;
+import de.kuehweg.sqltool.database.metadata.MetaDataSnapshot;
+import de.kuehweg.sqltool.database.metadata.MetaDataSnapshotStore;
 import de.kuehweg.sqltool.database.metadata.description.DatabaseDescription;
+import de.kuehweg.sqltool.database.metadata.description.SchemaDescription;
+import de.kuehweg.sqltool.dialog.component.schematree.node.SchemaTreeNode;
 import javafx.application.Platform;
 import javafx.concurrent.Task;
 import javafx.scene.control.TreeView;
@@ -44,6 +59,10 @@ public class SchemaTreeBuilderTask extends Task<Void> {
 
     private final Connection connection;
     private final TreeView<String> treeToUpdate;
+    private ParallelConnectionPool metaDataConnections;
+    private SchemaTreeBuilder currentTree;
+    private Collection<List<String>> changedTables;
+    private boolean fromSnapshot;
 
     public SchemaTreeBuilderTask(final Connection connection,
             final TreeView<String> treeToUpdate) {
@@ -51,11 +70,143 @@ public class SchemaTreeBuilderTask extends Task<Void> {
         this.treeToUpdate = treeToUpdate;
     }
 
+    /**
+     * @param metaDataConnections Zusätzliche Verbindungen, um die Metadaten
+     *                            mehrerer Tabellen gleichzeitig zu lesen
+     */
+    public void setMetaDataConnections(final ParallelConnectionPool metaDataConnections) {
+        this.metaDataConnections = metaDataConnections;
+    }
+
+    /**
+     * Nur die übergebenen Tabellen neu lesen und in die bestehende Struktur
+     * einarbeiten. Können sie nicht gezielt gelesen werden, wird die Struktur
+     * komplett neu aufgebaut.
+     *
+     * @param currentTree    Builder der aktuell angezeigten Struktur
+     * @param changedTables  ggf. qualifizierte Namen der geänderten Tabellen
+     */
+    public void setChangedTables(final SchemaTreeBuilder currentTree,
+            final Collection<List<String>> changedTables) {
+        this.currentTree = currentTree;
+        this.changedTables = changedTables;
+    }
+
+    /**
+     * Struktur zunächst aus der gespeicherten Momentaufnahme der Metadaten
+     * aufbauen (sofern eingeschaltet und vorhanden). Anschließend wird anhand
+     * des Fingerabdrucks der Metadaten geprüft, welche Tabellen sich seither
+     * geändert haben, und nur diese werden neu gelesen.
+     *
+     * @param fromSnapshot
+     */
+    public void setFromSnapshot(final boolean fromSnapshot) {
+        this.fromSnapshot = fromSnapshot;
+    }
+
     @Override
     protected Void call() throws Exception {
-        final DatabaseDescription db = connection != null ? new MetaDataReader().
-                readMetaData(connection) : new DatabaseDescription();
-        Platform.runLater(new SchemaTreeBuilder(db, treeToUpdate));
+        if (connection != null && currentTree != null && changedTables != null) {
+            final Set<SchemaDescription> changedSchemas = new MetaDataReader().refreshTables(connection,
+                    currentTree.getDatabaseDescription(), changedTables, isLazySchemaTree());
+            if (changedSchemas != null) {
+                final Map<SchemaDescription, SchemaTreeNode> schemaNodes = currentTree
+                        .buildSchemaNodes(changedSchemas);
+                Platform.runLater(() -> currentTree.replaceSchemas(schemaNodes));
+                saveSnapshot(currentTree.getDatabaseDescription(), readFingerprint());
+                return null;
+            }
+        }
+        if (fromSnapshot && buildFromSnapshot()) {
+            return null;
+        }
+        final MetaDataFingerprint fingerprint = readFingerprint();
+        final DatabaseDescription db = connection != null ? readMetaData() : new DatabaseDescription();
+        Platform.runLater(new SchemaTreeBuilder(db, treeToUpdate, connection));
+        saveSnapshot(db, fingerprint);
         return null;
     }
+
+    private boolean buildFromSnapshot() throws SQLException {
+        if (!isSnapshotEnabled()) {
+            return false;
+        }
+        final DatabaseMetaData metaData = connection.getMetaData();
+        final MetaDataSnapshot snapshot = new MetaDataSnapshotStore().load(metaData.getURL(),
+                metaData.getUserName());
+        if (snapshot == null) {
+            return false;
+        }
+        final DatabaseDescription db = snapshot.getDatabaseDescription();
+        final SchemaTreeBuilder snapshotTree = new SchemaTreeBuilder(db, treeToUpdate, connection);
+        Platform.runLater(snapshotTree);
+        try {
+            final MetaDataFingerprint fingerprint = MetaDataFingerprint.read(connection);
+            final Collection<List<String>> changed = fingerprint.changedTables(snapshot.getFingerprint());
+            if (!changed.isEmpty()) {
+                final Set<SchemaDescription> changedSchemas = new MetaDataReader().refreshTables(connection, db,
+                        changed, isLazySchemaTree());
+                if (changedSchemas == null) {
+                    return false;
+                }
+                final Map<SchemaDescription, SchemaTreeNode> schemaNodes = snapshotTree
+                        .buildSchemaNodes(changedSchemas);
+                Platform.runLater(() -> snapshotTree.replaceSchemas(schemaNodes));
+                saveSnapshot(db, fingerprint);
+            }
+            return true;
+        } catch (final SQLException ex) {
+            // ohne Abgleich bleibt nur das vollständige Lesen
+            Logger.getLogger(SchemaTreeBuilderTask.class.getName()).log(Level.INFO,
+                    "Metadata snapshot could not be checked", ex);
+            return false;
+        }
+    }
+
+    private boolean isLazySchemaTree() {
+        return UserPreferencesManager.getSharedInstance().isLazySchemaTree();
+    }
+
+    private boolean isSnapshotEnabled() throws SQLException {
+        return connection != null && UserPreferencesManager.getSharedInstance().isMetaDataSnapshot()
+                && MetaDataSnapshotStore.isSnapshotWorthy(connection.getMetaData().getURL());
+    }
+
+    /**
+     * Fingerabdruck vor dem Lesen der Metadaten bestimmen - ändert sich die
+     * Struktur währenddessen, fällt das beim nächsten Abgleich auf.
+     *
+     * @return null, wenn keine Momentaufnahme gespeichert werden soll
+     */
+    private MetaDataFingerprint readFingerprint() {
+        try {
+            return isSnapshotEnabled() ? MetaDataFingerprint.read(connection) : null;
+        } catch (final SQLException ex) {
+            Logger.getLogger(SchemaTreeBuilderTask.class.getName()).log(Level.INFO,
+                    "Metadata fingerprint not available, no snapshot saved", ex);
+            return null;
+        }
+    }
+
+    private void saveSnapshot(final DatabaseDescription db, final MetaDataFingerprint fingerprint) {
+        if (fingerprint != null) {
+            try {
+                final DatabaseMetaData metaData = connection.getMetaData();
+                new MetaDataSnapshotStore().save(metaData.getURL(), metaData.getUserName(),
+                        new MetaDataSnapshot(db, fingerprint));
+            } catch (final SQLException ex) {
+                Logger.getLogger(SchemaTreeBuilderTask.class.getName()).log(Level.INFO,
+                        "Metadata snapshot not saved", ex);
+            }
+        }
+    }
+
+    private DatabaseDescription readMetaData() {
+        final MetaDataReader reader = new MetaDataReader();
+        reader.setMetaDataConnections(metaDataConnections);
+        reader.setProgressListener((tablesDone, tablesTotal) -> updateProgress(tablesDone, tablesTotal));
+        return isLazySchemaTree()
+                ? reader.readMetaDataWithoutTableDetails(connection)
+                : reader.readMetaData(connection);
+    }
 }
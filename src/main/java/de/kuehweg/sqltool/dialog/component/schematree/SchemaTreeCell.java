@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.dialog.component.schematree;
+
+import de.kuehweg.sqltool.dialog.component.schematree.node.SchemaTreeNode;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.control.TreeCell;
+import javafx.scene.control.TreeItem;
+
+/**
+ * Zelle der Strukturansicht. Das Icon wird je Zelle nur einmal angelegt und
+ * beim Wiederverwenden der Zelle nur angepasst, statt für jeden Knoten der
+ * Datenbankstruktur ein eigenes Icon vorzuhalten.
+ *
+ * @author Michael Kühweg
+ */
+public class SchemaTreeCell extends TreeCell<String> {
+
+	private final SchemaTreeStyleFinder styleFinder = new SchemaTreeStyleFinder();
+	private final SchemaTreeIconFinder iconFinder = new SchemaTreeIconFinder();
+	private final Label icon = new Label();
+	private String iconStyleClass;
+
+	@Override
+	protected void updateItem(final String item, final boolean empty) {
+		super.updateItem(item, empty);
+		if (empty || item == null) {
+			setText(null);
+			setGraphic(null);
+		} else {
+			setText(item);
+			final TreeItem<String> treeItem = getTreeItem();
+			if (treeItem instanceof SchemaTreeItem) {
+				setGraphic(iconFor(((SchemaTreeItem) treeItem).getNode()));
+			} else {
+				setGraphic(treeItem != null ? treeItem.getGraphic() : null);
+			}
+		}
+	}
+
+	private Node iconFor(final SchemaTreeNode node) {
+		final String iconCharacter = iconFinder.iconCharacter(node);
+		if (iconCharacter.isEmpty()) {
+			return null;
+		}
+		icon.setText(iconCharacter);
+		icon.getStyleClass().remove(iconStyleClass);
+		iconStyleClass = styleFinder.styleClass(node);
+		icon.getStyleClass().add(iconStyleClass);
+		return icon;
+	}
+}
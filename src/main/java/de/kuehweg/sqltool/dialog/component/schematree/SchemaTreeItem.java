@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.dialog.component.schematree;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.kuehweg.sqltool.dialog.component.schematree.node.SchemaTreeNode;
+import javafx.collections.ObservableList;
+import javafx.scene.control.TreeItem;
+
+/**
+ * Knoten der Strukturansicht, der seine Kindelemente erst anlegt, wenn sie
+ * das erste Mal benötigt werden - in der Regel beim Öffnen des Knotens. Der
+ * Aufwand beim Aufbau der Strukturansicht hängt damit nur von den sichtbaren
+ * Knoten ab, nicht vom Umfang der Datenbank.
+ *
+ * @author Michael Kühweg
+ */
+public class SchemaTreeItem extends TreeItem<String> {
+
+	private SchemaTreeNode node;
+	private SchemaTreeBuilder treeBuilder;
+	private boolean childrenCreated;
+
+	public SchemaTreeItem(final SchemaTreeNode node, final SchemaTreeBuilder treeBuilder) {
+		super(node.getTitle());
+		this.node = node;
+		this.treeBuilder = treeBuilder;
+	}
+
+	/**
+	 * @return Knoten, aus dem dieses Element aufgebaut wurde (u.a. für das
+	 *         Icon in der Darstellung)
+	 */
+	public SchemaTreeNode getNode() {
+		return node;
+	}
+
+	/**
+	 * Element für einen neu aufbereiteten Knoten weiterverwenden.
+	 *
+	 * @param node
+	 *            Knoten mit demselben Typ und Titel
+	 * @param treeBuilder
+	 *            Builder, der künftige Kindelemente anlegt
+	 */
+	void update(final SchemaTreeNode node, final SchemaTreeBuilder treeBuilder) {
+		this.node = node;
+		this.treeBuilder = treeBuilder;
+	}
+
+	/**
+	 * @return true, wenn die Kindelemente bereits angelegt wurden
+	 */
+	boolean isChildrenCreated() {
+		return childrenCreated;
+	}
+
+	@Override
+	public ObservableList<TreeItem<String>> getChildren() {
+		if (!childrenCreated) {
+			childrenCreated = true;
+			final List<TreeItem<String>> children = new ArrayList<>(node.getChildren().size());
+			for (final SchemaTreeNode child : node.getChildren()) {
+				children.add(treeBuilder.createTreeItem(child));
+			}
+			super.getChildren().setAll(children);
+		}
+		return super.getChildren();
+	}
+
+	@Override
+	public boolean isLeaf() {
+		return childrenCreated ? super.getChildren().isEmpty() : node.getChildren().isEmpty();
+	}
+}
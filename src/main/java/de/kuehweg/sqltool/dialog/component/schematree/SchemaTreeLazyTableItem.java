@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.dialog.component.schematree;
+
+import java.sql.Connection;
+
+import de.kuehweg.sqltool.common.concurrent.ExecutionPool;
+import de.kuehweg.sqltool.common.concurrent.ExecutionService;
+import de.kuehweg.sqltool.database.metadata.MetaDataReader;
+import de.kuehweg.sqltool.database.metadata.description.TableDescription;
+import de.kuehweg.sqltool.dialog.component.schematree.node.SchemaTreeNode;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+
+/**
+ * Tabelle in der Strukturansicht, deren Spalten, Schlüssel und Indizes erst
+ * gelesen werden, wenn die Tabelle geöffnet oder ausgewählt wird. Bis dahin
+ * enthält der Knoten nur einen Platzhalter.
+ *
+ * @author Michael Kühweg
+ */
+public class SchemaTreeLazyTableItem extends SchemaTreeItem {
+
+	private final TableDescription table;
+	private final Connection connection;
+	private final SchemaTreeBuilder treeBuilder;
+	private boolean loadingStarted;
+
+	public SchemaTreeLazyTableItem(final SchemaTreeNode node, final Connection connection,
+			final SchemaTreeBuilder treeBuilder) {
+		super(node, treeBuilder);
+		table = node.getTableWithPendingDetails();
+		this.connection = connection;
+		this.treeBuilder = treeBuilder;
+		expandedProperty().addListener((observable, oldValue, newValue) -> {
+			if (newValue) {
+				loadDetails();
+			}
+		});
+	}
+
+	/**
+	 * Details der Tabelle im Hintergrund lesen und anschließend den
+	 * Platzhalter ersetzen. Die Details werden nur einmal gelesen, sie bleiben
+	 * in der Tabellenbeschreibung erhalten.
+	 */
+	public void loadDetails() {
+		if (loadingStarted) {
+			return;
+		}
+		loadingStarted = true;
+		ExecutionService.getInstance().execute(ExecutionPool.METADATA, new Task<Void>() {
+			@Override
+			protected Void call() throws Exception {
+				new MetaDataReader().readTableDetails(connection, table);
+				final SchemaTreeNode tableNode = table.isDetailsPending() ? null : treeBuilder.buildTableNode(table);
+				Platform.runLater(() -> detailsLoaded(tableNode));
+				return null;
+			}
+		});
+	}
+
+	private void detailsLoaded(final SchemaTreeNode tableNode) {
+		if (tableNode == null) {
+			// Lesen fehlgeschlagen, beim nächsten Öffnen erneut versuchen
+			loadingStarted = false;
+		} else {
+			treeBuilder.replaceTableDetails(this, tableNode);
+		}
+	}
+}
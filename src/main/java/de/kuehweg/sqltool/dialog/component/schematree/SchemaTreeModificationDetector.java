@@ -26,17 +26,23 @@
 package de.kuehweg.sqltool.dialog.component.schematree;
 
 import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
 
+import de.kuehweg.sqltool.common.concurrent.ExecutionPool;
+import de.kuehweg.sqltool.common.concurrent.ExecutionService;
+import de.kuehweg.sqltool.database.ParallelConnectionPool;
+import de.kuehweg.sqltool.database.execution.ResultRow;
 import de.kuehweg.sqltool.database.execution.StatementExecutionInformation;
 import de.kuehweg.sqltool.dialog.updater.ExecutionLifecyclePhase;
 import de.kuehweg.sqltool.dialog.updater.ExecutionLifecycleRefresh;
 import de.kuehweg.sqltool.dialog.updater.ExecutionTracker;
-import javafx.concurrent.Task;
 import javafx.scene.control.TreeView;
 
 /**
  * Komponente um zu erkennen, ob sich durch SQL-Anweisungen die
- * Datenbankstruktur verändert hat.
+ * Datenbankstruktur verändert hat. Betreffen die DDL-Anweisungen nur bestimmte
+ * Tabellen, werden nur diese neu gelesen, sonst die komplette Struktur.
  *
  * @author Michael Kühweg
  */
@@ -45,27 +51,53 @@ import javafx.scene.control.TreeView;
 public class SchemaTreeModificationDetector implements ExecutionTracker {
 
 	private boolean ddlDetected;
+	private boolean fullRefreshNeeded;
+	private final List<List<String>> changedTables = new ArrayList<>();
 	private final TreeView<String> schemaTree;
 	private final Connection attachedToConnection;
+	private ParallelConnectionPool metaDataConnections;
 
 	public SchemaTreeModificationDetector(final TreeView<String> schemaTree, final Connection connection) {
 		this.schemaTree = schemaTree;
 		attachedToConnection = connection;
 	}
 
+	/**
+	 * @param metaDataConnections
+	 *            Zusätzliche Verbindungen für das Neulesen der Struktur
+	 */
+	public void setMetaDataConnections(final ParallelConnectionPool metaDataConnections) {
+		this.metaDataConnections = metaDataConnections;
+	}
+
 	@Override
 	public void beforeExecution() {
 		ddlDetected = false;
+		fullRefreshNeeded = false;
+		changedTables.clear();
 	}
 
 	@Override
 	public void intermediateUpdate(final StatementExecutionInformation executionInfo) {
-		if (executionInfo != null) {
-			ddlDetected = ddlDetected
-					|| executionInfo.getSql() != null && executionInfo.getSql().isDataDefinitionStatement();
+		if (executionInfo != null && executionInfo.getSql() != null
+				&& executionInfo.getSql().isDataDefinitionStatement()) {
+			ddlDetected = true;
+			// Anweisungen, deren Tabelle nicht bestimmt werden kann, erfordern
+			// einen kompletten Neuaufbau
+			final List<String> tableName = executionInfo.getSql().dataDefinitionTableName();
+			if (tableName == null) {
+				fullRefreshNeeded = true;
+			} else {
+				changedTables.add(tableName);
+			}
 		}
 	}
 
+	@Override
+	public void resultPage(final StatementExecutionInformation executionInfo, final List<ResultRow> page) {
+		// Ergebniszeilen ändern die Datenbankstruktur nicht
+	}
+
 	@Override
 	public void afterExecution() {
 		// Aufbereitung im show()
@@ -79,10 +111,13 @@ public class SchemaTreeModificationDetector implements ExecutionTracker {
 	@Override
 	public void show() {
 		if (ddlDetected) {
-			final Task<Void> refreshTask = new SchemaTreeBuilderTask(attachedToConnection, schemaTree);
-			final Thread th = new Thread(refreshTask);
-			th.setDaemon(true);
-			th.start();
+			final SchemaTreeBuilderTask refreshTask = new SchemaTreeBuilderTask(attachedToConnection, schemaTree);
+			refreshTask.setMetaDataConnections(metaDataConnections);
+			final SchemaTreeBuilder currentTree = SchemaTreeBuilder.builderOf(schemaTree);
+			if (!fullRefreshNeeded && currentTree != null && currentTree.getConnection() == attachedToConnection) {
+				refreshTask.setChangedTables(currentTree, new ArrayList<>(changedTables));
+			}
+			ExecutionService.getInstance().execute(ExecutionPool.METADATA, refreshTask);
 		}
 	}
 
@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.dialog.component.schematree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import de.kuehweg.sqltool.dialog.component.schematree.node.SchemaTreeNode;
+import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeView;
+
+/**
+ * Suchindex über alle Einträge der Strukturansicht, auch über die, deren
+ * Elemente in der Baumansicht noch gar nicht angelegt sind. Die Einträge sind
+ * in der Reihenfolge der Baumansicht (Tiefensuche) durchnummeriert, die
+ * Titel liegen bereits in Kleinbuchstaben vor und sind zusätzlich über
+ * Trigramme indiziert.
+ *
+ * @author Michael Kühweg
+ */
+public class SchemaTreeSearchIndex {
+
+	private static final int GRAM_LENGTH = 3;
+	private static final int[] NO_MATCHES = new int[0];
+
+	private final List<Entry> entries = new ArrayList<>();
+	private final Map<String, Postings> postingsByGram = new HashMap<>();
+
+	/**
+	 * Index über die aufbereiteten Knoten, z.B. direkt nach dem Lesen der
+	 * Metadaten. Die Baumansicht muss aus genau diesen Knoten aufgebaut sein.
+	 *
+	 * @param root
+	 */
+	public SchemaTreeSearchIndex(final SchemaTreeNode root) {
+		addNode(root, null, 0);
+		finish();
+	}
+
+	/**
+	 * Index über die aktuell angezeigte Baumansicht. Noch nicht angelegte
+	 * Kindelemente werden über ihre Knoten indiziert.
+	 *
+	 * @param root
+	 */
+	public SchemaTreeSearchIndex(final TreeItem<String> root) {
+		if (root != null) {
+			addItem(root, null, 0);
+		}
+		finish();
+	}
+
+	/**
+	 * Index der Strukturansicht. Ist kein (aktueller) Index hinterlegt, wird er
+	 * aus der Baumansicht aufgebaut.
+	 *
+	 * @param tree
+	 * @return
+	 */
+	public static SchemaTreeSearchIndex of(final TreeView<String> tree) {
+		final Object index = tree.getProperties().get(SchemaTreeSearchIndex.class);
+		if (index instanceof SchemaTreeSearchIndex) {
+			return (SchemaTreeSearchIndex) index;
+		}
+		final SchemaTreeSearchIndex rebuilt = new SchemaTreeSearchIndex(tree.getRoot());
+		tree.getProperties().put(SchemaTreeSearchIndex.class, rebuilt);
+		return rebuilt;
+	}
+
+	/**
+	 * Index für die Strukturansicht hinterlegen.
+	 *
+	 * @param tree
+	 * @param index
+	 *            null, wenn der Index bei der nächsten Suche aus der
+	 *            Baumansicht neu aufgebaut werden muss
+	 */
+	public static void attach(final TreeView<String> tree, final SchemaTreeSearchIndex index) {
+		if (index != null) {
+			tree.getProperties().put(SchemaTreeSearchIndex.class, index);
+		} else {
+			tree.getProperties().remove(SchemaTreeSearchIndex.class);
+		}
+	}
+
+	private void addNode(final SchemaTreeNode node, final Entry parent, final int childIndex) {
+		final Entry entry = addEntry(node.getTitle(), parent, childIndex);
+		int index = 0;
+		for (final SchemaTreeNode child : node.getChildren()) {
+			addNode(child, entry, index++);
+		}
+	}
+
+	private void addItem(final TreeItem<String> item, final Entry parent, final int childIndex) {
+		final Entry entry = addEntry(item.getValue(), parent, childIndex);
+		if (item instanceof SchemaTreeItem && !((SchemaTreeItem) item).isChildrenCreated()) {
+			int index = 0;
+			for (final SchemaTreeNode child : ((SchemaTreeItem) item).getNode().getChildren()) {
+				addNode(child, entry, index++);
+			}
+		} else {
+			int index = 0;
+			for (final TreeItem<String> child : item.getChildren()) {
+				addItem(child, entry, index++);
+			}
+		}
+	}
+
+	private Entry addEntry(final String title, final Entry parent, final int childIndex) {
+		final Entry entry = new Entry(keyOf(title), parent, childIndex);
+		final int position = entries.size();
+		entries.add(entry);
+		final Set<String> grams = new HashSet<>();
+		for (int i = 0; i + GRAM_LENGTH <= entry.key.length(); i++) {
+			grams.add(entry.key.substring(i, i + GRAM_LENGTH));
+		}
+		for (final String gram : grams) {
+			postingsByGram.computeIfAbsent(gram, key -> new Postings()).add(position);
+		}
+		return entry;
+	}
+
+	private static String keyOf(final String title) {
+		return title == null ? "" : title.toLowerCase();
+	}
+
+	private void finish() {
+		postingsByGram.values().forEach(Postings::trim);
+	}
+
+	/**
+	 * @return Anzahl der Einträge
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Alle Einträge, deren Titel den Suchbegriff enthält.
+	 *
+	 * @param preparedSearchString
+	 *            Suchbegriff in Kleinbuchstaben
+	 * @return Positionen der Treffer in aufsteigender Reihenfolge
+	 */
+	public int[] find(final String preparedSearchString) {
+		if (preparedSearchString == null || preparedSearchString.isEmpty()) {
+			return NO_MATCHES;
+		}
+		if (preparedSearchString.length() < GRAM_LENGTH) {
+			return verify(preparedSearchString, null);
+		}
+		Postings shortest = null;
+		for (int i = 0; i + GRAM_LENGTH <= preparedSearchString.length(); i++) {
+			final Postings postings = postingsByGram.get(preparedSearchString.substring(i, i + GRAM_LENGTH));
+			if (postings == null) {
+				return NO_MATCHES;
+			}
+			if (shortest == null || postings.size < shortest.size) {
+				shortest = postings;
+			}
+		}
+		return verify(preparedSearchString, shortest);
+	}
+
+	private int[] verify(final String preparedSearchString, final Postings candidates) {
+		final int candidateCount = candidates != null ? candidates.size : entries.size();
+		final int[] matches = new int[candidateCount];
+		int matchCount = 0;
+		for (int i = 0; i < candidateCount; i++) {
+			final int position = candidates != null ? candidates.positions[i] : i;
+			if (entries.get(position).key.contains(preparedSearchString)) {
+				matches[matchCount++] = position;
+			}
+		}
+		return Arrays.copyOf(matches, matchCount);
+	}
+
+	/**
+	 * Element der Baumansicht zu einem Eintrag. Noch nicht angelegte
+	 * Elemente auf dem Weg dorthin werden angelegt.
+	 *
+	 * @param root
+	 *            Wurzel der Baumansicht, über die der Index aufgebaut wurde
+	 * @param position
+	 *            Position des Eintrags
+	 * @return null, wenn die Baumansicht an dieser Stelle inzwischen nicht
+	 *         mehr zum Index passt
+	 */
+	public TreeItem<String> treeItemAt(final TreeItem<String> root, final int position) {
+		return position >= 0 && position < entries.size() ? resolve(root, entries.get(position)) : null;
+	}
+
+	private TreeItem<String> resolve(final TreeItem<String> root, final Entry entry) {
+		final TreeItem<String> item;
+		if (entry.parent == null) {
+			item = root;
+		} else {
+			final TreeItem<String> parent = resolve(root, entry.parent);
+			item = parent != null && entry.childIndex < parent.getChildren().size()
+					? parent.getChildren().get(entry.childIndex)
+					: null;
+		}
+		// ein veralteter Index darf nicht auf ein anderes Element zeigen
+		return item != null && entry.key.equals(keyOf(item.getValue())) ? item : null;
+	}
+
+	private static final class Entry {
+		private final String key;
+		private final Entry parent;
+		private final int childIndex;
+
+		private Entry(final String key, final Entry parent, final int childIndex) {
+			this.key = key;
+			this.parent = parent;
+			this.childIndex = childIndex;
+		}
+	}
+
+	/**
+	 * Aufsteigende Positionen der Einträge, die ein Trigramm enthalten.
+	 */
+	private static final class Postings {
+		private int[] positions = new int[4];
+		private int size;
+
+		private void add(final int position) {
+			if (size == positions.length) {
+				positions = Arrays.copyOf(positions, size * 2);
+			}
+			positions[size++] = position;
+		}
+
+		private void trim() {
+			positions = Arrays.copyOf(positions, size);
+		}
+	}
+}
@@ -29,6 +29,8 @@ import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
+import de.kuehweg.sqltool.database.metadata.description.TableDescription;
+
 /**
  * Oberflächenunabhäbgige Respräsentation eines Knotens in der Strukturansicht.
  *
@@ -39,6 +41,7 @@ public class SchemaTreeNode {
 	private final SchemaTreeNodeType type;
 	private final String title;
 	private final List<SchemaTreeNode> children;
+	private TableDescription tableWithPendingDetails;
 
 	public SchemaTreeNode(final SchemaTreeNodeType type, final String title) {
 		this.type = type;
@@ -58,6 +61,19 @@ public class SchemaTreeNode {
 		return new ArrayList<>(children);
 	}
 
+	/**
+	 * @return Tabelle, deren Spalten, Schlüssel und Indizes für diesen Knoten
+	 *         noch nachgeladen werden müssen. null, wenn der Knoten vollständig
+	 *         ist.
+	 */
+	public TableDescription getTableWithPendingDetails() {
+		return tableWithPendingDetails;
+	}
+
+	public void setTableWithPendingDetails(final TableDescription tableWithPendingDetails) {
+		this.tableWithPendingDetails = tableWithPendingDetails;
+	}
+
 	/**
 	 * Fügt einen weiteren Knoten am Ende an. Leere Knoten (null) werden dabei
 	 * ignoriert und nicht hinzugefügt.
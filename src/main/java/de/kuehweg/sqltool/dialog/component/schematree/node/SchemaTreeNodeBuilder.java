@@ -84,7 +84,13 @@ public class SchemaTreeNodeBuilder {
 		return node;
 	}
 
-	private SchemaTreeNode buildSchemaNode(final SchemaDescription schema) {
+	/**
+	 * Knoten eines einzelnen Schemas mit allen Tabellen aufbauen.
+	 *
+	 * @param schema
+	 * @return
+	 */
+	public SchemaTreeNode buildSchemaNode(final SchemaDescription schema) {
 		final SchemaTreeNode node = new SchemaTreeNode(SchemaTreeNodeType.SCHEMA, schema.getName());
 		for (final String tableType : schema.getTableTypes()) {
 			final SchemaTreeNode typeNode = new SchemaTreeNode(SchemaTreeNodeType.TABLE_TYPE, tableType);
@@ -96,11 +102,25 @@ public class SchemaTreeNodeBuilder {
 		return node;
 	}
 
-	private SchemaTreeNode buildTableNode(final TableDescription table) {
+	/**
+	 * Knoten einer einzelnen Tabelle aufbauen. Sind die Details der Tabelle
+	 * noch nicht gelesen, enthält der Knoten statt Spalten, Schlüsseln und
+	 * Indizes nur einen Platzhalter und verweist auf die nachzuladende
+	 * Tabelle.
+	 *
+	 * @param table
+	 * @return
+	 */
+	public SchemaTreeNode buildTableNode(final TableDescription table) {
 		final SchemaTreeNode node = new SchemaTreeNode(SchemaTreeNodeType.TABLE, table.getName());
 		if (table.getRemarks() != null && !table.getRemarks().isEmpty()) {
 			node.appendChild(new SchemaTreeNode(SchemaTreeNodeType.PLAIN, table.getRemarks()));
 		}
+		if (table.isDetailsPending()) {
+			node.setTableWithPendingDetails(table);
+			node.appendChild(new SchemaTreeNode(SchemaTreeNodeType.PLAIN, DialogDictionary.LABEL_TREE_LOADING.toString()));
+			return node;
+		}
 		for (final ColumnDescription column : table.getColumns()) {
 			node.appendChild(buildColumnNode(column));
 		}
@@ -28,6 +28,7 @@ package de.kuehweg.sqltool.dialog.component.sqlhistory;
 import java.util.LinkedList;
 import java.util.List;
 
+import de.kuehweg.sqltool.database.execution.ResultRow;
 import de.kuehweg.sqltool.database.execution.StatementExecutionInformation;
 import de.kuehweg.sqltool.dialog.updater.ExecutionLifecyclePhase;
 import de.kuehweg.sqltool.dialog.updater.ExecutionLifecycleRefresh;
@@ -65,6 +66,11 @@ public class SQLHistoryComponent implements ExecutionTracker {
 		statementBacklog.add(executionInfo);
 	}
 
+	@Override
+	public void resultPage(final StatementExecutionInformation executionInfo, final List<ResultRow> page) {
+		// der Verlauf benötigt nur die Anweisung selbst
+	}
+
 	@Override
 	public void afterExecution() {
 		// kein inhaltlicher Update mehr erforderlich, Ausgabe erfolgt im show()
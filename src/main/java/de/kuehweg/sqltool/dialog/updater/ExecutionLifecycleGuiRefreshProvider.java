@@ -133,6 +133,17 @@ public class ExecutionLifecycleGuiRefreshProvider {
 		return immediateTrackersForPhase(ExecutionLifecyclePhase.BEFORE, trackers);
 	}
 
+	/**
+	 * @return Tracker, die während des Lesens einer Ergebnismenge einen
+	 *         Refresh der Oberfläche für die bisher gelesenen Zeilen anstoßen
+	 *         sollen. Vorher verzögerte Tracker werden ebenfalls
+	 *         berücksichtigt.
+	 */
+	public Set<ExecutionTracker> partialExecutionGuiRefresh() {
+		pendingUpdates.addAll(delayedTrackersForPhase(ExecutionLifecyclePhase.PARTIAL, trackers));
+		return immediateTrackersForPhase(ExecutionLifecyclePhase.PARTIAL, trackers);
+	}
+
 	/**
 	 * @return Tracker, die während der laufenden Ausführung einen Refresh der
 	 *         Oberfläche anstoßen sollen. Vorher verzögerte Tracker werden
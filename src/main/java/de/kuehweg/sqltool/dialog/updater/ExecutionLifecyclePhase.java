@@ -32,5 +32,5 @@ package de.kuehweg.sqltool.dialog.updater;
  */
 public enum ExecutionLifecyclePhase {
 
-    BEFORE, INTERMEDIATE, AFTER, ERROR;
+    BEFORE, PARTIAL, INTERMEDIATE, AFTER, ERROR;
 }
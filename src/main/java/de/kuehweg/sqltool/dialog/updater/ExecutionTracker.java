@@ -25,6 +25,9 @@
  */
 package de.kuehweg.sqltool.dialog.updater;
 
+import java.util.List;
+
+import de.kuehweg.sqltool.database.execution.ResultRow;
 import de.kuehweg.sqltool.database.execution.StatementExecutionInformation;
 
 /**
@@ -49,6 +52,18 @@ public interface ExecutionTracker {
 	 */
 	void intermediateUpdate(StatementExecutionInformation executionInfo);
 
+	/**
+	 * Wird bei Ausführung im Streaming-Modus für jede gelesene Seite einer
+	 * Ergebnismenge aufgerufen, noch bevor die Anweisung abgeschlossen ist
+	 * (Phase {@link ExecutionLifecyclePhase#PARTIAL}). Eine Seite umfasst die
+	 * seit dem letzten Aufruf gelesenen Zeilen, geliefert wird alle N Zeilen
+	 * bzw. spätestens nach T Millisekunden.
+	 *
+	 * @param executionInfo Die laufende SQL Anweisung
+	 * @param page          Die zuletzt gelesenen Ergebniszeilen
+	 */
+	void resultPage(StatementExecutionInformation executionInfo, List<ResultRow> page);
+
 	/**
 	 * Wird nach Abschluss aller SQL Anweisungen aufgerufen.
 	 */
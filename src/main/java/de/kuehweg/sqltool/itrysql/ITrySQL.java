@@ -36,6 +36,9 @@ import de.kuehweg.gamification.AchievementUserPreferencesPersister;
 import de.kuehweg.sqltool.common.DialogDictionary;
 import de.kuehweg.sqltool.common.achievement.AchievementManager;
 import de.kuehweg.sqltool.common.achievement.DefaultRankingPoints;
+import de.kuehweg.sqltool.common.concurrent.ExecutionPool;
+import de.kuehweg.sqltool.common.concurrent.ExecutionService;
+import de.kuehweg.sqltool.database.execution.ColumnarStatementResult;
 import de.kuehweg.sqltool.dialog.util.StageSizerUtil;
 import de.kuehweg.sqltool.dialog.util.WindowIconRepaintIssueOnResizeFix;
 import de.kuehweg.sqltool.resources.FontLibrary;
@@ -65,6 +68,7 @@ public class ITrySQL extends Application {
 		super.init();
 		initFonts();
 		initGamification();
+		ExecutionService.getInstance().execute(ExecutionPool.IO, ColumnarStatementResult::deleteLeftoverSpillFiles);
 	}
 
 	/**
@@ -31,6 +31,7 @@ import java.lang.reflect.Field;
 import java.net.URL;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.ResourceBundle;
@@ -42,11 +43,15 @@ import de.kuehweg.sqltool.common.RomanNumber;
 import de.kuehweg.sqltool.common.UserPreferencesManager;
 import de.kuehweg.sqltool.common.achievement.AchievementManager;
 import de.kuehweg.sqltool.common.achievement.NamedAchievementEvent;
+import de.kuehweg.sqltool.common.concurrent.ExecutionPool;
+import de.kuehweg.sqltool.common.concurrent.ExecutionService;
 import de.kuehweg.sqltool.common.exception.DatabaseConnectionException;
 import de.kuehweg.sqltool.common.sqlediting.StatementExtractor;
 import de.kuehweg.sqltool.database.ConnectionHolder;
 import de.kuehweg.sqltool.database.ConnectionSetting;
+import de.kuehweg.sqltool.database.DatabaseConstants;
 import de.kuehweg.sqltool.database.JDBCType;
+import de.kuehweg.sqltool.database.execution.ExecutionLimits;
 import de.kuehweg.sqltool.dialog.AlertBox;
 import de.kuehweg.sqltool.dialog.ConfirmDialog;
 import de.kuehweg.sqltool.dialog.ConnectionDialog;
@@ -84,7 +89,6 @@ import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
 import javafx.beans.value.ChangeListener;
 import javafx.collections.ObservableList;
-import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
 import javafx.fxml.FXML;
@@ -165,6 +169,18 @@ public class iTrySQLController implements Initializable, EventHandler<WindowEven
 	@FXML
 	private CheckBox limitMaxRows;
 	@FXML
+	private CheckBox parallelScriptExecution;
+	@FXML
+	private CheckBox batchedScriptExecution;
+	@FXML
+	private CheckBox resultCache;
+	@FXML
+	private CheckBox executionLimits;
+	@FXML
+	private CheckBox lazySchemaTree;
+	@FXML
+	private CheckBox metaDataSnapshot;
+	@FXML
 	private MenuBar menuBar;
 	@FXML
 	private MenuItem menuItemClose;
@@ -183,6 +199,8 @@ public class iTrySQLController implements Initializable, EventHandler<WindowEven
 	@FXML
 	private MenuItem menuItemExecuteScript;
 	@FXML
+	private MenuItem menuItemCancelExecution;
+	@FXML
 	private MenuItem menuItemFileOpenScript;
 	@FXML
 	private MenuItem menuItemFileSaveScript;
@@ -203,8 +221,14 @@ public class iTrySQLController implements Initializable, EventHandler<WindowEven
 	@FXML
 	private TableView<ObservableList<String>> resultTableView;
 	@FXML
+	private Label resultTableMatchCount;
+	@FXML
 	private TreeView<String> schemaTreeView;
 	@FXML
+	private ProgressBar schemaTreeProgress;
+	@FXML
+	private Label schemaTreeMatchCount;
+	@FXML
 	private TableView<SqlHistoryEntry> sqlHistory;
 	@FXML
 	private TableColumn<SqlHistoryEntry, String> sqlHistoryColumnAction;
@@ -272,6 +296,7 @@ public class iTrySQLController implements Initializable, EventHandler<WindowEven
 	private AchievementView achievementViewComponent;
 
 	private final ConnectionHolder connectionHolder = new ConnectionHolder();
+	private ExecuteAction runningExecuteAction;
 	private ConnectionComponentController connectionComponentController;
 
 	private final Collection<FindAction> findActionsForQuickSearch = new ArrayList<>();
@@ -432,8 +457,10 @@ public class iTrySQLController implements Initializable, EventHandler<WindowEven
 		if (connectionSetting != null) {
 			try {
 				connectionHolder.connect(connectionSetting);
+				connectionHolder.getResultCache()
+						.setEnabled(UserPreferencesManager.getSharedInstance().isResultCache());
 				controlAutoCommitVisuals();
-				refreshTree(event);
+				refreshTree(getConnection(), schemaTreeView, true);
 				displayMessageForTemporaryDatabase(connectionSetting);
 				WebViewWithHSQLDBBugfix.fix();
 				AchievementManager.getInstance()
@@ -485,7 +512,8 @@ public class iTrySQLController implements Initializable, EventHandler<WindowEven
 					statementEditor.getCaretPositionAsIndex());
 		}
 		focusResult();
-		createExecuteAction().handleExecuteAction(sql, getConnection());
+		runningExecuteAction = createExecuteAction();
+		runningExecuteAction.handleExecuteAction(sql, getConnection());
 	}
 
 	/**
@@ -497,11 +525,26 @@ public class iTrySQLController implements Initializable, EventHandler<WindowEven
 	@FXML
 	public void executeScript(final ActionEvent event) {
 		focusResult();
-		createExecuteAction().handleExecuteAction(getStatementEditorComponent().getActiveStatementEditor().getText(),
+		runningExecuteAction = createExecuteAction();
+		runningExecuteAction.handleExecuteAction(getStatementEditorComponent().getActiveStatementEditor().getText(),
 				getConnection());
 		AchievementManager.getInstance().fireEvent(NamedAchievementEvent.SCRIPT_EXECUTED.asAchievementEvent(), 1);
 	}
 
+	/**
+	 * Abbruch der laufenden Ausführung, inklusive der gerade ausgeführten
+	 * Anweisung.
+	 *
+	 * @param event
+	 *            Ausgelöstes ActionEvent
+	 */
+	@FXML
+	public void cancelExecution(final ActionEvent event) {
+		if (runningExecuteAction != null) {
+			runningExecuteAction.cancelExecution();
+		}
+	}
+
 	/**
 	 * COMMIT Anweisung an die Datenbank, ausgelöst durch Benutzeraktion.
 	 *
@@ -622,6 +665,81 @@ public class iTrySQLController implements Initializable, EventHandler<WindowEven
 		UserPreferencesManager.getSharedInstance().setLimitMaxRows(limitMaxRows.isSelected());
 	}
 
+	/**
+	 * Reagiert auf das Umschalten der parallelen Ausführung unabhängiger
+	 * Abfragen.
+	 *
+	 * @param event
+	 *            Ausgelöstes ActionEvent
+	 */
+	@FXML
+	public void parallelScriptExecution(final ActionEvent event) {
+		UserPreferencesManager.getSharedInstance().setParallelScriptExecution(parallelScriptExecution.isSelected());
+	}
+
+	/**
+	 * Reagiert auf das Umschalten der Ausführung in Batches. Wirkt sich bei
+	 * der nächsten Ausführung aus.
+	 *
+	 * @param event
+	 *            Ausgelöstes ActionEvent
+	 */
+	@FXML
+	public void batchedScriptExecution(final ActionEvent event) {
+		UserPreferencesManager.getSharedInstance().setBatchedScriptExecution(batchedScriptExecution.isSelected());
+	}
+
+	/**
+	 * Reagiert auf das Umschalten des Ergebnis-Caches.
+	 *
+	 * @param event
+	 *            Ausgelöstes ActionEvent
+	 */
+	@FXML
+	public void resultCache(final ActionEvent event) {
+		UserPreferencesManager.getSharedInstance().setResultCache(resultCache.isSelected());
+		if (connectionHolder.getResultCache() != null) {
+			connectionHolder.getResultCache().setEnabled(resultCache.isSelected());
+		}
+	}
+
+	/**
+	 * Reagiert auf das Umschalten der Grenzen für Laufzeit und gelesene
+	 * Datenmenge. Wirkt sich bei der nächsten Ausführung aus.
+	 *
+	 * @param event
+	 *            Ausgelöstes ActionEvent
+	 */
+	@FXML
+	public void executionLimits(final ActionEvent event) {
+		UserPreferencesManager.getSharedInstance().setExecutionLimits(executionLimits.isSelected());
+	}
+
+	/**
+	 * Reagiert auf das Umschalten des bedarfsgesteuerten Lesens der
+	 * Strukturansicht. Die Strukturansicht wird sofort neu aufgebaut.
+	 *
+	 * @param event
+	 *            Ausgelöstes ActionEvent
+	 */
+	@FXML
+	public void lazySchemaTree(final ActionEvent event) {
+		UserPreferencesManager.getSharedInstance().setLazySchemaTree(lazySchemaTree.isSelected());
+		refreshTree(getConnection(), schemaTreeView);
+	}
+
+	/**
+	 * Reagiert auf das Umschalten der Momentaufnahmen der Metadaten. Wirkt
+	 * sich beim nächsten Verbinden aus.
+	 *
+	 * @param event
+	 *            Ausgelöstes ActionEvent
+	 */
+	@FXML
+	public void metaDataSnapshot(final ActionEvent event) {
+		UserPreferencesManager.getSharedInstance().setMetaDataSnapshot(metaDataSnapshot.isSelected());
+	}
+
 	/**
 	 * Rückfrage, ob die Applikation beendet werden soll - kann und soll in
 	 * einem onCloseRequest-EventHandler aufgerufen werden.
@@ -734,10 +852,44 @@ public class iTrySQLController implements Initializable, EventHandler<WindowEven
 	 *            wird.
 	 */
 	private void refreshTree(final Connection connection, final TreeView<String> treeToUpdate) {
-		final Task<Void> refreshTask = new SchemaTreeBuilderTask(connection, treeToUpdate);
-		final Thread th = new Thread(refreshTask);
-		th.setDaemon(true);
-		th.start();
+		refreshTree(connection, treeToUpdate, false);
+	}
+
+	/**
+	 * Neuaufbau der Strukturansicht für eine Verbindung.
+	 *
+	 * @param connection
+	 *            Datenbankverbindung, aus der die Struktur gelesen wird.
+	 * @param treeToUpdate
+	 *            TreeView, die mit den aufbereiteten Strukturdaten neu gefüllt
+	 *            wird.
+	 * @param fromSnapshot
+	 *            true, wenn die Struktur zunächst aus der gespeicherten
+	 *            Momentaufnahme aufgebaut werden darf (beim Verbinden).
+	 */
+	private void refreshTree(final Connection connection, final TreeView<String> treeToUpdate,
+			final boolean fromSnapshot) {
+		final SchemaTreeBuilderTask refreshTask = new SchemaTreeBuilderTask(connection, treeToUpdate);
+		refreshTask.setFromSnapshot(fromSnapshot);
+		if (connection != null) {
+			refreshTask.setMetaDataConnections(connectionHolder.getMetaDataConnectionPool());
+		}
+		schemaTreeProgress.progressProperty().bind(refreshTask.progressProperty());
+		schemaTreeProgress.visibleProperty().bind(refreshTask.runningProperty());
+		ExecutionService.getInstance().execute(ExecutionPool.METADATA, refreshTask);
+	}
+
+	/**
+	 * Erkennt Strukturänderungen durch ausgeführte Anweisungen und baut die
+	 * Strukturansicht dann neu auf.
+	 *
+	 * @return
+	 */
+	private SchemaTreeModificationDetector createSchemaTreeModificationDetector() {
+		final SchemaTreeModificationDetector detector = new SchemaTreeModificationDetector(schemaTreeView,
+				getConnection());
+		detector.setMetaDataConnections(connectionHolder.getMetaDataConnectionPool());
+		return detector;
 	}
 
 	/**
@@ -915,6 +1067,14 @@ public class iTrySQLController implements Initializable, EventHandler<WindowEven
 		dbOutput.setStyle("-fx-font-size: " + UserPreferencesManager.getSharedInstance().getFontSizeDbOutput() + ";");
 
 		limitMaxRows.setSelected(UserPreferencesManager.getSharedInstance().isLimitMaxRows());
+		parallelScriptExecution
+				.setSelected(UserPreferencesManager.getSharedInstance().isParallelScriptExecution());
+		batchedScriptExecution
+				.setSelected(UserPreferencesManager.getSharedInstance().isBatchedScriptExecution());
+		resultCache.setSelected(UserPreferencesManager.getSharedInstance().isResultCache());
+		executionLimits.setSelected(UserPreferencesManager.getSharedInstance().isExecutionLimits());
+		lazySchemaTree.setSelected(UserPreferencesManager.getSharedInstance().isLazySchemaTree());
+		metaDataSnapshot.setSelected(UserPreferencesManager.getSharedInstance().isMetaDataSnapshot());
 		beepSelection.getItems().clear();
 		beepSelection.getItems().addAll(ProvidedAudioClip.values());
 		beepSelection.setValue(UserPreferencesManager.getSharedInstance().getBeepAudioClip());
@@ -981,6 +1141,7 @@ public class iTrySQLController implements Initializable, EventHandler<WindowEven
 		menuItemExecute.setAccelerator(new KeyCodeCombination(KeyCode.ENTER, KeyCombination.SHORTCUT_DOWN));
 		menuItemExecuteScript.setAccelerator(
 				new KeyCodeCombination(KeyCode.ENTER, KeyCombination.SHORTCUT_DOWN, KeyCombination.SHIFT_DOWN));
+		menuItemCancelExecution.setAccelerator(new KeyCodeCombination(KeyCode.PERIOD, KeyCombination.SHORTCUT_DOWN));
 		menuItemTutorial.setAccelerator(
 				new KeyCodeCombination(KeyCode.T, KeyCombination.SHORTCUT_DOWN, KeyCombination.SHIFT_DOWN));
 		menuItemFileOpenScript.setAccelerator(new KeyCodeCombination(KeyCode.O, KeyCombination.SHORTCUT_DOWN));
@@ -1048,10 +1209,23 @@ public class iTrySQLController implements Initializable, EventHandler<WindowEven
 		final FindAction findActionOnSchemaTree = new TextTreeViewFindAction(schemaTreeView);
 		findInput.textProperty().addListener(findActionOnSchemaTree);
 		findActionsForQuickSearch.add(findActionOnSchemaTree);
+		bindMatchCount(schemaTreeMatchCount, findActionOnSchemaTree);
 
 		final FindAction findActionOnResultTableView = new TableViewFindAction(resultTableView);
 		findInput.textProperty().addListener(findActionOnResultTableView);
 		findActionsForQuickSearch.add(findActionOnResultTableView);
+		bindMatchCount(resultTableMatchCount, findActionOnResultTableView);
+	}
+
+	/**
+	 * Zeigt die Anzahl der Treffer einer Suche an, solange sie bekannt ist.
+	 */
+	private void bindMatchCount(final Label label, final FindAction findAction) {
+		label.textProperty().bind(Bindings.createStringBinding(
+				() -> findAction.matchCountProperty().get() < 0 ? ""
+						: MessageFormat.format(DialogDictionary.PATTERN_MATCH_COUNT.toString(),
+								findAction.matchCountProperty().get()),
+				findAction.matchCountProperty()));
 	}
 
 	/**
@@ -1065,14 +1239,41 @@ public class iTrySQLController implements Initializable, EventHandler<WindowEven
 		executeAction.attach(queryResultTableView, new SQLHistoryComponent(sqlHistory),
 				new QueryResultTextView(dbOutput),
 				new ExecutionProgressComponent(executionProgressIndicator, executionTime), new AudioFeedback(),
-				new SchemaTreeModificationDetector(schemaTreeView, getConnection()),
+				createSchemaTreeModificationDetector(),
 				new ExecutionBasedAchievementTracker());
 
 		executeAction.setLimitMaxRows(UserPreferencesManager.getSharedInstance().isLimitMaxRows());
+		executeAction.setFetchSize(DatabaseConstants.DEFAULT_FETCH_SIZE);
+		executeAction.setPartialResultInterval(DatabaseConstants.PARTIAL_RESULT_ROWS,
+				DatabaseConstants.PARTIAL_RESULT_MILLIS);
+		executeAction.setResultHeapBudget(DatabaseConstants.DEFAULT_RESULT_HEAP_BUDGET);
+		if (UserPreferencesManager.getSharedInstance().isBatchedScriptExecution()) {
+			executeAction.setBatchSize(DatabaseConstants.DEFAULT_BATCH_SIZE);
+		}
+		executeAction.setPreparedStatementCache(connectionHolder.getPreparedStatementCache());
+		executeAction.setResultCache(connectionHolder.getResultCache());
+		executeAction.setExecutionLimits(executionLimits());
+		if (UserPreferencesManager.getSharedInstance().isParallelScriptExecution()) {
+			executeAction.setParallelConnections(connectionHolder.getParallelConnectionPool());
+		}
 
 		return executeAction;
 	}
 
+	/**
+	 * @return Grenzen der Verbindung, bei eingeschalteten Grenzen in den
+	 *         Einstellungen zusätzlich mit fester Laufzeit und Datenmenge
+	 */
+	private ExecutionLimits executionLimits() {
+		if (!UserPreferencesManager.getSharedInstance().isExecutionLimits()) {
+			return connectionHolder.getExecutionLimits();
+		}
+		final ExecutionLimits limited = new ExecutionLimits();
+		limited.setWatchdogTimeoutMillis(DatabaseConstants.LIMITED_WATCHDOG_TIMEOUT_MILLIS);
+		limited.setMaxFetchedBytes(DatabaseConstants.LIMITED_MAX_FETCHED_BYTES);
+		return connectionHolder.getExecutionLimits().restrictedBy(limited);
+	}
+
 	/**
 	 * Bereitet die Ausführung von SQL Anweisungen vor für den Fall, dass die
 	 * Ausführung:
@@ -1089,8 +1290,14 @@ public class iTrySQLController implements Initializable, EventHandler<WindowEven
 		final ExecuteAction executeAction = new ExecuteAction();
 
 		executeAction.attach(new ExecutionProgressComponent(executionProgressIndicator, executionTime),
-				new AudioFeedback(), new SchemaTreeModificationDetector(schemaTreeView, getConnection()),
+				new AudioFeedback(), createSchemaTreeModificationDetector(),
 				new ErrorOnExecutionMessage());
+		// Tutorialdaten bestehen im Wesentlichen aus INSERTs
+		if (UserPreferencesManager.getSharedInstance().isBatchedScriptExecution()) {
+			executeAction.setBatchSize(DatabaseConstants.DEFAULT_BATCH_SIZE);
+		}
+		// verändert die Daten, zwischengespeicherte Ergebnisse verwerfen
+		executeAction.setResultCache(connectionHolder.getResultCache());
 		// hier ohne Achievements für die Ausführung - wird nur aufgerufen um
 		// die Tutorialdaten aufzubauen, und dafür gibt es ein spezielles
 		// Achievement
@@ -1140,6 +1347,9 @@ public class iTrySQLController implements Initializable, EventHandler<WindowEven
 	public void stop() {
 		connectionHolder.disconnect();
 		AchievementManager.getInstance().flush();
+		// übergebene Aufgaben (z.B. das Schließen der Verbindung) laufen noch zu
+		// Ende
+		ExecutionService.getInstance().shutdown();
 	}
 
 }
@@ -34,6 +34,12 @@ public class UserPreferencesStub implements UserPreferencesI {
 
 	// Preferences mit Defaultwerten
 	private boolean limitMaxRows = isDefaultLimitMaxRows();
+	private boolean parallelScriptExecution = isDefaultParallelScriptExecution();
+	private boolean batchedScriptExecution = isDefaultBatchedScriptExecution();
+	private boolean resultCache = isDefaultResultCache();
+	private boolean executionLimits = isDefaultExecutionLimits();
+	private boolean lazySchemaTree = isDefaultLazySchemaTree();
+	private boolean metaDataSnapshot = isDefaultMetaDataSnapshot();
 	private int fontSizeStatementInput = getDefaultFontSizeStatementInput();
 	private int fontSizeDbOutput = getDefaultFontSizeDbOutput();
 	private double beepVolume = getDefaultBeepVolume();
@@ -49,6 +55,66 @@ public class UserPreferencesStub implements UserPreferencesI {
 		this.limitMaxRows = limitMaxRows;
 	}
 
+	@Override
+	public boolean isParallelScriptExecution() {
+		return parallelScriptExecution;
+	}
+
+	@Override
+	public void setParallelScriptExecution(final boolean parallelScriptExecution) {
+		this.parallelScriptExecution = parallelScriptExecution;
+	}
+
+	@Override
+	public boolean isBatchedScriptExecution() {
+		return batchedScriptExecution;
+	}
+
+	@Override
+	public void setBatchedScriptExecution(final boolean batchedScriptExecution) {
+		this.batchedScriptExecution = batchedScriptExecution;
+	}
+
+	@Override
+	public boolean isResultCache() {
+		return resultCache;
+	}
+
+	@Override
+	public void setResultCache(final boolean resultCache) {
+		this.resultCache = resultCache;
+	}
+
+	@Override
+	public boolean isExecutionLimits() {
+		return executionLimits;
+	}
+
+	@Override
+	public void setExecutionLimits(final boolean executionLimits) {
+		this.executionLimits = executionLimits;
+	}
+
+	@Override
+	public boolean isLazySchemaTree() {
+		return lazySchemaTree;
+	}
+
+	@Override
+	public void setLazySchemaTree(final boolean lazySchemaTree) {
+		this.lazySchemaTree = lazySchemaTree;
+	}
+
+	@Override
+	public boolean isMetaDataSnapshot() {
+		return metaDataSnapshot;
+	}
+
+	@Override
+	public void setMetaDataSnapshot(final boolean metaDataSnapshot) {
+		this.metaDataSnapshot = metaDataSnapshot;
+	}
+
 	@Override
 	public int getFontSizeStatementInput() {
 		return fontSizeStatementInput;
@@ -113,4 +179,34 @@ public class UserPreferencesStub implements UserPreferencesI {
 	public boolean isDefaultLimitMaxRows() {
 		return true;
 	}
+
+	@Override
+	public boolean isDefaultParallelScriptExecution() {
+		return false;
+	}
+
+	@Override
+	public boolean isDefaultBatchedScriptExecution() {
+		return false;
+	}
+
+	@Override
+	public boolean isDefaultResultCache() {
+		return false;
+	}
+
+	@Override
+	public boolean isDefaultExecutionLimits() {
+		return false;
+	}
+
+	@Override
+	public boolean isDefaultLazySchemaTree() {
+		return false;
+	}
+
+	@Override
+	public boolean isDefaultMetaDataSnapshot() {
+		return false;
+	}
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.common.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * @author Michael Kühweg
+ */
+public class ExecutionServiceTest {
+
+	public ExecutionServiceTest() {
+	}
+
+	@BeforeClass
+	public static void setUpClass() {
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+	}
+
+	@Before
+	public void setUp() {
+	}
+
+	@After
+	public void tearDown() {
+	}
+
+	@Test
+	public void tasksAreExecutedAndMeasured() throws InterruptedException {
+		final long completedBefore = ExecutionService.getInstance().getMetrics(ExecutionPool.IO).getCompletedTasks();
+		final CountDownLatch done = new CountDownLatch(10);
+		for (int i = 0; i < 10; i++) {
+			ExecutionService.getInstance().execute(ExecutionPool.IO, done::countDown);
+		}
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		// afterExecute läuft nach der eigentlichen Aufgabe
+		Thread.sleep(50);
+		final PoolMetrics metrics = ExecutionService.getInstance().getMetrics(ExecutionPool.IO);
+		assertEquals(completedBefore + 10, metrics.getCompletedTasks());
+		assertEquals(0, metrics.getQueueDepth());
+		assertTrue(metrics.getAverageRunTimeNanos() >= 0);
+	}
+
+	@Test
+	public void fullQueueRunsInCallingThread() throws InterruptedException {
+		final CountDownLatch blocker = new CountDownLatch(1);
+		// erst alle Threads belegen, damit bereits laufende, untätige Threads
+		// keine Aufgaben aus der vollen Warteschlange holen
+		final CountDownLatch started = new CountDownLatch(ExecutionPool.METADATA.getThreads());
+		final int capacity = ExecutionPool.METADATA.getThreads() + ExecutionPool.METADATA.getQueueCapacity();
+		for (int i = 0; i < capacity; i++) {
+			ExecutionService.getInstance().execute(ExecutionPool.METADATA, () -> {
+				started.countDown();
+				try {
+					blocker.await(5, TimeUnit.SECONDS);
+				} catch (final InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+			});
+			if (i == ExecutionPool.METADATA.getThreads() - 1) {
+				assertTrue(started.await(5, TimeUnit.SECONDS));
+			}
+		}
+		final Thread caller = Thread.currentThread();
+		final Thread[] executedBy = new Thread[1];
+		ExecutionService.getInstance().execute(ExecutionPool.METADATA, () -> executedBy[0] = Thread.currentThread());
+		blocker.countDown();
+		assertEquals(caller, executedBy[0]);
+	}
+
+	@Test
+	public void scheduledTask() throws InterruptedException {
+		final CountDownLatch done = new CountDownLatch(1);
+		ExecutionService.getInstance().schedule(done::countDown, 10, TimeUnit.MILLISECONDS);
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+	}
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.common.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * @author Michael Kühweg
+ */
+public class PipelineStageTest {
+
+	public PipelineStageTest() {
+	}
+
+	@BeforeClass
+	public static void setUpClass() {
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+	}
+
+	@Before
+	public void setUp() {
+	}
+
+	@After
+	public void tearDown() {
+	}
+
+	@Test
+	public void stepsRunInOrder() {
+		final PipelineStage stage = new PipelineStage(ExecutionPool.EXECUTION, 2);
+		final List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+		final List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			final int step = i;
+			expected.add(step);
+			stage.submit(() -> executed.add(step));
+		}
+		stage.awaitCompletion();
+		assertEquals(expected, executed);
+	}
+
+	@Test
+	public void submitDoesNotWaitForTheStep() throws InterruptedException {
+		final PipelineStage stage = new PipelineStage(ExecutionPool.EXECUTION, 2);
+		final CountDownLatch release = new CountDownLatch(1);
+		final CountDownLatch done = new CountDownLatch(1);
+		stage.submit(() -> {
+			try {
+				release.await();
+			} catch (final InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			done.countDown();
+		});
+		// der Schritt wartet noch, der übergebende Thread nicht
+		assertEquals(1, done.getCount());
+		release.countDown();
+		stage.awaitCompletion();
+		assertEquals(0, done.getCount());
+	}
+
+	@Test
+	public void failureIsReportedOnCompletion() {
+		final PipelineStage stage = new PipelineStage(ExecutionPool.EXECUTION, 2);
+		final List<String> executed = Collections.synchronizedList(new ArrayList<>());
+		stage.submit(() -> {
+			throw new IllegalStateException("step failed");
+		});
+		stage.submit(() -> executed.add("next"));
+		try {
+			stage.awaitCompletion();
+			fail();
+		} catch (final IllegalStateException ex) {
+			assertEquals("step failed", ex.getMessage());
+		}
+		// nachfolgende Schritte werden trotzdem ausgeführt
+		assertEquals(1, executed.size());
+		// der Fehler wird nur einmal gemeldet
+		stage.awaitCompletion();
+		assertFalse(Thread.currentThread().isInterrupted());
+	}
+
+	@Test
+	public void interruptDoesNotLoseSteps() {
+		final PipelineStage stage = new PipelineStage(ExecutionPool.EXECUTION, 1);
+		final List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+		Thread.currentThread().interrupt();
+		for (int i = 0; i < 10; i++) {
+			final int step = i;
+			stage.submit(() -> executed.add(step));
+		}
+		stage.awaitCompletion();
+		assertTrue(Thread.interrupted());
+		assertEquals(10, executed.size());
+	}
+}
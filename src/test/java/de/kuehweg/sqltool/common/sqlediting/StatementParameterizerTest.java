@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.common.sqlediting;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * @author Michael Kühweg
+ */
+public class StatementParameterizerTest {
+
+	public StatementParameterizerTest() {
+	}
+
+	@BeforeClass
+	public static void setUpClass() {
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+	}
+
+	@Before
+	public void setUp() {
+	}
+
+	@After
+	public void tearDown() {
+	}
+
+	private ParameterizedStatement parameterize(final String sql) {
+		return new StatementParameterizer().parameterize(new StatementString(sql));
+	}
+
+	@Test
+	public void comparisonLiterals() {
+		final ParameterizedStatement statement = parameterize(
+				"select *  from t\n where a = 42 and b <> 'it''s' and c >= 1.5 and d like 'x%';");
+		assertEquals("select * from t where a = ? and b <> ? and c >= 1.5 and d like ?", statement.getSql());
+		assertEquals(Arrays.asList(42, "it's", "x%"), statement.getParameters());
+	}
+
+	@Test
+	public void sameFingerprintForDifferentLiterals() {
+		assertEquals(parameterize("SELECT * FROM t WHERE id=1").getSql(),
+				parameterize("SELECT  *  FROM  t  WHERE  id=  2").getSql().replace("= ?", "=?"));
+		assertEquals(parameterize("delete from t where id = 1").getSql(),
+				parameterize("delete from t where id = 99999999999").getSql());
+	}
+
+	@Test
+	public void literalLists() {
+		final ParameterizedStatement statement = parameterize(
+				"insert into t (a, b) values (1, 'x'), (2, 'y')");
+		assertEquals("insert into t (a, b) values (?, ?), (?, ?)", statement.getSql());
+		assertEquals(Arrays.asList(1, "x", 2, "y"), statement.getParameters());
+		assertEquals("select * from t where a in (?, ?)", parameterize("select * from t where a in (1, 2)").getSql());
+	}
+
+	@Test
+	public void literalsWithoutTypeContextRemain() {
+		assertEquals("select 1, 'x' from t order by 1", parameterize("select 1, 'x' from t order by 1").getSql());
+		assertEquals("select * from t where d = DATE '2019-01-01'",
+				parameterize("select * from t where d = DATE '2019-01-01'").getSql());
+		assertEquals("select * from t where a = ? limit 10",
+				parameterize("select * from t where a = 1 limit 10").getSql());
+		assertEquals("select * from t where a = -1", parameterize("select * from t where a = -1").getSql());
+		assertEquals("select * from t where a = 1e3", parameterize("select * from t where a = 1e3").getSql());
+		assertEquals("select * from t where a in (1.5, ?)", parameterize("select * from t where a in (1.5, 2)").getSql());
+		assertEquals("select * from t where a = 99999999999999999999",
+				parameterize("select * from t where a = 99999999999999999999").getSql());
+	}
+
+	@Test
+	public void quotedNamesAndComments() {
+		final ParameterizedStatement statement = parameterize(
+				"select \"a = 1\" from t -- comment = 2\n where \"b\" = 'c'");
+		assertEquals("select \"a = 1\" from t where \"b\" = ?", statement.getSql());
+		assertEquals(Arrays.asList("c"), statement.getParameters());
+	}
+
+	@Test
+	public void notQualified() {
+		assertNull(parameterize("create table t (a int default 1)"));
+		assertNull(parameterize("select * from t where a = ?"));
+		assertNull(parameterize(""));
+	}
+}
@@ -27,8 +27,12 @@ package de.kuehweg.sqltool.common.sqlediting;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
+import java.util.Set;
+
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -135,4 +139,111 @@ public class StatementStringTest {
 		assertFalse(new StatementString("current_date").isDataManipulationStatement());
 		assertFalse(new StatementString("current_date").isTransactionControlStatement());
 	}
+
+	@Test
+	public void plainDataStatement() {
+		assertTrue(new StatementString("/* set */ select * from table").isPlainDataStatement());
+		assertTrue(new StatementString("merge into t using s on 1 = 1").isPlainDataStatement());
+
+		assertFalse(new StatementString("set schema b").isPlainDataStatement());
+		assertFalse(new StatementString("declare local temporary table t (a int)").isPlainDataStatement());
+		assertFalse(new StatementString("call set_something()").isPlainDataStatement());
+	}
+
+	@Test
+	public void sessionStatement() {
+		assertTrue(new StatementString("set schema b").isSessionStatement());
+		assertTrue(new StatementString("declare local temporary table t (a int)").isSessionStatement());
+		assertTrue(new StatementString("create global temporary table t (a int)").isSessionStatement());
+		assertTrue(new StatementString("call set_something()").isSessionStatement());
+
+		assertFalse(new StatementString("create table t (a int)").isSessionStatement());
+		assertFalse(new StatementString("insert into t values ('temporary')").isSessionStatement());
+		assertFalse(new StatementString("commit").isSessionStatement());
+		assertFalse(new StatementString("").isSessionStatement());
+	}
+
+	@Test
+	public void sessionTables() {
+		assertTrue(new StatementString("select * from session.t").referencesSessionTables());
+		assertTrue(new StatementString("select * from \"MODULE\".t").referencesSessionTables());
+
+		assertFalse(new StatementString("select 'session' from t").referencesSessionTables());
+	}
+
+	@Test
+	public void readOnlyQuery() {
+		assertTrue(new StatementString("select * from table;").isReadOnlyQuery());
+		assertTrue(new StatementString("/* into */ select 'for update' from \"INTO\" -- for\n").isReadOnlyQuery());
+		assertTrue(new StatementString("select a-b from information_schema.tables").isReadOnlyQuery());
+
+		assertFalse(new StatementString("select * into t from table").isReadOnlyQuery());
+		assertFalse(new StatementString("select * from table for update").isReadOnlyQuery());
+		assertFalse(new StatementString("select next value for seq from table").isReadOnlyQuery());
+		assertFalse(new StatementString("insert into t select * from table").isReadOnlyQuery());
+		assertFalse(new StatementString("call select_it()").isReadOnlyQuery());
+	}
+
+	@Test
+	public void normalizedStatement() {
+		assertEquals("SELECT * FROM T WHERE A = 'x  y' AND \"Mixed Case\" = 1", new StatementString(
+				"/* comment */ select *\n\tfrom t -- line\n where a = 'x  y' and \"Mixed Case\" = 1;")
+						.normalizedStatement());
+		assertEquals(new StatementString("SELECT 'it''s'").normalizedStatement(),
+				new StatementString("select   'it''s' ;").normalizedStatement());
+		assertFalse(new StatementString("select 'a'").normalizedStatement()
+				.equals(new StatementString("select 'A'").normalizedStatement()));
+	}
+
+	@Test
+	public void referencedNames() {
+		final Set<String> names = new StatementString(
+				"select a.x, \"Quoted\".y from public.artikel a join \"Quoted\" on 'literal' = a.z")
+						.referencedNames();
+		assertTrue(names.contains("ARTIKEL"));
+		assertTrue(names.contains("PUBLIC"));
+		assertTrue(names.contains("Quoted"));
+		assertTrue(names.contains("Z"));
+		assertFalse(names.contains("LITERAL"));
+		assertFalse(names.contains("literal"));
+	}
+
+	@Test
+	public void modifiedTableName() {
+		assertEquals("ARTIKEL", new StatementString("insert into artikel values (1)").modifiedTableName());
+		assertEquals("ARTIKEL", new StatementString("/* x */ update public.artikel set a = 1").modifiedTableName());
+		assertEquals("Artikel", new StatementString("delete from \"Artikel\" where a = 1").modifiedTableName());
+		assertEquals("T", new StatementString("merge into t using s on (t.a = s.a)").modifiedTableName());
+		assertEquals("T", new StatementString("truncate table t").modifiedTableName());
+
+		assertNull(new StatementString("select * from t").modifiedTableName());
+		assertNull(new StatementString("drop table t").modifiedTableName());
+		assertNull(new StatementString("commit").modifiedTableName());
+		assertNull(new StatementString("delete").modifiedTableName());
+	}
+
+	@Test
+	public void dataDefinitionTableName() {
+		assertEquals(Arrays.asList("ARTIKEL"),
+				new StatementString("create table artikel (a int)").dataDefinitionTableName());
+		assertEquals(Arrays.asList("PUBLIC", "ARTIKEL"), new StatementString(
+				"create global temporary table if not exists public.artikel (a int)").dataDefinitionTableName());
+		assertEquals(Arrays.asList("Artikel"),
+				new StatementString("alter table \"Artikel\" add column b int").dataDefinitionTableName());
+		assertEquals(Arrays.asList("T"), new StatementString("drop table if exists t cascade").dataDefinitionTableName());
+		assertEquals(Arrays.asList("V"),
+				new StatementString("create or replace view v as select * from t").dataDefinitionTableName());
+		assertEquals(Arrays.asList("S", "T"),
+				new StatementString("create unique index idx on s.t (a, b)").dataDefinitionTableName());
+		assertEquals(Arrays.asList("T"), new StatementString("comment on table t is 'x'").dataDefinitionTableName());
+		assertEquals(Arrays.asList("S", "T"),
+				new StatementString("comment on column s.t.a is 'x'").dataDefinitionTableName());
+
+		assertNull(new StatementString("drop index idx").dataDefinitionTableName());
+		assertNull(new StatementString("create schema s").dataDefinitionTableName());
+		assertNull(new StatementString("create sequence seq").dataDefinitionTableName());
+		assertNull(new StatementString("comment on column a is 'x'").dataDefinitionTableName());
+		assertNull(new StatementString("insert into t values (1)").dataDefinitionTableName());
+		assertNull(new StatementString("create table").dataDefinitionTableName());
+	}
 }
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.common.sqlediting;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.kuehweg.sqltool.common.sqlediting.StatementTokenizer.Kind;
+import de.kuehweg.sqltool.common.sqlediting.StatementTokenizer.Token;
+
+/**
+ * @author Michael Kühweg
+ */
+public class StatementTokenizerTest {
+
+	public StatementTokenizerTest() {
+	}
+
+	@BeforeClass
+	public static void setUpClass() {
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+	}
+
+	@Before
+	public void setUp() {
+	}
+
+	@After
+	public void tearDown() {
+	}
+
+	@Test
+	public void kindsAndValues() {
+		final List<Token> tokens = StatementTokenizer
+				.tokenize("select \"A\"\"b\", 'it''s' from t where x<>-1;");
+		assertEquals(12, tokens.size());
+		assertEquals(Kind.WORD, tokens.get(0).getKind());
+		assertEquals("SELECT", tokens.get(0).getName());
+		assertEquals(Kind.QUOTED_NAME, tokens.get(1).getKind());
+		assertEquals("A\"b", tokens.get(1).getName());
+		assertEquals(Kind.STRING_LITERAL, tokens.get(3).getKind());
+		assertEquals("it's", tokens.get(3).getValue());
+		assertEquals("'it''s'", tokens.get(3).getSource());
+		assertEquals(Kind.OPERATOR, tokens.get(8).getKind());
+		assertEquals("<>", tokens.get(8).getSource());
+		assertTrue(tokens.get(9).isSymbol("-"));
+		assertTrue(tokens.get(11).isSymbol(";"));
+	}
+
+	@Test
+	public void commentsSeparateLikeWhitespace() {
+		final List<Token> tokens = StatementTokenizer.tokenize("a/* x */b--c\nd - e");
+		assertEquals(5, tokens.size());
+		assertTrue(tokens.get(1).isPrecededBySpace());
+		assertEquals("D", tokens.get(2).getName());
+		assertTrue(tokens.get(3).isSymbol("-"));
+	}
+
+	@Test
+	public void unterminatedLiteral() {
+		final List<Token> tokens = StatementTokenizer.tokenize("select 'abc");
+		assertEquals(2, tokens.size());
+		assertFalse(tokens.get(1).isComplete());
+		assertEquals("abc", tokens.get(1).getValue());
+	}
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * @author Michael Kühweg
+ */
+public class ParallelConnectionPoolTest {
+
+	private ParallelConnectionPool pool;
+
+	public ParallelConnectionPoolTest() {
+	}
+
+	@BeforeClass
+	public static void setUpClass() {
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+	}
+
+	@Before
+	public void setUp() {
+		pool = new ParallelConnectionPool(
+				new ConnectionSetting("pool", JDBCType.HSQL_IN_MEMORY, "", "parallelpool", "SA", ""), 2);
+	}
+
+	@After
+	public void tearDown() {
+		pool.close();
+	}
+
+	@Test
+	public void connectionsAreReused() throws SQLException {
+		final Connection first = pool.borrow();
+		final Connection second = pool.borrow();
+		assertNotSame(first, second);
+		pool.release(first);
+		assertSame(first, pool.borrow());
+		pool.release(first);
+		pool.release(second);
+	}
+
+	@Test
+	public void connectionsShareTheDatabase() throws SQLException {
+		final Connection first = pool.borrow();
+		final Connection second = pool.borrow();
+		first.createStatement().execute("CREATE TABLE SHARED (A INT)");
+		first.createStatement().execute("INSERT INTO SHARED VALUES (1)");
+		assertTrue(second.createStatement().executeQuery("SELECT * FROM SHARED").next());
+		second.createStatement().execute("DROP TABLE SHARED");
+		pool.release(first);
+		pool.release(second);
+	}
+
+	@Test
+	public void borrowWaitsForRelease() throws Exception {
+		final Connection first = pool.borrow();
+		final Connection second = pool.borrow();
+		final Thread releasing = new Thread(() -> {
+			try {
+				Thread.sleep(100);
+			} catch (final InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			pool.release(second);
+		});
+		releasing.start();
+		assertSame(second, pool.borrow());
+		releasing.join();
+		pool.release(first);
+		pool.release(second);
+	}
+
+	@Test(expected = SQLException.class)
+	public void closedPool() throws SQLException {
+		pool.close();
+		pool.borrow();
+	}
+
+	@Test
+	public void releaseAfterCloseClosesConnection() throws Exception {
+		final Connection connection = pool.borrow();
+		pool.close();
+		pool.release(connection);
+		assertTrue(pool.toString().contains("opened=0"));
+	}
+}
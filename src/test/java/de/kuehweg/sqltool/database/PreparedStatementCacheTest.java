@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.kuehweg.sqltool.common.sqlediting.StatementString;
+import de.kuehweg.sqltool.database.execution.StatementExecution;
+import de.kuehweg.sqltool.database.execution.StatementExecutionInformation;
+
+/**
+ * @author Michael Kühweg
+ */
+public class PreparedStatementCacheTest {
+
+	private Connection connection;
+
+	public PreparedStatementCacheTest() {
+	}
+
+	@BeforeClass
+	public static void setUpClass() {
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+	}
+
+	@Before
+	public void setUp() throws SQLException {
+		connection = DriverManager.getConnection(
+				JDBCType.HSQL_IN_MEMORY.getUrlPrefix() + JDBCType.HSQL_IN_MEMORY.getDbType() + "pscache",
+				"SA", "");
+		connection.createStatement().execute("CREATE TABLE T (A INT)");
+	}
+
+	@After
+	public void tearDown() throws SQLException {
+		connection.createStatement().execute("SHUTDOWN");
+		connection.close();
+	}
+
+	@Test
+	public void hitsAndMisses() {
+		final PreparedStatementCache cache = new PreparedStatementCache(connection, 2);
+		final PreparedStatement first = cache.borrow("SELECT * FROM T WHERE A = ?");
+		assertNotNull(first);
+		cache.release("SELECT * FROM T WHERE A = ?", first);
+		assertSame(first, cache.borrow("SELECT * FROM T WHERE A = ?"));
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.getMisses());
+		assertEquals(0.5, cache.getHitRate(), 0.0001);
+	}
+
+	@Test
+	public void leastRecentlyUsedIsEvicted() throws SQLException {
+		final PreparedStatementCache cache = new PreparedStatementCache(connection, 2);
+		final PreparedStatement first = cache.borrow("SELECT 1 FROM T");
+		cache.release("SELECT 1 FROM T", first);
+		cache.release("SELECT 2 FROM T", cache.borrow("SELECT 2 FROM T"));
+		cache.release("SELECT 3 FROM T", cache.borrow("SELECT 3 FROM T"));
+		assertEquals(true, first.isClosed());
+	}
+
+	@Test
+	public void unpreparableStatement() {
+		final PreparedStatementCache cache = new PreparedStatementCache(connection, 2);
+		assertNull(cache.borrow("SELECT * FROM NOT_THERE"));
+		assertNull(cache.borrow("SELECT * FROM NOT_THERE"));
+		assertEquals(1, cache.getMisses());
+	}
+
+	@Test
+	public void statementExecutionUsesCache() throws SQLException {
+		final PreparedStatementCache cache = new PreparedStatementCache(connection, 2);
+		for (int i = 0; i < 3; i++) {
+			final StatementExecution insert = new StatementExecution(
+					new StatementString("INSERT INTO T VALUES (" + i + ")"));
+			insert.usePreparedStatementCache(cache);
+			insert.execute(connection.createStatement());
+		}
+		final StatementExecution select = new StatementExecution(new StatementString("SELECT * FROM T WHERE A = 2"));
+		select.usePreparedStatementCache(cache);
+		final StatementExecutionInformation info = select.execute(connection.createStatement());
+		assertEquals(1, info.getStatementResult().getRowCount());
+		assertEquals(2, cache.getHits());
+		assertEquals(2, cache.getMisses());
+
+		final StatementExecution ddl = new StatementExecution(new StatementString("DROP TABLE T"));
+		ddl.usePreparedStatementCache(cache);
+		ddl.execute(connection.createStatement());
+		connection.createStatement().execute("CREATE TABLE T (A INT)");
+		assertNull(cache.borrow("SELECT * FROM NOT_THERE"));
+	}
+
+	private long count(final PreparedStatementCache cache, final String sql) throws SQLException {
+		final StatementExecution execution = new StatementExecution(new StatementString(sql));
+		execution.usePreparedStatementCache(cache);
+		final StatementExecutionInformation info = execution.execute(connection.createStatement());
+		return Long.parseLong(info.getStatementResult().getValueAsString(0, 0));
+	}
+
+	@Test
+	public void decimalLiteralAgainstIntegerColumn() throws SQLException {
+		connection.createStatement().execute("INSERT INTO T VALUES (1), (2)");
+		final PreparedStatementCache cache = new PreparedStatementCache(connection, 10);
+		assertEquals(0, count(cache, "SELECT COUNT(*) FROM T WHERE A = 1.5"));
+		assertEquals(1, count(cache, "SELECT COUNT(*) FROM T WHERE A < 1.5"));
+		assertEquals(1, count(cache, "SELECT COUNT(*) FROM T WHERE A > 1.5"));
+		assertEquals(1, count(cache, "SELECT COUNT(*) FROM T WHERE A = 2"));
+		assertEquals(1, count(cache, "SELECT COUNT(*) FROM T WHERE A = '2'"));
+	}
+
+	@Test
+	public void setSchemaDiscardsPreparedStatements() throws SQLException {
+		connection.createStatement().execute("INSERT INTO T VALUES (1)");
+		connection.createStatement().execute("CREATE SCHEMA B");
+		connection.createStatement().execute("CREATE TABLE B.T (A INT)");
+		connection.createStatement().execute("INSERT INTO B.T VALUES (1), (1)");
+		final PreparedStatementCache cache = new PreparedStatementCache(connection, 10);
+		assertEquals(1, count(cache, "SELECT COUNT(*) FROM T WHERE A = 1"));
+		final StatementExecution setSchema = new StatementExecution(new StatementString("SET SCHEMA B"));
+		setSchema.usePreparedStatementCache(cache);
+		setSchema.execute(connection.createStatement());
+		assertEquals(2, count(cache, "SELECT COUNT(*) FROM T WHERE A = 1"));
+		assertEquals(0, cache.getHits());
+	}
+
+	@Test
+	public void failedParameterizedExecutionIsRepeatedUnprepared() throws SQLException {
+		connection.createStatement().execute("INSERT INTO T VALUES (1)");
+		final PreparedStatementCache cache = new PreparedStatementCache(connection, 10);
+		// der gebundene Wert passt nicht in eine INTEGER-Spalte, das Literal schon
+		assertEquals(0, count(cache, "SELECT COUNT(*) FROM T WHERE A = 99999999999"));
+		assertEquals(1, count(cache, "SELECT COUNT(*) FROM T WHERE A = 1"));
+	}
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.kuehweg.sqltool.common.sqlediting.StatementString;
+import de.kuehweg.sqltool.database.execution.StatementExecution;
+import de.kuehweg.sqltool.database.execution.StatementExecutionInformation;
+
+/**
+ * @author Michael Kühweg
+ */
+public class ResultCacheTest {
+
+	private Connection connection;
+	private ResultCache cache;
+
+	public ResultCacheTest() {
+	}
+
+	@BeforeClass
+	public static void setUpClass() {
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+	}
+
+	@Before
+	public void setUp() throws SQLException {
+		connection = DriverManager.getConnection(
+				JDBCType.HSQL_IN_MEMORY.getUrlPrefix() + JDBCType.HSQL_IN_MEMORY.getDbType() + "resultcache",
+				"SA", "");
+		connection.createStatement().execute("CREATE TABLE T (A INT)");
+		connection.createStatement().execute("CREATE TABLE U (B INT)");
+		connection.createStatement().execute("CREATE VIEW V AS SELECT A FROM T");
+		connection.createStatement().execute("INSERT INTO T VALUES (1)");
+		connection.createStatement().execute("INSERT INTO U VALUES (2)");
+		cache = new ResultCache(connection, 1024 * 1024, 10);
+		cache.setEnabled(true);
+	}
+
+	@After
+	public void tearDown() throws SQLException {
+		connection.createStatement().execute("SHUTDOWN");
+		connection.close();
+	}
+
+	private StatementExecutionInformation execute(final String sql) throws SQLException {
+		final StatementExecution execution = new StatementExecution(new StatementString(sql));
+		execution.useResultCache(cache);
+		return execution.execute(connection.createStatement());
+	}
+
+	@Test
+	public void repeatedQueryIsCached() throws SQLException {
+		assertFalse(execute("select * from t").isCached());
+		final StatementExecutionInformation info = execute("SELECT *\n  FROM T;");
+		assertTrue(info.isCached());
+		assertEquals("1", info.getStatementResult().getValueAsString(0, 0));
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.getMisses());
+	}
+
+	@Test
+	public void modificationInvalidatesAffectedTable() throws SQLException {
+		execute("select * from t");
+		execute("select * from u");
+		execute("insert into t values (3)");
+		assertEquals(1, cache.getSize());
+		final StatementExecutionInformation info = execute("select * from t");
+		assertFalse(info.isCached());
+		assertEquals(2, info.getStatementResult().getRowCount());
+		assertTrue(execute("select * from u").isCached());
+	}
+
+	@Test
+	public void viewsDependOnEveryTable() throws SQLException {
+		execute("select * from v");
+		execute("select * from u");
+		execute("update t set a = 4");
+		assertEquals(1, cache.getSize());
+		assertEquals("4", execute("select * from v").getStatementResult().getValueAsString(0, 0));
+	}
+
+	@Test
+	public void foreignKeysOfOtherTablesClearCache() throws SQLException {
+		connection.createStatement().execute("CREATE TABLE P (ID INT PRIMARY KEY)");
+		connection.createStatement()
+				.execute("CREATE TABLE C (P_ID INT REFERENCES P (ID) ON DELETE CASCADE)");
+		connection.createStatement().execute("INSERT INTO P VALUES (1)");
+		connection.createStatement().execute("INSERT INTO C VALUES (1)");
+		execute("select * from c");
+		execute("select * from u");
+		execute("delete from p");
+		assertEquals(0, cache.getSize());
+		assertEquals(0, execute("select * from c").getStatementResult().getRowCount());
+	}
+
+	@Test
+	public void triggersClearCache() throws SQLException {
+		connection.createStatement().execute(
+				"CREATE TRIGGER TU AFTER INSERT ON T FOR EACH ROW INSERT INTO U VALUES (5)");
+		execute("select * from u");
+		execute("insert into t values (3)");
+		assertEquals(0, cache.getSize());
+		assertEquals(2, execute("select * from u").getStatementResult().getRowCount());
+	}
+
+	@Test
+	public void undeterminedTargetClearsCache() throws SQLException {
+		execute("select * from t");
+		execute("select * from u");
+		execute("create table w (c int)");
+		assertEquals(0, cache.getSize());
+	}
+
+	@Test
+	public void uncacheableQueries() throws SQLException {
+		execute("select current_timestamp from t");
+		execute("select * from information_schema.system_tables");
+		execute("select * from t for update");
+		assertEquals(0, cache.getSize());
+	}
+
+	@Test
+	public void disabledCacheDeliversNothing() throws SQLException {
+		execute("select * from t");
+		cache.setEnabled(false);
+		assertEquals(0, cache.getSize());
+		assertFalse(execute("select * from t").isCached());
+		assertNull(cache.lookup(new StatementString("select * from t"), 0));
+	}
+
+	@Test
+	public void maxRowsArePartOfTheKey() throws SQLException {
+		execute("select * from t");
+		assertNull(cache.lookup(new StatementString("select * from t"), 10));
+		assertNotNull(cache.lookup(new StatementString("select * from t"), 0));
+	}
+
+	@Test
+	public void capacityEvictsLeastRecentlyUsed() throws SQLException {
+		cache = new ResultCache(connection, 1024 * 1024, 2);
+		cache.setEnabled(true);
+		execute("select * from t");
+		execute("select * from u");
+		execute("select * from t");
+		execute("select a from t");
+		assertEquals(2, cache.getSize());
+		assertNotNull(cache.lookup(new StatementString("select * from t"), 0));
+		assertNull(cache.lookup(new StatementString("select * from u"), 0));
+	}
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database.execution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.SQLException;
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.kuehweg.sqltool.common.DialogDictionary;
+import de.kuehweg.sqltool.common.sqlediting.StatementString;
+import de.kuehweg.sqltool.database.execution.fake.ConnectionStubWithBasicMetaData;
+import de.kuehweg.sqltool.database.execution.fake.DatabaseMetaDataStubWithUrlAndUser;
+import de.kuehweg.sqltool.database.execution.fake.StatementStubWithBatchSupport;
+
+/**
+ * @author Michael Kühweg
+ */
+public class BatchExecutionTest {
+
+	private static final String URL = "db://localhost";
+	private static final String USER_NAME = "john_doe";
+
+	private StatementStubWithBatchSupport statement;
+
+	public BatchExecutionTest() {
+	}
+
+	@BeforeClass
+	public static void setUpClass() {
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+	}
+
+	@Before
+	public void setUp() {
+		final DatabaseMetaDataStubWithUrlAndUser metaData = new DatabaseMetaDataStubWithUrlAndUser();
+		metaData.setURL(URL);
+		metaData.setUserName(USER_NAME);
+		final ConnectionStubWithBasicMetaData connection = new ConnectionStubWithBasicMetaData();
+		connection.setMetaData(metaData);
+		statement = new StatementStubWithBatchSupport(connection);
+	}
+
+	@After
+	public void tearDown() {
+	}
+
+	private List<StatementString> statements(final String... sql) {
+		return Arrays.stream(sql).map(StatementString::new).collect(Collectors.toList());
+	}
+
+	@Test
+	public void completeBatch() throws SQLException {
+		final BatchExecution batch = new BatchExecution(statements("insert into a values (1)",
+				"update a set x = 2", "delete from a"));
+		final List<StatementExecutionInformation> infos = batch.execute(statement);
+		assertEquals(3, infos.size());
+		assertEquals(1, statement.getExecuteBatchCalls());
+		assertTrue(batch.getUnexecutedStatements().isEmpty());
+		final StatementExecutionInformation info = infos.get(1);
+		assertEquals("update a set x = 2", info.getSql().originalStatement());
+		assertEquals(URL, info.getConnectionDescription());
+		assertEquals(USER_NAME, info.getExecutedBy());
+		assertEquals(MessageFormat.format(DialogDictionary.PATTERN_UPDATECOUNT.toString(), 1), info.getSummary());
+	}
+
+	@Test
+	public void failingBatch() throws SQLException {
+		statement.setFailingPrefix("update");
+		final BatchExecution batch = new BatchExecution(statements("insert into a values (1)",
+				"update a set x = 2", "delete from a"));
+		final List<StatementExecutionInformation> infos = batch.execute(statement);
+		assertEquals(1, infos.size());
+		assertEquals(2, batch.getUnexecutedStatements().size());
+		assertEquals("update a set x = 2", batch.getUnexecutedStatements().get(0).originalStatement());
+	}
+
+	@Test
+	public void failingBatchWithDriverContinuingAfterFailure() throws SQLException {
+		statement.setFailingPrefix("update");
+		statement.setContinueAfterFailure(true);
+		final BatchExecution batch = new BatchExecution(statements("insert into a values (1)",
+				"update a set x = 2", "delete from a"));
+		final List<StatementExecutionInformation> infos = batch.execute(statement);
+		assertEquals(2, infos.size());
+		assertEquals("insert into a values (1)", infos.get(0).getSql().originalStatement());
+		assertEquals("delete from a", infos.get(1).getSql().originalStatement());
+		assertEquals(1, batch.getUnexecutedStatements().size());
+		assertEquals("update a set x = 2", batch.getUnexecutedStatements().get(0).originalStatement());
+	}
+
+	@Test
+	public void batchableStatements() {
+		assertTrue(new StatementString("  insert into a values (1)").isBatchableStatement());
+		assertTrue(new StatementString("/* x */ UPDATE a set x = 1").isBatchableStatement());
+		assertTrue(!new StatementString("select * from a").isBatchableStatement());
+		assertTrue(!new StatementString("create table a (x int)").isBatchableStatement());
+	}
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database.execution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * @author Michael Kühweg
+ */
+public class ColumnarStatementResultTest {
+
+	private ColumnarStatementResult result;
+
+	@BeforeClass
+	public static void setUpClass() {
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+	}
+
+	@Before
+	public void setUp() {
+		result = new ColumnarStatementResult(Types.INTEGER, Types.BIGINT, Types.DOUBLE, Types.VARCHAR,
+				Types.DECIMAL);
+		result.setHeader(new ResultHeader("int", "long", "double", "string", "decimal"));
+	}
+
+	@After
+	public void tearDown() {
+	}
+
+	@Test
+	public void typedValues() {
+		result.addRow(new ResultRow(42, 4711L, 1.5, "text", new BigDecimal("12.30")));
+		result.addRow(new ResultRow(null, null, null, null, null));
+		assertEquals(2, result.getRowCount());
+		assertEquals(5, result.getColumnCount());
+		assertEquals(42, result.getValue(0, 0));
+		assertEquals(4711L, result.getValue(0, 1));
+		assertEquals(1.5, result.getValue(0, 2));
+		assertEquals("text", result.getValue(0, 3));
+		assertEquals(new BigDecimal("12.30"), result.getValue(0, 4));
+		assertEquals("12.30", result.getValueAsString(0, 4));
+		for (int column = 0; column < result.getColumnCount(); column++) {
+			assertNull(result.getValue(1, column));
+			assertEquals(ResultRow.NULL_STR, result.getValueAsString(1, column));
+		}
+	}
+
+	@Test
+	public void sameStringRepresentationAsResultRow() {
+		final ResultRow row = new ResultRow(-7, Long.MAX_VALUE, 0.1, " padded ", BigDecimal.ONE);
+		result.addRow(row);
+		assertEquals(row.columnsAsString(), result.getRows().get(0).columnsAsString());
+		for (int column = 0; column < result.getColumnCount(); column++) {
+			assertEquals(row.getColumnAsString(column), result.getValueAsString(0, column));
+		}
+	}
+
+	@Test
+	public void manyRowsAcrossChunks() {
+		final int rows = ColumnVector.CHUNK_SIZE * 3 + 17;
+		for (int i = 0; i < rows; i++) {
+			result.addRow(new ResultRow(i, i % 2 == 0 ? null : (long) i, i / 2.0, "v" + i % 10, null));
+		}
+		assertEquals(rows, result.getRowCount());
+		assertEquals(rows, result.getRows().size());
+		assertEquals(rows - 1, result.getValue(rows - 1, 0));
+		assertNull(result.getValue(ColumnVector.CHUNK_SIZE * 2, 1));
+		assertEquals((long) ColumnVector.CHUNK_SIZE + 1, result.getValue(ColumnVector.CHUNK_SIZE + 1, 1));
+		final int row = ColumnVector.CHUNK_SIZE * 3 + 7;
+		assertEquals("v" + row % 10, result.getValueAsString(row, 3));
+	}
+
+	@Test
+	public void unexpectedTypeFallsBackToObjects() {
+		result.addRow(new ResultRow(1, 2L, 3.0, "a", null));
+		result.addRow(new ResultRow("not a number", 2L, 3.0, "b", null));
+		assertEquals(1, result.getValue(0, 0));
+		assertEquals("not a number", result.getValue(1, 0));
+	}
+
+	@Test
+	public void dictionaryEncodedStrings() {
+		final DictionaryStringColumnVector strings = new DictionaryStringColumnVector();
+		for (int i = 0; i < 1000; i++) {
+			strings.append(i % 3 == 0 ? "fizz" : "buzz");
+		}
+		assertEquals(2, strings.dictionarySize());
+		assertEquals("fizz", strings.get(999));
+	}
+
+	@Test
+	public void setAndClearRows() {
+		result.setRows(Arrays.asList(new ResultRow(1, 1L, 1.0, "1", null), new ResultRow(2, 2L, 2.0, "2", null)));
+		assertEquals(2, result.getRowCount());
+		result.clearRows();
+		assertEquals(0, result.getRowCount());
+		assertTrue(result.getRows().isEmpty());
+		result.addRow(new ResultRow(3, 3L, 3.0, "3", null));
+		assertEquals("3", result.getValueAsString(0, 3));
+	}
+}
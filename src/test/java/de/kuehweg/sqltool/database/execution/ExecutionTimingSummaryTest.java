@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database.execution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.kuehweg.sqltool.common.sqlediting.StatementString;
+
+/**
+ * @author Michael Kühweg
+ */
+public class ExecutionTimingSummaryTest {
+
+	private ExecutionTimingSummary summary;
+
+	public ExecutionTimingSummaryTest() {
+	}
+
+	@BeforeClass
+	public static void setUpClass() {
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+	}
+
+	@Before
+	public void setUp() {
+		summary = new ExecutionTimingSummary();
+		for (int i = 1; i <= 20; i++) {
+			summary.add(statementTakingNanos("SELECT " + i, i * 1000L));
+		}
+	}
+
+	@After
+	public void tearDown() {
+	}
+
+	private static StatementExecutionInformation statementTakingNanos(final String sql, final long nanos) {
+		final StatementExecutionInformation info = new StatementExecutionInformation();
+		info.setSql(new StatementString(sql));
+		info.getTimings().setExecuteNanos(nanos);
+		return info;
+	}
+
+	@Test
+	public void totalAndPercentiles() {
+		assertEquals(20, summary.getStatementCount());
+		assertEquals(210000L, summary.getTotalNanos());
+		assertEquals(10000L, summary.getPercentileNanos(50));
+		assertEquals(19000L, summary.getPercentileNanos(95));
+		assertEquals(20000L, summary.getPercentileNanos(100));
+		assertEquals(1000L, summary.getPercentileNanos(0));
+	}
+
+	@Test
+	public void slowestStatements() {
+		final List<ExecutionTimingSummary.StatementTiming> slowest = summary.getSlowest(3);
+		assertEquals(3, slowest.size());
+		assertEquals("SELECT 20", slowest.get(0).getSql().originalStatement());
+		assertEquals("SELECT 19", slowest.get(1).getSql().originalStatement());
+		assertEquals("SELECT 18", slowest.get(2).getSql().originalStatement());
+	}
+
+	@Test
+	public void statementsWithoutTimingsAreIgnored() {
+		summary.clear();
+		final StatementExecutionInformation info = new StatementExecutionInformation();
+		info.setSql(new StatementString("COMMIT"));
+		summary.add(info);
+		assertEquals(0, summary.getStatementCount());
+		assertEquals(0L, summary.getPercentileNanos(50));
+		assertTrue(summary.getSlowest(3).isEmpty());
+	}
+
+	@Test
+	public void trackerTimeCountsTowardsTotal() {
+		summary.clear();
+		final StatementExecutionInformation info = statementTakingNanos("SELECT 1", 1000L);
+		info.getTimings().addTrackerNanos(500L);
+		info.getTimings().addTrackerNanos(250L);
+		summary.add(info);
+		assertEquals(1750L, summary.getTotalNanos());
+		assertEquals(1000L, info.getTimings().getDatabaseNanos());
+	}
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database.execution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.kuehweg.sqltool.database.execution.fake.ResultSetStubFromObjectArray;
+
+/**
+ * @author Michael Kühweg
+ */
+public class ResultCursorTest {
+
+	private ResultSetStubFromObjectArray resultSet;
+
+	@BeforeClass
+	public static void setUpClass() {
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+	}
+
+	@Before
+	public void setUp() {
+		resultSet = new ResultSetStubFromObjectArray(new Object[][] { { "id", "name" }, { 1, "one" },
+				{ 2, null }, { 3, "three" } });
+	}
+
+	@After
+	public void tearDown() {
+	}
+
+	@Test
+	public void header() throws SQLException {
+		final ResultCursor cursor = new ResultCursor(resultSet, 2);
+		assertEquals("id", cursor.readHeader().getColumnHeaders()[0]);
+		assertEquals("name", cursor.readHeader().getColumnHeaders()[1]);
+	}
+
+	@Test
+	public void pages() throws SQLException {
+		final ResultCursor cursor = new ResultCursor(resultSet, 2);
+		List<ResultRow> page = cursor.nextPage();
+		assertEquals(2, page.size());
+		assertEquals(ResultRow.NULL_STR, page.get(1).columnsAsString().get(1));
+		assertFalse(cursor.isExhausted());
+		page = cursor.nextPage();
+		assertEquals(1, page.size());
+		assertEquals("three", page.get(0).columnsAsString().get(1));
+		assertTrue(cursor.isExhausted());
+		assertTrue(cursor.nextPage().isEmpty());
+		assertEquals(3, cursor.getRowCount());
+	}
+
+	@Test
+	public void singlePageWithoutPageSize() throws SQLException {
+		final ResultCursor cursor = new ResultCursor(resultSet, 0);
+		assertEquals(3, cursor.nextPage().size());
+		assertTrue(cursor.isExhausted());
+	}
+
+	@Test
+	public void closeResultSet() throws SQLException {
+		try (ResultCursor cursor = new ResultCursor(resultSet, 2)) {
+			cursor.nextPage();
+		}
+		assertTrue(resultSet.isClosed());
+	}
+
+	@Test
+	public void rowLimit() throws SQLException {
+		final ResultCursor cursor = new ResultCursor(resultSet, 10);
+		cursor.limit(2, 0);
+		assertEquals(2, cursor.nextPage().size());
+		assertTrue(cursor.isExhausted());
+		assertTrue(cursor.isTruncated());
+	}
+
+	@Test
+	public void rowLimitMatchingResultSize() throws SQLException {
+		final ResultCursor cursor = new ResultCursor(resultSet, 10);
+		cursor.limit(3, 0);
+		assertEquals(3, cursor.nextPage().size());
+		assertTrue(cursor.isExhausted());
+		assertFalse(cursor.isTruncated());
+	}
+
+	@Test
+	public void abort() throws SQLException {
+		final ResultCursor cursor = new ResultCursor(resultSet, 1);
+		cursor.nextPage();
+		cursor.abort();
+		assertTrue(cursor.nextPage().isEmpty());
+		assertTrue(cursor.isExhausted());
+		assertFalse(cursor.isTruncated());
+		assertEquals(1, cursor.getRowCount());
+	}
+
+	@Test
+	public void pageDuration() throws SQLException {
+		final ResultSetStubFromObjectArray slowResultSet = new ResultSetStubFromObjectArray(
+				new Object[][] { { "id" }, { 1 }, { 2 }, { 3 } }) {
+			@Override
+			public boolean next() throws SQLException {
+				try {
+					Thread.sleep(20);
+				} catch (final InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				return super.next();
+			}
+		};
+		final ResultCursor cursor = new ResultCursor(slowResultSet, 10);
+		cursor.limitPageDuration(10);
+		// jede Zeile dauert länger als eine Seite, also eine Zeile je Seite
+		assertEquals(1, cursor.nextPage().size());
+		assertEquals(1, cursor.nextPage().size());
+		assertFalse(cursor.isExhausted());
+	}
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database.execution;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * @author Michael Kühweg
+ */
+public class SpilledRowStoreTest {
+
+	@BeforeClass
+	public static void setUpClass() {
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+	}
+
+	@Before
+	public void setUp() {
+	}
+
+	@After
+	public void tearDown() {
+	}
+
+	@Test
+	public void readBackWhatWasWritten() throws IOException {
+		final SpilledRowStore store = new SpilledRowStore(5);
+		store.append(new ResultRow(1, 2L, 3.5, "äöü € text", new BigDecimal("1.50")));
+		store.append(new ResultRow(null, null, null, null, null));
+		assertEquals(2, store.size());
+		assertEquals(1, store.getValue(0, 0));
+		assertEquals(2L, store.getValue(0, 1));
+		assertEquals(3.5, store.getValue(0, 2));
+		assertEquals("äöü € text", store.getValue(0, 3));
+		assertEquals(new BigDecimal("1.50"), store.getValue(0, 4));
+		assertEquals("1.50", store.getValueAsString(0, 4));
+		assertNull(store.getValue(1, 3));
+		assertEquals(ResultRow.NULL_STR, store.getValueAsString(1, 0));
+	}
+
+	@Test
+	public void typedValuesAreRestored() throws IOException {
+		final Timestamp timestamp = Timestamp.valueOf("2019-01-02 03:04:05.123456789");
+		final SpilledRowStore store = new SpilledRowStore(8);
+		store.append(new ResultRow(new BigDecimal("-12345678901234567890.0001"), Boolean.TRUE,
+				Date.valueOf("2019-01-02"), Time.valueOf("03:04:05"), timestamp, new byte[] { 1, 2, 3 },
+				new StringBuilder("text"), "last"));
+		assertEquals(new BigDecimal("-12345678901234567890.0001"), store.getValue(0, 0));
+		assertEquals(Boolean.TRUE, store.getValue(0, 1));
+		assertEquals(Date.valueOf("2019-01-02"), store.getValue(0, 2));
+		assertEquals(Time.valueOf("03:04:05"), store.getValue(0, 3));
+		assertEquals(timestamp, store.getValue(0, 4));
+		assertArrayEquals(new byte[] { 1, 2, 3 }, (byte[]) store.getValue(0, 5));
+		// sonstige Werte als Text
+		assertEquals("text", store.getValue(0, 6));
+		assertEquals("last", store.getValue(0, 7));
+	}
+
+	@Test
+	public void appendAfterRead() throws IOException {
+		final SpilledRowStore store = new SpilledRowStore(1);
+		store.append(new ResultRow("first"));
+		assertEquals("first", store.getValue(0, 0));
+		store.append(new ResultRow("second"));
+		assertEquals("second", store.getValue(1, 0));
+		assertEquals("first", store.getValue(0, 0));
+	}
+
+	@Test
+	public void deleteLeftoverFilesOfEarlierRuns() throws IOException {
+		final Path leftover = Files.createTempFile("itrysql-result", ".bin");
+		Files.setLastModifiedTime(leftover, FileTime.fromMillis(0));
+		final Path current = Files.createTempFile("itrysql-result", ".bin");
+		try {
+			SpilledRowStore.deleteLeftoverFiles();
+			assertFalse(Files.exists(leftover));
+			assertTrue(Files.exists(current));
+		} finally {
+			Files.deleteIfExists(leftover);
+			Files.deleteIfExists(current);
+		}
+	}
+
+	@Test
+	public void columnarResultSpillsBeyondBudget() {
+		final ColumnarStatementResult result = new ColumnarStatementResult(Types.INTEGER, Types.VARCHAR);
+		result.setHeapBudget(1024);
+		final int rows = 10000;
+		for (int i = 0; i < rows; i++) {
+			result.addRow(new ResultRow(i, "row " + i));
+		}
+		assertTrue(result.isSpilled());
+		assertEquals(rows, result.getRowCount());
+		for (int i = 0; i < rows; i += 997) {
+			assertEquals(i, result.getValue(i, 0));
+			assertEquals("row " + i, result.getValueAsString(i, 1));
+		}
+		assertEquals("row " + (rows - 1), result.getRows().get(rows - 1).columnsAsString().get(1));
+		result.clearRows();
+		assertFalse(result.isSpilled());
+	}
+
+	@Test
+	public void dateAndDecimalAcrossSpillBoundary() {
+		final ColumnarStatementResult result = new ColumnarStatementResult(Types.DATE, Types.DECIMAL);
+		result.setHeapBudget(1024);
+		final int rows = 10000;
+		for (int i = 0; i < rows; i++) {
+			result.addRow(new ResultRow(new Date(86400000L * i), BigDecimal.valueOf(i, 2)));
+		}
+		assertTrue(result.isSpilled());
+		assertEquals(result.getValue(0, 0).getClass(), result.getValue(rows - 1, 0).getClass());
+		assertEquals(result.getValue(0, 1).getClass(), result.getValue(rows - 1, 1).getClass());
+		for (int i = 0; i < rows; i += 997) {
+			assertEquals(new Date(86400000L * i), result.getValue(i, 0));
+			assertEquals(BigDecimal.valueOf(i, 2), result.getValue(i, 1));
+		}
+		assertEquals("99.99", result.getValueAsString(rows - 1, 1));
+	}
+
+	@Test
+	public void noSpillWithoutBudget() {
+		final ColumnarStatementResult result = new ColumnarStatementResult(Types.INTEGER);
+		for (int i = 0; i < 10000; i++) {
+			result.addRow(new ResultRow(i));
+		}
+		assertFalse(result.isSpilled());
+	}
+}
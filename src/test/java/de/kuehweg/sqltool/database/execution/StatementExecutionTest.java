@@ -34,6 +34,7 @@ import static org.junit.Assert.assertTrue;
 
 import java.sql.SQLException;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.After;
@@ -49,6 +50,7 @@ import de.kuehweg.sqltool.database.execution.fake.DatabaseMetaDataStubWithUrlAnd
 import de.kuehweg.sqltool.database.execution.fake.FakeStatement;
 import de.kuehweg.sqltool.database.execution.fake.FakeStatementThrowingExceptionOnExecute;
 import de.kuehweg.sqltool.database.execution.fake.FakeStatementUpdateCount42;
+import de.kuehweg.sqltool.database.execution.fake.StatementStubBlockingUntilCancel;
 import de.kuehweg.sqltool.database.execution.fake.ResultSetStubFromObjectArray;
 import de.kuehweg.sqltool.database.execution.fake.StatementStubWithFakeResultSet;
 
@@ -143,6 +145,30 @@ public class StatementExecutionTest {
 		assertTrue(info.isLimitMaxRowsReached());
 	}
 
+	@Test
+	public void streamingDeliversPages() throws SQLException {
+		final Object[][] content = new Object[6][];
+		content[0] = columnLabels;
+		for (int i = 1; i < content.length; i++) {
+			content[i] = new Object[] { "row" + i, null, i };
+		}
+		final String sql = "select * from wherever";
+		final StatementExecution execution = new StatementExecution(new StatementString(sql));
+		final List<Integer> pageSizes = new ArrayList<>();
+		execution.streamResult(2, (executionInfo, page) -> pageSizes.add(page.size()));
+		statement = new StatementStubWithFakeResultSet(connection, new ResultSetStubFromObjectArray(content));
+		final StatementExecutionInformation info = execution.execute(statement);
+		assertEquals(2, statement.getFetchSize());
+		assertEquals(3, pageSizes.size());
+		assertEquals(Integer.valueOf(2), pageSizes.get(0));
+		assertEquals(Integer.valueOf(2), pageSizes.get(1));
+		assertEquals(Integer.valueOf(1), pageSizes.get(2));
+		assertEquals(5, info.getRowCount());
+		assertEquals(5, info.getStatementResult().getRows().size());
+		assertFalse(info.isLimitMaxRowsReached());
+		assertEquals(MessageFormat.format(DialogDictionary.PATTERN_ROWCOUNT.toString(), 5), info.getSummary());
+	}
+
 	@Test
 	public void closedResultSetAfterExecution() throws SQLException {
 		final String sql = "select * from wherever";
@@ -170,6 +196,73 @@ public class StatementExecutionTest {
 		execution.execute(statement);
 	}
 
+	@Test
+	public void outcomeCompletedOrFailed() throws SQLException {
+		statement = new StatementStubWithFakeResultSet(connection, resultSet);
+		assertEquals(ExecutionOutcome.COMPLETED,
+				new StatementExecution(new StatementString("select * from wherever")).execute(statement).getOutcome());
+		assertEquals(ExecutionOutcome.FAILED, new StatementExecution(null).execute(statement).getOutcome());
+	}
+
+	@Test
+	public void watchdogCancelsStatement() throws SQLException {
+		final StatementExecution execution = new StatementExecution(new StatementString("select * from wherever"));
+		final ExecutionLimits limits = new ExecutionLimits();
+		limits.setWatchdogTimeoutMillis(50);
+		execution.setExecutionLimits(limits);
+		final StatementStubBlockingUntilCancel blocking = new StatementStubBlockingUntilCancel(connection);
+		final StatementExecutionInformation info = execution.execute(blocking);
+		assertTrue(blocking.isCancelled());
+		assertEquals(ExecutionOutcome.TIMED_OUT, info.getOutcome());
+		assertTrue(info.getOutcome().isAborted());
+		assertEquals(DialogDictionary.LABEL_RESULT_TIMED_OUT.toString(), info.getSummary());
+	}
+
+	@Test
+	public void cancelFromOtherThread() throws Exception {
+		final StatementExecution execution = new StatementExecution(new StatementString("select * from wherever"));
+		final StatementStubBlockingUntilCancel blocking = new StatementStubBlockingUntilCancel(connection);
+		final Thread canceller = new Thread(() -> {
+			try {
+				Thread.sleep(50);
+			} catch (final InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			execution.cancel();
+		});
+		canceller.start();
+		final StatementExecutionInformation info = execution.execute(blocking);
+		canceller.join();
+		assertEquals(ExecutionOutcome.CANCELLED, info.getOutcome());
+		assertEquals(DialogDictionary.LABEL_RESULT_CANCELLED.toString(), info.getSummary());
+	}
+
+	@Test
+	public void fetchLimitTruncatesResult() throws SQLException {
+		final StatementExecution execution = new StatementExecution(new StatementString("select * from wherever"));
+		final ExecutionLimits limits = new ExecutionLimits();
+		limits.setMaxFetchedRows(1);
+		execution.setExecutionLimits(limits);
+		statement = new StatementStubWithFakeResultSet(connection,
+				new ResultSetStubFromObjectArray(new Object[][] { columnLabels, columnContent, columnContent }));
+		final StatementExecutionInformation info = execution.execute(statement);
+		assertEquals(ExecutionOutcome.TRUNCATED, info.getOutcome());
+		assertEquals(1, info.getStatementResult().getRowCount());
+		assertTrue(info.isLimitMaxRowsReached());
+	}
+
+	@Test
+	public void fetchLimitMatchingResultSizeCompletes() throws SQLException {
+		final StatementExecution execution = new StatementExecution(new StatementString("select * from wherever"));
+		final ExecutionLimits limits = new ExecutionLimits();
+		limits.setMaxFetchedRows(1);
+		execution.setExecutionLimits(limits);
+		statement = new StatementStubWithFakeResultSet(connection, resultSet);
+		final StatementExecutionInformation info = execution.execute(statement);
+		assertEquals(ExecutionOutcome.COMPLETED, info.getOutcome());
+		assertEquals(1, info.getStatementResult().getRowCount());
+	}
+
 	@Test
 	public void updateCountForDML() throws SQLException {
 		for (final String sql : StatementString.DML_COMMANDS) {
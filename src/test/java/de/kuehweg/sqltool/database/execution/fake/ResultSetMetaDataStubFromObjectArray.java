@@ -27,6 +27,7 @@ package de.kuehweg.sqltool.database.execution.fake;
 
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Types;
 
 /**
  * ResultSet Stub, dem das Test ResultSet als zweidimensionales Array übergeben
@@ -73,4 +74,27 @@ public class ResultSetMetaDataStubFromObjectArray extends FakeResultSetMetaData
 		return resultSet[0][column - 1].toString();
 	}
 
+	@Override
+	public int getColumnType(final int column) throws SQLException {
+		// Typ aus dem ersten Wert der Spalte ungleich NULL ableiten
+		if (resultSet == null || resultSet.length == 0 || column < 1 || column > resultSet[0].length) {
+			throw new SQLException();
+		}
+		for (int row = 1; row < resultSet.length; row++) {
+			final Object value = resultSet[row][column - 1];
+			if (value instanceof Integer) {
+				return Types.INTEGER;
+			} else if (value instanceof Long) {
+				return Types.BIGINT;
+			} else if (value instanceof Double) {
+				return Types.DOUBLE;
+			} else if (value instanceof String) {
+				return Types.VARCHAR;
+			} else if (value != null) {
+				return Types.OTHER;
+			}
+		}
+		return Types.NULL;
+	}
+
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database.execution.fake;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statement Implementierung, deren execute so lange blockiert, bis
+ * {@link #cancel()} aufgerufen wird, und dann wie ein abgebrochenes Statement
+ * eine {@link SQLException} wirft.
+ *
+ * @author Michael Kühweg
+ */
+public class StatementStubBlockingUntilCancel extends StatementStubWithFakeResultSet {
+
+	private final CountDownLatch cancelled = new CountDownLatch(1);
+
+	public StatementStubBlockingUntilCancel(final Connection connection) {
+		super(connection, null);
+	}
+
+	@Override
+	public boolean execute(final String sql) throws SQLException {
+		try {
+			if (!cancelled.await(10, TimeUnit.SECONDS)) {
+				return false;
+			}
+		} catch (final InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		throw new SQLException("statement execution aborted");
+	}
+
+	@Override
+	public void cancel() throws SQLException {
+		cancelled.countDown();
+	}
+
+	public boolean isCancelled() {
+		return cancelled.getCount() == 0;
+	}
+}
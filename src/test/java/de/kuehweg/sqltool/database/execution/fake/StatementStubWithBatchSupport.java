@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database.execution.fake;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Statement Implementierung, die Batches unterstützt. Jede Anweisung meldet
+ * einen Update-Count von 1. Optional scheitert die Ausführung an einer
+ * Anweisung mit einem vorgegebenen Präfix, sowohl im Batch als auch bei der
+ * Einzelausführung.
+ *
+ * @author Michael Kühweg
+ */
+public class StatementStubWithBatchSupport extends FakeStatement {
+
+	private final Connection connection;
+	private final List<String> batch = new ArrayList<>();
+	private final List<String> executedStatements = new ArrayList<>();
+	private int executeBatchCalls;
+	private String failingPrefix;
+	private boolean continueAfterFailure;
+
+	public StatementStubWithBatchSupport(final Connection connection) {
+		this.connection = connection;
+	}
+
+	public void setFailingPrefix(final String failingPrefix) {
+		this.failingPrefix = failingPrefix;
+	}
+
+	public void setContinueAfterFailure(final boolean continueAfterFailure) {
+		this.continueAfterFailure = continueAfterFailure;
+	}
+
+	public int getExecuteBatchCalls() {
+		return executeBatchCalls;
+	}
+
+	public List<String> getExecutedStatements() {
+		return executedStatements;
+	}
+
+	private boolean fails(final String sql) {
+		return failingPrefix != null && sql.startsWith(failingPrefix);
+	}
+
+	@Override
+	public boolean execute(final String sql) throws SQLException {
+		if (fails(sql)) {
+			throw new SQLException("Fake-Statement");
+		}
+		executedStatements.add(sql);
+		return false;
+	}
+
+	@Override
+	public int getUpdateCount() throws SQLException {
+		return 1;
+	}
+
+	@Override
+	public ResultSet getResultSet() throws SQLException {
+		return null;
+	}
+
+	@Override
+	public void addBatch(final String sql) throws SQLException {
+		batch.add(sql);
+	}
+
+	@Override
+	public void clearBatch() throws SQLException {
+		batch.clear();
+	}
+
+	@Override
+	public int[] executeBatch() throws SQLException {
+		executeBatchCalls++;
+		final List<Integer> updateCounts = new ArrayList<>();
+		boolean failed = false;
+		for (final String sql : batch) {
+			if (fails(sql)) {
+				failed = true;
+				if (!continueAfterFailure) {
+					throw new BatchUpdateException(updateCounts.stream().mapToInt(Integer::intValue).toArray());
+				}
+				updateCounts.add(Statement.EXECUTE_FAILED);
+			} else {
+				executedStatements.add(sql);
+				updateCounts.add(1);
+			}
+		}
+		if (failed) {
+			throw new BatchUpdateException(updateCounts.stream().mapToInt(Integer::intValue).toArray());
+		}
+		return updateCounts.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	@Override
+	public void close() throws SQLException {
+		// ohne Exception
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return connection;
+	}
+
+	@Override
+	public void setMaxRows(final int max) throws SQLException {
+		// ohne Exception
+	}
+
+	@Override
+	public void setFetchSize(final int rows) throws SQLException {
+		// ohne Exception
+	}
+}
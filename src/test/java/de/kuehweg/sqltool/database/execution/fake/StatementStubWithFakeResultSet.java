@@ -43,6 +43,8 @@ public class StatementStubWithFakeResultSet extends FakeStatement {
 
 	private int maxRows;
 
+	private int fetchSize;
+
 	public StatementStubWithFakeResultSet(final Connection connection, final ResultSet resultSet) {
 		this.connection = connection;
 		this.resultSet = resultSet;
@@ -80,4 +82,14 @@ public class StatementStubWithFakeResultSet extends FakeStatement {
 	public int getMaxRows() throws SQLException {
 		return maxRows;
 	}
+
+	@Override
+	public void setFetchSize(final int rows) throws SQLException {
+		fetchSize = rows;
+	}
+
+	@Override
+	public int getFetchSize() throws SQLException {
+		return fetchSize;
+	}
 }
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database.formatter;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.kuehweg.sqltool.database.execution.ResultHeader;
+import de.kuehweg.sqltool.database.execution.ResultRow;
+
+/**
+ * Test für die vorläufige Textformatierung noch laufender Abfragen.
+ *
+ * @author Michael Kühweg
+ */
+public class PartialTextResultFormatterTest {
+
+	public PartialTextResultFormatterTest() {
+	}
+
+	@BeforeClass
+	public static void setUpClass() {
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+	}
+
+	@Before
+	public void setUp() {
+	}
+
+	@After
+	public void tearDown() {
+	}
+
+	@Test
+	public void pagesAreAppended() {
+		final PartialTextResultFormatter formatter = new PartialTextResultFormatter(
+				new ResultHeader("col1", "col2", "col3"), 10);
+		formatter.append(Arrays.asList(new ResultRow(1, "1", "ABCDE"), new ResultRow(2, "1234567890", "A")));
+		final String firstPage = "col1 col2       col3 \n---- ---------- -----\n1    1          ABCDE\n2    1234567890 A    ";
+		assertEquals(firstPage, formatter.getText());
+		// Spaltenbreiten bleiben erhalten, bereits aufbereiteter Text auch
+		formatter.append(Arrays.asList(new ResultRow(3, "x", "ABCDEFG")));
+		assertEquals(firstPage + "\n3    x          ABCDEFG", formatter.getText());
+		assertEquals(3, formatter.getFormattedRows());
+	}
+
+	@Test
+	public void maxRows() {
+		final PartialTextResultFormatter formatter = new PartialTextResultFormatter(new ResultHeader("a"), 2);
+		formatter.append(Arrays.asList(new ResultRow(1), new ResultRow(2), new ResultRow(3)));
+		formatter.append(Arrays.asList(new ResultRow(4)));
+		assertEquals(2, formatter.getFormattedRows());
+		assertEquals("a\n-\n1\n2", formatter.getText());
+	}
+}
@@ -108,6 +108,21 @@ public class TextResultFormatterTest {
 		assertEquals(expectedResultLimited, new TextResultFormatter(info).format(template));
 	}
 
+	@Test
+	public void limitedRowsToFormat() {
+
+		final ResultTemplate template = new ResultTemplate();
+		template.setTemplate("{1}\n{2}\n{3}\n");
+
+		final String header = "col1 col2 col3 \n---- ---- -----";
+		final String row1 = "1    1    ABCDE";
+		final String rowCount = MessageFormat.format(DialogDictionary.PATTERN_ROWCOUNT.toString(), 2);
+		final String limited = MessageFormat.format(DialogDictionary.PATTERN_MAX_ROWS.toString(), 1);
+
+		final String expectedResult = header + "\n" + row1 + "\n" + rowCount + "\n" + limited + "\n";
+		assertEquals(expectedResult, new TextResultFormatter(info, 1).format(template));
+	}
+
 	@Test
 	public void partialTemplate() {
 
@@ -26,8 +26,14 @@
 package de.kuehweg.sqltool.database.metadata;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
 
 import org.junit.After;
 import org.junit.AfterClass;
@@ -38,6 +44,7 @@ import org.junit.Test;
 import de.kuehweg.sqltool.database.integration.AbstractBaseIntegration;
 import de.kuehweg.sqltool.database.metadata.description.DatabaseDescription;
 import de.kuehweg.sqltool.database.metadata.description.SchemaDescription;
+import de.kuehweg.sqltool.database.metadata.description.TableDescription;
 
 /**
  * @author Michael Kühweg
@@ -112,4 +119,117 @@ public class MetaDataReaderIntegrationTest extends AbstractBaseIntegration {
 		}
 	}
 
+	@Test
+	public void readTableDetailsOnDemand() throws SQLException {
+		getTestConnection().createStatement()
+				.execute("create table test_master (id numeric(10) primary key, name varchar(10))");
+		getTestConnection().createStatement().execute(
+				"create table test_detail (id numeric(10), master_id numeric(10) references test_master (id))");
+		final MetaDataReader reader = new MetaDataReader();
+		final DatabaseDescription db = reader.readMetaDataWithoutTableDetails(getTestConnection());
+
+		final TableDescription master = findPublicTable(db, "TEST_MASTER");
+		final TableDescription detail = findPublicTable(db, "TEST_DETAIL");
+		assertTrue(master.isDetailsPending());
+		assertTrue(master.getColumns().isEmpty());
+		assertTrue(detail.isDetailsPending());
+
+		reader.readTableDetails(getTestConnection(), master);
+		assertFalse(master.isDetailsPending());
+		assertEquals(2, master.getColumns().size());
+		assertEquals(1, master.getPrimaryKeyColumns().size());
+		assertEquals(1, master.getExportedKeyColumns().size());
+		// andere Tabellen bleiben unberührt
+		assertTrue(detail.isDetailsPending());
+		assertTrue(detail.getColumns().isEmpty());
+
+		// bereits gelesene Details werden nicht erneut gelesen
+		reader.readTableDetails(getTestConnection(), master);
+		assertEquals(2, master.getColumns().size());
+		assertEquals(1, master.getExportedKeyColumns().size());
+	}
+
+	@Test
+	public void bulkAndPerTableStrategiesReadTheSameDetails() throws SQLException {
+		getTestConnection().createStatement()
+				.execute("create table test_master (id numeric(10) primary key, name varchar(10))");
+		getTestConnection().createStatement().execute(
+				"create table test_detail (id numeric(10), master_id numeric(10) references test_master (id))");
+		getTestConnection().createStatement().execute("create index test_detail_idx on test_detail (id, master_id)");
+		getTestConnection().createStatement().execute("create table testxmaster (id numeric(10))");
+
+		final DatabaseDescription bulk = new MetaDataReader(new InformationSchemaSubObjectReadStrategy())
+				.readMetaData(getTestConnection());
+		final DatabaseDescription perTable = new MetaDataReader(new PerTableSubObjectReadStrategy())
+				.readMetaData(getTestConnection());
+
+		for (final String tableName : new String[] { "TEST_MASTER", "TEST_DETAIL", "TESTXMASTER" }) {
+			final TableDescription bulkTable = findPublicTable(bulk, tableName);
+			final TableDescription perTableTable = findPublicTable(perTable, tableName);
+			assertEquals(perTableTable.getColumns(), bulkTable.getColumns());
+			assertEquals(perTableTable.getPrimaryKeyColumns(), bulkTable.getPrimaryKeyColumns());
+			assertEquals(perTableTable.getIndices(), bulkTable.getIndices());
+			assertEquals(perTableTable.getImportedKeyColumns(), bulkTable.getImportedKeyColumns());
+			assertEquals(perTableTable.getExportedKeyColumns(), bulkTable.getExportedKeyColumns());
+		}
+		assertEquals(1, findPublicTable(bulk, "TESTXMASTER").getColumns().size());
+		assertEquals(3, findPublicTable(bulk, "TEST_DETAIL").getIndices().size());
+		assertEquals(1, findPublicTable(bulk, "TEST_DETAIL").getImportedKeyColumns().size());
+		assertEquals(1, findPublicTable(bulk, "TEST_MASTER").getExportedKeyColumns().size());
+	}
+
+	@Test
+	public void readStrategyByUrl() {
+		assertTrue(TableSubObjectReadStrategyFactory.forUrl(
+				"jdbc:hsqldb:mem:test") instanceof InformationSchemaSubObjectReadStrategy);
+		assertTrue(TableSubObjectReadStrategyFactory.forUrl(
+				"jdbc:hsqldb:hsql://localhost/test") instanceof InformationSchemaSubObjectReadStrategy);
+		assertTrue(TableSubObjectReadStrategyFactory.forUrl(
+				"jdbc:unknown:test") instanceof PerTableSubObjectReadStrategy);
+	}
+
+	@Test
+	public void refreshSingleTablesAfterDdl() throws SQLException {
+		getTestConnection().createStatement().execute("create table test_master (id numeric(10) primary key)");
+		final MetaDataReader reader = new MetaDataReader();
+		final DatabaseDescription db = reader.readMetaData(getTestConnection());
+		final TableDescription master = findPublicTable(db, "TEST_MASTER");
+		assertTrue(master.getExportedKeyColumns().isEmpty());
+
+		getTestConnection().createStatement().execute(
+				"create table test_detail (id numeric(10), master_id numeric(10) references test_master (id))");
+		Set<SchemaDescription> changed = reader.refreshTables(getTestConnection(), db,
+				Collections.singletonList(Arrays.asList("TEST_DETAIL")), false);
+		assertEquals(1, changed.size());
+		assertEquals("PUBLIC", changed.iterator().next().getName());
+		assertEquals(2, findPublicTable(db, "TEST_DETAIL").getColumns().size());
+		assertEquals(1, findPublicTable(db, "TEST_DETAIL").getImportedKeyColumns().size());
+		// über den Fremdschlüssel verbundene Tabelle wurde ebenfalls neu
+		// gelesen
+		assertEquals(1, findPublicTable(db, "TEST_MASTER").getExportedKeyColumns().size());
+
+		getTestConnection().createStatement().execute("drop table test_detail");
+		changed = reader.refreshTables(getTestConnection(), db,
+				Collections.singletonList(Arrays.asList("PUBLIC", "TEST_DETAIL")), false);
+		assertEquals(1, changed.size());
+		assertNull(findPublicTable(db, "TEST_DETAIL"));
+		assertTrue(findPublicTable(db, "TEST_MASTER").getExportedKeyColumns().isEmpty());
+
+		assertNull(reader.refreshTables(getTestConnection(), db,
+				Collections.singletonList(Arrays.asList("NO_SUCH_SCHEMA", "TEST_MASTER")), false));
+	}
+
+	private TableDescription findPublicTable(final DatabaseDescription db, final String tableName) {
+		for (final SchemaDescription schema : db.getCatalogs().iterator().next().getSchemas()) {
+			if (schema.getName().equals("PUBLIC")) {
+				for (final TableDescription table : schema.getTables()) {
+					if (table.getName().equals(tableName)) {
+						return table;
+					}
+				}
+			}
+		}
+		return null;
+	}
+
 }
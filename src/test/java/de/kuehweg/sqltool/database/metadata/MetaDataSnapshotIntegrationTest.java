@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database.metadata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.kuehweg.sqltool.database.integration.AbstractBaseIntegration;
+import de.kuehweg.sqltool.database.metadata.description.DatabaseDescription;
+import de.kuehweg.sqltool.database.metadata.description.TableDescription;
+
+/**
+ * @author Michael Kühweg
+ */
+public class MetaDataSnapshotIntegrationTest extends AbstractBaseIntegration {
+
+	public MetaDataSnapshotIntegrationTest() {
+	}
+
+	@BeforeClass
+	public static void setUpClass() {
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+	}
+
+	@Before
+	public void setUp() throws SQLException {
+		openTestConnection();
+		getTestConnection().createStatement().execute("create table test_master (id numeric(10) primary key)");
+		getTestConnection().createStatement().execute(
+				"create table test_detail (id numeric(10), master_id numeric(10) references test_master (id))");
+		getTestConnection().createStatement().execute("create index idx_detail on test_detail (id)");
+	}
+
+	@After
+	public void tearDown() throws SQLException {
+		dropPublicSchema();
+		closeTestConnection();
+	}
+
+	@Test
+	public void writeAndReadSnapshot() throws SQLException, IOException {
+		final DatabaseDescription db = new MetaDataReader().readMetaData(getTestConnection());
+		db.getCatalogs().get(0).getSchema("PUBLIC").getTable("TEST_MASTER").markDetailsPending();
+		final MetaDataFingerprint fingerprint = MetaDataFingerprint.read(getTestConnection());
+
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new MetaDataSnapshot(db, fingerprint).writeTo(out);
+		final MetaDataSnapshot snapshot = MetaDataSnapshot.readFrom(new ByteArrayInputStream(out.toByteArray()));
+
+		final DatabaseDescription restored = snapshot.getDatabaseDescription();
+		assertEquals(db.getName(), restored.getName());
+		assertEquals(db.getDbProductName(), restored.getDbProductName());
+		final TableDescription detail = publicTable(db, "TEST_DETAIL");
+		final TableDescription restoredDetail = publicTable(restored, "TEST_DETAIL");
+		assertEquals(detail.getColumns(), restoredDetail.getColumns());
+		assertEquals(detail.getIndices(), restoredDetail.getIndices());
+		assertEquals(detail.getImportedKeyColumns(), restoredDetail.getImportedKeyColumns());
+		assertEquals(publicTable(db, "TEST_MASTER").getExportedKeyColumns(),
+				publicTable(restored, "TEST_MASTER").getExportedKeyColumns());
+		assertEquals(publicTable(db, "TEST_MASTER").getPrimaryKeyColumns(),
+				publicTable(restored, "TEST_MASTER").getPrimaryKeyColumns());
+		assertEquals(detail.getColumn("MASTER_ID").getNullable(),
+				restoredDetail.getColumn("MASTER_ID").getNullable());
+		assertTrue(publicTable(restored, "TEST_MASTER").isDetailsPending());
+		assertEquals(fingerprint.getTableSignatures(), snapshot.getFingerprint().getTableSignatures());
+	}
+
+	@Test(expected = IOException.class)
+	public void rejectForeignFormat() throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (GZIPOutputStream zip = new GZIPOutputStream(out)) {
+			zip.write(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+		}
+		MetaDataSnapshot.readFrom(new ByteArrayInputStream(out.toByteArray()));
+	}
+
+	@Test
+	public void fingerprintShowsChangedTables() throws SQLException {
+		final MetaDataFingerprint before = readFingerprint();
+		assertTrue(readFingerprint().changedTables(before).isEmpty());
+
+		getTestConnection().createStatement().execute("alter table test_detail add column remark varchar(100)");
+		getTestConnection().createStatement().execute("create table test_other (id numeric(10))");
+		final Collection<List<String>> changed = readFingerprint().changedTables(before);
+		assertEquals(2, changed.size());
+		assertTrue(changed.contains(Arrays.asList("PUBLIC", "TEST_DETAIL")));
+		assertTrue(changed.contains(Arrays.asList("PUBLIC", "TEST_OTHER")));
+	}
+
+	@Test
+	public void applyDifferencesToSnapshot() throws SQLException {
+		final DatabaseDescription db = new MetaDataReader().readMetaData(getTestConnection());
+		final MetaDataFingerprint before = readFingerprint();
+
+		getTestConnection().createStatement().execute("alter table test_detail add column remark varchar(100)");
+		getTestConnection().createStatement().execute("drop index idx_detail");
+		final Collection<List<String>> changed = readFingerprint().changedTables(before);
+		assertEquals(1, changed.size());
+		assertNotNull(new MetaDataReader().refreshTables(getTestConnection(), db, changed, false));
+		assertNotNull(publicTable(db, "TEST_DETAIL").getColumn("REMARK"));
+		assertEquals(3, publicTable(db, "TEST_DETAIL").getColumns().size());
+	}
+
+	@Test
+	public void fingerprintWithoutDriverQueriesShowsNewTables() throws SQLException {
+		final MetaDataFingerprint before = MetaDataFingerprint.read(getTestConnection(),
+				new PerTableSubObjectReadStrategy().fingerprintQueries());
+		getTestConnection().createStatement().execute("create table test_other (id numeric(10))");
+		assertEquals(Arrays.asList(Arrays.asList("PUBLIC", "TEST_OTHER")),
+				new ArrayList<>(MetaDataFingerprint.read(getTestConnection(), Collections.emptyList())
+						.changedTables(before)));
+	}
+
+	@Test
+	public void saveAndLoadSnapshotPerConnection() throws SQLException, IOException {
+		final Path directory = Files.createTempDirectory("snapshot");
+		try {
+			final MetaDataSnapshotStore store = new MetaDataSnapshotStore(directory);
+			assertNull(store.load("jdbc:hsqldb:file:test", "SA"));
+
+			final DatabaseDescription db = new MetaDataReader().readMetaData(getTestConnection());
+			store.save("jdbc:hsqldb:file:test", "SA",
+					new MetaDataSnapshot(db, MetaDataFingerprint.read(getTestConnection())));
+			assertNotNull(store.load("jdbc:hsqldb:file:test", "SA"));
+			assertNull(store.load("jdbc:hsqldb:file:test", "OTHER"));
+
+			Files.write(store.snapshotFile("jdbc:hsqldb:file:test", "SA"), new byte[] { 1, 2, 3 });
+			assertNull(store.load("jdbc:hsqldb:file:test", "SA"));
+		} finally {
+			try (Stream<Path> files = Files.list(directory)) {
+				for (final Path file : (Iterable<Path>) files::iterator) {
+					Files.delete(file);
+				}
+			}
+			Files.delete(directory);
+		}
+	}
+
+	@Test
+	public void noSnapshotsForInMemoryDatabases() {
+		assertTrue(MetaDataSnapshotStore.isSnapshotWorthy("jdbc:hsqldb:file:test"));
+		assertFalse(MetaDataSnapshotStore.isSnapshotWorthy("jdbc:hsqldb:mem:test"));
+	}
+
+	private MetaDataFingerprint readFingerprint() throws SQLException {
+		return MetaDataFingerprint.read(getTestConnection(),
+				new InformationSchemaSubObjectReadStrategy().fingerprintQueries());
+	}
+
+	private TableDescription publicTable(final DatabaseDescription db, final String tableName) {
+		return db.getCatalogs().get(0).getSchema("PUBLIC").getTable(tableName);
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.database.metadata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.kuehweg.sqltool.common.exception.DatabaseConnectionException;
+import de.kuehweg.sqltool.database.ConnectionHolder;
+import de.kuehweg.sqltool.database.ConnectionSetting;
+import de.kuehweg.sqltool.database.JDBCType;
+import de.kuehweg.sqltool.database.metadata.description.DatabaseDescription;
+import de.kuehweg.sqltool.database.metadata.description.TableDescription;
+
+/**
+ * @author Michael Kühweg
+ */
+public class ParallelPerTableSubObjectReadStrategyTest {
+
+	private static final int TABLES = 12;
+
+	private ConnectionHolder connectionHolder;
+
+	public ParallelPerTableSubObjectReadStrategyTest() {
+	}
+
+	@BeforeClass
+	public static void setUpClass() {
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+	}
+
+	@Before
+	public void setUp() throws DatabaseConnectionException, SQLException {
+		connectionHolder = new ConnectionHolder();
+		connectionHolder.connect(
+				new ConnectionSetting("metadata", JDBCType.HSQL_IN_MEMORY, "", "parallelmetadata", "SA", ""));
+		connectionHolder.setMetaDataConcurrency(3);
+		try (Statement statement = connectionHolder.getStatement()) {
+			statement.execute("create table master (id int primary key, name varchar(10))");
+			for (int i = 0; i < TABLES; i++) {
+				statement.execute(
+						"create table detail_" + i + " (id int primary key, master_id int references master (id))");
+				statement.execute("create index detail_" + i + "_idx on detail_" + i + " (master_id, id)");
+			}
+		}
+	}
+
+	@After
+	public void tearDown() throws SQLException {
+		try (Statement statement = connectionHolder.getStatement()) {
+			statement.execute("SHUTDOWN");
+		}
+		connectionHolder.disconnect();
+	}
+
+	@Test
+	public void parallelReadMatchesSequentialRead() {
+		final AtomicInteger progressCalls = new AtomicInteger();
+		final AtomicInteger maxTablesDone = new AtomicInteger();
+		final AtomicInteger tablesTotal = new AtomicInteger();
+		final MetaDataReader parallelReader = new MetaDataReader(new PerTableSubObjectReadStrategy());
+		parallelReader.setMetaDataConnections(connectionHolder.getMetaDataConnectionPool());
+		parallelReader.setProgressListener((done, total) -> {
+			progressCalls.incrementAndGet();
+			maxTablesDone.accumulateAndGet(done, Math::max);
+			tablesTotal.set(total);
+		});
+		final DatabaseDescription parallel = parallelReader.readMetaData(connectionHolder.getConnection());
+		final DatabaseDescription sequential = new MetaDataReader(new PerTableSubObjectReadStrategy())
+				.readMetaData(connectionHolder.getConnection());
+
+		final List<TableDescription> parallelTables = PerTableSubObjectReadStrategy.tablesOf(parallel);
+		final List<TableDescription> sequentialTables = PerTableSubObjectReadStrategy.tablesOf(sequential);
+		assertEquals(sequentialTables.size(), parallelTables.size());
+		for (int i = 0; i < parallelTables.size(); i++) {
+			final TableDescription parallelTable = parallelTables.get(i);
+			final TableDescription sequentialTable = sequentialTables.get(i);
+			assertEquals(sequentialTable.getFullyQualifiedName(), parallelTable.getFullyQualifiedName());
+			assertEquals(sequentialTable.getColumns(), parallelTable.getColumns());
+			assertEquals(sequentialTable.getPrimaryKeyColumns(), parallelTable.getPrimaryKeyColumns());
+			assertEquals(sequentialTable.getIndices(), parallelTable.getIndices());
+			assertEquals(sequentialTable.getImportedKeyColumns(), parallelTable.getImportedKeyColumns());
+			assertEquals(sequentialTable.getExportedKeyColumns(), parallelTable.getExportedKeyColumns());
+		}
+		for (final TableDescription table : parallelTables) {
+			if (table.getName().equals("MASTER")) {
+				assertEquals(TABLES, table.getExportedKeyColumns().size());
+			}
+			assertFalse(table.getTableType().equals("UNKNOWN"));
+		}
+
+		assertEquals(parallelTables.size(), tablesTotal.get());
+		assertEquals(parallelTables.size(), progressCalls.get());
+		assertEquals(parallelTables.size(), maxTablesDone.get());
+	}
+
+	@Test
+	public void noMetaDataConnectionsNeededForEmptyDescription() throws SQLException {
+		new ParallelPerTableSubObjectReadStrategy(connectionHolder.getMetaDataConnectionPool(), null)
+				.readTableSubObjects(new DatabaseDescription("db", "product", "version"),
+						connectionHolder.getConnection());
+	}
+
+}
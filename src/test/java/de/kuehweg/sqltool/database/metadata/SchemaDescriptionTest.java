@@ -26,6 +26,11 @@
 package de.kuehweg.sqltool.database.metadata;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
 
 import org.junit.After;
 import org.junit.AfterClass;
@@ -34,7 +39,9 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 
 import de.kuehweg.sqltool.database.metadata.description.CatalogDescription;
+import de.kuehweg.sqltool.database.metadata.description.ColumnDescription;
 import de.kuehweg.sqltool.database.metadata.description.DatabaseDescription;
+import de.kuehweg.sqltool.database.metadata.description.Nullability;
 import de.kuehweg.sqltool.database.metadata.description.SchemaDescription;
 import de.kuehweg.sqltool.database.metadata.description.TableDescription;
 
@@ -85,6 +92,60 @@ public class SchemaDescriptionTest {
 		assertEquals(1, schema.getTablesByType("TYPE-2").size());
 	}
 
+	@Test
+	public void lookupByNameAndCachedSortedTables() {
+		final DatabaseDescription db = new DatabaseDescription("db", "product", "version");
+		final CatalogDescription catalog = new CatalogDescription("CATALOG");
+		db.adoptOrphan(catalog);
+		final SchemaDescription schema = new SchemaDescription("SCHEMA");
+		catalog.adoptOrphan(schema);
+
+		final TableDescription tableB = new TableDescription("B", "TABLE", "REMARKS");
+		final TableDescription tableA = new TableDescription("A", "TABLE", "REMARKS");
+		schema.adoptOrphan(tableB);
+		schema.adoptOrphan(tableA);
+
+		assertSame(catalog, db.getCatalog("CATALOG"));
+		assertSame(schema, catalog.getSchema("SCHEMA"));
+		assertSame(tableA, schema.getTable("A"));
+		assertNull(schema.getTable("C"));
+		assertEquals("db.CATALOG.SCHEMA.A", tableA.getFullyQualifiedName());
+
+		final List<TableDescription> tables = schema.getTables();
+		assertEquals("A", tables.get(0).getName());
+		assertEquals("B", tables.get(1).getName());
+		assertSame(tables, schema.getTables());
+		assertSame(schema.getTablesByType("TABLE"), schema.getTablesByType("TABLE"));
+
+		assertSame(tableB, schema.removeTable("B"));
+		assertEquals("B", tableB.getFullyQualifiedName());
+		assertNotSame(tables, schema.getTables());
+		assertEquals(1, schema.getTables().size());
+		assertEquals(1, schema.getTablesByType("TABLE").size());
+	}
+
+	@Test
+	public void fullyQualifiedNameFollowsMovedAncestor() {
+		final SchemaDescription first = new SchemaDescription("FIRST");
+		final SchemaDescription second = new SchemaDescription("SECOND");
+		final TableDescription table = new TableDescription("A", "TABLE", "");
+		first.adoptOrphan(table);
+		final ColumnDescription column = new ColumnDescription("ID", "INTEGER", 10, 0, Nullability.NO, null, null);
+		table.adoptOrphan(column);
+		assertEquals("FIRST.A.ID", column.getFullyQualifiedName());
+
+		second.adoptOrphan(first.removeTable("A"));
+		assertEquals("SECOND.A.ID", column.getFullyQualifiedName());
+		assertSame(column.getFullyQualifiedName(), column.getFullyQualifiedName());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void tablesAreReadOnly() {
+		final SchemaDescription schema = new SchemaDescription("SCHEMA");
+		schema.adoptOrphan(new TableDescription("A", "TABLE", "REMARKS"));
+		schema.getTables().clear();
+	}
+
 	@Test
 	public void nullSafe() {
 		assertEquals("", new SchemaDescription(null).getName());
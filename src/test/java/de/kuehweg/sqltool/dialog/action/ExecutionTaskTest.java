@@ -25,21 +25,30 @@
  */
 package de.kuehweg.sqltool.dialog.action;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.List;
+
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import de.kuehweg.sqltool.database.ConnectionHolder;
+import de.kuehweg.sqltool.database.ConnectionSetting;
+import de.kuehweg.sqltool.database.JDBCType;
+import de.kuehweg.sqltool.database.execution.StatementExecutionInformation;
 import de.kuehweg.sqltool.database.execution.fake.ConnectionStubWithBasicMetaData;
 import de.kuehweg.sqltool.database.execution.fake.DatabaseMetaDataStubWithUrlAndUser;
 import de.kuehweg.sqltool.database.execution.fake.FakeStatement;
 import de.kuehweg.sqltool.database.execution.fake.FakeStatementThrowingExceptionOnExecute;
 import de.kuehweg.sqltool.database.execution.fake.ResultSetStubFromObjectArray;
+import de.kuehweg.sqltool.database.execution.fake.StatementStubWithBatchSupport;
 import de.kuehweg.sqltool.database.execution.fake.StatementStubWithFakeResultSet;
 
 /**
@@ -99,6 +108,180 @@ public class ExecutionTaskTest {
 		assertTrue(tracker.getErrorOnExecutionCalls() == 0);
 	}
 
+	@Test
+	public void streamingExecution() throws Exception {
+		statement = new StatementStubWithFakeResultSet(connection, resultSet);
+		final ExecutionTask execution = new ExecutionTask("select * from wherever;", statement);
+		execution.setFetchSize(10);
+		final ExecutionTrackerStub tracker = new ExecutionTrackerStub();
+		execution.attach(tracker);
+		execution.call();
+		assertNull(tracker.getMessage());
+		assertTrue(tracker.getResultPageCalls() == 1);
+		assertTrue(tracker.getIntermediateUpdateCalls() == 1);
+		assertTrue(tracker.getAfterExecutionCalls() == 1);
+	}
+
+	@Test
+	public void batchedExecution() throws Exception {
+		final StatementStubWithBatchSupport batchStatement = new StatementStubWithBatchSupport(connection);
+		final ExecutionTask execution = new ExecutionTask(
+				"insert into a values (1);;insert into a values (2);select * from a;update a set x = 1;", batchStatement);
+		execution.setBatchSize(10);
+		final ExecutionTrackerStub tracker = new ExecutionTrackerStub();
+		execution.attach(tracker);
+		execution.call();
+		assertNull(tracker.getMessage());
+		assertEquals(1, batchStatement.getExecuteBatchCalls());
+		assertEquals(4, batchStatement.getExecutedStatements().size());
+		assertEquals(4, tracker.getIntermediateUpdateCalls());
+	}
+
+	@Test
+	public void batchedExecutionReportsError() throws Exception {
+		final StatementStubWithBatchSupport batchStatement = new StatementStubWithBatchSupport(connection);
+		batchStatement.setFailingPrefix("delete");
+		final ExecutionTask execution = new ExecutionTask(
+				"insert into a values (1);delete from a;insert into a values (2);", batchStatement);
+		execution.setBatchSize(10);
+		final ExecutionTrackerStub tracker = new ExecutionTrackerStub();
+		execution.attach(tracker);
+		execution.call();
+		assertNotNull(tracker.getMessage());
+		assertEquals(1, batchStatement.getExecutedStatements().size());
+		assertEquals(1, tracker.getIntermediateUpdateCalls());
+		assertEquals(1, tracker.getErrorOnExecutionCalls());
+	}
+
+	@Test
+	public void parallelExecutionDeliversInScriptOrder() throws Exception {
+		final ConnectionHolder connectionHolder = new ConnectionHolder();
+		connectionHolder.connect(new ConnectionSetting("parallel", JDBCType.HSQL_IN_MEMORY, "", "parallel", "SA", ""));
+		try {
+			final ExecutionTask execution = new ExecutionTask("create table p (x int);"
+					+ "insert into p values (1);insert into p values (2);" + "select count(*) from p;"
+					+ "select x from p where x = 1;" + "select x from p where x = 2;" + "select 'last' from p;"
+					+ "insert into p values (3);" + "select count(*) from p;",
+					connectionHolder.getConnection().createStatement());
+			execution.setParallelConnections(connectionHolder.getParallelConnectionPool());
+			final ExecutionTrackerStub tracker = new ExecutionTrackerStub();
+			execution.attach(tracker);
+			execution.call();
+			assertNull(tracker.getMessage());
+			final List<StatementExecutionInformation> infos = tracker.getExecutionInfos();
+			assertEquals(9, infos.size());
+			assertEquals("select count(*) from p;", infos.get(3).getSql().originalStatement().trim());
+			assertEquals("select 'last' from p;", infos.get(6).getSql().originalStatement().trim());
+			assertEquals("2", infos.get(3).getStatementResult().getValueAsString(0, 0));
+			assertEquals("3", infos.get(8).getStatementResult().getValueAsString(0, 0));
+		} finally {
+			connectionHolder.getConnection().createStatement().execute("SHUTDOWN");
+			connectionHolder.disconnect();
+		}
+	}
+
+	@Test
+	public void cachedResultsAreStreamedAndInvalidatedByBatches() throws Exception {
+		final ConnectionHolder connectionHolder = new ConnectionHolder();
+		connectionHolder.connect(new ConnectionSetting("cached", JDBCType.HSQL_IN_MEMORY, "", "cached", "SA", ""));
+		connectionHolder.getResultCache().setEnabled(true);
+		try {
+			final ExecutionTask execution = new ExecutionTask("create table c (x int);insert into c values (1);"
+					+ "select * from c;select * from c;" + "insert into c values (2);insert into c values (3);"
+					+ "select * from c;", connectionHolder.getConnection().createStatement());
+			execution.setFetchSize(10);
+			execution.setBatchSize(10);
+			execution.setResultCache(connectionHolder.getResultCache());
+			final ExecutionTrackerStub tracker = new ExecutionTrackerStub();
+			execution.attach(tracker);
+			execution.call();
+			assertNull(tracker.getMessage());
+			final List<StatementExecutionInformation> infos = tracker.getExecutionInfos();
+			assertEquals(7, infos.size());
+			assertFalse(infos.get(2).isCached());
+			assertTrue(infos.get(3).isCached());
+			assertFalse(infos.get(6).isCached());
+			assertEquals(3, infos.get(6).getStatementResult().getRowCount());
+			assertEquals(3, tracker.getResultPageCalls());
+		} finally {
+			connectionHolder.getConnection().createStatement().execute("SHUTDOWN");
+			connectionHolder.disconnect();
+		}
+	}
+
+	@Test
+	public void parallelExecutionReportsErrorInScriptOrder() throws Exception {
+		final ConnectionHolder connectionHolder = new ConnectionHolder();
+		connectionHolder.connect(new ConnectionSetting("parallel", JDBCType.HSQL_IN_MEMORY, "", "parallelerr", "SA", ""));
+		try {
+			final ExecutionTask execution = new ExecutionTask(
+					"create table p (x int);select x from p;select y from p;select x from p;",
+					connectionHolder.getConnection().createStatement());
+			execution.setParallelConnections(connectionHolder.getParallelConnectionPool());
+			final ExecutionTrackerStub tracker = new ExecutionTrackerStub();
+			execution.attach(tracker);
+			execution.call();
+			assertNotNull(tracker.getMessage());
+			assertEquals(2, tracker.getIntermediateUpdateCalls());
+			assertEquals(1, tracker.getErrorOnExecutionCalls());
+		} finally {
+			connectionHolder.getConnection().createStatement().execute("SHUTDOWN");
+			connectionHolder.disconnect();
+		}
+	}
+
+	@Test
+	public void parallelExecutionAfterSetSchema() throws Exception {
+		final ConnectionHolder connectionHolder = new ConnectionHolder();
+		connectionHolder.connect(new ConnectionSetting("parallel", JDBCType.HSQL_IN_MEMORY, "", "parallelschema", "SA", ""));
+		try {
+			final ExecutionTask execution = new ExecutionTask("create schema s;create table s.p (x int);"
+					+ "insert into s.p values (1);insert into s.p values (2);set schema s;"
+					+ "select count(*) from p;select x from p where x = 2;",
+					connectionHolder.getConnection().createStatement());
+			execution.setParallelConnections(connectionHolder.getParallelConnectionPool());
+			final ExecutionTrackerStub tracker = new ExecutionTrackerStub();
+			execution.attach(tracker);
+			execution.call();
+			assertNull(tracker.getMessage());
+			final List<StatementExecutionInformation> infos = tracker.getExecutionInfos();
+			assertEquals(7, infos.size());
+			assertEquals("2", infos.get(5).getStatementResult().getValueAsString(0, 0));
+			assertEquals("2", infos.get(6).getStatementResult().getValueAsString(0, 0));
+			assertTrue(connectionHolder.getParallelConnectionPool().isSessionStateChanged());
+		} finally {
+			connectionHolder.getConnection().createStatement().execute("SHUTDOWN");
+			connectionHolder.disconnect();
+		}
+	}
+
+	@Test
+	public void parallelExecutionUsesSchemaOfConnection() throws Exception {
+		final ConnectionHolder connectionHolder = new ConnectionHolder();
+		connectionHolder.connect(new ConnectionSetting("parallel", JDBCType.HSQL_IN_MEMORY, "", "parallelcopy", "SA", ""));
+		try {
+			connectionHolder.getConnection().createStatement().execute("create schema s");
+			connectionHolder.getConnection().createStatement().execute("create table s.p (x int)");
+			connectionHolder.getConnection().createStatement().execute("insert into s.p values (1)");
+			connectionHolder.getConnection().setSchema("S");
+			final ExecutionTask execution = new ExecutionTask("select count(*) from p;select x from p;",
+					connectionHolder.getConnection().createStatement());
+			execution.setParallelConnections(connectionHolder.getParallelConnectionPool());
+			final ExecutionTrackerStub tracker = new ExecutionTrackerStub();
+			execution.attach(tracker);
+			execution.call();
+			assertNull(tracker.getMessage());
+			final List<StatementExecutionInformation> infos = tracker.getExecutionInfos();
+			assertEquals(2, infos.size());
+			assertEquals("1", infos.get(0).getStatementResult().getValueAsString(0, 0));
+			assertEquals("1", infos.get(1).getStatementResult().getValueAsString(0, 0));
+			assertFalse(connectionHolder.getParallelConnectionPool().isSessionStateChanged());
+		} finally {
+			connectionHolder.getConnection().createStatement().execute("SHUTDOWN");
+			connectionHolder.disconnect();
+		}
+	}
+
 	@Test
 	public void errorOnExecution() throws Exception {
 		statement = new FakeStatementThrowingExceptionOnExecute(connection, resultSet);
@@ -25,6 +25,10 @@
  */
 package de.kuehweg.sqltool.dialog.action;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import de.kuehweg.sqltool.database.execution.ResultRow;
 import de.kuehweg.sqltool.database.execution.StatementExecutionInformation;
 import de.kuehweg.sqltool.dialog.updater.ExecutionLifecyclePhase;
 import de.kuehweg.sqltool.dialog.updater.ExecutionLifecycleRefresh;
@@ -42,12 +46,15 @@ public class ExecutionTrackerStub implements ExecutionTracker {
 
 	private int beforeExecutionCalls;
 	private int intermediateUpdateCalls;
+	private int resultPageCalls;
 	private int afterExecutionCalls;
 	private int errorOnExecutionCalls;
 	private int showCalls;
 
 	private String message;
 
+	private final List<StatementExecutionInformation> executionInfos = new ArrayList<>();
+
 	@Override
 	public void beforeExecution() {
 		beforeExecutionCalls++;
@@ -56,6 +63,12 @@ public class ExecutionTrackerStub implements ExecutionTracker {
 	@Override
 	public void intermediateUpdate(final StatementExecutionInformation executionInfo) {
 		intermediateUpdateCalls++;
+		executionInfos.add(executionInfo);
+	}
+
+	@Override
+	public void resultPage(final StatementExecutionInformation executionInfo, final List<ResultRow> page) {
+		resultPageCalls++;
 	}
 
 	@Override
@@ -90,6 +103,18 @@ public class ExecutionTrackerStub implements ExecutionTracker {
 		this.intermediateUpdateCalls = intermediateUpdateCalls;
 	}
 
+	public List<StatementExecutionInformation> getExecutionInfos() {
+		return executionInfos;
+	}
+
+	public int getResultPageCalls() {
+		return resultPageCalls;
+	}
+
+	public void setResultPageCalls(final int resultPageCalls) {
+		this.resultPageCalls = resultPageCalls;
+	}
+
 	public int getAfterExecutionCalls() {
 		return afterExecutionCalls;
 	}
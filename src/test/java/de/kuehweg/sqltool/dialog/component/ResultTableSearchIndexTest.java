@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.dialog.component;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.kuehweg.sqltool.dialog.component.ResultTableSearchIndex.Matches;
+
+/**
+ * @author Michael Kühweg
+ */
+public class ResultTableSearchIndexTest {
+
+	private List<String> first;
+	private List<String> second;
+	private List<String> third;
+	private ResultTableSearchIndex index;
+
+	public ResultTableSearchIndexTest() {
+	}
+
+	@BeforeClass
+	public static void setUpClass() {
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+	}
+
+	@Before
+	public void setUp() {
+		first = Arrays.asList("1", "Anna", "Berlin");
+		second = Arrays.asList("2", "Hannes", null);
+		third = Arrays.asList("3", "Otto", "Hannover");
+		index = new ResultTableSearchIndex(Arrays.asList(first, second, third));
+	}
+
+	@After
+	public void tearDown() {
+	}
+
+	@Test
+	public void matchingCells() {
+		final Matches matches = index.find("ann");
+		assertEquals(3, matches.getCount());
+		assertTrue(matches.isMatch(first, 1));
+		assertFalse(matches.isMatch(first, 2));
+		assertTrue(matches.isMatch(second, 1));
+		assertFalse(matches.isMatch(second, 2));
+		assertTrue(matches.isMatch(third, 2));
+		assertFalse(matches.isMatch(third, 1));
+	}
+
+	@Test
+	public void matchingRows() {
+		final Matches matches = index.find("berlin");
+		assertEquals(1, matches.getCount());
+		assertTrue(matches.isMatch(first));
+		assertFalse(matches.isMatch(second));
+		assertFalse(matches.isMatch(third));
+	}
+
+	@Test
+	public void rowsAreIdentifiedByIdentity() {
+		final Matches matches = index.find("anna");
+		assertTrue(matches.isMatch(first));
+		assertFalse(matches.isMatch(Arrays.asList("1", "Anna", "Berlin")));
+		assertFalse(matches.isMatch(first, 3));
+	}
+
+	@Test
+	public void emptySearchString() {
+		assertEquals(0, index.find("").getCount());
+		assertEquals(0, index.find(null).getCount());
+		assertEquals(0, new ResultTableSearchIndex(Collections.emptyList()).find("a").getCount());
+	}
+}
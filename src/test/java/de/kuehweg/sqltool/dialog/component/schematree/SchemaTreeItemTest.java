@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.dialog.component.schematree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.kuehweg.sqltool.database.metadata.description.CatalogDescription;
+import de.kuehweg.sqltool.database.metadata.description.ColumnDescription;
+import de.kuehweg.sqltool.database.metadata.description.DatabaseDescription;
+import de.kuehweg.sqltool.database.metadata.description.Nullability;
+import de.kuehweg.sqltool.database.metadata.description.SchemaDescription;
+import de.kuehweg.sqltool.database.metadata.description.TableDescription;
+import de.kuehweg.sqltool.dialog.component.schematree.node.SchemaTreeNode;
+import de.kuehweg.sqltool.dialog.component.schematree.node.SchemaTreeNodeBuilder;
+import de.kuehweg.sqltool.dialog.component.schematree.node.SchemaTreeNodeType;
+import javafx.scene.control.TreeItem;
+
+/**
+ * @author Michael Kühweg
+ */
+public class SchemaTreeItemTest {
+
+	private int createdItems;
+
+	public SchemaTreeItemTest() {
+	}
+
+	@BeforeClass
+	public static void setUpClass() {
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+	}
+
+	@Before
+	public void setUp() {
+		createdItems = 0;
+	}
+
+	@After
+	public void tearDown() {
+	}
+
+	@Test
+	public void childrenAreCreatedOnDemand() {
+		final DatabaseDescription db = databaseWithOneTable();
+		final SchemaTreeBuilder builder = new SchemaTreeBuilder(db, null) {
+			@Override
+			TreeItem<String> createTreeItem(final SchemaTreeNode node) {
+				createdItems++;
+				return super.createTreeItem(node);
+			}
+		};
+		final TreeItem<String> root = builder.createTreeItem(new SchemaTreeNodeBuilder(db).getRootOfPopulatedTree());
+		assertEquals(1, createdItems);
+		assertFalse(root.isLeaf());
+		assertEquals(1, createdItems);
+
+		// Produktinfo und Catalog
+		assertEquals(2, root.getChildren().size());
+		assertEquals(3, createdItems);
+		assertSame(root.getChildren().get(1), root.getChildren().get(1));
+		assertEquals(3, createdItems);
+		assertEquals("CATALOG", root.getChildren().get(1).getValue());
+	}
+
+	@Test
+	public void leafWithoutChildren() {
+		final SchemaTreeBuilder builder = new SchemaTreeBuilder(databaseWithOneTable(), null);
+		final TreeItem<String> item = builder.createTreeItem(new SchemaTreeNode(SchemaTreeNodeType.PLAIN, "leaf"));
+		assertTrue(item.isLeaf());
+		assertTrue(item.getChildren().isEmpty());
+		assertTrue(item.isLeaf());
+	}
+
+	@Test
+	public void mergeKeepsUnchangedItems() {
+		final DatabaseDescription db = databaseWithOneTable();
+		final SchemaTreeBuilder builder = new SchemaTreeBuilder(db, null);
+		final SchemaTreeItem root = (SchemaTreeItem) builder
+				.createTreeItem(new SchemaTreeNodeBuilder(db).getRootOfPopulatedTree());
+		final TreeItem<String> catalog = root.getChildren().get(1);
+		catalog.setExpanded(true);
+		final TreeItem<String> schema = catalog.getChildren().get(0);
+		schema.setExpanded(true);
+		final TreeItem<String> tableType = schema.getChildren().get(0);
+		tableType.setExpanded(true);
+		final TreeItem<String> table = tableType.getChildren().get(0);
+		assertEquals("TABLE", table.getValue());
+
+		final DatabaseDescription changedDb = databaseWithOneTable();
+		final SchemaDescription changedSchema = changedDb.getCatalog("CATALOG").getSchema("SCHEMA");
+		changedSchema.removeTable("TABLE");
+		changedSchema.adoptOrphan(new TableDescription("ANOTHER_TABLE", "TABLE", ""));
+		changedSchema.adoptOrphan(new TableDescription("TABLE", "TABLE", ""));
+		final SchemaTreeBuilder changedBuilder = new SchemaTreeBuilder(changedDb, null);
+		changedBuilder.merge(root, new SchemaTreeNodeBuilder(changedDb).getRootOfPopulatedTree());
+
+		assertSame(catalog, root.getChildren().get(1));
+		assertSame(schema, catalog.getChildren().get(0));
+		assertSame(tableType, schema.getChildren().get(0));
+		assertTrue(tableType.isExpanded());
+		assertEquals(2, tableType.getChildren().size());
+		assertEquals("ANOTHER_TABLE", tableType.getChildren().get(0).getValue());
+		assertSame(table, tableType.getChildren().get(1));
+		// Spalten der Tabelle sind in der neuen Beschreibung entfallen
+		assertTrue(table.isLeaf());
+	}
+
+	private DatabaseDescription databaseWithOneTable() {
+		final DatabaseDescription db = new DatabaseDescription("db", "product", "version");
+		final CatalogDescription catalog = new CatalogDescription("CATALOG");
+		db.adoptOrphan(catalog);
+		final SchemaDescription schema = new SchemaDescription("SCHEMA");
+		catalog.adoptOrphan(schema);
+		final TableDescription table = new TableDescription("TABLE", "TABLE", "");
+		schema.adoptOrphan(table);
+		table.adoptOrphan(new ColumnDescription("COLUMN", "INTEGER", 10, 0, Nullability.YES, null, null));
+		return db;
+	}
+}
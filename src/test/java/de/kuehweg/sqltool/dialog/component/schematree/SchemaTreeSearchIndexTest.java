@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2019, Michael Kühweg
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.kuehweg.sqltool.dialog.component.schematree;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.kuehweg.sqltool.database.metadata.description.CatalogDescription;
+import de.kuehweg.sqltool.database.metadata.description.ColumnDescription;
+import de.kuehweg.sqltool.database.metadata.description.DatabaseDescription;
+import de.kuehweg.sqltool.database.metadata.description.Nullability;
+import de.kuehweg.sqltool.database.metadata.description.SchemaDescription;
+import de.kuehweg.sqltool.database.metadata.description.TableDescription;
+import de.kuehweg.sqltool.dialog.component.schematree.node.SchemaTreeNode;
+import de.kuehweg.sqltool.dialog.component.schematree.node.SchemaTreeNodeBuilder;
+import javafx.scene.control.TreeItem;
+
+/**
+ * @author Michael Kühweg
+ */
+public class SchemaTreeSearchIndexTest {
+
+	public SchemaTreeSearchIndexTest() {
+	}
+
+	@BeforeClass
+	public static void setUpClass() {
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+	}
+
+	@Before
+	public void setUp() {
+	}
+
+	@After
+	public void tearDown() {
+	}
+
+	@Test
+	public void findAndCount() {
+		final SchemaTreeSearchIndex index = new SchemaTreeSearchIndex(rootNode(databaseWithTables()));
+		assertEquals(2, index.find("custom").length);
+		assertEquals(index.find("custom").length, index.find("ustom").length);
+		assertEquals(0, index.find("nothing").length);
+		assertEquals(0, index.find("").length);
+		final int[] matches = index.find("order");
+		assertEquals(2, matches.length);
+		assertFalse(matches[0] >= matches[1]);
+	}
+
+	@Test
+	public void shortSearchStrings() {
+		final SchemaTreeSearchIndex index = new SchemaTreeSearchIndex(rootNode(databaseWithTables()));
+		assertArrayEquals(index.find("_id"), index.find("_i"));
+		assertEquals(2, index.find("_i").length);
+	}
+
+	@Test
+	public void treeItemOfNodeNotYetLoaded() {
+		final DatabaseDescription db = databaseWithTables();
+		final SchemaTreeNode node = rootNode(db);
+		final SchemaTreeSearchIndex index = new SchemaTreeSearchIndex(node);
+		final TreeItem<String> root = new SchemaTreeBuilder(db, null).createTreeItem(node);
+
+		final int[] matches = index.find("order_id");
+		assertEquals(1, matches.length);
+		final TreeItem<String> item = index.treeItemAt(root, matches[0]);
+		assertEquals("ORDER_ID", item.getValue().substring(0, "ORDER_ID".length()));
+		assertEquals("ORDERS", item.getParent().getValue());
+		assertNull(index.treeItemAt(root, index.size()));
+	}
+
+	@Test
+	public void staleIndexDoesNotResolveReplacedItems() {
+		final DatabaseDescription db = databaseWithTables();
+		final SchemaTreeNode node = rootNode(db);
+		final SchemaTreeSearchIndex index = new SchemaTreeSearchIndex(node);
+		final TreeItem<String> root = new SchemaTreeBuilder(db, null).createTreeItem(node);
+
+		final int orders = index.find("orders")[0];
+		final TreeItem<String> ordersItem = index.treeItemAt(root, orders);
+		ordersItem.getParent().getChildren().set(ordersItem.getParent().getChildren().indexOf(ordersItem),
+				new TreeItem<>("INVOICES"));
+		assertNull(index.treeItemAt(root, orders));
+		assertNull(index.treeItemAt(root, index.find("order_id")[0]));
+		assertEquals("CUSTOMERS", index.treeItemAt(root, index.find("customers")[0]).getValue());
+	}
+
+	@Test
+	public void indexOfTreeItems() {
+		final DatabaseDescription db = databaseWithTables();
+		final SchemaTreeNode node = rootNode(db);
+		final TreeItem<String> root = new SchemaTreeBuilder(db, null).createTreeItem(node);
+		// nur teilweise angelegte Elemente werden über die Knoten ergänzt
+		root.getChildren().get(1).getChildren();
+		final SchemaTreeSearchIndex fromItems = new SchemaTreeSearchIndex(root);
+		final SchemaTreeSearchIndex fromNodes = new SchemaTreeSearchIndex(node);
+		assertEquals(fromNodes.size(), fromItems.size());
+		assertArrayEquals(fromNodes.find("custom"), fromItems.find("custom"));
+	}
+
+	private SchemaTreeNode rootNode(final DatabaseDescription db) {
+		return new SchemaTreeNodeBuilder(db).getRootOfPopulatedTree();
+	}
+
+	private DatabaseDescription databaseWithTables() {
+		final DatabaseDescription db = new DatabaseDescription("db", "product", "version");
+		final CatalogDescription catalog = new CatalogDescription("CATALOG");
+		db.adoptOrphan(catalog);
+		final SchemaDescription schema = new SchemaDescription("SCHEMA");
+		catalog.adoptOrphan(schema);
+		final TableDescription customers = new TableDescription("CUSTOMERS", "TABLE", "");
+		schema.adoptOrphan(customers);
+		customers.adoptOrphan(new ColumnDescription("CUSTOMER_ID", "INTEGER", 10, 0, Nullability.NO, null, null));
+		final TableDescription orders = new TableDescription("ORDERS", "TABLE", "");
+		schema.adoptOrphan(orders);
+		orders.adoptOrphan(new ColumnDescription("ORDER_ID", "INTEGER", 10, 0, Nullability.NO, null, null));
+		return db;
+	}
+}
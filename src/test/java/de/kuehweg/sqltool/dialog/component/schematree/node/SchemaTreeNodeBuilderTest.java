@@ -26,6 +26,7 @@
 package de.kuehweg.sqltool.dialog.component.schematree.node;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.After;
@@ -507,4 +508,35 @@ public class SchemaTreeNodeBuilderTest {
 		assertEquals(SchemaTreeNodeType.INDEX_COLUMN, accessIndexUnique.getChildren().get(1).getType());
 	}
 
+	@Test
+	public void tableWithPendingDetails() {
+		final DatabaseDescription db = new DatabaseDescription("db", "product", "version");
+
+		final CatalogDescription catalog = new CatalogDescription("catalog");
+		final SchemaDescription schema = new SchemaDescription("schema");
+		final TableDescription table = new TableDescription("table", "TABLE", null);
+		table.markDetailsPending();
+
+		schema.adoptOrphan(table);
+		catalog.adoptOrphan(schema);
+		db.adoptOrphan(catalog);
+
+		final SchemaTreeNodeBuilder builder = new SchemaTreeNodeBuilder(db);
+		final SchemaTreeNode accessTable = builder.getRootOfPopulatedTree().getChildren().get(1).getChildren().get(0)
+				.getChildren().get(0).getChildren().get(0);
+
+		assertEquals(SchemaTreeNodeType.TABLE, accessTable.getType());
+		assertEquals(table, accessTable.getTableWithPendingDetails());
+		assertEquals(1, accessTable.getChildren().size());
+		assertEquals(SchemaTreeNodeType.PLAIN, accessTable.getChildren().get(0).getType());
+
+		table.adoptOrphan(new ColumnDescription("column", "VARCHAR", 10, 0, Nullability.NO, null, null));
+		table.markDetailsLoaded();
+		final SchemaTreeNode reloadedTable = builder.buildTableNode(table);
+
+		assertNull(reloadedTable.getTableWithPendingDetails());
+		assertEquals(1, reloadedTable.getChildren().size());
+		assertEquals(SchemaTreeNodeType.COLUMN, reloadedTable.getChildren().get(0).getType());
+	}
+
 }